@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import android.app.Instrumentation;
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 会话生命周期浸泡测试，在设备上反复用模拟器后端创建真实的卫星会话并自动连接，运行片刻后按应用中的顺序销毁
+ * 每轮销毁后要求会话创建的线程全部退出，结束时线程总数回到基线，检查的是应用实际的释放路径而不是组件的副本
+ *
+ * @since 2026-10-17
+ */
+@RunWith(AndroidJUnit4.class)
+public class SessionLifecycleSoakTest {
+    private static final int CYCLES = 20;
+    /* 每轮会话运行的时长，足够让自动连接的各步骤、对星和信号回调都经过一次 */
+    private static final long SESSION_RUN_MILLIS = 500L;
+    private static final long SETTLE_TIMEOUT_MILLIS = 5000L;
+    /* 会话及其组件创建的线程 */
+    private static final Set<String> SESSION_THREADS = new HashSet<>(Arrays.asList("SatSessionInit", "SatClient",
+            "SatClientTimer", "SatOrchestrator", "SatSlotManager", "SatDutyCycle", "SatOutbox", "SatSmsQueue",
+            "SatSmsBatcher", "SatCapability", "SatInbound", "SatPointingCache", "SatSimulator", "LogFileSpill"));
+    /* 回调通道线程按序号命名 */
+    private static final String CALLBACK_THREAD_PREFIX = "SatCallback-";
+
+    @Test
+    public void releasedSessionsLeaveNoThreads()
+            throws InterruptedException, ExecutionException, TimeoutException {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        Context context = instrumentation.getTargetContext();
+        instrumentation.runOnMainSync(SatelliteSession::releaseInstance);
+        List<String> before = awaitSessionThreadsExit();
+        assertTrue("session threads before the soak: " + before, before.isEmpty());
+        int baseThreads = Thread.getAllStackTraces().size();
+
+        for (int cycle = 0; cycle < CYCLES; cycle++) {
+            /* 会话在后台线程上创建，就绪后与应用一样在主线程上启动对星预测和自动连接 */
+            SatelliteSession session = SatelliteSession.obtain(context, true)
+                    .get(SETTLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            instrumentation.runOnMainSync(() -> {
+                session.startPointingPrediction();
+                session.startAutoConnect(-1, session.getMetrics().nowNanos());
+            });
+            TimeUnit.MILLISECONDS.sleep(SESSION_RUN_MILLIS);
+            instrumentation.runOnMainSync(SatelliteSession::releaseInstance);
+            List<String> leaked = awaitSessionThreadsExit();
+            assertTrue("cycle " + cycle + " leaked threads: " + leaked, leaked.isEmpty());
+        }
+        int endThreads = Thread.getAllStackTraces().size();
+        assertTrue("threads " + baseThreads + " -> " + endThreads, endThreads <= baseThreads);
+    }
+
+    /**
+     * 等待会话线程退出，线程池关闭后工作线程异步结束
+     *
+     * @return names of the session threads still alive after the timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private static List<String> awaitSessionThreadsExit() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + SETTLE_TIMEOUT_MILLIS;
+        List<String> alive = liveSessionThreads();
+        while (!alive.isEmpty() && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+            alive = liveSessionThreads();
+        }
+        return alive;
+    }
+
+    private static List<String> liveSessionThreads() {
+        List<String> names = new ArrayList<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            String name = thread.getName();
+            if (thread.isAlive() && (SESSION_THREADS.contains(name) || name.startsWith(CALLBACK_THREAD_PREFIX))) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import android.Manifest;
+import android.app.PendingIntent;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.net.Uri;
+import android.os.Trace;
+import android.provider.Telephony;
+import android.telephony.SmsMessage;
+import android.telephony.SubscriptionManager;
+import android.util.Log;
+
+import com.example.satellite.backend.SatSim;
+import com.example.satellite.backend.SatelliteBackend;
+import com.example.satellite.inbound.SmsConcatHeader;
+import com.hihonor.android.telephony.satellite.HnAvailableSatSim;
+import com.hihonor.android.telephony.satellite.HnSatelliteManager;
+import com.hihonor.android.telephony.satellite.HnSatellitePointingCallback;
+import com.hihonor.android.telephony.satellite.HnSatellitePointingUpdates;
+import com.hihonor.android.telephony.satellite.HnSatelliteRequestCallback;
+import com.hihonor.android.telephony.satellite.HnSatelliteServiceState;
+import com.hihonor.android.telephony.satellite.HnSatelliteSignalStrength;
+import com.hihonor.android.telephony.satellite.HnSatelliteSmsManager;
+import com.hihonor.android.telephony.satellite.HnSatelliteStateCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * 基于荣耀卫星SDK的真实设备后端，将SDK回调中的数据对象转换为 {@link SatelliteBackend} 的基本类型回调
+ * 每条短信使用独立的 PendingIntent，结果广播由本类接收并按短信ID回调
+ * 卫星SDK没有收短信的接口，收到的短信来自系统的 SMS_RECEIVED 广播，只保留卫星卡槽上收到的短信，
+ * 连接信息从原始 PDU 中解析，每一段分别回调
+ * SDK 管理类在第一次使用时才创建，创建过程会绑定系统服务，不在构造函数中执行，避免拖慢应用冷启动
+ *
+ * @since 2026-10-17
+ */
+public class AndroidSatelliteBackend implements SatelliteBackend {
+    /* 卫星短信发送结果广播 */
+    public static final String SATELLITE_MESSAGE_SENT_ACTION = "com.android.satellit.sms.sent";
+    /* 卫星短信送达结果广播 */
+    public static final String SATELLITE_MESSAGE_DELIVERY_ACTION = "com.android.satellit.sms.delivery";
+    /* 结果广播中携带短信关联ID的字段 */
+    public static final String EXTRA_MESSAGE_ID = "com.example.satellite.extra.MESSAGE_ID";
+    /* 结果 Intent 的 data scheme，接收方的 IntentFilter 需要匹配 */
+    public static final String MESSAGE_URI_SCHEME = "satmsg";
+    /* SMS_RECEIVED 广播中 PDU 格式的字段 */
+    private static final String EXTRA_PDU_FORMAT = "format";
+    private static final String PDU_FORMAT_3GPP = "3gpp";
+
+    /* 创建 SDK 管理类的跟踪区间，以及从构造到 SDK 可用的异步跟踪区间，启动性能测试按名称统计 */
+    public static final String TRACE_SDK_INIT = "SatSdkInit";
+    public static final String TRACE_SDK_READY = "SatSdkReady";
+
+    private static final String TAG = "AndroidSatelliteBackend";
+
+    private final Context context;
+    private final Object sdkLock = new Object();
+    private volatile HnSatelliteManager mHnSatelliteManager;
+    private volatile HnSatelliteSmsManager mHnSatelliteSmsManager;
+    private final Map<ModemStateCallback, HnSatelliteStateCallback> stateCallbacks = new ConcurrentHashMap<>();
+    private final Map<PointingCallback, HnSatellitePointingCallback> pointingCallbacks = new ConcurrentHashMap<>();
+    private final BroadcastReceiver resultReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context receiverContext, Intent intent) {
+            if (intent == null || intent.getAction() == null) {
+                Log.d(TAG, "received null intent or action");
+                return;
+            }
+            long id = intent.getLongExtra(EXTRA_MESSAGE_ID, -1L);
+            SmsResultCallback callback = smsResultCallback;
+            if (id < 0 || callback == null) {
+                Log.d(TAG, intent.getAction() + " resultCode: " + getResultCode() + " not correlated");
+                return;
+            }
+            if (SATELLITE_MESSAGE_SENT_ACTION.equals(intent.getAction())) {
+                callback.onSentResult(id, getResultCode());
+            } else if (SATELLITE_MESSAGE_DELIVERY_ACTION.equals(intent.getAction())) {
+                callback.onDeliveryResult(id, getResultCode());
+            }
+        }
+    };
+    private final BroadcastReceiver inboundReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context receiverContext, Intent intent) {
+            if (intent == null || !Telephony.Sms.Intents.SMS_RECEIVED_ACTION.equals(intent.getAction())) {
+                Log.d(TAG, "received null intent or unexpected action");
+                return;
+            }
+            onSmsReceived(intent);
+        }
+    };
+    private volatile SmsResultCallback smsResultCallback;
+    private volatile InboundSmsCallback inboundSmsCallback;
+    /* 未设置卫星卡槽时接收所有卡槽的短信 */
+    private volatile int satelliteSlot = SubscriptionManager.INVALID_SIM_SLOT_INDEX;
+    private boolean inboundRegistered;
+
+    /**
+     * Constructor, registers the receiver of the message result broadcasts.
+     *
+     * @param context any context, the application context is kept
+     */
+    public AndroidSatelliteBackend(Context context) {
+        this.context = context.getApplicationContext();
+        IntentFilter intentFilter = new IntentFilter();
+        intentFilter.addAction(SATELLITE_MESSAGE_SENT_ACTION);
+        intentFilter.addAction(SATELLITE_MESSAGE_DELIVERY_ACTION);
+        /* 每条短信的结果 Intent 带有唯一的 data，需要匹配其 scheme 才能收到 */
+        intentFilter.addDataScheme(MESSAGE_URI_SCHEME);
+        this.context.registerReceiver(resultReceiver, intentFilter, Context.RECEIVER_EXPORTED);
+        Trace.beginAsyncSection(TRACE_SDK_READY, System.identityHashCode(this));
+    }
+
+    @Override
+    public void requestSatelliteEnabled(boolean enableSatellite, Executor executor, RequestCallback callback) {
+        satelliteManager().requestSatelliteEnabled(enableSatellite, executor, new HnSatelliteRequestCallback() {
+            @Override
+            public void onRequestResult(boolean rst) {
+                callback.onRequestResult(rst);
+            }
+        });
+    }
+
+    @Override
+    public int registerForSatelliteModemStateChanged(Executor executor, ModemStateCallback callback) {
+        HnSatelliteStateCallback stateCallback = new HnSatelliteStateCallback() {
+            @Override
+            public void onServiceStateChanged(HnSatelliteServiceState hnSatelliteServiceState) {
+                callback.onServiceStateChanged(hnSatelliteServiceState == null
+                        ? SERVICE_STATE_UNAVAILABLE : hnSatelliteServiceState.getState());
+            }
+
+            @Override
+            public void onSignalStrengthChanged(HnSatelliteSignalStrength hnSatelliteSignalStrength) {
+                callback.onSignalStrengthChanged(hnSatelliteSignalStrength == null
+                        ? SIGNAL_LEVEL_UNAVAILABLE : hnSatelliteSignalStrength.getLevel());
+            }
+        };
+        HnSatelliteStateCallback previous = stateCallbacks.put(callback, stateCallback);
+        if (previous != null) {
+            satelliteManager().unregisterForSatelliteModemStateChanged(previous);
+        }
+        return satelliteManager().registerForSatelliteModemStateChanged(executor, stateCallback);
+    }
+
+    @Override
+    public void unregisterForSatelliteModemStateChanged(ModemStateCallback callback) {
+        HnSatelliteStateCallback stateCallback = stateCallbacks.remove(callback);
+        if (stateCallback != null) {
+            satelliteManager().unregisterForSatelliteModemStateChanged(stateCallback);
+        }
+    }
+
+    @Override
+    public int registerForSatellitePointingUpdates(Executor executor, PointingCallback callback) {
+        HnSatellitePointingCallback pointingCallback = new HnSatellitePointingCallback() {
+            @Override
+            public void onSatellitePointingUpdate(HnSatellitePointingUpdates satellitePointData,
+                HnSatellitePointingUpdates phonePointData) {
+                if (satellitePointData == null || phonePointData == null) {
+                    callback.onPointingUpdate(Double.NaN, Double.NaN, Double.NaN,
+                            Double.NaN, Double.NaN, Double.NaN);
+                    return;
+                }
+                callback.onPointingUpdate(satellitePointData.getElevation(), satellitePointData.getAzimuth(),
+                        satellitePointData.getHorizontal(), phonePointData.getElevation(),
+                        phonePointData.getAzimuth(), phonePointData.getHorizontal());
+            }
+        };
+        HnSatellitePointingCallback previous = pointingCallbacks.put(callback, pointingCallback);
+        if (previous != null) {
+            satelliteManager().unregisterForSatellitePointingUpdates(previous);
+        }
+        return satelliteManager().registerForSatellitePointingUpdates(executor, pointingCallback);
+    }
+
+    @Override
+    public void unregisterForSatellitePointingUpdates(PointingCallback callback) {
+        HnSatellitePointingCallback pointingCallback = pointingCallbacks.remove(callback);
+        if (pointingCallback != null) {
+            satelliteManager().unregisterForSatellitePointingUpdates(pointingCallback);
+        }
+    }
+
+    @Override
+    public int getSatelliteSupportType() {
+        return satelliteManager().getSatelliteSupportType();
+    }
+
+    @Override
+    public List<SatSim> getAvailableSatSimCards() {
+        List<HnAvailableSatSim> sims = satelliteManager().getAvailableSatSimCards();
+        List<SatSim> result = new ArrayList<>();
+        if (sims == null) {
+            return result;
+        }
+        for (HnAvailableSatSim sim : sims) {
+            result.add(new SatSim(sim.getSlotId(), sim.getSatelliteSupportType(), sim.getSimOperator(),
+                    sim.getPhoneNumber()));
+        }
+        return result;
+    }
+
+    @Override
+    public void setSatelliteSlot(int slotId) {
+        satelliteManager().setSatelliteSlot(slotId);
+        satelliteSlot = slotId;
+    }
+
+    @Override
+    public void setSmsResultCallback(SmsResultCallback callback) {
+        this.smsResultCallback = callback;
+    }
+
+    @Override
+    public void sendTextMessage(String destinationAddress, String scAddress, String text, long messageId) {
+        satelliteSmsManager().sendTextMessage(destinationAddress, scAddress, text,
+                buildResultIntent(SATELLITE_MESSAGE_SENT_ACTION, messageId),
+                buildResultIntent(SATELLITE_MESSAGE_DELIVERY_ACTION, messageId));
+    }
+
+    @Override
+    public synchronized void setInboundSmsCallback(InboundSmsCallback callback) {
+        this.inboundSmsCallback = callback;
+        if (callback != null && !inboundRegistered) {
+            /* 只接收系统发出的短信广播 */
+            context.registerReceiver(inboundReceiver, new IntentFilter(Telephony.Sms.Intents.SMS_RECEIVED_ACTION),
+                    Manifest.permission.BROADCAST_SMS, null, Context.RECEIVER_EXPORTED);
+            inboundRegistered = true;
+        } else if (callback == null && inboundRegistered) {
+            context.unregisterReceiver(inboundReceiver);
+            inboundRegistered = false;
+        }
+    }
+
+    @Override
+    public void release() {
+        smsResultCallback = null;
+        setInboundSmsCallback(null);
+        context.unregisterReceiver(resultReceiver);
+        for (HnSatelliteStateCallback stateCallback : stateCallbacks.values()) {
+            satelliteManager().unregisterForSatelliteModemStateChanged(stateCallback);
+        }
+        stateCallbacks.clear();
+        for (HnSatellitePointingCallback pointingCallback : pointingCallbacks.values()) {
+            satelliteManager().unregisterForSatellitePointingUpdates(pointingCallback);
+        }
+        pointingCallbacks.clear();
+    }
+
+    private HnSatelliteManager satelliteManager() {
+        HnSatelliteManager manager = mHnSatelliteManager;
+        if (manager != null) {
+            return manager;
+        }
+        synchronized (sdkLock) {
+            if (mHnSatelliteManager == null) {
+                Trace.beginSection(TRACE_SDK_INIT);
+                try {
+                    mHnSatelliteManager = new HnSatelliteManager(context);
+                } finally {
+                    Trace.endSection();
+                }
+                Trace.endAsyncSection(TRACE_SDK_READY, System.identityHashCode(this));
+            }
+            return mHnSatelliteManager;
+        }
+    }
+
+    private HnSatelliteSmsManager satelliteSmsManager() {
+        HnSatelliteSmsManager manager = mHnSatelliteSmsManager;
+        if (manager != null) {
+            return manager;
+        }
+        synchronized (sdkLock) {
+            if (mHnSatelliteSmsManager == null) {
+                Trace.beginSection(TRACE_SDK_INIT);
+                try {
+                    mHnSatelliteSmsManager = new HnSatelliteSmsManager(context);
+                } finally {
+                    Trace.endSection();
+                }
+            }
+            return mHnSatelliteSmsManager;
+        }
+    }
+
+    private void onSmsReceived(Intent intent) {
+        InboundSmsCallback callback = inboundSmsCallback;
+        int slot = satelliteSlot;
+        int receivedSlot = intent.getIntExtra(SubscriptionManager.EXTRA_SLOT_INDEX,
+                SubscriptionManager.INVALID_SIM_SLOT_INDEX);
+        if (callback == null || (slot != SubscriptionManager.INVALID_SIM_SLOT_INDEX && receivedSlot != slot)) {
+            return;
+        }
+        SmsMessage[] messages = Telephony.Sms.Intents.getMessagesFromIntent(intent);
+        if (messages == null) {
+            return;
+        }
+        boolean format3gpp = PDU_FORMAT_3GPP.equals(intent.getStringExtra(EXTRA_PDU_FORMAT));
+        for (SmsMessage message : messages) {
+            if (message == null) {
+                continue;
+            }
+            /* 系统通常已把同一条长短信的各段放在一个广播中，仍按段回调，由收件流水线统一重组和去重 */
+            SmsConcatHeader header = format3gpp ? SmsConcatHeader.parse(message.getPdu()) : null;
+            if (header == null) {
+                callback.onSmsReceived(message.getOriginatingAddress(), message.getMessageBody(),
+                        message.getTimestampMillis(), 0, 1, 1);
+            } else {
+                callback.onSmsReceived(message.getOriginatingAddress(), message.getMessageBody(),
+                        message.getTimestampMillis(), header.getReference(), header.getPartIndex(),
+                        header.getPartCount());
+            }
+        }
+    }
+
+    private PendingIntent buildResultIntent(String action, long messageId) {
+        Intent intent = new Intent(action);
+        intent.setPackage(context.getPackageName());
+        /* data 不同的 Intent 不会被系统视为同一个 PendingIntent，避免后发短信覆盖先发短信的结果 */
+        intent.setData(Uri.fromParts(MESSAGE_URI_SCHEME, String.valueOf(messageId), action));
+        intent.putExtra(EXTRA_MESSAGE_ID, messageId);
+        return PendingIntent.getBroadcast(context, (int) messageId, intent,
+                PendingIntent.FLAG_ONE_SHOT | PendingIntent.FLAG_MUTABLE);
+    }
+}
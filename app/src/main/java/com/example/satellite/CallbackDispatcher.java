@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import android.util.Log;
+
+import com.example.satellite.backend.SatelliteBackend;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 回调分发类，为每一种卫星回调提供一条串行的分发通道
+ * 同一通道内的回调严格按上报顺序执行，通道之间互不阻塞，工作线程数量固定
+ * 通道由SDK的回调线程投递，从不阻塞投递线程，否则一个慢的消费方会拖住SDK的全部回调；
+ * 只有对星通道有界，溢出时丢弃并计数，服务状态和信号格数各保留最新值，使能结果从不丢弃
+ *
+ * @since 2026-10-17
+ */
+public class CallbackDispatcher {
+    private static final String TAG = "CallbackDispatcher";
+    private static final long KEEP_ALIVE_SECONDS = 30L;
+    /* 单次调度最多连续执行的任务数，避免一条通道长期占用工作线程 */
+    private static final int MAX_DRAIN_BATCH = 64;
+
+    /**
+     * 回调通道类型
+     */
+    public enum Lane {
+        /* 对星、搜星数据，只关心最新值，溢出时丢弃最旧数据 */
+        POINTING(8, OverflowPolicy.DROP_OLDEST),
+        /*
+         * 卫星服务状态和信号状态，均为电平量；两者各占一个最新值槽位，信号突发只覆盖信号槽位，
+         * 不会挤掉状态变化，通道内最多排队一个投递任务，见 latestModemState
+         */
+        MODEM_STATE(1, OverflowPolicy.UNBOUNDED),
+        /* 卫星使能结果，丢失后等待方只能等到超时，从不丢弃 */
+        REQUEST_RESULT(16, OverflowPolicy.UNBOUNDED);
+
+        private final int defaultCapacity;
+        private final OverflowPolicy defaultPolicy;
+
+        Lane(int defaultCapacity, OverflowPolicy defaultPolicy) {
+            this.defaultCapacity = defaultCapacity;
+            this.defaultPolicy = defaultPolicy;
+        }
+    }
+
+    /**
+     * 通道队列已满时的处理策略
+     */
+    public enum OverflowPolicy {
+        /* 丢弃队列中最旧的任务，再加入新任务 */
+        DROP_OLDEST,
+        /* 丢弃新任务 */
+        DROP_NEWEST,
+        /* 从不丢弃，容量不限，只用于数量本身有限的回调 */
+        UNBOUNDED
+    }
+
+    private final ThreadPoolExecutor workers;
+    private final Map<Lane, SerialLane> lanes = new EnumMap<>(Lane.class);
+
+    /**
+     * Constructor, every lane uses its default capacity and overflow policy.
+     */
+    public CallbackDispatcher() {
+        int laneCount = Lane.values().length;
+        workers = new ThreadPoolExecutor(laneCount, laneCount, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new LaneThreadFactory());
+        workers.allowCoreThreadTimeOut(true);
+        for (Lane lane : Lane.values()) {
+            lanes.put(lane, new SerialLane(lane, lane.defaultCapacity, lane.defaultPolicy));
+        }
+    }
+
+    /**
+     * Change the queue capacity and overflow policy of a lane.
+     *
+     * @param lane callback lane
+     * @param capacity maximum number of queued callbacks, at least 1, ignored by {@link OverflowPolicy#UNBOUNDED}
+     * @param policy policy applied when the queue is full
+     */
+    public void configureLane(Lane lane, int capacity, OverflowPolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        lanes.get(lane).configure(capacity, policy);
+    }
+
+    /**
+     * Get the executor of a lane, to be passed to the satellite SDK.
+     * The {@link Lane#MODEM_STATE} executor runs the SDK callback directly on the SDK thread, so only register
+     * a callback returned by {@link #latestModemState} with it.
+     *
+     * @param lane callback lane
+     * @return executor running callbacks of this lane one at a time in order
+     */
+    public Executor executor(Lane lane) {
+        if (lane == Lane.MODEM_STATE) {
+            return Runnable::run;
+        }
+        return lanes.get(lane);
+    }
+
+    /**
+     * Wrap a modem state callback so that the latest service state and the latest signal level are kept in
+     * separate slots and handed to {@code target} on the modem state lane. A burst of signal levels only
+     * overwrites the signal slot and never hides a service state change.
+     *
+     * @param target callback run on the modem state lane, service state before signal level
+     * @return callback to register with the {@link Lane#MODEM_STATE} executor
+     */
+    public SatelliteBackend.ModemStateCallback latestModemState(SatelliteBackend.ModemStateCallback target) {
+        return new LatestModemState(lanes.get(Lane.MODEM_STATE), target);
+    }
+
+    /**
+     * Get the number of callbacks dropped by a lane because of overflow.
+     *
+     * @param lane callback lane
+     * @return dropped callback count
+     */
+    public long getDroppedCount(Lane lane) {
+        return lanes.get(lane).getDroppedCount();
+    }
+
+    /**
+     * Stop accepting callbacks, discard queued ones and release the worker threads.
+     */
+    public void shutdown() {
+        for (SerialLane lane : lanes.values()) {
+            lane.close();
+        }
+        workers.shutdown();
+    }
+
+    private final class SerialLane implements Executor {
+        private final Lane lane;
+        private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+        private final Runnable drainTask = this::drain;
+        private int capacity;
+        private OverflowPolicy policy;
+        private boolean scheduled;
+        private boolean closed;
+        private long droppedCount;
+
+        SerialLane(Lane lane, int capacity, OverflowPolicy policy) {
+            this.lane = lane;
+            this.capacity = capacity;
+            this.policy = policy;
+        }
+
+        synchronized void configure(int newCapacity, OverflowPolicy newPolicy) {
+            capacity = newCapacity;
+            policy = newPolicy;
+        }
+
+        synchronized long getDroppedCount() {
+            return droppedCount;
+        }
+
+        synchronized void close() {
+            closed = true;
+            queue.clear();
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            synchronized (this) {
+                if (closed) {
+                    Log.d(TAG, lane + " closed, callback discarded");
+                    return;
+                }
+                while (policy != OverflowPolicy.UNBOUNDED && queue.size() >= capacity) {
+                    droppedCount++;
+                    if (lane != Lane.POINTING) {
+                        /* 对星数据本就只关心最新值，其他通道溢出说明消费方过慢，需要留下记录 */
+                        Log.w(TAG, lane + " overflow, " + droppedCount + " callbacks dropped");
+                    }
+                    if (policy == OverflowPolicy.DROP_NEWEST) {
+                        return;
+                    }
+                    queue.poll();
+                }
+                queue.add(command);
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            try {
+                workers.execute(drainTask);
+            } catch (RejectedExecutionException e) {
+                Log.d(TAG, lane + " dispatcher already shut down");
+            }
+        }
+
+        private void drain() {
+            for (int i = 0; i < MAX_DRAIN_BATCH; i++) {
+                Runnable task;
+                synchronized (this) {
+                    task = queue.poll();
+                    if (task == null) {
+                        scheduled = false;
+                        return;
+                    }
+                }
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    Log.e(TAG, lane + " callback failed", e);
+                }
+            }
+            synchronized (this) {
+                if (queue.isEmpty() || closed) {
+                    scheduled = false;
+                    return;
+                }
+            }
+            /* 剩余任务重新排队，让出工作线程给其他通道 */
+            schedule();
+        }
+    }
+
+    private static final class LatestModemState implements SatelliteBackend.ModemStateCallback {
+        private final SerialLane lane;
+        private final SatelliteBackend.ModemStateCallback target;
+        private final Runnable deliverTask = this::deliver;
+        private int serviceState;
+        private int signalLevel;
+        private boolean serviceStatePending;
+        private boolean signalLevelPending;
+        /* 通道中已有一个尚未执行的投递任务 */
+        private boolean queued;
+
+        LatestModemState(SerialLane lane, SatelliteBackend.ModemStateCallback target) {
+            this.lane = lane;
+            this.target = target;
+        }
+
+        @Override
+        public void onServiceStateChanged(int satService) {
+            synchronized (this) {
+                serviceState = satService;
+                serviceStatePending = true;
+                if (queued) {
+                    return;
+                }
+                queued = true;
+            }
+            lane.execute(deliverTask);
+        }
+
+        @Override
+        public void onSignalStrengthChanged(int satSignal) {
+            synchronized (this) {
+                signalLevel = satSignal;
+                signalLevelPending = true;
+                if (queued) {
+                    return;
+                }
+                queued = true;
+            }
+            lane.execute(deliverTask);
+        }
+
+        private void deliver() {
+            int state;
+            int level;
+            boolean statePending;
+            boolean levelPending;
+            synchronized (this) {
+                state = serviceState;
+                level = signalLevel;
+                statePending = serviceStatePending;
+                levelPending = signalLevelPending;
+                serviceStatePending = false;
+                signalLevelPending = false;
+                queued = false;
+            }
+            if (statePending) {
+                target.onServiceStateChanged(state);
+            }
+            if (levelPending) {
+                target.onSignalStrengthChanged(level);
+            }
+        }
+    }
+
+    private static final class LaneThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return new Thread(runnable, "SatCallback-" + count.incrementAndGet());
+        }
+    }
+}
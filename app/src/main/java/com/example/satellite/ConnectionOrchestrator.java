@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import android.util.Log;
+
+import com.example.satellite.backend.SatelliteBackend;
+import com.example.satellite.events.SatelliteEvent;
+import com.example.satellite.events.SatelliteEventBus;
+import com.example.satellite.metrics.SatelliteMetrics;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 自动连接编排类，用状态机代替手动逐个点击的连接步骤
+ * 能力查询、设置卫星卡、注册对星回调和注册状态回调同时发起；对准误差进入阈值（或等待对准超时）后立即请求使能，
+ * 使能失败或使能后迟迟没有服务时按指数退避重试；卫星服务状态变为有服务时只通知一次可以发送，并记录启动到可发送的时延
+ * 状态只在编排线程上修改，回调通道线程上的对星、状态回调只转交事件；运行期间订阅事件总线，停止时退订
+ *
+ * @since 2026-10-17
+ */
+public class ConnectionOrchestrator implements SatelliteEventBus.Listener {
+    /**
+     * 连接状态
+     */
+    public enum State {
+        /* 尚未开始 */
+        IDLE,
+        /* 查询能力、设置卫星卡、注册回调 */
+        STARTING,
+        /* 等待对准 */
+        ALIGNING,
+        /* 已请求使能，等待结果 */
+        ENABLING,
+        /* 使能失败，等待退避后重试 */
+        BACKING_OFF,
+        /* 使能成功，等待卫星服务 */
+        WAITING_FOR_SERVICE,
+        /* 可以发送短信 */
+        READY,
+        /* 无法连接，不再重试 */
+        FAILED,
+        /* 已停止 */
+        STOPPED
+    }
+
+    /**
+     * 连接状态监听，在编排线程上调用
+     */
+    public interface Listener {
+        /**
+         * Called on every state change.
+         *
+         * @param state new state
+         * @param detail reason of the change, for display
+         */
+        void onStateChanged(State state, String detail);
+
+        /**
+         * Called once when the satellite service is first available after the start.
+         *
+         * @param elapsedMillis time from the launch passed to {@link #start(int, long)}
+         */
+        void onReadyToSend(long elapsedMillis);
+    }
+
+    private static final String TAG = "ConnectionOrchestrator";
+    /* 使能重试的最大退避为基础退避的倍数 */
+    private static final int MAX_BACKOFF_SHIFT = 5;
+    /* 事件在回调通道线程上同步投递，缓冲区只需容纳投递过程中到达的少量事件 */
+    private static final int EVENT_CAPACITY = 8;
+
+    private final SatComKitDemo satComKitDemo;
+    private final SatelliteClient satelliteClient;
+    private final SatelliteMetrics metrics;
+    private final Listener listener;
+    private final double maxAlignErrorDegrees;
+    private final long alignTimeoutMillis;
+    private final long operationTimeoutMillis;
+    private final long serviceTimeoutMillis;
+    private final long baseBackoffMillis;
+    private final int maxEnableAttempts;
+    private final ScheduledThreadPoolExecutor orchestratorThread = new ScheduledThreadPoolExecutor(1,
+            runnable -> new Thread(runnable, "SatOrchestrator"));
+    /* 对星回调通道线程上置位，只在首次对准时转交一次事件 */
+    private final AtomicBoolean alignedSeen = new AtomicBoolean(false);
+    private volatile int serviceState = SatelliteBackend.SERVICE_STATE_UNAVAILABLE;
+
+    /* 只在编排线程上修改 */
+    private volatile State state = State.IDLE;
+
+    /* 以下状态只在编排线程上访问 */
+    private long launchNanos;
+    private int enableAttempts;
+    /* 每次使能递增，丢弃过期的使能结果和超时 */
+    private int enableGeneration;
+    private ScheduledFuture<?> timer;
+    private SatelliteClient.Registration pointingRegistration;
+    private SatelliteClient.Registration modemRegistration;
+    private SatelliteEventBus.Subscription eventSubscription;
+
+    /**
+     * Constructor
+     *
+     * @param satComKitDemo interface class whose callbacks are registered
+     * @param satelliteClient asynchronous interface performing the steps
+     * @param metrics metrics receiving the launch to ready latency
+     * @param listener listener of the state changes
+     * @param maxAlignErrorDegrees angular error below which the pointing is good enough to enable
+     * @param alignTimeoutMillis time to wait for the alignment before enabling anyway
+     * @param operationTimeoutMillis timeout of every single step
+     * @param serviceTimeoutMillis time to wait for the service after a successful enable
+     * @param baseBackoffMillis delay before the first enable retry, doubled on every failure
+     * @param maxEnableAttempts number of enable attempts before giving up
+     */
+    public ConnectionOrchestrator(SatComKitDemo satComKitDemo, SatelliteClient satelliteClient,
+                                  SatelliteMetrics metrics, Listener listener, double maxAlignErrorDegrees,
+                                  long alignTimeoutMillis, long operationTimeoutMillis, long serviceTimeoutMillis,
+                                  long baseBackoffMillis, int maxEnableAttempts) {
+        if (maxEnableAttempts < 1 || baseBackoffMillis < 0) {
+            throw new IllegalArgumentException("invalid retry limits: " + maxEnableAttempts
+                    + ", " + baseBackoffMillis);
+        }
+        this.satComKitDemo = satComKitDemo;
+        this.satelliteClient = satelliteClient;
+        this.metrics = metrics;
+        this.listener = listener;
+        this.maxAlignErrorDegrees = maxAlignErrorDegrees;
+        this.alignTimeoutMillis = alignTimeoutMillis;
+        this.operationTimeoutMillis = operationTimeoutMillis;
+        this.serviceTimeoutMillis = serviceTimeoutMillis;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxEnableAttempts = maxEnableAttempts;
+        orchestratorThread.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Start the bring-up, ignored unless idle.
+     *
+     * @param slotId satellite sim slot to set, or a negative value to keep the current one
+     * @param launchNanos launch time on the metrics clock
+     */
+    public void start(int slotId, long launchNanos) {
+        execute(() -> {
+            if (state != State.IDLE) {
+                return;
+            }
+            this.launchNanos = launchNanos;
+            eventSubscription = satComKitDemo.getEventBus().subscribe(
+                    SatelliteEvent.TYPE_SERVICE_STATE | SatelliteEvent.TYPE_POINTING, EVENT_CAPACITY,
+                    SatelliteEventBus.Overflow.DROP_OLDEST, Runnable::run, this);
+            transition(State.STARTING, "bring-up started");
+
+            /* 各步骤互不依赖，同时发起，只有设置卫星卡需要先确认有可用的卡 */
+            CompletableFuture<CapabilitySnapshot> capabilities = satelliteClient.getCapabilities(operationTimeoutMillis)
+                    .thenApply(ConnectionOrchestrator::requireSatSim);
+            CompletableFuture<Void> slot = slotId < 0 ? capabilities.thenApply(snapshot -> null)
+                    : capabilities.thenCompose(snapshot -> satelliteClient.setSatelliteSlot(slotId,
+                            operationTimeoutMillis));
+            CompletableFuture<SatelliteClient.Registration> pointing = satelliteClient
+                    .registerForSatellitePointingUpdates(satComKitDemo.getPointingCallback(), operationTimeoutMillis);
+            CompletableFuture<SatelliteClient.Registration> modem = satelliteClient
+                    .registerForSatelliteModemStateChanged(satComKitDemo.getModemStateCallback(),
+                            operationTimeoutMillis);
+            CompletableFuture.allOf(slot, pointing, modem).whenComplete((result, error) -> execute(() -> {
+                /* 部分步骤失败时，已成功的注册也要在失败处理中去注册 */
+                pointingRegistration = registrationOf(pointing);
+                modemRegistration = registrationOf(modem);
+                if (state != State.STARTING) {
+                    unregister();
+                } else if (error != null) {
+                    fail("bring-up failed: " + describe(error));
+                } else {
+                    onStarted();
+                }
+            }));
+        });
+    }
+
+    /**
+     * Stop the bring-up and unregister the callbacks registered by it.
+     * Must be called before {@link SatelliteClient#release()}.
+     */
+    public void stop() {
+        execute(() -> {
+            if (eventSubscription != null) {
+                satComKitDemo.getEventBus().unsubscribe(eventSubscription);
+                eventSubscription = null;
+            }
+            unregister();
+            cancelTimer();
+            transition(State.STOPPED, "stopped");
+        });
+        orchestratorThread.shutdown();
+    }
+
+    @Override
+    public void onEvent(SatelliteEvent event) {
+        if (event.getType() == SatelliteEvent.TYPE_SERVICE_STATE) {
+            onServiceStateChanged(event.getServiceState());
+        } else if (event.getType() == SatelliteEvent.TYPE_POINTING) {
+            onPointingGuidance(event.getGuidance(), event.getAngularError());
+        }
+    }
+
+    private void onServiceStateChanged(int serviceState) {
+        this.serviceState = serviceState;
+        if (serviceState == SatelliteBackend.SERVICE_STATE_IN_SERVICE) {
+            execute(this::checkReady);
+        }
+    }
+
+    private void onPointingGuidance(int guidance, double angularError) {
+        if ((guidance == PointingAligner.GUIDANCE_ALIGNED || angularError <= maxAlignErrorDegrees)
+                && alignedSeen.compareAndSet(false, true)) {
+            execute(this::onAligned);
+        }
+    }
+
+    private void onStarted() {
+        if (state != State.STARTING) {
+            return;
+        }
+        if (alignedSeen.get()) {
+            enable("aligned");
+            return;
+        }
+        transition(State.ALIGNING, "waiting for alignment below " + maxAlignErrorDegrees + " degrees");
+        schedule(() -> {
+            if (state == State.ALIGNING) {
+                enable("alignment timed out, enabling anyway");
+            }
+        }, alignTimeoutMillis);
+    }
+
+    private void onAligned() {
+        if (state == State.ALIGNING) {
+            cancelTimer();
+            enable("aligned");
+        }
+    }
+
+    private void enable(String reason) {
+        enableAttempts++;
+        int generation = ++enableGeneration;
+        transition(State.ENABLING, reason + ", attempt " + enableAttempts);
+        satelliteClient.requestSatelliteEnabled(true, operationTimeoutMillis).whenComplete((result, error) ->
+                execute(() -> onEnableResult(generation, error == null && result, error)));
+    }
+
+    private void onEnableResult(int generation, boolean enabled, Throwable error) {
+        if (state != State.ENABLING || generation != enableGeneration) {
+            return;
+        }
+        if (!enabled) {
+            retryEnable(error != null ? "enable failed: " + describe(error) : "enable rejected");
+            return;
+        }
+        transition(State.WAITING_FOR_SERVICE, "enabled, waiting for service");
+        schedule(() -> {
+            if (state == State.WAITING_FOR_SERVICE && generation == enableGeneration) {
+                retryEnable("no service within " + serviceTimeoutMillis + "ms");
+            }
+        }, serviceTimeoutMillis);
+        checkReady();
+    }
+
+    private void retryEnable(String reason) {
+        cancelTimer();
+        if (enableAttempts >= maxEnableAttempts) {
+            fail(reason + ", giving up after " + enableAttempts + " attempts");
+            return;
+        }
+        long backoffMillis = baseBackoffMillis << Math.min(enableAttempts - 1, MAX_BACKOFF_SHIFT);
+        transition(State.BACKING_OFF, reason + ", retrying in " + backoffMillis + "ms");
+        schedule(() -> {
+            if (state == State.BACKING_OFF) {
+                enable("retry");
+            }
+        }, backoffMillis);
+    }
+
+    private void checkReady() {
+        if (state != State.WAITING_FOR_SERVICE || serviceState != SatelliteBackend.SERVICE_STATE_IN_SERVICE) {
+            return;
+        }
+        cancelTimer();
+        metrics.recordSince(SatelliteMetrics.Latency.LAUNCH_TO_READY, launchNanos);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(metrics.nowNanos() - launchNanos);
+        transition(State.READY, "in service");
+        listener.onReadyToSend(elapsedMillis);
+    }
+
+    private void fail(String reason) {
+        if (state == State.STOPPED || state == State.FAILED) {
+            return;
+        }
+        cancelTimer();
+        unregister();
+        transition(State.FAILED, reason);
+    }
+
+    private void unregister() {
+        if (pointingRegistration != null) {
+            pointingRegistration.unregister();
+            pointingRegistration = null;
+        }
+        if (modemRegistration != null) {
+            modemRegistration.unregister();
+            modemRegistration = null;
+        }
+    }
+
+    private void transition(State next, String detail) {
+        Log.i(TAG, state + " -> " + next + ": " + detail);
+        state = next;
+        listener.onStateChanged(next, detail);
+    }
+
+    private void schedule(Runnable task, long delayMillis) {
+        cancelTimer();
+        try {
+            timer = orchestratorThread.schedule(task, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            Log.d(TAG, "orchestrator already stopped");
+        }
+    }
+
+    private void cancelTimer() {
+        if (timer != null) {
+            timer.cancel(false);
+            timer = null;
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            orchestratorThread.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    Log.w(TAG, "orchestrator task failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.d(TAG, "orchestrator already stopped");
+        }
+    }
+
+    private static SatelliteClient.Registration registrationOf(
+            CompletableFuture<SatelliteClient.Registration> future) {
+        return future.isCompletedExceptionally() ? null : future.join();
+    }
+
+    private static CapabilitySnapshot requireSatSim(CapabilitySnapshot snapshot) {
+        if (snapshot.getSatSims().isEmpty()) {
+            throw new IllegalStateException("no satellite sim card");
+        }
+        return snapshot;
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+}
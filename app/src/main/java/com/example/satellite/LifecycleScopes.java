@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+/**
+ * 把 {@link RegistrationScope} 绑定到界面的生命周期，收到 ON_DESTROY 时自动关闭作用域，
+ * 界面在 onCreate 中注册的回调、监听和订阅无需在 onDestroy 中逐个注销
+ *
+ * @since 2026-10-17
+ */
+public final class LifecycleScopes {
+    private LifecycleScopes() {
+    }
+
+    /**
+     * Create a scope closed when the owner is destroyed.
+     * Must be called on the main thread.
+     *
+     * @param owner activity or fragment owning the registrations
+     * @param name name of the scope used in the log
+     * @return scope bound to the lifecycle, already closed if the owner is destroyed
+     */
+    public static RegistrationScope bind(LifecycleOwner owner, String name) {
+        RegistrationScope scope = new RegistrationScope(name);
+        Lifecycle lifecycle = owner.getLifecycle();
+        if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            scope.close();
+            return scope;
+        }
+        lifecycle.addObserver(new LifecycleEventObserver() {
+            @Override
+            public void onStateChanged(LifecycleOwner source, Lifecycle.Event event) {
+                if (event == Lifecycle.Event.ON_DESTROY) {
+                    source.getLifecycle().removeObserver(this);
+                    scope.close();
+                }
+            }
+        });
+        return scope;
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import com.example.satellite.backend.SatelliteBackend;
+import com.example.satellite.events.SatelliteEvent;
+import com.example.satellite.events.SatelliteEventBus;
+
+import java.util.function.LongSupplier;
+
+/**
+ * 链路质量调度类，根据最近的信号格数和卫星服务状态变化判断当前是否处于适合发送的窗口
+ * 信号格数保存在固定长度的环形缓冲区中，只用趋势窗口内的样本做最小二乘拟合，预测发送期间的信号格数，
+ * 预测值与最新格数的差距有上限；窗口内没有变化时沿用最新格数；
+ * 非紧急短信只在服务稳定且预测信号不低于门限时发送，紧急短信只要有服务就立即发送
+ * 服务状态和信号格数来自事件总线的订阅
+ *
+ * @since 2026-10-17
+ */
+public class LinkQualityScheduler implements SatelliteEventBus.Listener {
+    private static final int SERVICE_STATE_UNKNOWN = -1;
+    /* 趋势外推最多偏离最新格数的格数，少量样本拟合出的斜率不可靠 */
+    private static final double MAX_TREND_DELTA = 1.0;
+    /* 有短信被拦截时的定期重新评估间隔，趋势窗口和状态切换会随时间过期，窗口可能在没有新样本时打开 */
+    private static final long RECHECK_INTERVAL_MILLIS = 5 * 1000L;
+
+    /**
+     * 发送窗口变化监听
+     */
+    public interface Listener {
+        /**
+         * Called whenever a new signal or service sample may have changed the transmit window.
+         */
+        void onLinkQualityChanged();
+    }
+
+    private final long[] sampleTimes;
+    private final int[] sampleLevels;
+    private final int levelThreshold;
+    private final long minStableMillis;
+    private final long lookaheadMillis;
+    private final long trendWindowMillis;
+    private final int maxTransitions;
+    private final LongSupplier clockMillis;
+    private final long[] transitionTimes;
+    private int sampleHead;
+    private int sampleCount;
+    private int transitionHead;
+    private int transitionCount;
+    private int serviceState = SERVICE_STATE_UNKNOWN;
+    private long inServiceSinceMillis;
+    private boolean suspended;
+    private volatile Listener listener;
+
+    /**
+     * Constructor
+     *
+     * @param windowSize number of recent signal levels kept
+     * @param levelThreshold lowest predicted signal level at which non-urgent messages are sent
+     * @param minStableMillis time the service must stay up before non-urgent messages are sent
+     * @param lookaheadMillis how far ahead the signal trend is extrapolated, about one send duration
+     * @param trendWindowMillis only signal levels this recent are fitted, also the window for counting flapping
+     * @param maxTransitions service transitions within the window above which the link is treated as flapping
+     * @param clockMillis monotonic clock in milliseconds, e.g. {@code SystemClock::elapsedRealtime}
+     */
+    public LinkQualityScheduler(int windowSize, int levelThreshold, long minStableMillis, long lookaheadMillis,
+                                long trendWindowMillis, int maxTransitions, LongSupplier clockMillis) {
+        if (windowSize < 2 || maxTransitions < 1 || trendWindowMillis <= 0) {
+            throw new IllegalArgumentException("invalid window: " + windowSize + ", " + trendWindowMillis + "ms, "
+                    + maxTransitions);
+        }
+        this.sampleTimes = new long[windowSize];
+        this.sampleLevels = new int[windowSize];
+        this.levelThreshold = levelThreshold;
+        this.minStableMillis = minStableMillis;
+        this.lookaheadMillis = lookaheadMillis;
+        this.trendWindowMillis = trendWindowMillis;
+        this.maxTransitions = maxTransitions;
+        this.clockMillis = clockMillis;
+        this.transitionTimes = new long[maxTransitions + 1];
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Hold every message regardless of the link, e.g. while the satellite sim slot is being switched.
+     * Resuming counts as the link coming back, so held messages are retried without waiting for their backoff.
+     *
+     * @param suspended true to hold, false to resume
+     */
+    public void setSuspended(boolean suspended) {
+        synchronized (this) {
+            this.suspended = suspended;
+        }
+        notifyListener();
+    }
+
+    @Override
+    public void onEvent(SatelliteEvent event) {
+        if (event.getType() == SatelliteEvent.TYPE_SERVICE_STATE) {
+            onServiceStateChanged(event.getServiceState());
+        } else if (event.getType() == SatelliteEvent.TYPE_SIGNAL_LEVEL) {
+            onSignalLevelChanged(event.getSignalLevel());
+        }
+    }
+
+    private void onServiceStateChanged(int state) {
+        synchronized (this) {
+            boolean wasInService = serviceState == SatelliteBackend.SERVICE_STATE_IN_SERVICE;
+            boolean inService = state == SatelliteBackend.SERVICE_STATE_IN_SERVICE;
+            if (inService != wasInService || serviceState == SERVICE_STATE_UNKNOWN) {
+                long now = clockMillis.getAsLong();
+                transitionTimes[transitionHead] = now;
+                transitionHead = (transitionHead + 1) % transitionTimes.length;
+                transitionCount = Math.min(transitionCount + 1, transitionTimes.length);
+                if (inService) {
+                    inServiceSinceMillis = now;
+                }
+            }
+            serviceState = state;
+        }
+        notifyListener();
+    }
+
+    private void onSignalLevelChanged(int signalLevel) {
+        synchronized (this) {
+            sampleTimes[sampleHead] = clockMillis.getAsLong();
+            sampleLevels[sampleHead] = signalLevel;
+            sampleHead = (sampleHead + 1) % sampleLevels.length;
+            sampleCount = Math.min(sampleCount + 1, sampleLevels.length);
+        }
+        notifyListener();
+    }
+
+    /**
+     * Whether a message may be sent now.
+     *
+     * @param urgent urgent messages only need service, others wait for a good window
+     * @return true if the message may be sent
+     */
+    public synchronized boolean mayTransmit(boolean urgent) {
+        if (suspended) {
+            return false;
+        }
+        if (serviceState == SERVICE_STATE_UNKNOWN) {
+            /* 未注册卫星服务状态回调时不拦截发送 */
+            return true;
+        }
+        if (serviceState != SatelliteBackend.SERVICE_STATE_IN_SERVICE) {
+            return false;
+        }
+        return urgent || isWindowOpen(clockMillis.getAsLong());
+    }
+
+    /**
+     * Whether the satellite reports service, or its state is not known, and sending is not suspended.
+     *
+     * @return true if urgent messages may be sent
+     */
+    public synchronized boolean isLinkUp() {
+        return !suspended && (serviceState == SERVICE_STATE_UNKNOWN
+                || serviceState == SatelliteBackend.SERVICE_STATE_IN_SERVICE);
+    }
+
+    /**
+     * Time after which the window should be evaluated again even without new samples, because the service
+     * will then have been up long enough, or old samples and transitions will have left the window.
+     *
+     * @return delay in milliseconds, or -1 if only a new service state can open the window
+     */
+    public synchronized long getRecheckDelayMillis() {
+        if (serviceState != SatelliteBackend.SERVICE_STATE_IN_SERVICE) {
+            return -1;
+        }
+        long remaining = inServiceSinceMillis + minStableMillis - clockMillis.getAsLong();
+        return remaining > 0 ? Math.min(remaining, RECHECK_INTERVAL_MILLIS) : RECHECK_INTERVAL_MILLIS;
+    }
+
+    /**
+     * Predicted signal level after the lookahead time, or the last level if the trend is unknown.
+     *
+     * @return predicted level, NaN without any sample
+     */
+    public synchronized double getPredictedLevel() {
+        long now = clockMillis.getAsLong();
+        return predictLevel(now, now + lookaheadMillis);
+    }
+
+    private boolean isWindowOpen(long now) {
+        if (now - inServiceSinceMillis < minStableMillis) {
+            return false;
+        }
+        if (countTransitionsSince(now - Math.max(minStableMillis, trendWindowMillis)) > maxTransitions) {
+            /* 窗口内服务状态反复变化，链路不稳定 */
+            return false;
+        }
+        if (sampleCount == 0) {
+            return true;
+        }
+        int lastLevel = sampleLevels[(sampleHead - 1 + sampleLevels.length) % sampleLevels.length];
+        return lastLevel >= levelThreshold && predictLevel(now, now + lookaheadMillis) >= levelThreshold;
+    }
+
+    private int countTransitionsSince(long since) {
+        int count = 0;
+        for (int i = 0; i < transitionCount; i++) {
+            if (transitionTimes[i] >= since) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 用趋势窗口内的样本拟合并外推信号格数
+     *
+     * @param now current time in milliseconds
+     * @param at time to predict the level for
+     * @return predicted level within {@link #MAX_TREND_DELTA} of the last level, NaN without any sample
+     */
+    private double predictLevel(long now, long at) {
+        if (sampleCount == 0) {
+            return Double.NaN;
+        }
+        int last = (sampleHead - 1 + sampleLevels.length) % sampleLevels.length;
+        int lastLevel = sampleLevels[last];
+        long windowStart = now - trendWindowMillis;
+        int recent = 0;
+        while (recent < sampleCount
+                && sampleTimes[(last - recent + sampleLevels.length) % sampleLevels.length] >= windowStart) {
+            recent++;
+        }
+        if (recent < 2) {
+            /* 信号格数只在变化时上报，最近没有变化说明格数稳定在最新值 */
+            return lastLevel;
+        }
+        /* 以最新样本时间为原点做最小二乘线性拟合，避免时间值过大损失精度 */
+        long origin = sampleTimes[last];
+        double sumT = 0;
+        double sumL = 0;
+        double sumTT = 0;
+        double sumTL = 0;
+        for (int i = 0; i < recent; i++) {
+            int index = (last - i + sampleLevels.length) % sampleLevels.length;
+            double t = sampleTimes[index] - origin;
+            double level = sampleLevels[index];
+            sumT += t;
+            sumL += level;
+            sumTT += t * t;
+            sumTL += t * level;
+        }
+        double n = recent;
+        double denominator = n * sumTT - sumT * sumT;
+        if (denominator == 0) {
+            return lastLevel;
+        }
+        double slope = (n * sumTL - sumT * sumL) / denominator;
+        double intercept = (sumL - slope * sumT) / n;
+        double predicted = intercept + slope * (at - origin);
+        return Math.max(lastLevel - MAX_TREND_DELTA, Math.min(lastLevel + MAX_TREND_DELTA, predicted));
+    }
+
+    private void notifyListener() {
+        Listener current = listener;
+        if (current != null) {
+            current.onLinkQualityChanged();
+        }
+    }
+}
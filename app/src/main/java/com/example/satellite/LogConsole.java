@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.widget.TextView;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 输出框日志控制台，使用固定容量的环形缓冲区保存最近的日志行
+ * 任意线程追加的日志先进入待刷新队列，由主线程合并后一次性追加到输出框，
+ * 超出容量时只删除最旧的行，每条日志的界面开销与会话时长无关
+ *
+ * @since 2026-10-17
+ */
+public class LogConsole {
+    /* 输出框默认保留的日志行数 */
+    public static final int DEFAULT_CAPACITY = 500;
+
+    private final TextView textView;
+    private final LogFileSpill fileSpill;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ConcurrentLinkedQueue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+    private final Runnable flushTask = this::flush;
+    private final LogRing ring;
+    private final EditableText editableText = new EditableText();
+
+    /**
+     * Constructor
+     *
+     * @param textView output view, its content is managed by this console from now on
+     * @param capacity maximum number of lines kept in the view
+     * @param fileSpill optional file sink receiving every line, may be null
+     */
+    public LogConsole(TextView textView, int capacity, LogFileSpill fileSpill) {
+        this.ring = new LogRing(capacity);
+        this.textView = textView;
+        this.fileSpill = fileSpill;
+        textView.setText("", TextView.BufferType.EDITABLE);
+    }
+
+    /**
+     * Append a line to the console. Safe to call from any thread.
+     *
+     * @param line text to append, may contain line breaks
+     */
+    public void append(String line) {
+        enqueue(new Entry(false, line));
+    }
+
+    /**
+     * Clear the console and show a new first line. Safe to call from any thread.
+     *
+     * @param line first line of the console, empty to leave the console blank
+     */
+    public void reset(String line) {
+        enqueue(new Entry(true, line));
+    }
+
+    /**
+     * Clear the console. Safe to call from any thread.
+     */
+    public void clear() {
+        reset("");
+    }
+
+    /**
+     * Stop refreshing the view and close the file spill.
+     * Must be called on the main thread.
+     */
+    public void release() {
+        mainHandler.removeCallbacks(flushTask);
+        pending.clear();
+        if (fileSpill != null) {
+            fileSpill.close();
+        }
+    }
+
+    private void enqueue(Entry entry) {
+        pending.add(entry);
+        if (fileSpill != null && !entry.text.isEmpty()) {
+            fileSpill.write(entry.text);
+        }
+        if (flushScheduled.compareAndSet(false, true)) {
+            mainHandler.post(flushTask);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        Entry entry;
+        while ((entry = pending.poll()) != null) {
+            if (entry.reset) {
+                ring.reset();
+                if (entry.text.isEmpty()) {
+                    continue;
+                }
+            }
+            ring.add(entry.text);
+        }
+        editableText.editable = textView.getEditableText();
+        ring.flushTo(editableText);
+        editableText.editable = null;
+    }
+
+    private static final class EditableText implements LogRing.Text {
+        Editable editable;
+
+        @Override
+        public int length() {
+            return editable.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return editable.charAt(index);
+        }
+
+        @Override
+        public void delete(int start, int end) {
+            editable.delete(start, end);
+        }
+
+        @Override
+        public void append(CharSequence text) {
+            editable.append(text);
+        }
+
+        @Override
+        public void clear() {
+            editable.clear();
+        }
+    }
+
+    private static final class Entry {
+        final boolean reset;
+        final String text;
+
+        Entry(boolean reset, String text) {
+            this.reset = reset;
+            this.text = text == null ? "null" : text;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import android.util.Log;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 日志滚动文件写入类，在后台线程批量写入日志行
+ * 当前文件超过大小上限时依次重命名为 name.1、name.2 ...，超过保留个数的旧文件被删除
+ *
+ * @since 2026-10-17
+ */
+public class LogFileSpill {
+    private static final String TAG = "LogFileSpill";
+    /* 单次批量写入的最大行数 */
+    private static final int MAX_BATCH_LINES = 256;
+
+    private final File directory;
+    private final String fileName;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final LinkedBlockingQueue<Line> pending = new LinkedBlockingQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final ExecutorService writerThread = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "LogFileSpill"));
+    private final SimpleDateFormat timeFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.US);
+    private final Date date = new Date();
+    private Writer writer;
+    private long fileBytes;
+
+    /**
+     * Constructor
+     *
+     * @param directory directory holding the log files
+     * @param fileName name of the active log file
+     * @param maxFileBytes size after which the active file is rolled
+     * @param maxFiles number of files kept, including the active one
+     */
+    public LogFileSpill(File directory, String fileName, long maxFileBytes, int maxFiles) {
+        if (maxFileBytes <= 0 || maxFiles < 1) {
+            throw new IllegalArgumentException("invalid roll limits: " + maxFileBytes + ", " + maxFiles);
+        }
+        this.directory = directory;
+        this.fileName = fileName;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+    }
+
+    /**
+     * Queue a line for writing. Safe to call from any thread.
+     *
+     * @param line log line
+     */
+    public void write(String line) {
+        if (writerThread.isShutdown()) {
+            return;
+        }
+        pending.add(new Line(System.currentTimeMillis(), line));
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                writerThread.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                Log.d(TAG, "log file already closed");
+            }
+        }
+    }
+
+    /**
+     * Write the remaining lines and close the file. Lines written afterwards are ignored.
+     */
+    public void close() {
+        try {
+            writerThread.execute(() -> {
+                /* 关闭时线程池已不接受任务，在本任务内写完全部剩余的行，不再重新调度 */
+                try {
+                    while (!pending.isEmpty()) {
+                        writeBatch();
+                    }
+                } finally {
+                    closeWriter();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.d(TAG, "log file already closed");
+        }
+        writerThread.shutdown();
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        writeBatch();
+        if (!pending.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+            try {
+                writerThread.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                /* 已在关闭，关闭任务排在其后，会写完剩余的行 */
+                Log.d(TAG, "log file closing, remaining lines written on close");
+            }
+        }
+    }
+
+    /* 写入一批日志行，写入失败时关闭文件，下一批重新打开；失败的行被丢弃，不会反复重试 */
+    private void writeBatch() {
+        try {
+            for (int i = 0; i < MAX_BATCH_LINES; i++) {
+                Line line = pending.poll();
+                if (line == null) {
+                    break;
+                }
+                writeLine(line);
+            }
+            if (writer != null) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "write log file failed", e);
+            closeWriter();
+        }
+    }
+
+    private void writeLine(Line line) throws IOException {
+        if (writer == null) {
+            openWriter();
+        }
+        /* 每条日志写成一行，行首为入队时的本地时间，便于离线分析 */
+        date.setTime(line.timeMillis);
+        String text = timeFormat.format(date) + ' ' + line.text.replace('\n', ' ') + '\n';
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        writer.write(text);
+        fileBytes += bytes.length;
+        if (fileBytes >= maxFileBytes) {
+            closeWriter();
+            roll();
+        }
+    }
+
+    private void openWriter() throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("cannot create " + directory);
+        }
+        File file = new File(directory, fileName);
+        fileBytes = file.length();
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true),
+                StandardCharsets.UTF_8));
+    }
+
+    private void closeWriter() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            Log.e(TAG, "close log file failed", e);
+        }
+        writer = null;
+    }
+
+    private void roll() {
+        if (maxFiles == 1) {
+            /* 不保留历史文件，清空当前文件后重新写入，否则追加打开后文件会无限增长 */
+            File active = new File(directory, fileName);
+            try {
+                new FileOutputStream(active).close();
+            } catch (IOException e) {
+                Log.w(TAG, "cannot truncate " + active, e);
+            }
+            fileBytes = 0;
+            return;
+        }
+        File oldest = new File(directory, fileName + "." + (maxFiles - 1));
+        if (oldest.exists() && !oldest.delete()) {
+            Log.w(TAG, "cannot delete " + oldest);
+        }
+        for (int i = maxFiles - 2; i >= 0; i--) {
+            File from = i == 0 ? new File(directory, fileName) : new File(directory, fileName + "." + i);
+            if (from.exists() && !from.renameTo(new File(directory, fileName + "." + (i + 1)))) {
+                Log.w(TAG, "cannot roll " + from);
+            }
+        }
+        fileBytes = 0;
+    }
+
+    private static final class Line {
+        final long timeMillis;
+        final String text;
+
+        Line(long timeMillis, String text) {
+            this.timeMillis = timeMillis;
+            this.text = text;
+        }
+    }
+}
@@ -4,15 +4,14 @@
 
 package com.example.satellite;
 
+import android.Manifest;
 import android.annotation.SuppressLint;
-import android.app.PendingIntent;
-import android.content.BroadcastReceiver;
-import android.content.Context;
-import android.content.Intent;
-import android.content.IntentFilter;
+import android.content.pm.PackageManager;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.text.method.ScrollingMovementMethod;
 import android.util.Log;
+import android.view.Choreographer;
 import android.view.MotionEvent;
 import android.view.View;
 import android.widget.Button;
@@ -20,11 +19,15 @@ import android.widget.EditText;
 import android.widget.TextView;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
-import com.hihonor.android.telephony.satellite.HnAvailableSatSim;
+import com.example.satellite.backend.SatelliteBackend;
 
 import org.w3c.dom.Text;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * 测试apk的主活动，包含各控件功能的实现方法
@@ -33,12 +36,74 @@ import java.util.List;
  * @since 2024-08-20
  */
 public class MainActivity extends AppCompatActivity {
+    /* 启动参数，为 true 时使用模拟器后端，用于没有卫星硬件的设备：am start --ez <EXTRA_SIMULATE> true */
+    public static final String EXTRA_SIMULATE = "com.example.satellite.extra.SIMULATE";
+    /* 启动参数，为 true 时启动后立即自动连接，保持当前卫星卡：am start --ez <EXTRA_AUTO_CONNECT> true */
+    public static final String EXTRA_AUTO_CONNECT = "com.example.satellite.extra.AUTO_CONNECT";
     private static final String TAG = "MainActivity";
-    private static final String SATELLITE_MESSAGE_SENT_ACTION = "com.android.satellit.sms.sent";
-    private static final String SATELLITE_MESSAGE_DELIVERY_ACTION = "com.android.satellit.sms.delivery";
+    /* 能力查询尚未完成时，按钮记录需要在查询完成后显示的内容 */
+    private static final int CAPABILITY_DISPLAY_NONE = 0;
+    private static final int CAPABILITY_DISPLAY_SUPPORT_TYPE = 1;
+    private static final int CAPABILITY_DISPLAY_SIM_CARDS = 2;
+    private static final int REQUEST_CODE_PERMISSIONS = 1;
+    /* 运行时权限：卫星卡槽收到的短信来自 SMS_RECEIVED 广播，需要接收短信权限 */
+    private static final String[] RUNTIME_PERMISSIONS = {
+        Manifest.permission.RECEIVE_SMS, Manifest.permission.ACCESS_COARSE_LOCATION
+    };
+    /* 界面重建时保存的权限申请状态，重建后结果仍回调到新的界面 */
+    private static final String STATE_PERMISSIONS_PENDING = "permissionsPending";
     private TextView textOutput;
     private EditText editInput;
-    private IntentReceiver intentReceiver;
+    private TextView textServStat;
+    private TextView textSigLvl;
+    private LogConsole logConsole;
+    private PointingRenderer pointingRenderer;
+    /* 会话创建完成后在主线程上赋值，日志可在任意线程上输出 */
+    private volatile SatelliteSession satelliteSession;
+    private SatComKitDemo satComKitDemo;
+    private SatelliteClient satelliteClient;
+    private SatelliteSlotManager slotManager;
+    private MessageOutbox messageOutbox;
+    private RegistrationScope registrations;
+    /* 只在主线程上访问，第一帧绘制完成的时刻，之前为0 */
+    private long firstFrameNanos;
+    /* 只在主线程上访问，权限申请结果返回之前为 true，对星预测等待位置权限的结果再启动 */
+    private boolean permissionsPending;
+    private volatile int pendingCapabilityDisplay = CAPABILITY_DISPLAY_NONE;
+    private final CapabilityCache.Listener capabilityListener = snapshot -> {
+        int display = pendingCapabilityDisplay;
+        pendingCapabilityDisplay = CAPABILITY_DISPLAY_NONE;
+        showCapabilities(display, snapshot);
+    };
+    /*
+     * 界面只是会话的观察者，重建时重新挂接即可恢复显示，不会重新注册SDK回调
+     * 会话只弱引用观察者，由界面的这个字段保持可达
+     */
+    private final SatelliteSession.Observer sessionObserver = new SatelliteSession.Observer() {
+        @Override
+        public void onLog(String line, boolean reset) {
+            if (reset) {
+                logConsole.reset(line);
+            } else {
+                logConsole.append(line);
+            }
+        }
+
+        @Override
+        public void onServiceStateChanged(int serviceState) {
+            runOnUiThread(() -> textServStat.setText(String.valueOf(serviceState)));
+        }
+
+        @Override
+        public void onSignalLevelChanged(int signalLevel) {
+            runOnUiThread(() -> textSigLvl.setText(String.valueOf(signalLevel)));
+        }
+
+        @Override
+        public void onPointingSample(PointingSample sample) {
+            pointingRenderer.post(sample);
+        }
+    };
 
     @SuppressLint("ClickableViewAccessibility")
     @Override
@@ -64,6 +129,8 @@ public class MainActivity extends AppCompatActivity {
             }
             return false;
         });
+        /* 输出框内容由日志控制台统一管理，日志文件由会话写入，界面不在时的日志同样保留 */
+        logConsole = new LogConsole(textOutput, LogConsole.DEFAULT_CAPACITY, null);
 
         editInput = findViewById(R.id.editInput);
         editInput.setMovementMethod(ScrollingMovementMethod.getInstance());
@@ -82,20 +149,74 @@ public class MainActivity extends AppCompatActivity {
         });
 
         /*
-         * 创建并注册广播接收，用于接收发送短信的结果
+         * 卫星会话在进程内只创建一次，由前台服务维持存活；界面重建时直接取得已有会话并挂接，
+         * SDK 实例、线程池和已注册的回调都保持不变；首次创建在后台线程上进行，完成后再挂接并启用各步骤按钮
          */
-        IntentFilter intentFilter = new IntentFilter();
-        intentFilter.addAction(SATELLITE_MESSAGE_SENT_ACTION);
-        intentFilter.addAction(SATELLITE_MESSAGE_DELIVERY_ACTION);
-
-        intentReceiver = new IntentReceiver();
-        registerReceiver(intentReceiver, intentFilter, RECEIVER_EXPORTED);
-
+        boolean simulate = getIntent().getBooleanExtra(EXTRA_SIMULATE, false);
+        SatelliteSessionService.start(this, simulate);
+        textServStat = findViewById(R.id.textServStatOutput);
+        textSigLvl = findViewById(R.id.textSigLvlOutput);
+        pointingRenderer = new PointingRenderer(this);
         /*
-         * 创建接口调用类实例
+         * 界面的注册都加入与生命周期绑定的作用域，销毁时按相反顺序自动注销：先解除挂接和监听，再释放渲染和输出框
          */
-        SatComKitDemo satComKitDemo = new SatComKitDemo(MainActivity.this);
+        registrations = LifecycleScopes.bind(this, TAG);
+        registrations.add(logConsole::release);
+        registrations.add(pointingRenderer::release);
+        permissionsPending = savedInstanceState == null
+                ? requestRuntimePermissions() : savedInstanceState.getBoolean(STATE_PERMISSIONS_PENDING);
+        boolean autoConnect = savedInstanceState == null && getIntent().getBooleanExtra(EXTRA_AUTO_CONNECT, false);
+        SatelliteSession.obtain(this, simulate).whenCompleteAsync((session, error) -> {
+            if (isDestroyed()) {
+                /* 会话由前台服务维持，界面已销毁时不再挂接 */
+                return;
+            }
+            if (error != null) {
+                logConsole.append("create satellite session " + describeFailure(error));
+            } else {
+                onSessionReady(session, autoConnect);
+            }
+        }, getMainExecutor());
+        /* 帧回调中投递的任务在该帧绘制完成后执行，此时记录启动到第一帧的时延；会话可能尚未创建完成，先记下时刻 */
+        Choreographer.getInstance().postFrameCallback(frameTimeNanos -> textOutput.post(() -> {
+            firstFrameNanos = SystemClock.elapsedRealtimeNanos();
+            if (satelliteSession != null) {
+                satelliteSession.recordFirstFrame(firstFrameNanos);
+            }
+        }));
+    }
 
+    /**
+     * 会话创建完成后在主线程上挂接界面，并启用各步骤按钮
+     *
+     * @param session process wide satellite session
+     * @param autoConnect whether to start the automatic connection
+     */
+    private void onSessionReady(SatelliteSession session, boolean autoConnect) {
+        satelliteSession = session;
+        satComKitDemo = satelliteSession.getSatComKitDemo();
+        satelliteClient = satelliteSession.getSatelliteClient();
+        slotManager = satelliteSession.getSlotManager();
+        messageOutbox = satelliteSession.getMessageOutbox();
+        satComKitDemo.addCapabilityListener(capabilityListener);
+        registrations.add(() -> satComKitDemo.removeCapabilityListener(capabilityListener));
+        registrations.add(satelliteSession.attach(sessionObserver));
+        if (autoConnect) {
+            satelliteSession.startAutoConnect(-1, satelliteSession.getLaunchNanos());
+        }
+        if (firstFrameNanos != 0) {
+            satelliteSession.recordFirstFrame(firstFrameNanos);
+        }
+        if (!permissionsPending) {
+            satelliteSession.startPointingPrediction();
+        }
+        bindButtons();
+    }
+
+    /**
+     * 设置各步骤按钮的点击处理，会话创建完成之前按钮没有响应
+     */
+    private void bindButtons() {
         /*
          * 在执行下列步骤的过程中，如果想要清空输出框的显示内容，可以点击该按钮
          */
@@ -103,21 +224,38 @@ public class MainActivity extends AppCompatActivity {
         btnClearButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View view) {
-                textOutput.setText("");
+                resetText("");
                 editInput.setText("");
                 editInput.setHint("输入参数......");
             }
         });
 
+        /*
+         * 自动连接：自动执行步骤1~5，就绪后提示可以执行步骤6；输入框可输入要设置的卫星卡槽，为空时使用卡槽管理自动选择的卫星卡
+         */
+        Button btnSatAutoConnect = findViewById(R.id.btnSatAutoConnect);
+        btnSatAutoConnect.setOnClickListener(view -> {
+            String textInput = editInput.getText().toString().trim();
+            resetText("autoConnect:");
+            if (!"".equals(textInput)) {
+                int slotId = parseSlotId(textInput);
+                if (slotId == SatelliteSlotManager.SLOT_NONE) {
+                    return;
+                }
+                /* 经卡槽管理设置，之后的自动切换从该卡槽开始计算 */
+                slotManager.selectSlot(slotId);
+            }
+            satelliteSession.startAutoConnect(-1, satelliteSession.getMetrics().nowNanos());
+            editInput.setText("");
+            editInput.setHint("输入参数......");
+        });
+
         /*
          * 步骤1：判断当前设备是否支持卫星通信，支持则调用步骤2，不支持则不再执行后续操作
          * 通过比较设备支持的卫星类型与需要的卫星类型是否一致，来判断是否支持卫星通信
          */
         Button btnSatSupportType = findViewById(R.id.btnSatSupportType);
-        btnSatSupportType.setOnClickListener(view -> {
-            int rst = satComKitDemo.getSatelliteSupportType();
-            textOutput.setText("getSatelliteSupportType: " + "\nresult: " + rst);
-        });
+        btnSatSupportType.setOnClickListener(view -> requestCapabilities(CAPABILITY_DISPLAY_SUPPORT_TYPE));
 
         /*
          * 步骤2.1：获取设备中支持卫星通信的sim card
@@ -125,26 +263,7 @@ public class MainActivity extends AppCompatActivity {
          * 如果不存在可用sim card，则不执行后续步骤；
          */
         Button btnSatSimCards = findViewById(R.id.btnSatSimCards);
-        btnSatSimCards.setOnClickListener(view -> {
-            List<HnAvailableSatSim> availableSatSimList = satComKitDemo.getAvailableSatSimCards();
-            StringBuilder rst = new StringBuilder();
-            if (!availableSatSimList.isEmpty()) {
-                for (HnAvailableSatSim mHnAvailableSatSim: availableSatSimList) {
-                    rst.append("mSlotId: ")
-                        .append(mHnAvailableSatSim.getSlotId())
-                        .append("; mSupportSatType: ")
-                        .append(mHnAvailableSatSim.getSatelliteSupportType())
-                        .append("; mOperator: ")
-                        .append(mHnAvailableSatSim.getSimOperator())
-                        .append("; mPhoneNumber: ")
-                        .append(mHnAvailableSatSim.getPhoneNumber())
-                        .append("\n");
-                }
-            } else {
-                rst.append("List<HnAvailableSatSim> availableSatSimList is empty!");
-            }
-            textOutput.setText("getAvailableSatSimCards:\n" + rst);
-        });
+        btnSatSimCards.setOnClickListener(view -> requestCapabilities(CAPABILITY_DISPLAY_SIM_CARDS));
 
         /*
          * 步骤2.2：设置默认卫星卡
@@ -165,9 +284,14 @@ public class MainActivity extends AppCompatActivity {
                 editInput.setText("");
                 return;
             }
-            int slotId = Integer.parseInt(strList[0]);
-            textOutput.setText("setSatelliteSlot:");
-            satComKitDemo.setSatelliteSlot(slotId);
+            resetText("setSatelliteSlot:");
+            int slotId = parseSlotId(strList[0]);
+            if (slotId == SatelliteSlotManager.SLOT_NONE) {
+                editInput.setText("");
+                return;
+            }
+            slotManager.selectSlot(slotId)
+                    .whenComplete((result, error) -> addText(error == null ? "done" : describeFailure(error)));
             editInput.setText("");
             editInput.setHint("输入参数......");
         });
@@ -179,9 +303,9 @@ public class MainActivity extends AppCompatActivity {
          */
         Button btnSatPointing = findViewById(R.id.btnSatPointing);
         btnSatPointing.setOnClickListener(view -> {
-            textOutput.setText("registerForSatellitePointingUpdates: ");
-            int rst = satComKitDemo.registerForSatellitePointingUpdates();
-            addText("result: " + rst);
+            resetText("registerForSatellitePointingUpdates: ");
+            showRegisterResult(satelliteClient.registerForSatellitePointingUpdates(
+                    satComKitDemo.getPointingCallback(), SatelliteSession.SATELLITE_REGISTER_TIMEOUT_MILLIS));
         });
 
         /*
@@ -190,9 +314,9 @@ public class MainActivity extends AppCompatActivity {
          */
         Button btnSatModem = findViewById(R.id.btnSatModem);
         btnSatModem.setOnClickListener(view -> {
-            textOutput.setText("registerForSatelliteModemStateChanged: ");
-            int rst = satComKitDemo.registerForSatelliteModemStateChanged();
-            addText("result: " + rst);
+            resetText("registerForSatelliteModemStateChanged: ");
+            showRegisterResult(satelliteClient.registerForSatelliteModemStateChanged(
+                    satComKitDemo.getModemStateCallback(), SatelliteSession.SATELLITE_REGISTER_TIMEOUT_MILLIS));
         });
 
         /*
@@ -218,13 +342,34 @@ public class MainActivity extends AppCompatActivity {
                 return;
             }
             boolean enableSatellite = Boolean.parseBoolean(strList[0]);
-            satComKitDemo.requestSatelliteEnabled(enableSatellite);
+            resetText("requestSatelliteEnabled:");
+            /* 使能成功后继续等待卫星服务可用（服务状态由步骤4或自动连接注册的回调上报），提示可以执行步骤6 */
+            satelliteClient.requestSatelliteEnabled(enableSatellite, SatelliteSession.SATELLITE_ENABLE_TIMEOUT_MILLIS)
+                    .thenCompose(result -> {
+                        addText("result: " + result);
+                        if (enableSatellite) {
+                            /* 使能结果写入 logcat 供设备群日志分析，去使能的结果不计入 */
+                            Log.i(TAG, "result: " + result);
+                        }
+                        if (!enableSatellite || !result) {
+                            return CompletableFuture.<Void>completedFuture(null);
+                        }
+                        return satelliteClient.awaitServiceState(SatelliteBackend.SERVICE_STATE_IN_SERVICE,
+                                SatelliteSession.SATELLITE_SERVICE_TIMEOUT_MILLIS)
+                                .thenAccept(state -> addText("satellite in service"));
+                    })
+                    .exceptionally(error -> {
+                        addText(describeFailure(error));
+                        return null;
+                    });
             editInput.setText("");
             editInput.setHint("输入参数......");
         });
 
         /*
          * 步骤6：在保证卫星服务状态为连接后，可调用卫星短信发送的接口，进行短信的发送。
+         * 短信先在合并窗口内与发往同一号码的短信合并；形如 pos:纬度,经度[,海拔] 或 status:状态码 的内容
+         * 会被紧凑编码后再发送；第4个参数为 true 时作为紧急短信，有服务即发送，不等待信号窗口
          */
         Button btnSatMessage = findViewById(R.id.btnSatMessage);
         btnSatMessage.setOnClickListener(view -> {
@@ -233,36 +378,21 @@ public class MainActivity extends AppCompatActivity {
                 Toast.makeText(getApplicationContext(), "需要在输入框输入参数!",
                         Toast.LENGTH_SHORT).show();
                 editInput.setHint("请在此处输入参数：(以空格进行区分)\n" +
-                        "(String) destinationAddress scAddress text");
+                        "(String) destinationAddress scAddress text [(boolean) urgent]");
                 return;
             }
-            String[] strList = textInput.split(" ");
-            if (strList.length != 3) {
-                Toast.makeText(getApplicationContext(), "输入参数个数不等于3!",
+            SendCommand command = SendCommand.parse(textInput);
+            if (command == null) {
+                Toast.makeText(getApplicationContext(), "输入参数个数不等于3或4!",
                         Toast.LENGTH_SHORT).show();
                 editInput.setText("");
                 return;
             }
-            String destinationAddress = strList[0];
-            String scAddress = strList[1];
-            String text = strList[2];
-
-            Context context = getApplicationContext();
-            Intent sentNormIntent = new Intent(SATELLITE_MESSAGE_SENT_ACTION);
-            sentNormIntent.setPackage(context.getPackageName());
-            Intent deliveryNormIntent = new Intent(SATELLITE_MESSAGE_DELIVERY_ACTION);
-            deliveryNormIntent.setPackage(context.getPackageName());
-
-            PendingIntent sentIntent = PendingIntent.getBroadcast(context, 0,
-                    sentNormIntent,
-                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_MUTABLE);
-            PendingIntent deliveryIntent = PendingIntent.getBroadcast(context, 1,
-                    deliveryNormIntent,
-                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_MUTABLE);
-
-            textOutput.setText("sendTextMessage: ");
-            satComKitDemo.sendTextMessage(destinationAddress, scAddress, text,
-                    sentIntent, deliveryIntent);
+
+            resetText("sendTextMessage: ");
+            messageOutbox.submit(command.getDestinationAddress(), command.getScAddress(), command.getText(),
+                    command.isUrgent()).whenComplete((outboxId, error) -> addText(error == null
+                            ? "outbox message " + outboxId + " saved" : describeFailure(error)));
             editInput.setText("");
             editInput.setHint("输入参数......");
         });
@@ -272,7 +402,7 @@ public class MainActivity extends AppCompatActivity {
          */
         Button btnSatUnModem = findViewById(R.id.btnSatUnModem);
         btnSatUnModem.setOnClickListener(view -> {
-            textOutput.setText("unregisterForSatelliteModemStateChanged: ");
+            resetText("unregisterForSatelliteModemStateChanged: ");
             satComKitDemo.unregisterForSatelliteModemStateChanged();
         });
 
@@ -281,7 +411,7 @@ public class MainActivity extends AppCompatActivity {
          */
         Button btnSatUnPointing = findViewById(R.id.btnSatUnPointing);
         btnSatUnPointing.setOnClickListener(view -> {
-            textOutput.setText("unregisterForSatellitePointingUpdates: ");
+            resetText("unregisterForSatellitePointingUpdates: ");
             satComKitDemo.unregisterForSatellitePointingUpdates();
         });
 
@@ -292,47 +422,171 @@ public class MainActivity extends AppCompatActivity {
 
     @Override
     protected void onDestroy() {
+        /* 界面的注册已在 ON_DESTROY 时由作用域注销 */
         super.onDestroy();
-        unregisterReceiver(intentReceiver);
+        if (isFinishing() && !isChangingConfigurations()) {
+            /* 用户退出时结束会话，配置变化引起的重建保持会话 */
+            SatelliteSessionService.stop(this);
+        }
     }
 
-    class IntentReceiver extends BroadcastReceiver {
-        @Override
-        public void onReceive(Context context, Intent intent) {
-            if (intent == null) {
-                Log.d(TAG, "received null intent");
-                addText("received null intent");
-                return;
+    @Override
+    public void onRequestPermissionsResult(int requestCode, String[] permissions, int[] grantResults) {
+        super.onRequestPermissionsResult(requestCode, permissions, grantResults);
+        if (requestCode != REQUEST_CODE_PERMISSIONS) {
+            return;
+        }
+        for (int i = 0; i < permissions.length && i < grantResults.length; i++) {
+            if (grantResults[i] != PackageManager.PERMISSION_GRANTED) {
+                onPermissionDenied(permissions[i]);
             }
+        }
+        permissionsPending = false;
+        if (satelliteSession != null) {
+            /* 位置权限已有结果，拒绝时对星预测只记录没有已知位置 */
+            satelliteSession.startPointingPrediction();
+        }
+    }
 
-            final String action = intent.getAction();
-            if (action == null) {
-                Log.d(TAG, "received null intent action");
-                addText("received null intent action");
-                return;
-            }
+    @Override
+    protected void onSaveInstanceState(Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putBoolean(STATE_PERMISSIONS_PENDING, permissionsPending);
+    }
 
-            if (SATELLITE_MESSAGE_DELIVERY_ACTION.equals(action)) {
-                int resultCode = getResultCode();
-                addText("message delivery resultCode: " + resultCode);
+    /**
+     * 申请尚未授予的运行时权限，结果在 {@link #onRequestPermissionsResult} 中处理
+     *
+     * @return true if a request was made and its result is pending
+     */
+    private boolean requestRuntimePermissions() {
+        List<String> missing = new ArrayList<>();
+        for (String permission : RUNTIME_PERMISSIONS) {
+            if (checkSelfPermission(permission) != PackageManager.PERMISSION_GRANTED) {
+                missing.add(permission);
             }
+        }
+        if (missing.isEmpty()) {
+            return false;
+        }
+        requestPermissions(missing.toArray(new String[0]), REQUEST_CODE_PERMISSIONS);
+        return true;
+    }
 
-            if (SATELLITE_MESSAGE_SENT_ACTION.equals(action)) {
-                int resultCode = getResultCode();
-                addText("message sent resultCode: " + resultCode);
+    /**
+     * 权限被拒绝时在日志和输出框中说明受影响的功能
+     *
+     * @param permission denied permission
+     */
+    private void onPermissionDenied(String permission) {
+        String line;
+        if (Manifest.permission.RECEIVE_SMS.equals(permission)) {
+            line = "permission denied: RECEIVE_SMS, satellite messages will not be received";
+        } else if (Manifest.permission.ACCESS_COARSE_LOCATION.equals(permission)) {
+            line = "permission denied: ACCESS_COARSE_LOCATION, pointing will not be predicted";
+        } else {
+            line = "permission denied: " + permission;
+        }
+        Log.w(TAG, line);
+        addText(line);
+    }
+
+    /**
+     * 显示缓存中的卫星能力，尚未查询完成时先提示，查询完成后由能力监听显示
+     *
+     * @param display content to display, one of the CAPABILITY_DISPLAY constants
+     */
+    private void requestCapabilities(int display) {
+        CapabilitySnapshot snapshot = satComKitDemo.getCapabilities();
+        if (snapshot.isLoaded()) {
+            showCapabilities(display, snapshot);
+            return;
+        }
+        pendingCapabilityDisplay = display;
+        resetText("querying satellite capabilities...");
+        /* 监听可能在设置标记之前已经回调，再检查一次，避免提示一直不被替换 */
+        snapshot = satComKitDemo.getCapabilities();
+        if (snapshot.isLoaded() && pendingCapabilityDisplay == display) {
+            pendingCapabilityDisplay = CAPABILITY_DISPLAY_NONE;
+            showCapabilities(display, snapshot);
+        }
+    }
+
+    private void showCapabilities(int display, CapabilitySnapshot snapshot) {
+        if (display == CAPABILITY_DISPLAY_SUPPORT_TYPE) {
+            resetText("getSatelliteSupportType: " + "\nresult: " + snapshot.getSatelliteSupportType());
+        } else if (display == CAPABILITY_DISPLAY_SIM_CARDS) {
+            resetText("getAvailableSatSimCards:\n" + snapshot.getSatSimsText());
+        }
+    }
+
+    /**
+     * 解析输入框中的卫星卡槽，不是有效卡槽时在输出框中提示
+     *
+     * @param text text typed in the input box
+     * @return slot ID 0 or 1, or {@link SatelliteSlotManager#SLOT_NONE} if the text is not a valid slot
+     */
+    private int parseSlotId(String text) {
+        int slotId;
+        try {
+            slotId = Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            slotId = SatelliteSlotManager.SLOT_NONE;
+        }
+        if (slotId != 0 && slotId != 1) {
+            addText("invalid slotId: " + text + ", expected 0 or 1");
+            return SatelliteSlotManager.SLOT_NONE;
+        }
+        return slotId;
+    }
+
+    /**
+     * 显示步骤3、4的注册结果，注册在 SDK 调用线程上执行，不阻塞主线程；回调句柄不保留，去注册由步骤7、8完成
+     *
+     * @param registration future of the registration made through the satellite client
+     */
+    private void showRegisterResult(CompletableFuture<SatelliteClient.Registration> registration) {
+        registration.whenComplete((handle, error) -> {
+            if (error == null) {
+                addText("result: 0");
+                return;
             }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            addText(cause instanceof SatelliteOperationException
+                    ? "result: " + ((SatelliteOperationException) cause).getResultCode() : describeFailure(cause));
+        });
+    }
+
+    private static String describeFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof CancellationException) {
+            return "cancelled";
         }
+        return "failed: " + cause.getMessage();
     }
 
     /**
-     * 在输出框中追加显示内容
+     * 在输出框中追加显示内容，可在任意线程调用；会话创建完成之前只显示在输出框中，不写入会话日志
      *
      * @param strText 追加内容
-     * @return 主活动类的输出框实例成员
      */
-    public synchronized void addText(final String strText) {
-        String lastText = textOutput.getText().toString().trim();
-        textOutput.setText(lastText + '\n' + strText);
+    public void addText(final String strText) {
+        SatelliteSession session = satelliteSession;
+        if (session != null) {
+            session.log(strText);
+        } else {
+            logConsole.append(strText);
+        }
+    }
+
+    /**
+     * 清空输出框并显示新的内容，可在任意线程调用
+     *
+     * @param strText 显示内容
+     */
+    public void resetText(final String strText) {
+        satelliteSession.resetLog(strText);
     }
 
     /**
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 卫星短信合并发送类，位于 {@link OutboundMessageQueue} 之前
+ * 在延迟预算内，发往同一号码的多条短消息按顺序合并成尽量少的分段，减少卫星链路上的发送次数
+ *
+ * @since 2026-10-17
+ */
+public class MessageBatcher {
+    /* 合并后各条消息之间的分隔符 */
+    public static final char SEPARATOR = '\n';
+
+    private static final String TAG = "MessageBatcher";
+
+    private final OutboundMessageQueue messageQueue;
+    private final int maxSegmentChars;
+    private final long latencyBudgetMillis;
+    private final ScheduledThreadPoolExecutor batchThread = new ScheduledThreadPoolExecutor(1,
+            runnable -> new Thread(runnable, "SatSmsBatcher"));
+    /* 按“号码 + 短信中心”分组的待合并消息，保持首次提交的顺序 */
+    private final Map<String, Batch> batches = new LinkedHashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param messageQueue queue receiving the merged segments
+     * @param maxSegmentChars maximum number of characters in one merged segment
+     * @param latencyBudgetMillis longest time a message may wait for others to merge with
+     */
+    public MessageBatcher(OutboundMessageQueue messageQueue, int maxSegmentChars, long latencyBudgetMillis) {
+        if (maxSegmentChars < 1 || latencyBudgetMillis < 0) {
+            throw new IllegalArgumentException("invalid batch limits: " + maxSegmentChars
+                    + ", " + latencyBudgetMillis);
+        }
+        this.messageQueue = messageQueue;
+        this.maxSegmentChars = maxSegmentChars;
+        this.latencyBudgetMillis = latencyBudgetMillis;
+        batchThread.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        /* 按长度提前发出的批次会取消其定时任务，取消后立即移出调度队列 */
+        batchThread.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Submit a text message, it is sent at the latest when the latency budget expires.
+     *
+     * @param destinationAddress the address to send the message to
+     * @param scAddress the service center address or null to use the current default SMSC
+     * @param text the body of the message to send
+     * @return future completed with the queued segment carrying this text
+     */
+    public CompletableFuture<OutboundMessage> submit(String destinationAddress, String scAddress, String text) {
+        CompletableFuture<OutboundMessage> future = new CompletableFuture<>();
+        execute(future, () -> submitOnBatchThread(destinationAddress, scAddress, text, future));
+        return future;
+    }
+
+    /**
+     * Send every pending batch immediately.
+     */
+    public void flushAll() {
+        execute(null, this::flushPending);
+    }
+
+    /**
+     * Send every pending batch, stop the batch thread and wait until the batches are handed to the queue,
+     * so the queue can be shut down afterwards without rejecting them. Messages still waiting in a batch
+     * after the timeout fail.
+     *
+     * @param timeoutMillis longest time to wait for the batch thread
+     */
+    public void shutdown(long timeoutMillis) {
+        execute(null, this::flushPending);
+        batchThread.shutdown();
+        boolean terminated;
+        try {
+            terminated = batchThread.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            terminated = false;
+        }
+        if (!terminated) {
+            Log.w(TAG, "batch thread did not finish within " + timeoutMillis + "ms");
+            batchThread.shutdownNow();
+        }
+        failPending(new RejectedExecutionException("batcher shut down"));
+    }
+
+    private synchronized void submitOnBatchThread(String destinationAddress, String scAddress, String text,
+                                                  CompletableFuture<OutboundMessage> future) {
+        String key = destinationAddress + '\u0000' + scAddress;
+        Batch batch = batches.get(key);
+        if (batch != null && !batch.fits(text)) {
+            /* 当前分段放不下，先发出已合并的部分，新消息开始下一个分段 */
+            flush(key, batch);
+            batch = null;
+        }
+        if (batch == null) {
+            batch = new Batch(destinationAddress, scAddress);
+            batches.put(key, batch);
+            Batch scheduled = batch;
+            try {
+                batch.deadline = batchThread.schedule(() -> flush(key, scheduled),
+                        latencyBudgetMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                /* 正在关闭，关闭时排在其后的发送任务会发出这个批次 */
+                Log.d(TAG, "batcher shutting down, batch sent on shutdown");
+            }
+        }
+        batch.add(text, future);
+        if (batch.text.length() >= maxSegmentChars) {
+            flush(key, batch);
+        }
+    }
+
+    private synchronized void flushPending() {
+        Iterator<Map.Entry<String, Batch>> iterator = batches.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Batch batch = iterator.next().getValue();
+            iterator.remove();
+            send(batch);
+        }
+    }
+
+    /* 等待关闭超时后，批次线程可能仍在执行，加锁后再处理剩余批次 */
+    private synchronized void failPending(RuntimeException error) {
+        for (Batch batch : batches.values()) {
+            for (CompletableFuture<OutboundMessage> future : batch.futures) {
+                future.completeExceptionally(error);
+            }
+        }
+        batches.clear();
+    }
+
+    private synchronized void flush(String key, Batch batch) {
+        /* 定时任务可能晚于按长度触发的发送，只处理仍在等待的批次 */
+        if (batches.get(key) != batch) {
+            return;
+        }
+        batches.remove(key);
+        send(batch);
+    }
+
+    private void send(Batch batch) {
+        if (batch.deadline != null) {
+            batch.deadline.cancel(false);
+        }
+        try {
+            OutboundMessage message = messageQueue.submit(batch.destinationAddress, batch.scAddress,
+                    batch.text.toString());
+            for (CompletableFuture<OutboundMessage> future : batch.futures) {
+                future.complete(message);
+            }
+        } catch (RuntimeException e) {
+            Log.e(TAG, "submit merged message failed", e);
+            for (CompletableFuture<OutboundMessage> future : batch.futures) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void execute(CompletableFuture<OutboundMessage> future, Runnable task) {
+        try {
+            batchThread.execute(task);
+        } catch (RejectedExecutionException e) {
+            Log.d(TAG, "batcher already shut down");
+            if (future != null) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private final class Batch {
+        final String destinationAddress;
+        final String scAddress;
+        final StringBuilder text = new StringBuilder();
+        final List<CompletableFuture<OutboundMessage>> futures = new ArrayList<>();
+        ScheduledFuture<?> deadline;
+
+        Batch(String destinationAddress, String scAddress) {
+            this.destinationAddress = destinationAddress;
+            this.scAddress = scAddress;
+        }
+
+        boolean fits(String part) {
+            return text.length() + 1 + part.length() <= maxSegmentChars;
+        }
+
+        void add(String part, CompletableFuture<OutboundMessage> future) {
+            if (text.length() > 0) {
+                text.append(SEPARATOR);
+            }
+            text.append(part);
+            futures.add(future);
+        }
+    }
+}
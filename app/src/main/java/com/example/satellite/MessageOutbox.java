@@ -0,0 +1,317 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 卫星短信发件箱，先将短信写入 {@link OutboxJournal} 再发送，进程重启和链路中断都不会丢失短信
+ * 何时发送由 {@link LinkQualityScheduler} 决定：卫星无服务时短信保存在发件箱中，服务恢复后自动发出，
+ * 非紧急短信还要等到信号足够好的发送窗口；发送失败的短信按指数退避重试，
+ * 直到收到发送成功的结果或达到最大重试次数
+ *
+ * @since 2026-10-17
+ */
+public class MessageOutbox implements LinkQualityScheduler.Listener {
+    /**
+     * 待发送短信数量变化监听，在发件箱线程上调用
+     */
+    public interface PendingListener {
+        /**
+         * Called whenever a message is added to or removed from the outbox.
+         *
+         * @param pendingCount number of messages not yet sent
+         * @param urgentPending whether any of them is urgent
+         */
+        void onPendingChanged(int pendingCount, boolean urgentPending);
+    }
+
+    private static final String TAG = "MessageOutbox";
+    /* 日志记录数超过该值，且超过存活短信数的若干倍时进行压缩 */
+    private static final int COMPACT_MIN_RECORDS = 1024;
+    private static final int COMPACT_RATIO = 4;
+
+    private final File journalFile;
+    private final MessageBatcher messageBatcher;
+    private final LinkQualityScheduler linkQualityScheduler;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int maxAttempts;
+    private final ScheduledThreadPoolExecutor outboxThread = new ScheduledThreadPoolExecutor(1,
+            runnable -> new Thread(runnable, "SatOutbox"));
+    private final Map<Long, OutboxEntry> live = new LinkedHashMap<>();
+    private OutboxJournal journal;
+    /* 只在发件箱线程上访问，由日志重放结果设置初值，新短信的ID在重放之后分配，不会与日志中的短信冲突 */
+    private long nextId;
+    private ScheduledFuture<?> wakeup;
+    private boolean linkUp = true;
+    private volatile int pendingCount;
+    private volatile PendingListener pendingListener;
+
+    /**
+     * Constructor
+     *
+     * @param journalFile file persisting the outbox
+     * @param messageBatcher stage the messages are handed to when the link is up
+     * @param linkQualityScheduler scheduler deciding when messages may be sent
+     * @param baseBackoffMillis delay before the first retry, doubled for each further retry
+     * @param maxBackoffMillis upper bound of the retry delay
+     * @param maxAttempts number of send attempts after which a message is dropped
+     */
+    public MessageOutbox(File journalFile, MessageBatcher messageBatcher,
+                         LinkQualityScheduler linkQualityScheduler, long baseBackoffMillis,
+                         long maxBackoffMillis, int maxAttempts) {
+        if (baseBackoffMillis <= 0 || maxBackoffMillis < baseBackoffMillis || maxAttempts < 1) {
+            throw new IllegalArgumentException("invalid retry policy");
+        }
+        this.journalFile = journalFile;
+        this.messageBatcher = messageBatcher;
+        this.linkQualityScheduler = linkQualityScheduler;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.maxAttempts = maxAttempts;
+        outboxThread.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Replay the journal in the background and start sending the messages left from earlier runs.
+     */
+    public void start() {
+        execute(() -> {
+            File directory = journalFile.getParentFile();
+            if (directory != null && !directory.exists() && !directory.mkdirs()) {
+                Log.e(TAG, "cannot create " + directory);
+            }
+            try {
+                journal = OutboxJournal.open(journalFile, live);
+            } catch (IOException e) {
+                Log.e(TAG, "open outbox journal failed", e);
+                return;
+            }
+            long maxId = System.currentTimeMillis();
+            for (OutboxEntry entry : live.values()) {
+                maxId = Math.max(maxId, entry.id);
+            }
+            nextId = maxId;
+            updatePending();
+            Log.i(TAG, "replayed " + live.size() + " pending messages from " + journal.getRecordCount()
+                    + " records");
+            drain();
+        });
+    }
+
+    /**
+     * Persist a text message and send it as soon as the link allows.
+     *
+     * @param destinationAddress the address to send the message to
+     * @param scAddress the service center address or null to use the current default SMSC
+     * @param text the body of the message to send
+     * @param urgent urgent messages are sent as soon as there is service, without waiting for a good window
+     * @return future completed with the ID of the message once it is persisted, or exceptionally with an
+     *         {@link IOException} if it cannot be persisted or a {@link RejectedExecutionException} after shutdown
+     */
+    public CompletableFuture<Long> submit(String destinationAddress, String scAddress, String text,
+                                          boolean urgent) {
+        CompletableFuture<Long> future = new CompletableFuture<>();
+        try {
+            outboxThread.execute(() -> {
+                if (journal == null) {
+                    Log.e(TAG, "outbox journal unavailable, message discarded");
+                    future.completeExceptionally(new IOException("outbox journal unavailable"));
+                    return;
+                }
+                long id = ++nextId;
+                OutboxEntry entry = new OutboxEntry(id, destinationAddress, scAddress, text,
+                        System.currentTimeMillis(), urgent);
+                entry.nextAttemptAtMillis = entry.createdAtMillis;
+                if (!append(() -> journal.appendEnqueue(entry))) {
+                    future.completeExceptionally(new IOException("write outbox journal failed"));
+                    return;
+                }
+                live.put(id, entry);
+                updatePending();
+                future.complete(id);
+                drain();
+            });
+        } catch (RejectedExecutionException e) {
+            Log.d(TAG, "outbox already shut down");
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    public void setPendingListener(PendingListener pendingListener) {
+        this.pendingListener = pendingListener;
+    }
+
+    /**
+     * Get the number of messages not yet sent.
+     *
+     * @return pending message count
+     */
+    public int getPendingCount() {
+        return pendingCount;
+    }
+
+    @Override
+    public void onLinkQualityChanged() {
+        execute(() -> {
+            boolean wasUp = linkUp;
+            linkUp = linkQualityScheduler.isLinkUp();
+            if (linkUp && !wasUp) {
+                /* 链路中断导致的失败不计入退避时间，服务恢复后立即重发 */
+                long now = System.currentTimeMillis();
+                for (OutboxEntry entry : live.values()) {
+                    entry.nextAttemptAtMillis = Math.min(entry.nextAttemptAtMillis, now);
+                }
+            }
+            drain();
+        });
+    }
+
+    /**
+     * Stop sending and close the journal. Unsent messages are sent again on the next start.
+     */
+    public void shutdown() {
+        execute(() -> {
+            try {
+                if (journal != null) {
+                    journal.close();
+                }
+            } catch (IOException e) {
+                Log.e(TAG, "close outbox journal failed", e);
+            }
+            journal = null;
+        });
+        outboxThread.shutdown();
+    }
+
+    private void drain() {
+        if (wakeup != null) {
+            wakeup.cancel(false);
+            wakeup = null;
+        }
+        if (journal == null) {
+            return;
+        }
+        boolean urgentAllowed = linkQualityScheduler.mayTransmit(true);
+        boolean normalAllowed = linkQualityScheduler.mayTransmit(false);
+        long now = System.currentTimeMillis();
+        long wakeDelay = Long.MAX_VALUE;
+        boolean held = false;
+        for (OutboxEntry entry : live.values()) {
+            if (entry.inFlight) {
+                continue;
+            }
+            if (!(entry.urgent ? urgentAllowed : normalAllowed)) {
+                held = true;
+            } else if (entry.nextAttemptAtMillis <= now) {
+                dispatch(entry, now);
+            } else {
+                wakeDelay = Math.min(wakeDelay, entry.nextAttemptAtMillis - now);
+            }
+        }
+        long recheckDelay = held ? linkQualityScheduler.getRecheckDelayMillis() : -1;
+        if (recheckDelay >= 0) {
+            /* 有服务但短信被拦截时定期重新评估，稳定时间到达或旧样本过期后即使没有新的信号样本也能发送 */
+            wakeDelay = Math.min(wakeDelay, recheckDelay);
+        }
+        if (wakeDelay != Long.MAX_VALUE) {
+            wakeup = outboxThread.schedule(this::drain, wakeDelay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void dispatch(OutboxEntry entry, long now) {
+        entry.attempts++;
+        entry.nextAttemptAtMillis = now + backoff(entry.attempts);
+        /* 先记录本次尝试及下次重试时间，进程在等待结果时被杀，重启后按退避时间重发 */
+        if (!append(() -> journal.appendAttempt(entry))) {
+            return;
+        }
+        entry.inFlight = true;
+        messageBatcher.submit(entry.destinationAddress, entry.scAddress, entry.text)
+                .thenCompose(OutboundMessage::sentFuture)
+                .whenComplete((message, throwable) -> execute(() -> onSendResult(entry, message)));
+    }
+
+    private void onSendResult(OutboxEntry entry, OutboundMessage message) {
+        entry.inFlight = false;
+        if (live.get(entry.id) != entry || journal == null) {
+            return;
+        }
+        boolean sent = message != null && (message.getState() == MessageState.SENT
+                || message.getState() == MessageState.DELIVERED);
+        if (!sent && entry.attempts < maxAttempts) {
+            Log.i(TAG, "message " + entry.id + " attempt " + entry.attempts + " failed, retry later");
+            drain();
+            return;
+        }
+        if (!sent) {
+            Log.w(TAG, "message " + entry.id + " dropped after " + entry.attempts + " attempts");
+        }
+        if (!append(() -> journal.appendDone(entry.id))) {
+            return;
+        }
+        live.remove(entry.id);
+        updatePending();
+        if (journal.getRecordCount() > COMPACT_MIN_RECORDS
+                && journal.getRecordCount() > COMPACT_RATIO * live.size()) {
+            append(() -> journal.compact(live.values()));
+        }
+    }
+
+    private void updatePending() {
+        pendingCount = live.size();
+        PendingListener listener = pendingListener;
+        if (listener == null) {
+            return;
+        }
+        boolean urgentPending = false;
+        for (OutboxEntry entry : live.values()) {
+            if (entry.urgent) {
+                urgentPending = true;
+                break;
+            }
+        }
+        listener.onPendingChanged(pendingCount, urgentPending);
+    }
+
+    private long backoff(int attempts) {
+        int shift = Math.min(attempts - 1, 20);
+        return Math.min(maxBackoffMillis, baseBackoffMillis << shift);
+    }
+
+    private boolean append(JournalWrite write) {
+        try {
+            write.run();
+            return true;
+        } catch (IOException e) {
+            Log.e(TAG, "write outbox journal failed", e);
+            return false;
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            outboxThread.execute(task);
+        } catch (RejectedExecutionException e) {
+            Log.d(TAG, "outbox already shut down");
+        }
+    }
+
+    private interface JournalWrite {
+        void run() throws IOException;
+    }
+}
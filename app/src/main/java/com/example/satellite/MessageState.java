@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+/**
+ * 卫星短信发送状态
+ *
+ * @since 2026-10-17
+ */
+public enum MessageState {
+    /* 已进入发送队列，等待发送 */
+    QUEUED,
+    /* 已调用发送接口，等待发送结果广播 */
+    SENDING,
+    /* 发送成功，等待送达结果广播 */
+    SENT,
+    /* 对方已收到 */
+    DELIVERED,
+    /* 发送或送达失败 */
+    FAILED;
+
+    /**
+     * Whether no further state change will happen.
+     *
+     * @return true for DELIVERED and FAILED
+     */
+    public boolean isFinal() {
+        return this == DELIVERED || this == FAILED;
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 待发送的卫星短信，携带唯一的关联ID，用于匹配发送结果和送达结果广播
+ *
+ * @since 2026-10-17
+ */
+public final class OutboundMessage {
+    /* 未收到结果广播时的结果码 */
+    public static final int RESULT_NONE = Integer.MIN_VALUE;
+
+    private final long id;
+    private final String destinationAddress;
+    private final String scAddress;
+    private final String text;
+    private final CompletableFuture<OutboundMessage> sentFuture = new CompletableFuture<>();
+    private final CompletableFuture<OutboundMessage> resultFuture = new CompletableFuture<>();
+    private volatile MessageState state = MessageState.QUEUED;
+    private volatile int sentResultCode = RESULT_NONE;
+    private volatile int deliveryResultCode = RESULT_NONE;
+
+    OutboundMessage(long id, String destinationAddress, String scAddress, String text) {
+        this.id = id;
+        this.destinationAddress = destinationAddress;
+        this.scAddress = scAddress;
+        this.text = text;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getDestinationAddress() {
+        return destinationAddress;
+    }
+
+    public String getScAddress() {
+        return scAddress;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public MessageState getState() {
+        return state;
+    }
+
+    public int getSentResultCode() {
+        return sentResultCode;
+    }
+
+    public int getDeliveryResultCode() {
+        return deliveryResultCode;
+    }
+
+    /**
+     * Future completed once the sent broadcast of this message is received, whatever its result.
+     *
+     * @return future of this message
+     */
+    public CompletableFuture<OutboundMessage> sentFuture() {
+        return sentFuture;
+    }
+
+    /**
+     * Future completed once this message is delivered, failed, or its delivery report timed out.
+     *
+     * @return future of this message
+     */
+    public CompletableFuture<OutboundMessage> resultFuture() {
+        return resultFuture;
+    }
+
+    void setState(MessageState newState) {
+        state = newState;
+    }
+
+    void setSentResultCode(int resultCode) {
+        sentResultCode = resultCode;
+    }
+
+    void setDeliveryResultCode(int resultCode) {
+        deliveryResultCode = resultCode;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboundMessage{id=" + id + ", destinationAddress=" + destinationAddress
+                + ", state=" + state + ", sentResultCode=" + sentResultCode
+                + ", deliveryResultCode=" + deliveryResultCode + '}';
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import android.util.Log;
+
+import com.example.satellite.backend.SatelliteBackend;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 卫星短信发送队列，在 {@link SatComKitDemo#sendTextMessage} 之上为每条短信分配唯一的关联ID
+ * 后端按关联ID回调发送结果和送达结果，结果可以准确对应到具体短信；
+ * 同时在途（已发送、未收到发送结果）的短信数量不超过设定值，其余短信排队等待
+ *
+ * @since 2026-10-17
+ */
+public class OutboundMessageQueue implements SatelliteBackend.SmsResultCallback {
+    private static final String TAG = "OutboundMessageQueue";
+
+    /**
+     * 短信状态监听
+     */
+    public interface Listener {
+        /**
+         * Called on the queue thread whenever the state of a message changes.
+         *
+         * @param message message whose state changed
+         */
+        void onMessageStateChanged(OutboundMessage message);
+    }
+
+    private final SatComKitDemo satComKitDemo;
+    private final int maxInFlight;
+    private final long sentTimeoutMillis;
+    private final long deliveryTimeoutMillis;
+    private final Listener listener;
+    private final ScheduledThreadPoolExecutor queueThread = new ScheduledThreadPoolExecutor(1,
+            runnable -> new Thread(runnable, "SatSmsQueue"));
+    /* 以当前时间为种子，避免与上一个进程遗留的短信ID冲突 */
+    private final AtomicLong nextId = new AtomicLong(System.currentTimeMillis());
+    private final ArrayDeque<OutboundMessage> waiting = new ArrayDeque<>();
+    private final Map<Long, OutboundMessage> tracked = new HashMap<>();
+    private int inFlight;
+    /* 只在队列线程上访问；关闭任务执行后仍可能有已排队的提交任务，这些短信直接失败，不再发送 */
+    private boolean shutDown;
+
+    /**
+     * Constructor
+     *
+     * @param satComKitDemo wrapper actually sending the messages, its results are reported to this queue
+     * @param maxInFlight maximum number of messages waiting for their sent result at once
+     * @param sentTimeoutMillis time after which a message without sent result is failed
+     * @param deliveryTimeoutMillis time after which a sent message is no longer tracked for delivery
+     * @param listener listener notified of every state change, may be null
+     */
+    public OutboundMessageQueue(SatComKitDemo satComKitDemo, int maxInFlight,
+                                long sentTimeoutMillis, long deliveryTimeoutMillis, Listener listener) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.satComKitDemo = satComKitDemo;
+        this.maxInFlight = maxInFlight;
+        this.sentTimeoutMillis = sentTimeoutMillis;
+        this.deliveryTimeoutMillis = deliveryTimeoutMillis;
+        this.listener = listener;
+        /* 关闭后不再执行尚未到期的超时检查 */
+        queueThread.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        satComKitDemo.setSmsResultCallback(this);
+    }
+
+    /**
+     * Queue a text message for sending.
+     *
+     * @param destinationAddress the address to send the message to
+     * @param scAddress the service center address or null to use the current default SMSC
+     * @param text the body of the message to send
+     * @return the queued message, its futures complete when the results arrive, or exceptionally with a
+     *         {@link RejectedExecutionException} if the queue is already shut down
+     */
+    public OutboundMessage submit(String destinationAddress, String scAddress, String text) {
+        OutboundMessage message = new OutboundMessage(nextId.incrementAndGet(),
+                destinationAddress, scAddress, text);
+        try {
+            queueThread.execute(() -> {
+                if (shutDown) {
+                    Log.w(TAG, "queue shut down, message " + message.getId() + " failed");
+                    message.setState(MessageState.FAILED);
+                    notifyState(message);
+                    return;
+                }
+                waiting.add(message);
+                notifyState(message);
+                pump();
+            });
+        } catch (RejectedExecutionException e) {
+            /* 队列已关闭，短信不会再发送，结果不能一直不完成 */
+            Log.w(TAG, "queue already shut down, message " + message.getId() + " failed");
+            message.setState(MessageState.FAILED);
+            message.sentFuture().completeExceptionally(e);
+            message.resultFuture().completeExceptionally(e);
+        }
+        return message;
+    }
+
+    @Override
+    public void onSentResult(long id, int resultCode) {
+        execute(() -> {
+            OutboundMessage message = tracked.get(id);
+            if (message == null || message.getState() != MessageState.SENDING) {
+                Log.d(TAG, "sent result for untracked message " + id);
+                return;
+            }
+            message.setSentResultCode(resultCode);
+            inFlight--;
+            if (resultCode == SatelliteBackend.RESULT_OK) {
+                message.setState(MessageState.SENT);
+                queueThread.schedule(() -> expireDelivery(message), deliveryTimeoutMillis,
+                        TimeUnit.MILLISECONDS);
+            } else {
+                message.setState(MessageState.FAILED);
+                tracked.remove(id);
+            }
+            notifyState(message);
+            pump();
+        });
+    }
+
+    @Override
+    public void onDeliveryResult(long id, int resultCode) {
+        execute(() -> {
+            OutboundMessage message = tracked.remove(id);
+            if (message == null) {
+                Log.d(TAG, "delivery result for untracked message " + id);
+                return;
+            }
+            message.setDeliveryResultCode(resultCode);
+            message.setState(resultCode == SatelliteBackend.RESULT_OK
+                    ? MessageState.DELIVERED : MessageState.FAILED);
+            notifyState(message);
+        });
+    }
+
+    /**
+     * Fail every queued and in-flight message and stop the queue thread.
+     */
+    public void shutdown() {
+        execute(() -> {
+            shutDown = true;
+            for (OutboundMessage message : waiting) {
+                message.setState(MessageState.FAILED);
+                notifyState(message);
+            }
+            waiting.clear();
+            for (OutboundMessage message : tracked.values()) {
+                if (message.getState() == MessageState.SENDING) {
+                    message.setState(MessageState.FAILED);
+                    notifyState(message);
+                }
+                message.resultFuture().complete(message);
+            }
+            tracked.clear();
+        });
+        queueThread.shutdown();
+    }
+
+    private void pump() {
+        if (shutDown) {
+            return;
+        }
+        while (inFlight < maxInFlight && !waiting.isEmpty()) {
+            OutboundMessage message = waiting.poll();
+            message.setState(MessageState.SENDING);
+            tracked.put(message.getId(), message);
+            inFlight++;
+            notifyState(message);
+            try {
+                satComKitDemo.sendTextMessage(message.getDestinationAddress(), message.getScAddress(),
+                        message.getText(), message.getId());
+            } catch (RuntimeException e) {
+                Log.e(TAG, "sendTextMessage failed for message " + message.getId(), e);
+                inFlight--;
+                tracked.remove(message.getId());
+                message.setState(MessageState.FAILED);
+                notifyState(message);
+                continue;
+            }
+            queueThread.schedule(() -> expireSent(message), sentTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void expireSent(OutboundMessage message) {
+        if (message.getState() != MessageState.SENDING) {
+            return;
+        }
+        Log.w(TAG, "sent result timeout for message " + message.getId());
+        tracked.remove(message.getId());
+        inFlight--;
+        message.setState(MessageState.FAILED);
+        notifyState(message);
+        pump();
+    }
+
+    private void expireDelivery(OutboundMessage message) {
+        if (message.getState() != MessageState.SENT) {
+            return;
+        }
+        /* 送达报告超时，不再跟踪该短信，结果保持为已发送 */
+        tracked.remove(message.getId());
+        message.resultFuture().complete(message);
+    }
+
+    private void notifyState(OutboundMessage message) {
+        MessageState state = message.getState();
+        if (state == MessageState.SENT || state.isFinal()) {
+            message.sentFuture().complete(message);
+        }
+        if (state.isFinal()) {
+            message.resultFuture().complete(message);
+        }
+        if (listener != null) {
+            try {
+                listener.onMessageStateChanged(message);
+            } catch (RuntimeException e) {
+                Log.e(TAG, "listener failed", e);
+            }
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            queueThread.execute(task);
+        } catch (RejectedExecutionException e) {
+            Log.d(TAG, "queue already shut down");
+        }
+    }
+}
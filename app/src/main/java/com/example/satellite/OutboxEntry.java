@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+/**
+ * 发件箱中的一条待发短信及其重试状态
+ *
+ * @since 2026-10-17
+ */
+public final class OutboxEntry {
+    final long id;
+    final String destinationAddress;
+    final String scAddress;
+    final String text;
+    final long createdAtMillis;
+    final boolean urgent;
+    int attempts;
+    long nextAttemptAtMillis;
+    boolean inFlight;
+
+    OutboxEntry(long id, String destinationAddress, String scAddress, String text, long createdAtMillis,
+                boolean urgent) {
+        this.id = id;
+        this.destinationAddress = destinationAddress;
+        this.scAddress = scAddress;
+        this.text = text;
+        this.createdAtMillis = createdAtMillis;
+        this.urgent = urgent;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getDestinationAddress() {
+        return destinationAddress;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isUrgent() {
+        return urgent;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+}
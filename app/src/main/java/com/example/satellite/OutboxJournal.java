@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 发件箱日志文件，只追加写入的内存映射文件
+ * 文件头为魔数和版本号，其后为连续的记录：
+ * [int 记录体长度][记录体：byte 类型, long ID, 类型相关字段][int 记录体CRC32]
+ * 版本2在入队记录中增加了 byte 标志位（紧急短信），打开版本1的文件时会压缩重写为版本2
+ * 追加时先写记录体和校验值，最后写长度，长度为0或校验失败的位置即为文件有效内容的末尾，
+ * 进程在写入中途被杀时，重放会丢弃这条不完整的记录
+ * 写入内存映射区域后即使进程退出，数据也由系统写回文件
+ *
+ * @since 2026-10-17
+ */
+final class OutboxJournal implements Closeable {
+    private static final int MAGIC = 0x53414f42;
+    private static final int VERSION = 2;
+    private static final int VERSION_WITHOUT_FLAGS = 1;
+    private static final byte FLAG_URGENT = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+    private static final byte TYPE_ENQUEUE = 1;
+    private static final byte TYPE_ATTEMPT = 2;
+    private static final byte TYPE_DONE = 3;
+    /* 单条记录体的上限，超过即视为损坏 */
+    private static final int MAX_RECORD_BYTES = 64 * 1024;
+
+    private final File file;
+    private final CRC32 crc = new CRC32();
+    private RandomAccessFile randomAccessFile;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int position;
+    private int recordCount;
+    private int fileVersion;
+
+    private OutboxJournal(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Open a journal, replaying its records into the given map.
+     *
+     * @param file journal file, created if missing
+     * @param live receives the entries not yet done, keyed by ID in journal order
+     * @return opened journal positioned after the last valid record
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    static OutboxJournal open(File file, Map<Long, OutboxEntry> live) throws IOException {
+        OutboxJournal journal = new OutboxJournal(file);
+        journal.map(Math.max(INITIAL_CAPACITY, (int) file.length()));
+        journal.replay(live);
+        if (journal.fileVersion != VERSION) {
+            journal.compact(live.values());
+        }
+        return journal;
+    }
+
+    int getRecordCount() {
+        return recordCount;
+    }
+
+    void appendEnqueue(OutboxEntry entry) throws IOException {
+        byte[] dest = bytesOf(entry.destinationAddress);
+        byte[] sc = bytesOf(entry.scAddress);
+        byte[] text = bytesOf(entry.text);
+        int bodyBytes = 1 + 8 + 8 + 1 + 4 + 8 + 3 * 4 + dest.length + sc.length + text.length;
+        int start = begin(bodyBytes);
+        buffer.put(TYPE_ENQUEUE).putLong(entry.id).putLong(entry.createdAtMillis)
+                .put(entry.urgent ? FLAG_URGENT : 0).putInt(entry.attempts).putLong(entry.nextAttemptAtMillis);
+        putString(dest, entry.destinationAddress);
+        putString(sc, entry.scAddress);
+        putString(text, entry.text);
+        commit(start, bodyBytes);
+    }
+
+    void appendAttempt(OutboxEntry entry) throws IOException {
+        int bodyBytes = 1 + 8 + 4 + 8;
+        int start = begin(bodyBytes);
+        buffer.put(TYPE_ATTEMPT).putLong(entry.id).putInt(entry.attempts).putLong(entry.nextAttemptAtMillis);
+        commit(start, bodyBytes);
+    }
+
+    void appendDone(long id) throws IOException {
+        int bodyBytes = 1 + 8;
+        int start = begin(bodyBytes);
+        buffer.put(TYPE_DONE).putLong(id);
+        commit(start, bodyBytes);
+    }
+
+    /**
+     * Rewrite the journal so that it only holds the given entries.
+     *
+     * @param live entries not yet done
+     * @throws IOException if the new journal cannot be written
+     */
+    void compact(Collection<OutboxEntry> live) throws IOException {
+        File tmpFile = new File(file.getPath() + ".tmp");
+        if (tmpFile.exists() && !tmpFile.delete()) {
+            throw new IOException("cannot delete " + tmpFile);
+        }
+        OutboxJournal compacted = new OutboxJournal(tmpFile);
+        compacted.map(INITIAL_CAPACITY);
+        compacted.writeHeader();
+        for (OutboxEntry entry : live) {
+            compacted.appendEnqueue(entry);
+        }
+        compacted.buffer.force();
+        compacted.close();
+        close();
+        boolean renamed = tmpFile.renameTo(file);
+        /* 替换失败时原文件保持不变，同样重新映射后继续使用 */
+        map(Math.max(INITIAL_CAPACITY, (int) file.length()));
+        replay(null);
+        if (!renamed) {
+            throw new IOException("cannot replace " + file);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        buffer.force();
+        channel.close();
+        randomAccessFile.close();
+        channel = null;
+    }
+
+    private void map(int capacity) throws IOException {
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        channel = randomAccessFile.getChannel();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private void writeHeader() {
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        fileVersion = VERSION;
+        position = HEADER_BYTES;
+        recordCount = 0;
+    }
+
+    private void replay(Map<Long, OutboxEntry> live) {
+        fileVersion = buffer.getInt(4);
+        if (buffer.getInt(0) != MAGIC || (fileVersion != VERSION && fileVersion != VERSION_WITHOUT_FLAGS)) {
+            /* 新文件或无法识别的文件，从头开始 */
+            clear(0);
+            writeHeader();
+            return;
+        }
+        position = HEADER_BYTES;
+        recordCount = 0;
+        while (position + 4 <= buffer.capacity()) {
+            int bodyBytes = buffer.getInt(position);
+            if (bodyBytes <= 0 || bodyBytes > MAX_RECORD_BYTES || position + 8 + bodyBytes > buffer.capacity()) {
+                break;
+            }
+            int bodyStart = position + 4;
+            if (checksum(bodyStart, bodyBytes) != buffer.getInt(bodyStart + bodyBytes)) {
+                break;
+            }
+            if (live != null) {
+                buffer.position(bodyStart);
+                apply(live);
+            }
+            position = bodyStart + bodyBytes + 4;
+            recordCount++;
+        }
+        if (position + 4 <= buffer.capacity() && buffer.getInt(position) != 0) {
+            /* 末尾残留不完整的记录，清零后再追加，避免重放时误读 */
+            clear(position);
+        }
+    }
+
+    private void apply(Map<Long, OutboxEntry> live) {
+        byte type = buffer.get();
+        long id = buffer.getLong();
+        if (type == TYPE_ENQUEUE) {
+            long createdAt = buffer.getLong();
+            byte flags = fileVersion == VERSION_WITHOUT_FLAGS ? 0 : buffer.get();
+            int attempts = buffer.getInt();
+            long nextAttemptAt = buffer.getLong();
+            OutboxEntry entry = new OutboxEntry(id, getString(), getString(), getString(), createdAt,
+                    (flags & FLAG_URGENT) != 0);
+            entry.attempts = attempts;
+            entry.nextAttemptAtMillis = nextAttemptAt;
+            live.put(id, entry);
+        } else if (type == TYPE_ATTEMPT) {
+            OutboxEntry entry = live.get(id);
+            if (entry != null) {
+                entry.attempts = buffer.getInt();
+                entry.nextAttemptAtMillis = buffer.getLong();
+            }
+        } else if (type == TYPE_DONE) {
+            live.remove(id);
+        }
+    }
+
+    private void clear(int from) {
+        for (int i = from; i < buffer.capacity(); i++) {
+            buffer.put(i, (byte) 0);
+        }
+    }
+
+    private int begin(int bodyBytes) throws IOException {
+        int required = position + 4 + bodyBytes + 4 + 4;
+        if (required > buffer.capacity()) {
+            int capacity = buffer.capacity();
+            while (capacity < required) {
+                capacity *= 2;
+            }
+            channel.close();
+            randomAccessFile.close();
+            map(capacity);
+        }
+        buffer.position(position + 4);
+        return position + 4;
+    }
+
+    private void commit(int bodyStart, int bodyBytes) {
+        buffer.putInt(bodyStart + bodyBytes, checksum(bodyStart, bodyBytes));
+        /* 长度最后写入，作为这条记录的提交标记 */
+        buffer.putInt(position, bodyBytes);
+        position = bodyStart + bodyBytes + 4;
+        recordCount++;
+    }
+
+    private int checksum(int bodyStart, int bodyBytes) {
+        ByteBuffer body = buffer.duplicate();
+        body.limit(bodyStart + bodyBytes).position(bodyStart);
+        crc.reset();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] bytesOf(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void putString(byte[] bytes, String value) {
+        buffer.putInt(value == null ? -1 : bytes.length);
+        buffer.put(bytes);
+    }
+
+    private String getString() {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import android.Manifest;
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.hardware.GeomagneticField;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.location.Location;
+import android.location.LocationManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.satellite.events.SatelliteEvent;
+import com.example.satellite.events.SatelliteEventBus;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 对星预测类，会话启动时按粗略位置从 {@link PointingCache} 取得上次在附近看到的卫星方向，
+ * 结合旋转矢量传感器得到的手机方向计算预测的对准指引，在收到第一个对星回调之前即发布到事件总线，
+ * 用户可以提前转动手机，缩短对准时间；收到实时对星数据后停止预测，实时的卫星方向写回缓存
+ * 手机方向取手机顶部（Y轴）所指的方向，方位角按磁偏角修正为相对真北；水平角为手机横轴（X轴）相对水平面的倾角
+ * 位置使用系统最近一次已知的位置，不主动定位；没有粗略位置权限或没有已知位置时既不预测也不写回缓存
+ * 缓存的读写在缓存线程上进行，传感器回调和预测计算在主线程上进行
+ *
+ * @since 2026-10-17
+ */
+public class PointingPredictor implements SensorEventListener {
+    /**
+     * 预测过程的日志监听
+     */
+    public interface LogListener {
+        /**
+         * Called with a line describing the prediction, on any thread.
+         *
+         * @param line log line
+         */
+        void onLog(String line);
+    }
+
+    private static final String TAG = "PointingPredictor";
+    /* 预测期间需要跟随手机转动，按界面刷新的频率采样 */
+    private static final int SENSOR_PERIOD_MICROS = 50 * 1000;
+    private static final String[] LOCATION_PROVIDERS = {
+        LocationManager.FUSED_PROVIDER, LocationManager.NETWORK_PROVIDER, LocationManager.GPS_PROVIDER,
+        LocationManager.PASSIVE_PROVIDER
+    };
+
+    private final Context context;
+    private final SatelliteEventBus eventBus;
+    private final PointingCache pointingCache;
+    private final SensorManager sensorManager;
+    private final long maxPredictMillis;
+    private final LogListener logListener;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService cacheThread = Executors.newSingleThreadExecutor(
+            runnable -> new Thread(runnable, "SatPointingCache"));
+    private final Runnable predictTimeout = () -> stopPredicting("no live pointing data, prediction timed out");
+    /* 只在主线程上使用 */
+    private final PointingAligner pointingAligner = new PointingAligner();
+    private final float[] rotationMatrix = new float[9];
+    private SatelliteEventBus.Subscription liveSubscription;
+    private PointingCache.Prediction prediction;
+    private boolean predicting;
+    private boolean released;
+    /* 缓存线程写入，对星数据在缓存线程上写回缓存，传感器回调在主线程上读取磁偏角 */
+    private volatile double latitude = Double.NaN;
+    private volatile double longitude = Double.NaN;
+    private volatile float declination;
+    private volatile boolean liveSeen;
+
+    /**
+     * Constructor
+     *
+     * @param context application context
+     * @param eventBus bus the live pointing samples come from and the predicted ones are published to
+     * @param pointingCache cache of the satellite directions, loaded and saved by this predictor
+     * @param maxPredictMillis time after which the prediction stops if no live pointing data arrived
+     * @param logListener receives the log lines
+     */
+    public PointingPredictor(Context context, SatelliteEventBus eventBus, PointingCache pointingCache,
+                             long maxPredictMillis, LogListener logListener) {
+        this.context = context;
+        this.eventBus = eventBus;
+        this.pointingCache = pointingCache;
+        this.sensorManager = context.getSystemService(SensorManager.class);
+        this.maxPredictMillis = maxPredictMillis;
+        this.logListener = logListener;
+    }
+
+    /**
+     * Load the cache and start predicting if a satellite direction is cached near the last known location.
+     * Call once the coarse location permission has been asked for, later calls do nothing.
+     * Must be called on the main thread.
+     */
+    public void start() {
+        if (released || liveSubscription != null) {
+            return;
+        }
+        execute(this::loadAndPredict);
+        /* 只需要最新的实时数据，容量为1，在缓存线程上加载缓存之后写回，不占用对星回调通道 */
+        liveSubscription = eventBus.subscribe(SatelliteEvent.TYPE_POINTING, 1,
+                SatelliteEventBus.Overflow.DROP_OLDEST, cacheThread, this::onLivePointing);
+    }
+
+    /**
+     * Stop predicting and save the cache in the background. Must be called on the main thread.
+     */
+    public void release() {
+        released = true;
+        stopPredicting(null);
+        if (liveSubscription != null) {
+            eventBus.unsubscribe(liveSubscription);
+            /* 未启动时缓存没有加载，不能用空缓存覆盖文件 */
+            execute(this::saveCache);
+        }
+        cacheThread.shutdown();
+    }
+
+    @Override
+    public void onSensorChanged(SensorEvent event) {
+        if (!predicting) {
+            return;
+        }
+        /* 每个传感器事件都经过这里，矩阵和对准状态复用，事件总线写入订阅方预分配的槽位，整条路径不分配对象 */
+        SensorManager.getRotationMatrixFromVector(rotationMatrix, event.values);
+        /* 旋转矩阵把手机坐标变换到东、北、天坐标，第二列为手机Y轴的方向，第一列为X轴的方向 */
+        double phoneEle = Math.toDegrees(Math.asin(clamp(rotationMatrix[7])));
+        double phoneAzi = normalizeAzimuth(Math.toDegrees(Math.atan2(rotationMatrix[1], rotationMatrix[4]))
+                + declination);
+        double phoneHor = Math.toDegrees(Math.asin(clamp(rotationMatrix[6])));
+        PointingCache.Prediction current = prediction;
+        int guidance = pointingAligner.update(current.satelliteEle, current.satelliteAzi, phoneEle, phoneAzi,
+                event.timestamp);
+        eventBus.publishPredictedPointing(event.timestamp, current.satelliteEle, current.satelliteAzi,
+                current.satelliteHor, phoneEle, phoneAzi, phoneHor, pointingAligner.getAngularError(), guidance);
+    }
+
+    @Override
+    public void onAccuracyChanged(Sensor sensor, int accuracy) {
+    }
+
+    private void loadAndPredict() {
+        try {
+            pointingCache.load();
+        } catch (IOException e) {
+            /* 缓存损坏时从空缓存开始，之后保存时覆盖 */
+            Log.w(TAG, "discarding pointing cache", e);
+        }
+        Location location = lastKnownLocation();
+        if (location == null) {
+            logListener.onLog("pointing prediction: no known location");
+            return;
+        }
+        latitude = location.getLatitude();
+        longitude = location.getLongitude();
+        declination = new GeomagneticField((float) location.getLatitude(), (float) location.getLongitude(),
+                (float) location.getAltitude(), System.currentTimeMillis()).getDeclination();
+        PointingCache.Prediction cached = pointingCache.predict(latitude, longitude, System.currentTimeMillis());
+        if (cached == null) {
+            logListener.onLog("pointing prediction: nothing cached near the current location");
+            return;
+        }
+        logListener.onLog("pointing prediction: satellite at elevation " + Math.round(cached.satelliteEle)
+                + ", azimuth " + Math.round(cached.satelliteAzi) + (cached.exactCell ? "" : " (nearby cell)"));
+        mainHandler.post(() -> startPredicting(cached));
+    }
+
+    private Location lastKnownLocation() {
+        if (context.checkSelfPermission(Manifest.permission.ACCESS_COARSE_LOCATION)
+                != PackageManager.PERMISSION_GRANTED) {
+            return null;
+        }
+        LocationManager locationManager = context.getSystemService(LocationManager.class);
+        if (locationManager == null) {
+            return null;
+        }
+        Location latest = null;
+        for (String provider : LOCATION_PROVIDERS) {
+            try {
+                Location location = locationManager.getLastKnownLocation(provider);
+                if (location != null && (latest == null || location.getTime() > latest.getTime())) {
+                    latest = location;
+                }
+            } catch (IllegalArgumentException | SecurityException e) {
+                /* 设备上没有该定位来源，或权限在检查之后被撤销 */
+                Log.d(TAG, "no last known location from " + provider);
+            }
+        }
+        return latest;
+    }
+
+    private void startPredicting(PointingCache.Prediction cached) {
+        if (released || liveSeen || predicting) {
+            return;
+        }
+        Sensor sensor = sensorManager != null ? sensorManager.getDefaultSensor(Sensor.TYPE_ROTATION_VECTOR) : null;
+        if (sensor == null) {
+            logListener.onLog("pointing prediction: no rotation vector sensor");
+            return;
+        }
+        prediction = cached;
+        predicting = true;
+        sensorManager.registerListener(this, sensor, SENSOR_PERIOD_MICROS);
+        mainHandler.postDelayed(predictTimeout, maxPredictMillis);
+    }
+
+    private void stopPredicting(String reason) {
+        if (!predicting) {
+            return;
+        }
+        predicting = false;
+        sensorManager.unregisterListener(this);
+        mainHandler.removeCallbacks(predictTimeout);
+        if (reason != null) {
+            logListener.onLog("pointing prediction stopped: " + reason);
+        }
+    }
+
+    private void onLivePointing(SatelliteEvent event) {
+        pointingCache.record(latitude, longitude, event.getSatelliteEle(), event.getSatelliteAzi(),
+                event.getSatelliteHor(), System.currentTimeMillis());
+        if (!liveSeen) {
+            liveSeen = true;
+            mainHandler.post(() -> stopPredicting("live pointing data received"));
+            /* 尽早保存，进程被杀时下次启动仍可使用 */
+            saveCache();
+        }
+    }
+
+    private void saveCache() {
+        try {
+            pointingCache.save();
+        } catch (IOException e) {
+            Log.w(TAG, "cannot save pointing cache", e);
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            cacheThread.execute(task);
+        } catch (RejectedExecutionException e) {
+            Log.d(TAG, "pointing cache thread already shut down");
+        }
+    }
+
+    private static double clamp(float value) {
+        return Math.max(-1.0, Math.min(1.0, value));
+    }
+
+    private static double normalizeAzimuth(double azimuth) {
+        double normalized = azimuth % 360.0;
+        return normalized < 0 ? normalized + 360.0 : normalized;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import android.app.Activity;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import android.view.View;
+import android.view.ViewStub;
+import android.widget.TextView;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 对星数据渲染类，将回调线程上报的对星数据合并后，按显示帧在主线程刷新界面
+ * 只保留最新一次样本，两帧之间的中间样本直接丢弃，不进行排队
+ * 对星数据面板在渲染第一个样本时才从 ViewStub 加载，启动时不创建面板中的控件
+ *
+ * @since 2026-10-17
+ */
+public class PointingRenderer implements Choreographer.FrameCallback {
+    private final AtomicReference<PointingSample> latestSample = new AtomicReference<>();
+    private final AtomicBoolean frameScheduled = new AtomicBoolean(false);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Runnable scheduleFrame = () -> Choreographer.getInstance().postFrameCallback(this);
+    /* 按 PointingTextState 中的角度序号排列的显示控件，面板加载前为空 */
+    private final TextView[] textViews = new TextView[PointingTextState.FIELD_COUNT];
+    private final ViewStub pointingStub;
+    private final PointingTextState textState;
+    private volatile boolean released;
+
+    /**
+     * Constructor, the pointing views are inflated when the first sample is rendered.
+     *
+     * @param activity activity hosting the pointing panel stub
+     */
+    public PointingRenderer(Activity activity) {
+        pointingStub = activity.findViewById(R.id.stubPointing);
+        String[] guidanceTexts = new String[PointingAligner.GUIDANCE_COUNT];
+        guidanceTexts[PointingAligner.GUIDANCE_NONE] = activity.getString(R.string.guidanceNone);
+        guidanceTexts[PointingAligner.GUIDANCE_ALIGNED] = activity.getString(R.string.guidanceAligned);
+        guidanceTexts[PointingAligner.GUIDANCE_TURN_LEFT] = activity.getString(R.string.guidanceTurnLeft);
+        guidanceTexts[PointingAligner.GUIDANCE_TURN_RIGHT] = activity.getString(R.string.guidanceTurnRight);
+        guidanceTexts[PointingAligner.GUIDANCE_TILT_UP] = activity.getString(R.string.guidanceTiltUp);
+        guidanceTexts[PointingAligner.GUIDANCE_TILT_DOWN] = activity.getString(R.string.guidanceTiltDown);
+        textState = new PointingTextState(guidanceTexts, activity.getString(R.string.guidancePredictedPrefix));
+    }
+
+    /**
+     * Publish the latest pointing sample. Safe to call from any thread.
+     *
+     * @param sample latest satellite and phone pointing data, a sample reused by the caller must be posted on
+     *     the main thread
+     */
+    public void post(PointingSample sample) {
+        if (released) {
+            return;
+        }
+        latestSample.set(sample);
+        if (frameScheduled.compareAndSet(false, true)) {
+            mainHandler.post(scheduleFrame);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        /* 先清除标记再取样本，保证取样之后到达的数据能再次调度下一帧 */
+        frameScheduled.set(false);
+        PointingSample sample = latestSample.getAndSet(null);
+        if (sample == null || released) {
+            return;
+        }
+        if (textViews[0] == null) {
+            inflatePanel();
+        }
+        /* 只刷新数值发生变化的控件 */
+        int changed = textState.update(sample);
+        for (int field = 0; field < textViews.length; field++) {
+            if ((changed & (1 << field)) != 0) {
+                textViews[field].setText(textState.getText(field));
+            }
+        }
+    }
+
+    private void inflatePanel() {
+        View panel = pointingStub.inflate();
+        textViews[PointingTextState.FIELD_SATELLITE_ELE] = panel.findViewById(R.id.textSatEleOutput);
+        textViews[PointingTextState.FIELD_SATELLITE_AZI] = panel.findViewById(R.id.textSatAziOutput);
+        textViews[PointingTextState.FIELD_SATELLITE_HOR] = panel.findViewById(R.id.textSatHorOutput);
+        textViews[PointingTextState.FIELD_PHONE_ELE] = panel.findViewById(R.id.textPhoEleOutput);
+        textViews[PointingTextState.FIELD_PHONE_AZI] = panel.findViewById(R.id.textPhoAziOutput);
+        textViews[PointingTextState.FIELD_PHONE_HOR] = panel.findViewById(R.id.textPhoHorOutput);
+        textViews[PointingTextState.FIELD_ALIGN_ERROR] = panel.findViewById(R.id.textAlignErrOutput);
+        textViews[PointingTextState.FIELD_GUIDANCE] = panel.findViewById(R.id.textGuidanceOutput);
+    }
+
+    /**
+     * Stop rendering and drop any pending frame. Must be called on the main thread.
+     */
+    public void release() {
+        released = true;
+        mainHandler.removeCallbacks(scheduleFrame);
+        Choreographer.getInstance().removeFrameCallback(this);
+        latestSample.set(null);
+    }
+}
@@ -0,0 +1,481 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.satellite.backend.SatelliteBackend;
+import com.example.satellite.events.SatelliteEvent;
+import com.example.satellite.events.SatelliteEventBus;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 省电占空比控制类，在连接完成后接管对星回调和卫星使能，减少回调处理次数和卫星开启时间
+ * 对准稳定一段时间且没有短信待发送时暂停对星回调，改用低功耗的游戏旋转矢量传感器（批量上报）监视手机姿态，
+ * 姿态偏移超过门限或有短信待发送时恢复对星回调；发件箱空闲一段时间后去使能卫星，之后的非紧急短信在发件箱中累积，
+ * 到下一个唤醒窗口再统一使能卫星发送，紧急短信立即唤醒；唤醒时使能失败按指数退避重试，次数用尽或遇到重试无效的拒绝
+ * （SDK 返回失败结果码，或卫星卡没有开通卫星业务）时放弃本次唤醒，回到休眠
+ * 状态只在控制线程上修改，对星通道、传感器和发件箱线程上的回调只转交事件
+ *
+ * @since 2026-10-17
+ */
+public class PowerDutyCycler implements SatelliteEventBus.Listener, MessageOutbox.PendingListener,
+        SensorEventListener {
+    /**
+     * 占空比状态
+     */
+    public enum State {
+        /* 尚未开始 */
+        IDLE,
+        /* 对星回调和卫星均开启 */
+        ACTIVE,
+        /* 已对准，对星回调暂停，卫星开启 */
+        DOZING,
+        /* 对星回调暂停，卫星已去使能 */
+        SLEEPING,
+        /* 已停止，不再控制 */
+        STOPPED
+    }
+
+    private static final String TAG = "PowerDutyCycler";
+    /* 姿态传感器的采样间隔和最大批量上报延迟，批量上报期间应用处理器可以休眠 */
+    private static final int SENSOR_PERIOD_MICROS = 200 * 1000;
+    private static final int SENSOR_MAX_LATENCY_MICROS = 2 * 1000 * 1000;
+    private static final int MAX_BACKOFF_SHIFT = 5;
+
+    private final SatComKitDemo satComKitDemo;
+    private final SatelliteClient satelliteClient;
+    private final SensorManager sensorManager;
+    private final long alignStableNanos;
+    private final double driftDegrees;
+    private final long idleMillis;
+    private final long wakeIntervalMillis;
+    private final long operationTimeoutMillis;
+    private final int maxEnableAttempts;
+    private final long enableBackoffMillis;
+    private final ScheduledThreadPoolExecutor cyclerThread = new ScheduledThreadPoolExecutor(1,
+            runnable -> new Thread(runnable, "SatDutyCycle"));
+    private volatile State state = State.IDLE;
+    /* 每次进入 ACTIVE 递增，对星通道据此重新开始计算对准稳定时间 */
+    private volatile int activeGeneration;
+
+    /* 以下字段只在对星回调通道线程上访问 */
+    private int seenGeneration = -1;
+    private long alignedSinceNanos;
+    private boolean dozeRequested;
+
+    /* 以下状态只在传感器回调线程上访问，注册前在控制线程上重置 */
+    private final float[] referenceQuaternion = new float[4];
+    private final float[] quaternion = new float[4];
+    private boolean referenceSet;
+    private final AtomicBoolean driftReported = new AtomicBoolean(false);
+
+    /* 以下状态只在控制线程上访问 */
+    private int pendingCount;
+    private ScheduledFuture<?> idleTimer;
+    private ScheduledFuture<?> wakeTimer;
+    private long sleptAtMillis;
+    /* 本次唤醒已发起的使能次数 */
+    private int enableAttempts;
+
+    /* 只在控制线程上修改，读取时加上当前正在累计的时间 */
+    private volatile long pointingOnSinceMillis = -1;
+    private volatile long satelliteOnSinceMillis = -1;
+    private volatile long pointingOnMillis;
+    private volatile long satelliteOnMillis;
+
+    /**
+     * Constructor
+     *
+     * @param satComKitDemo interface class whose pointing callback is suspended and resumed
+     * @param satelliteClient asynchronous interface performing the calls
+     * @param sensorManager sensor manager watching the orientation while pointing is suspended, may be null
+     * @param alignStableMillis time the pointing must stay aligned before it is suspended
+     * @param driftDegrees orientation change after which pointing is resumed
+     * @param idleMillis time without pending messages after which satellite is disabled
+     * @param wakeIntervalMillis interval of the wake windows in which non-urgent messages are sent
+     * @param operationTimeoutMillis timeout of every satellite call
+     * @param maxEnableAttempts enable requests made in one wake window before going back to sleep
+     * @param enableBackoffMillis delay before the first enable retry, doubled for each further retry and bounded by
+     *     the wake interval
+     */
+    public PowerDutyCycler(SatComKitDemo satComKitDemo, SatelliteClient satelliteClient, SensorManager sensorManager,
+                           long alignStableMillis, double driftDegrees, long idleMillis, long wakeIntervalMillis,
+                           long operationTimeoutMillis, int maxEnableAttempts, long enableBackoffMillis) {
+        if (idleMillis <= 0 || wakeIntervalMillis <= 0) {
+            throw new IllegalArgumentException("invalid duty cycle: " + idleMillis + ", " + wakeIntervalMillis);
+        }
+        if (maxEnableAttempts < 1 || enableBackoffMillis <= 0) {
+            throw new IllegalArgumentException("invalid enable retry policy: " + maxEnableAttempts + ", "
+                    + enableBackoffMillis);
+        }
+        this.satComKitDemo = satComKitDemo;
+        this.satelliteClient = satelliteClient;
+        this.sensorManager = sensorManager;
+        this.alignStableNanos = TimeUnit.MILLISECONDS.toNanos(alignStableMillis);
+        this.driftDegrees = driftDegrees;
+        this.idleMillis = idleMillis;
+        this.wakeIntervalMillis = wakeIntervalMillis;
+        this.operationTimeoutMillis = operationTimeoutMillis;
+        this.maxEnableAttempts = maxEnableAttempts;
+        this.enableBackoffMillis = enableBackoffMillis;
+        cyclerThread.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Total time the pointing updates have been registered under this controller.
+     *
+     * @return time in milliseconds
+     */
+    public long getPointingOnMillis() {
+        return pointingOnMillis + since(pointingOnSinceMillis);
+    }
+
+    /**
+     * Total time the satellite has been enabled under this controller.
+     *
+     * @return time in milliseconds
+     */
+    public long getSatelliteOnMillis() {
+        return satelliteOnMillis + since(satelliteOnSinceMillis);
+    }
+
+    /**
+     * Take over a connected session, the pointing updates are registered and satellite is enabled.
+     *
+     * @param pendingCount number of messages currently in the outbox
+     */
+    public void start(int pendingCount) {
+        execute(() -> {
+            if (state != State.IDLE) {
+                return;
+            }
+            long now = SystemClock.elapsedRealtime();
+            pointingOnSinceMillis = now;
+            satelliteOnSinceMillis = now;
+            transition(State.ACTIVE, "started");
+            onPending(pendingCount, false);
+        });
+    }
+
+    /**
+     * Stop controlling, the pointing updates and satellite are left as they are.
+     */
+    public void stop() {
+        execute(() -> {
+            cancelTimers();
+            stopWatchingOrientation();
+            long now = SystemClock.elapsedRealtime();
+            accruePointing(now);
+            accrueSatellite(now);
+            pointingOnSinceMillis = -1;
+            satelliteOnSinceMillis = -1;
+            transition(State.STOPPED, "stopped");
+        });
+        cyclerThread.shutdown();
+    }
+
+    @Override
+    public void onEvent(SatelliteEvent event) {
+        if (event.getType() == SatelliteEvent.TYPE_POINTING) {
+            onPointingGuidance(event.getGuidance());
+        }
+    }
+
+    private void onPointingGuidance(int guidance) {
+        if (state != State.ACTIVE) {
+            return;
+        }
+        int generation = activeGeneration;
+        if (generation != seenGeneration) {
+            seenGeneration = generation;
+            alignedSinceNanos = 0;
+            dozeRequested = false;
+        }
+        if (guidance != PointingAligner.GUIDANCE_ALIGNED) {
+            alignedSinceNanos = 0;
+            return;
+        }
+        long now = SystemClock.elapsedRealtimeNanos();
+        if (alignedSinceNanos == 0) {
+            alignedSinceNanos = now;
+        } else if (!dozeRequested && now - alignedSinceNanos >= alignStableNanos) {
+            /* 每次进入 ACTIVE 只请求一次，避免每个对星样本都提交任务 */
+            dozeRequested = true;
+            execute(this::doze);
+        }
+    }
+
+    @Override
+    public void onPendingChanged(int pendingCount, boolean urgentPending) {
+        execute(() -> onPending(pendingCount, urgentPending));
+    }
+
+    @Override
+    public void onSensorChanged(SensorEvent event) {
+        SensorManager.getQuaternionFromVector(quaternion, event.values);
+        if (!referenceSet) {
+            System.arraycopy(quaternion, 0, referenceQuaternion, 0, quaternion.length);
+            referenceSet = true;
+            return;
+        }
+        double dot = 0;
+        for (int i = 0; i < quaternion.length; i++) {
+            dot += quaternion[i] * referenceQuaternion[i];
+        }
+        double degrees = Math.toDegrees(2 * Math.acos(Math.min(1.0, Math.abs(dot))));
+        if (degrees > driftDegrees && driftReported.compareAndSet(false, true)) {
+            execute(() -> {
+                if (state == State.DOZING) {
+                    resumePointing("orientation drifted " + Math.round(degrees) + " degrees");
+                }
+            });
+        }
+    }
+
+    @Override
+    public void onAccuracyChanged(Sensor sensor, int accuracy) {
+    }
+
+    private void onPending(int count, boolean urgent) {
+        pendingCount = count;
+        if (state == State.IDLE || state == State.STOPPED) {
+            return;
+        }
+        if (count == 0) {
+            if (state != State.SLEEPING && idleTimer == null) {
+                idleTimer = schedule(this::sleep, idleMillis);
+            }
+            return;
+        }
+        cancelIdleTimer();
+        if (state == State.DOZING) {
+            resumePointing("message pending");
+        } else if (state == State.SLEEPING) {
+            long delay = urgent ? 0 : Math.max(0L, sleptAtMillis + wakeIntervalMillis - SystemClock.elapsedRealtime());
+            if (wakeTimer == null || urgent) {
+                cancelWakeTimer();
+                wakeTimer = schedule(this::wake, delay);
+            }
+        }
+    }
+
+    private void doze() {
+        if (state != State.ACTIVE) {
+            return;
+        }
+        if (pendingCount > 0) {
+            /* 发送期间保持对星，短信发完后需要重新对准稳定一段时间才暂停 */
+            activeGeneration++;
+            return;
+        }
+        suspendPointing();
+        watchOrientation();
+        transition(State.DOZING, "pointing stable, updates suspended");
+    }
+
+    private void sleep() {
+        idleTimer = null;
+        if (state == State.SLEEPING || state == State.STOPPED || pendingCount > 0) {
+            return;
+        }
+        if (state == State.ACTIVE) {
+            suspendPointing();
+        } else {
+            stopWatchingOrientation();
+        }
+        satelliteClient.requestSatelliteEnabled(false, operationTimeoutMillis).whenComplete((result, error) -> {
+            if (error != null || !result) {
+                Log.w(TAG, "disable satellite failed: " + (error != null ? error : "rejected"));
+            }
+        });
+        enterSleeping("outbox idle for " + idleMillis + "ms, satellite disabled");
+    }
+
+    private void enterSleeping(String reason) {
+        long now = SystemClock.elapsedRealtime();
+        accrueSatellite(now);
+        satelliteOnSinceMillis = -1;
+        sleptAtMillis = now;
+        transition(State.SLEEPING, reason);
+    }
+
+    private void wake() {
+        wakeTimer = null;
+        if (state != State.SLEEPING) {
+            return;
+        }
+        enableAttempts = 0;
+        requestEnable();
+        satelliteOnSinceMillis = SystemClock.elapsedRealtime();
+        resumePointing("wake window, " + pendingCount + " messages pending");
+    }
+
+    private void requestEnable() {
+        enableAttempts++;
+        satelliteClient.requestSatelliteEnabled(true, operationTimeoutMillis).whenComplete((result, error) -> {
+            if (error != null || !result) {
+                execute(() -> onEnableFailed(error));
+            }
+        });
+    }
+
+    private void onEnableFailed(Throwable error) {
+        String reason = error != null ? "enable satellite failed: " + error : "enable satellite rejected";
+        /* 使能失败期间短信已发完或已停止控制时不再重试，空闲计时会让卫星回到休眠 */
+        if (state != State.ACTIVE || pendingCount == 0) {
+            Log.w(TAG, reason);
+            return;
+        }
+        cancelWakeTimer();
+        boolean permanent = isPermanentRejection(error);
+        if (permanent || enableAttempts >= maxEnableAttempts) {
+            String detail = permanent ? ", not retrying" : ", giving up after " + enableAttempts + " attempts";
+            Log.w(TAG, reason + detail);
+            suspendPointing();
+            enterSleeping(reason + detail);
+            /* 重试无效的拒绝不再安排唤醒，等待新的短信或手动使能；否则到下一个唤醒窗口再试 */
+            if (!permanent) {
+                wakeTimer = schedule(this::wake, wakeIntervalMillis);
+            }
+            return;
+        }
+        long backoffMillis = Math.min(wakeIntervalMillis,
+                enableBackoffMillis << Math.min(enableAttempts - 1, MAX_BACKOFF_SHIFT));
+        Log.w(TAG, reason + ", retrying in " + backoffMillis + "ms");
+        wakeTimer = schedule(this::retryEnable, backoffMillis);
+    }
+
+    private void retryEnable() {
+        wakeTimer = null;
+        if (state == State.ACTIVE && pendingCount > 0) {
+            requestEnable();
+        }
+    }
+
+    private boolean isPermanentRejection(Throwable error) {
+        if (satComKitDemo.getServiceState() == SatelliteBackend.SERVICE_STATE_UNKNOWN_ACCOUNT) {
+            return true;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        /* SDK 明确返回的失败结果码重试无效；超时和未带结果码的拒绝可能只是暂时的 */
+        return cause instanceof SatelliteOperationException;
+    }
+
+    private void suspendPointing() {
+        satelliteClient.unregisterForSatellitePointingUpdates(satComKitDemo.getPointingCallback(),
+                operationTimeoutMillis);
+        accruePointing(SystemClock.elapsedRealtime());
+        pointingOnSinceMillis = -1;
+    }
+
+    private void resumePointing(String reason) {
+        stopWatchingOrientation();
+        satelliteClient.registerForSatellitePointingUpdates(satComKitDemo.getPointingCallback(),
+                operationTimeoutMillis).whenComplete((registration, error) -> {
+                    if (error != null) {
+                        Log.w(TAG, "resume pointing failed", error);
+                    }
+                });
+        pointingOnSinceMillis = SystemClock.elapsedRealtime();
+        transition(State.ACTIVE, "pointing resumed: " + reason);
+    }
+
+    private void watchOrientation() {
+        Sensor sensor = sensorManager != null ? sensorManager.getDefaultSensor(Sensor.TYPE_GAME_ROTATION_VECTOR) : null;
+        if (sensor == null) {
+            return;
+        }
+        /* 参考姿态由注册后的第一个传感器事件确定 */
+        referenceSet = false;
+        driftReported.set(false);
+        sensorManager.registerListener(this, sensor, SENSOR_PERIOD_MICROS, SENSOR_MAX_LATENCY_MICROS);
+    }
+
+    private void stopWatchingOrientation() {
+        if (sensorManager != null) {
+            sensorManager.unregisterListener(this);
+        }
+    }
+
+    private void transition(State next, String reason) {
+        Log.i(TAG, state + " -> " + next + ": " + reason);
+        if (next == State.ACTIVE) {
+            activeGeneration++;
+        }
+        state = next;
+    }
+
+    private void accruePointing(long now) {
+        if (pointingOnSinceMillis >= 0) {
+            pointingOnMillis += now - pointingOnSinceMillis;
+            pointingOnSinceMillis = now;
+        }
+    }
+
+    private void accrueSatellite(long now) {
+        if (satelliteOnSinceMillis >= 0) {
+            satelliteOnMillis += now - satelliteOnSinceMillis;
+            satelliteOnSinceMillis = now;
+        }
+    }
+
+    private static long since(long sinceMillis) {
+        return sinceMillis >= 0 ? SystemClock.elapsedRealtime() - sinceMillis : 0L;
+    }
+
+    private void cancelIdleTimer() {
+        if (idleTimer != null) {
+            idleTimer.cancel(false);
+            idleTimer = null;
+        }
+    }
+
+    private void cancelWakeTimer() {
+        if (wakeTimer != null) {
+            wakeTimer.cancel(false);
+            wakeTimer = null;
+        }
+    }
+
+    private void cancelTimers() {
+        cancelIdleTimer();
+        cancelWakeTimer();
+    }
+
+    private ScheduledFuture<?> schedule(Runnable task, long delayMillis) {
+        try {
+            return cyclerThread.schedule(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    Log.w(TAG, "duty cycle task failed", e);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            Log.d(TAG, "duty cycler already stopped");
+            return null;
+        }
+    }
+
+    private void execute(Runnable task) {
+        schedule(task, 0);
+    }
+}
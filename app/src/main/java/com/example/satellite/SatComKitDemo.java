@@ -4,25 +4,15 @@
 
 package com.example.satellite;
 
-import android.app.PendingIntent;
-import android.content.Context;
+import android.os.SystemClock;
 import android.util.Log;
-import android.widget.TextView;
-
-import com.hihonor.android.telephony.satellite.HnAvailableSatSim;
-import com.hihonor.android.telephony.satellite.HnSatelliteManager;
-import com.hihonor.android.telephony.satellite.HnSatellitePointingCallback;
-import com.hihonor.android.telephony.satellite.HnSatellitePointingUpdates;
-import com.hihonor.android.telephony.satellite.HnSatelliteRequestCallback;
-import com.hihonor.android.telephony.satellite.HnSatelliteServiceState;
-import com.hihonor.android.telephony.satellite.HnSatelliteSignalStrength;
-import com.hihonor.android.telephony.satellite.HnSatelliteSmsManager;
-import com.hihonor.android.telephony.satellite.HnSatelliteStateCallback;
+
+import com.example.satellite.backend.SatSim;
+import com.example.satellite.backend.SatelliteBackend;
+import com.example.satellite.events.SatelliteEventBus;
 
 import java.util.List;
-import java.util.concurrent.Executor;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 接口调用类，对卫星通信接口的调用进行封装
@@ -32,104 +22,117 @@ import java.util.concurrent.Executors;
  */
 public class SatComKitDemo {
     private static final String TAG = "SatComKitDemo";
-    private MainActivity mainActivity;
-    private HnSatelliteManager mHnSatelliteManager;
-    private HnSatelliteSmsManager mHnSatelliteSmsManager;
-    private Context context;
-    private ExecutorService threadPool;
-    private HnSatelliteRequestCallback mHnSatelliteRequestCallback = new HnSatelliteRequestCallback() {
-        @Override
-        public void onRequestResult(boolean rst) {
-            Log.i(TAG, "result: " + rst);
-            mainActivity.getTextOutput().setText("requestSatelliteEnabled:\nresult: " + rst);
-        }
-    };
-    private HnSatelliteStateCallback mHnSatelliteStateCallback = new HnSatelliteStateCallback() {
+
+    /* 状态、信号和对星数据只向SDK注册一次，经事件总线分发给界面、日志等多个订阅方 */
+    private final SatelliteEventBus eventBus = new SatelliteEventBus();
+    private SatelliteSession.Observer observer;
+    private SatelliteBackend satelliteBackend;
+    private CallbackDispatcher callbackDispatcher;
+    private CapabilityCache capabilityCache;
+    /* 只在对星回调通道线程上使用 */
+    private final PointingAligner pointingAligner = new PointingAligner();
+    /* 最近一次上报的服务状态，在发布到事件总线之前更新 */
+    private volatile int serviceState = SatelliteBackend.SERVICE_STATE_UNAVAILABLE;
+    /* 在回调通道线程上处理服务状态和信号格数，向SDK注册的是 mModemStateCallback */
+    private final SatelliteBackend.ModemStateCallback modemStateHandler = new SatelliteBackend.ModemStateCallback() {
         @Override
-        public void onServiceStateChanged(HnSatelliteServiceState hnSatelliteServiceState) {
-            if (hnSatelliteServiceState == null) {
+        public void onServiceStateChanged(int satService) {
+            if (satService == SatelliteBackend.SERVICE_STATE_UNAVAILABLE) {
                 Log.i(TAG, "onServiceStateChanged data null");
-                mainActivity.addText("onServiceStateChanged data null");
+                observer.onLog("onServiceStateChanged data null", false);
                 return;
             }
-            /* 卫星服务状态，0为有服务，1为无服务，其他见HnSatelliteServiceState类中定义 */
-            int satService = hnSatelliteServiceState.getState();
-            TextView textServStat = mainActivity.findViewById(R.id.textServStatOutput);
-            textServStat.setText(String.valueOf(satService));
+            /* 卫星服务状态，0为有服务，1为无服务，其他见HnSatelliteServiceState类中定义；logcat 中的该行供设备群日志分析 */
+            Log.i(TAG, "service state " + satService);
+            serviceState = satService;
+            eventBus.publishServiceState(SystemClock.elapsedRealtimeNanos(), satService);
         }
 
         @Override
-        public void onSignalStrengthChanged(HnSatelliteSignalStrength hnSatelliteSignalStrength) {
-            if (hnSatelliteSignalStrength == null) {
+        public void onSignalStrengthChanged(int satSignal) {
+            if (satSignal == SatelliteBackend.SIGNAL_LEVEL_UNAVAILABLE) {
                 Log.i(TAG, "onSignalStrengthChanged data null");
-                mainActivity.addText("onSignalStrengthChanged data null");
+                observer.onLog("onSignalStrengthChanged data null", false);
                 return;
             }
-            int satSignal = hnSatelliteSignalStrength.getLevel(); /* 卫星信号格数 */
-            TextView textSigLvl = mainActivity.findViewById(R.id.textSigLvlOutput);
-            textSigLvl.setText(String.valueOf(satSignal));
+            /* satSignal 为卫星信号格数 */
+            Log.i(TAG, "signal level " + satSignal);
+            eventBus.publishSignalLevel(SystemClock.elapsedRealtimeNanos(), satSignal);
         }
     };
-    private HnSatellitePointingCallback mHnSatellitePointingCallback = new HnSatellitePointingCallback() {
+    /* 在SDK回调线程上只写入最新值槽位，服务状态和信号格数互不覆盖 */
+    private SatelliteBackend.ModemStateCallback mModemStateCallback;
+    private SatelliteBackend.PointingCallback mPointingCallback = new SatelliteBackend.PointingCallback() {
         @Override
-        public void onSatellitePointingUpdate(HnSatellitePointingUpdates satellitePointData,
-            HnSatellitePointingUpdates phonePointData) {
-            if (satellitePointData == null || phonePointData == null) {
+        public void onPointingUpdate(double satelliteEle, double satelliteAzi, double satelliteHor,
+                                     double phoneEle, double phoneAzi, double phoneHor) {
+            /* 参数依次为卫星的仰角、方位角、水平角和手机的仰角、方位角、水平角，SDK 上报数据为空时为 NaN */
+            if (Double.isNaN(satelliteEle) || Double.isNaN(phoneEle)) {
                 Log.i(TAG, "onSatellitePointingUpdate data null");
-                mainActivity.addText("onSatellitePointingUpdate data null");
+                observer.onLog("onSatellitePointingUpdate data null", false);
                 return;
             }
-
-            /* 卫星的仰角 */
-            double satelliteEle = satellitePointData.getElevation();
-            /* 卫星的方位角 */
-            double satelliteAzi = satellitePointData.getAzimuth();
-            /* 卫星的水平角 */
-            double satelliteHor = satellitePointData.getHorizontal();
-            /* 手机的仰角 */
-            double phoneEle = phonePointData.getElevation();
-            /* 手机的方位角 */
-            double phoneAzi = phonePointData.getAzimuth();
-            /* 手机的水平角 */
-            double phoneHor = phonePointData.getHorizontal();
-
-            TextView textSatEle = mainActivity.findViewById(R.id.textSatEleOutput);
-            textSatEle.setText(String.valueOf(satelliteEle));
-            TextView textSatAzi = mainActivity.findViewById(R.id.textSatAziOutput);
-            textSatAzi.setText(String.valueOf(satelliteAzi));
-            TextView textSatHor = mainActivity.findViewById(R.id.textSatHorOutput);
-            textSatHor.setText(String.valueOf(satelliteHor));
-            TextView textPhoEle = mainActivity.findViewById(R.id.textPhoEleOutput);
-            textPhoEle.setText(String.valueOf(phoneEle));
-            TextView textPhoAzi = mainActivity.findViewById(R.id.textPhoAziOutput);
-            textPhoAzi.setText(String.valueOf(phoneAzi));
-            TextView textPhoHor = mainActivity.findViewById(R.id.textPhoHorOutput);
-            textPhoHor.setText(String.valueOf(phoneHor));
+            long nowNanos = SystemClock.elapsedRealtimeNanos();
+            int guidance = pointingAligner.update(satelliteEle, satelliteAzi, phoneEle, phoneAzi, nowNanos);
+            double angularError = pointingAligner.getAngularError();
+            eventBus.publishPointing(nowNanos, satelliteEle, satelliteAzi, satelliteHor, phoneEle, phoneAzi,
+                    phoneHor, angularError, guidance);
         }
     };
 
     /**
      * Constructor
      *
-     * @param _mainActivity instance of class MainActivity
+     * @param _observer receives the log lines, the modem state and pointing data go to the {@link #getEventBus()}
+     * @param backend satellite backend, the device SDK or a simulator
      */
-    public SatComKitDemo(MainActivity _mainActivity) {
-        mainActivity = _mainActivity;
-        context = _mainActivity.getApplicationContext();
-        mHnSatelliteManager = new HnSatelliteManager(context);
-        mHnSatelliteSmsManager = new HnSatelliteSmsManager(context);
-        threadPool = Executors.newCachedThreadPool();
+    public SatComKitDemo(SatelliteSession.Observer _observer, SatelliteBackend backend) {
+        observer = _observer;
+        satelliteBackend = backend;
+        callbackDispatcher = new CallbackDispatcher();
+        mModemStateCallback = callbackDispatcher.latestModemState(modemStateHandler);
+        /* 启动时即在后台预取支持类型和卫星卡，界面读取时不再同步调用SDK */
+        capabilityCache = new CapabilityCache(backend, SystemClock::elapsedRealtimeNanos);
     }
 
     /**
-     * Request to enable satellite.
-     * This operation will cost power and may incur charges
+     * Release resources held for dispatching callback data.
+     * Must be called on the main thread when the session is released.
+     */
+    public void release() {
+        capabilityCache.release();
+        satelliteBackend.release();
+        callbackDispatcher.shutdown();
+        eventBus.clear();
+    }
+
+    /**
+     * Get the bus fanning out the service state, signal level and filtered pointing callbacks.
      *
-     * @param enableSatellite true for enable and false for disable
+     * @return event bus, subscriptions are cleared on {@link #release()}
      */
-    public void requestSatelliteEnabled(boolean enableSatellite) {
-        mHnSatelliteManager.requestSatelliteEnabled(enableSatellite, threadPool,
-                mHnSatelliteRequestCallback);
+    public SatelliteEventBus getEventBus() {
+        return eventBus;
+    }
+
+    int getServiceState() {
+        return serviceState;
+    }
+
+    SatelliteBackend getBackend() {
+        return satelliteBackend;
+    }
+
+    CallbackDispatcher getCallbackDispatcher() {
+        return callbackDispatcher;
+    }
+
+    SatelliteBackend.ModemStateCallback getModemStateCallback() {
+        return mModemStateCallback;
+    }
+
+    SatelliteBackend.PointingCallback getPointingCallback() {
+        return mPointingCallback;
     }
 
     /**
@@ -138,15 +141,16 @@ public class SatComKitDemo {
      * @return The result of the operation.
      */
     public int registerForSatelliteModemStateChanged() {
-        return mHnSatelliteManager.registerForSatelliteModemStateChanged(threadPool,
-                mHnSatelliteStateCallback);
+        return satelliteBackend.registerForSatelliteModemStateChanged(
+                callbackDispatcher.executor(CallbackDispatcher.Lane.MODEM_STATE),
+                mModemStateCallback);
     }
 
     /**
      * Unregisters for modem state changed from satellite modem.
      */
     public void unregisterForSatelliteModemStateChanged() {
-        mHnSatelliteManager.unregisterForSatelliteModemStateChanged(mHnSatelliteStateCallback);
+        satelliteBackend.unregisterForSatelliteModemStateChanged(mModemStateCallback);
     }
 
     /**
@@ -155,43 +159,97 @@ public class SatComKitDemo {
      * @return The result of the operation.
      */
     public int registerForSatellitePointingUpdates() {
-        return mHnSatelliteManager.registerForSatellitePointingUpdates(threadPool,
-                mHnSatellitePointingCallback);
+        return satelliteBackend.registerForSatellitePointingUpdates(
+                callbackDispatcher.executor(CallbackDispatcher.Lane.POINTING),
+                mPointingCallback);
     }
 
     /**
      * Unregisters for satellite pointing info updates.
      */
     public void unregisterForSatellitePointingUpdates() {
-        mHnSatelliteManager.unregisterForSatellitePointingUpdates(mHnSatellitePointingCallback);
+        satelliteBackend.unregisterForSatellitePointingUpdates(mPointingCallback);
     }
 
     /**
-     * The satellite type of current device supported.
+     * The satellite type of current device supported, read from the capability cache without blocking.
      *
-     * @return satellite support type
+     * @return satellite support type, {@link CapabilitySnapshot#SUPPORT_TYPE_UNKNOWN} until prefetched
      */
     public int getSatelliteSupportType() {
-        return mHnSatelliteManager.getSatelliteSupportType();
+        return capabilityCache.getSnapshot().getSatelliteSupportType();
+    }
+
+    /**
+     * Get available satellite sim card information, read from the capability cache without blocking.
+     *
+     * @return Available satellite sim card information {@code SatSim}
+     * empty until prefetched.
+     */
+    public List<SatSim> getAvailableSatSimCards() {
+        return capabilityCache.getSnapshot().getSatSims();
     }
 
     /**
-     * Get available satellite sim card information.
+     * Get the latest capability snapshot without blocking.
      *
-     * @return Available satellite sim card information {@code HnAvailableSatSim}
-     * default is an empty ArrayList.
+     * @return support type and sim cards, not loaded until the first prefetch completes
      */
-    public List<HnAvailableSatSim> getAvailableSatSimCards() {
-        return mHnSatelliteManager.getAvailableSatSimCards();
+    public CapabilitySnapshot getCapabilities() {
+        return capabilityCache.getSnapshot();
     }
 
     /**
-     * Set default satellite sim slot.
+     * Add a listener notified on the cache thread whenever the capabilities are reloaded.
+     *
+     * @param listener listener to add
+     */
+    public void addCapabilityListener(CapabilityCache.Listener listener) {
+        capabilityCache.addListener(listener);
+    }
+
+    /**
+     * Remove a listener of the capability reloads.
+     *
+     * @param listener listener to remove
+     */
+    public void removeCapabilityListener(CapabilityCache.Listener listener) {
+        capabilityCache.removeListener(listener);
+    }
+
+    /**
+     * Query the support type and sim cards again in the background, e.g. after a sim card change.
+     */
+    public void invalidateCapabilities() {
+        capabilityCache.invalidate();
+    }
+
+    /**
+     * Set default satellite sim slot in the background, the capabilities are reloaded afterwards.
      *
      * @param slotId slot ID: 0 or 1
+     * @return future completed once the slot has been set
+     */
+    public CompletableFuture<Void> setSatelliteSlot(int slotId) {
+        return capabilityCache.setSatelliteSlot(slotId);
+    }
+
+    /**
+     * Set the callback receiving the sent and delivery results of every message.
+     *
+     * @param callback result callback, null to drop results
      */
-    public void setSatelliteSlot(int slotId) {
-        mHnSatelliteManager.setSatelliteSlot(slotId);
+    public void setSmsResultCallback(SatelliteBackend.SmsResultCallback callback) {
+        satelliteBackend.setSmsResultCallback(callback);
+    }
+
+    /**
+     * Set the callback receiving the parts of every text message sent to this device over satellite.
+     *
+     * @param callback inbound callback, null to stop receiving
+     */
+    public void setInboundSmsCallback(SatelliteBackend.InboundSmsCallback callback) {
+        satelliteBackend.setInboundSmsCallback(callback);
     }
 
     /**
@@ -201,14 +259,10 @@ public class SatComKitDemo {
      * @param scAddress is the service center address or null to use
      *  the current default SMSC
      * @param text the body of the message to send
-     * @param sentIntent if not NULL this <code>PendingIntent</code> is
-     *  broadcast when the message is successfully sent, or failed.
-     * @param deliveryIntent if not NULL this <code>PendingIntent</code> is
-     *  broadcast when the message is delivered to the recipient.
-     */
-    public void sendTextMessage(String destinationAddress, String scAddress, String text,
-                                PendingIntent sentIntent, PendingIntent deliveryIntent) {
-        mHnSatelliteSmsManager.sendTextMessage(destinationAddress, scAddress, text,
-                sentIntent, deliveryIntent);
+     * @param messageId ID with which the sent and delivery results of
+     *  this message are reported to the {@code SmsResultCallback}
+     */
+    public void sendTextMessage(String destinationAddress, String scAddress, String text, long messageId) {
+        satelliteBackend.sendTextMessage(destinationAddress, scAddress, text, messageId);
     }
 }
@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import android.util.Log;
+
+import com.example.satellite.backend.SatelliteBackend;
+import com.example.satellite.events.SatelliteEvent;
+import com.example.satellite.events.SatelliteEventBus;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntSupplier;
+
+/**
+ * {@link SatComKitDemo} 之上的异步接口，每个操作都返回 {@link CompletableFuture} 或回调注册句柄，调用线程从不阻塞
+ * 同步的 SDK 调用在独立的调用线程上串行执行；每个 future 都有超时，超时以 {@link TimeoutException} 结束，
+ * SDK 返回失败结果时以 {@link SatelliteOperationException} 结束；取消或超时只是不再等待，已发出的 SDK 调用不会撤回，
+ * 但注册完成前已取消或超时的回调会立即去注册。future 在回调通道线程或调用线程上完成，后续操作不应阻塞
+ *
+ * @since 2026-10-17
+ */
+public class SatelliteClient {
+    /**
+     * 回调注册句柄
+     */
+    public interface Registration {
+        /**
+         * Unregister the callback in the background, calling it again has no effect.
+         */
+        void unregister();
+    }
+
+    private static final String TAG = "SatelliteClient";
+
+    private final SatComKitDemo satComKitDemo;
+    private final SatelliteBackend backend;
+    private final CallbackDispatcher callbackDispatcher;
+    private final MessageBatcher messageBatcher;
+    private final ScheduledThreadPoolExecutor callThread = new ScheduledThreadPoolExecutor(1,
+            runnable -> new Thread(runnable, "SatClient"));
+    /* 超时单独计时，调用线程阻塞在 SDK 调用上时超时仍能按时触发 */
+    private final ScheduledThreadPoolExecutor timerThread = new ScheduledThreadPoolExecutor(1,
+            runnable -> new Thread(runnable, "SatClientTimer"));
+    private final Set<CompletableFuture<?>> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor
+     *
+     * @param satComKitDemo interface class whose backend and callback lanes are used
+     * @param messageBatcher batcher receiving the messages sent through this client
+     */
+    public SatelliteClient(SatComKitDemo satComKitDemo, MessageBatcher messageBatcher) {
+        this.satComKitDemo = satComKitDemo;
+        this.backend = satComKitDemo.getBackend();
+        this.callbackDispatcher = satComKitDemo.getCallbackDispatcher();
+        this.messageBatcher = messageBatcher;
+        callThread.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        timerThread.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        timerThread.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Request to enable or disable satellite.
+     *
+     * @param enableSatellite true for enable and false for disable
+     * @param timeoutMillis time to wait for the result
+     * @return future completed with the result reported by {@code onRequestResult}
+     */
+    public CompletableFuture<Boolean> requestSatelliteEnabled(boolean enableSatellite, long timeoutMillis) {
+        CompletableFuture<Boolean> future = track("requestSatelliteEnabled", timeoutMillis);
+        call(future, () -> backend.requestSatelliteEnabled(enableSatellite,
+                callbackDispatcher.executor(CallbackDispatcher.Lane.REQUEST_RESULT), future::complete));
+        return future;
+    }
+
+    /**
+     * Register a modem state callback, run on the modem state lane.
+     *
+     * @param callback callback to register, returned by {@link CallbackDispatcher#latestModemState}
+     * @param timeoutMillis time to wait for the registration
+     * @return future completed with the handle once registered
+     */
+    public CompletableFuture<Registration> registerForSatelliteModemStateChanged(
+            SatelliteBackend.ModemStateCallback callback, long timeoutMillis) {
+        return register("registerForSatelliteModemStateChanged", timeoutMillis,
+            () -> backend.registerForSatelliteModemStateChanged(
+                    callbackDispatcher.executor(CallbackDispatcher.Lane.MODEM_STATE), callback),
+            () -> backend.unregisterForSatelliteModemStateChanged(callback));
+    }
+
+    /**
+     * Register a pointing callback, run on the pointing lane.
+     *
+     * @param callback callback to register
+     * @param timeoutMillis time to wait for the registration
+     * @return future completed with the handle once registered
+     */
+    public CompletableFuture<Registration> registerForSatellitePointingUpdates(
+            SatelliteBackend.PointingCallback callback, long timeoutMillis) {
+        return register("registerForSatellitePointingUpdates", timeoutMillis,
+            () -> backend.registerForSatellitePointingUpdates(
+                    callbackDispatcher.executor(CallbackDispatcher.Lane.POINTING), callback),
+            () -> backend.unregisterForSatellitePointingUpdates(callback));
+    }
+
+    /**
+     * Unregister a pointing callback however it was registered.
+     *
+     * @param callback callback to unregister
+     * @param timeoutMillis time to wait for the SDK call
+     * @return future completed once unregistered
+     */
+    public CompletableFuture<Void> unregisterForSatellitePointingUpdates(SatelliteBackend.PointingCallback callback,
+                                                                         long timeoutMillis) {
+        CompletableFuture<Void> future = track("unregisterForSatellitePointingUpdates", timeoutMillis);
+        call(future, () -> {
+            backend.unregisterForSatellitePointingUpdates(callback);
+            future.complete(null);
+        });
+        return future;
+    }
+
+    /**
+     * Wait until the satellite service reaches a state, as reported by the session modem state callback through
+     * the event bus. No SDK callback is registered for this; the session callback must be registered, by
+     * {@link SatComKitDemo#registerForSatelliteModemStateChanged()} or the connection orchestrator.
+     *
+     * @param serviceState state to wait for, e.g. {@link SatelliteBackend#SERVICE_STATE_IN_SERVICE}
+     * @param timeoutMillis time to wait for the state
+     * @return future completed with the state once reported, immediately if it is the latest reported state
+     */
+    public CompletableFuture<Integer> awaitServiceState(int serviceState, long timeoutMillis) {
+        CompletableFuture<Integer> future = track("awaitServiceState", timeoutMillis);
+        SatelliteEventBus eventBus = satComKitDemo.getEventBus();
+        SatelliteEventBus.Listener listener = event -> {
+            if (event.getServiceState() == serviceState) {
+                future.complete(serviceState);
+            }
+        };
+        /* 在发布线程上直接检查，只需保留最新的一个状态 */
+        SatelliteEventBus.Subscription subscription = eventBus.subscribe(SatelliteEvent.TYPE_SERVICE_STATE, 1,
+                SatelliteEventBus.Overflow.DROP_OLDEST, Runnable::run, listener);
+        future.whenComplete((state, error) -> eventBus.unsubscribe(subscription));
+        /* 订阅之前已上报的状态不会再发布，先订阅再检查最近一次的状态，两者之间的变化不会漏掉 */
+        if (satComKitDemo.getServiceState() == serviceState) {
+            future.complete(serviceState);
+        }
+        return future;
+    }
+
+    /**
+     * Get the satellite capabilities, completed immediately once they have been prefetched.
+     *
+     * @param timeoutMillis time to wait for the first query
+     * @return future completed with the loaded snapshot
+     */
+    public CompletableFuture<CapabilitySnapshot> getCapabilities(long timeoutMillis) {
+        CapabilitySnapshot snapshot = satComKitDemo.getCapabilities();
+        if (snapshot.isLoaded()) {
+            return CompletableFuture.completedFuture(snapshot);
+        }
+        CompletableFuture<CapabilitySnapshot> future = track("getCapabilities", timeoutMillis);
+        CapabilityCache.Listener listener = future::complete;
+        satComKitDemo.addCapabilityListener(listener);
+        future.whenComplete((loaded, error) -> satComKitDemo.removeCapabilityListener(listener));
+        /* 监听加入之前可能已经查询完成，再检查一次 */
+        snapshot = satComKitDemo.getCapabilities();
+        if (snapshot.isLoaded()) {
+            future.complete(snapshot);
+        }
+        return future;
+    }
+
+    /**
+     * Set the default satellite sim slot, the capabilities are reloaded afterwards.
+     *
+     * @param slotId slot ID: 0 or 1
+     * @param timeoutMillis time to wait for the SDK call
+     * @return future completed once the slot has been set
+     */
+    public CompletableFuture<Void> setSatelliteSlot(int slotId, long timeoutMillis) {
+        CompletableFuture<Void> future = track("setSatelliteSlot", timeoutMillis);
+        satComKitDemo.setSatelliteSlot(slotId).whenComplete((result, error) -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(null);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Send a text message through the batcher, without the outbox persistence and retries.
+     *
+     * @param destinationAddress the address to send the message to
+     * @param scAddress the service center address or null to use the current default SMSC
+     * @param text the body of the message to send
+     * @param timeoutMillis time to wait for the final result, including the batching latency
+     * @return future completed with the delivered segment carrying this text
+     */
+    public CompletableFuture<OutboundMessage> sendTextMessage(String destinationAddress, String scAddress,
+                                                              String text, long timeoutMillis) {
+        CompletableFuture<OutboundMessage> future = track("sendTextMessage", timeoutMillis);
+        messageBatcher.submit(destinationAddress, scAddress, text)
+                .thenCompose(OutboundMessage::resultFuture)
+                .whenComplete((message, error) -> {
+                    if (error != null) {
+                        future.completeExceptionally(error);
+                    } else if (message.getState() == MessageState.FAILED) {
+                        int resultCode = message.getDeliveryResultCode() != OutboundMessage.RESULT_NONE
+                                ? message.getDeliveryResultCode() : message.getSentResultCode();
+                        future.completeExceptionally(new SatelliteOperationException("sendTextMessage", resultCode));
+                    } else {
+                        future.complete(message);
+                    }
+                });
+        return future;
+    }
+
+    /**
+     * Stop the background threads and cancel every pending future.
+     * Must be called before {@link SatComKitDemo#release()}.
+     */
+    public void release() {
+        callThread.shutdownNow();
+        timerThread.shutdownNow();
+        for (CompletableFuture<?> future : pending) {
+            future.cancel(false);
+        }
+    }
+
+    private CompletableFuture<Registration> register(String operation, long timeoutMillis,
+                                                     IntSupplier registerCall, Runnable unregisterCall) {
+        CompletableFuture<Registration> future = track(operation, timeoutMillis);
+        call(future, () -> {
+            int result = registerCall.getAsInt();
+            if (result != 0) {
+                future.completeExceptionally(new SatelliteOperationException(operation, result));
+                return;
+            }
+            Registration registration = new CallbackRegistration(unregisterCall);
+            if (!future.complete(registration)) {
+                /* 注册期间已超时或被取消，调用方拿不到句柄，立即去注册 */
+                registration.unregister();
+            }
+        });
+        return future;
+    }
+
+    private <T> CompletableFuture<T> track(String operation, long timeoutMillis) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        pending.add(future);
+        ScheduledFuture<?> timeout;
+        try {
+            timeout = timerThread.schedule(() -> future.completeExceptionally(
+                    new TimeoutException(operation + " timed out after " + timeoutMillis + "ms")),
+                    timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            pending.remove(future);
+            future.cancel(false);
+            return future;
+        }
+        future.whenComplete((result, error) -> {
+            timeout.cancel(false);
+            pending.remove(future);
+        });
+        return future;
+    }
+
+    private void call(CompletableFuture<?> future, Runnable task) {
+        try {
+            callThread.execute(() -> {
+                /* 排队期间已超时或被取消的请求不再调用SDK */
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.cancel(false);
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            callThread.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    Log.w(TAG, "satellite call failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.d(TAG, "client already released");
+        }
+    }
+
+    private final class CallbackRegistration implements Registration {
+        private final Runnable unregisterCall;
+        private final AtomicBoolean unregistered = new AtomicBoolean(false);
+
+        CallbackRegistration(Runnable unregisterCall) {
+            this.unregisterCall = unregisterCall;
+        }
+
+        @Override
+        public void unregister() {
+            if (unregistered.compareAndSet(false, true)) {
+                execute(unregisterCall);
+            }
+        }
+    }
+}
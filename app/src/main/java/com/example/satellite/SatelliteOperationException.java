@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+/**
+ * 卫星接口返回失败结果时，{@link SatelliteClient} 返回的 future 以该异常结束
+ *
+ * @since 2026-10-17
+ */
+public class SatelliteOperationException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private final int resultCode;
+
+    /**
+     * Constructor
+     *
+     * @param operation name of the failed operation
+     * @param resultCode result code returned by the satellite SDK
+     */
+    public SatelliteOperationException(String operation, int resultCode) {
+        super(operation + " failed, result: " + resultCode);
+        this.resultCode = resultCode;
+    }
+
+    public int getResultCode() {
+        return resultCode;
+    }
+}
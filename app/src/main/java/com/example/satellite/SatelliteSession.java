@@ -0,0 +1,721 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import android.content.Context;
+import android.hardware.SensorManager;
+import android.os.Process;
+import android.os.SystemClock;
+import android.telephony.SubscriptionManager;
+import android.util.Log;
+
+import com.example.satellite.backend.SatelliteBackend;
+import com.example.satellite.backend.SimulatedSatelliteBackend;
+import com.example.satellite.backend.SimulatorConfig;
+import com.example.satellite.events.SatelliteEvent;
+import com.example.satellite.events.SatelliteEventBus;
+import com.example.satellite.inbound.InboundMessage;
+import com.example.satellite.inbound.InboundPipeline;
+import com.example.satellite.metrics.MeteredSatelliteBackend;
+import com.example.satellite.metrics.MetricsSnapshot;
+import com.example.satellite.metrics.SatelliteMetrics;
+import com.example.satellite.recording.RecordingSatelliteBackend;
+import com.example.satellite.recording.SessionRecorder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 进程级的卫星会话，持有卫星后端、SDK 回调注册以及发件箱、收件箱、卡槽管理、占空比控制等全部组件
+ * 会话只创建一次，由 {@link SatelliteSessionService} 前台服务维持进程存活，界面重建不会重新创建SDK实例、
+ * 线程池或重新注册回调；界面以 {@link Observer} 挂接和解除，挂接时立即回放最近的日志、服务状态、信号和对星数据，
+ * 不需要向SDK重新查询；会话只弱引用观察者，界面忘记解除挂接时也不会因会话而无法回收，被回收的观察者自动移除
+ * 会话在后台线程上创建，清理和创建会话记录文件、映射记录缓冲区、打开日志和发件箱等文件读写都不占用主线程，
+ * 只有需要在主线程上启动的组件在创建完成后切回主线程启动
+ *
+ * @since 2026-10-17
+ */
+public final class SatelliteSession {
+    /**
+     * 界面观察者，回调可能在任意线程上调用，实现方自行切换到主线程
+     */
+    public interface Observer {
+        /**
+         * Called for every line of the session log.
+         *
+         * @param line log line, may contain line breaks
+         * @param reset true if the log is cleared before this line
+         */
+        void onLog(String line, boolean reset);
+
+        /**
+         * Called when the satellite service state changes.
+         *
+         * @param serviceState state defined in {@code HnSatelliteServiceState}
+         */
+        void onServiceStateChanged(int serviceState);
+
+        /**
+         * Called when the satellite signal level changes.
+         *
+         * @param signalLevel signal level
+         */
+        void onSignalLevelChanged(int signalLevel);
+
+        /**
+         * Called on the main thread with every filtered pointing sample.
+         *
+         * @param sample latest satellite and phone pointing data, reused for the next sample on the main thread
+         */
+        void onPointingSample(PointingSample sample);
+    }
+
+    static final long SATELLITE_SLOT_TIMEOUT_MILLIS = 10 * 1000L;
+    static final long SATELLITE_REGISTER_TIMEOUT_MILLIS = 10 * 1000L;
+    static final long SATELLITE_ENABLE_TIMEOUT_MILLIS = 60 * 1000L;
+    static final long SATELLITE_SERVICE_TIMEOUT_MILLIS = 5 * 60 * 1000L;
+
+    private static final String TAG = "SatelliteSession";
+    /* 创建会话的后台线程，创建完成后退出 */
+    private static final String SESSION_INIT_THREAD = "SatSessionInit";
+    private static final long LOG_FILE_MAX_BYTES = 1024 * 1024;
+    private static final int LOG_FILE_MAX_COUNT = 3;
+    /* 挂接时回放的最近日志行数，与输出框容量一致 */
+    private static final int LOG_REPLAY_LINES = LogConsole.DEFAULT_CAPACITY;
+    /* 保留的会话记录文件数，超出时删除最早的记录 */
+    private static final int SESSION_MAX_COUNT = 5;
+    private static final double CONNECT_MAX_ALIGN_ERROR_DEGREES = 15.0;
+    private static final long CONNECT_ALIGN_TIMEOUT_MILLIS = 30 * 1000L;
+    private static final long CONNECT_BASE_BACKOFF_MILLIS = 2 * 1000L;
+    private static final int CONNECT_MAX_ENABLE_ATTEMPTS = 5;
+    private static final long SLOT_FAILOVER_THRESHOLD_MILLIS = 2 * 60 * 1000L;
+    private static final long SLOT_MIN_DWELL_MILLIS = 5 * 60 * 1000L;
+    private static final long DUTY_ALIGN_STABLE_MILLIS = 10 * 1000L;
+    private static final double DUTY_DRIFT_DEGREES = 20.0;
+    private static final long DUTY_IDLE_MILLIS = 2 * 60 * 1000L;
+    private static final long DUTY_WAKE_INTERVAL_MILLIS = 10 * 60 * 1000L;
+    private static final int DUTY_MAX_ENABLE_ATTEMPTS = 4;
+    private static final long DUTY_ENABLE_BACKOFF_MILLIS = 5 * 1000L;
+    /* 对星预测缓存：0.5 度网格内静止轨道卫星方向的差异小于 1 度，记录保留 30 天 */
+    private static final double POINTING_CACHE_CELL_DEGREES = 0.5;
+    private static final int POINTING_CACHE_CAPACITY = 256;
+    private static final long POINTING_CACHE_MAX_AGE_MILLIS = 30 * 24 * 60 * 60 * 1000L;
+    private static final long POINTING_PREDICT_MAX_MILLIS = 2 * 60 * 1000L;
+    private static final int MESSAGE_MAX_IN_FLIGHT = 4;
+    private static final long MESSAGE_SENT_TIMEOUT_MILLIS = 60 * 1000L;
+    private static final long MESSAGE_DELIVERY_TIMEOUT_MILLIS = 10 * 60 * 1000L;
+    private static final int MESSAGE_SEGMENT_MAX_CHARS = 70;
+    private static final long MESSAGE_BATCH_LATENCY_MILLIS = 3 * 1000L;
+    /* 关闭时等待合并线程把批次交给发送队列，只是入队，很快完成 */
+    private static final long MESSAGE_BATCH_SHUTDOWN_TIMEOUT_MILLIS = 500L;
+    private static final long OUTBOX_BASE_BACKOFF_MILLIS = 5 * 1000L;
+    private static final long OUTBOX_MAX_BACKOFF_MILLIS = 10 * 60 * 1000L;
+    private static final int OUTBOX_MAX_ATTEMPTS = 8;
+    private static final int LINK_WINDOW_SIZE = 16;
+    private static final int LINK_LEVEL_THRESHOLD = 2;
+    private static final long LINK_MIN_STABLE_MILLIS = 5 * 1000L;
+    private static final long LINK_LOOKAHEAD_MILLIS = 10 * 1000L;
+    private static final long LINK_TREND_WINDOW_MILLIS = 60 * 1000L;
+    private static final int LINK_MAX_TRANSITIONS = 4;
+    private static final int INBOX_DEDUP_CAPACITY = 4096;
+    private static final int INBOX_RETAINED_MESSAGES = 500;
+    private static final int INBOX_MAX_BATCH_MESSAGES = 64;
+    private static final long INBOX_BATCH_DELAY_MILLIS = 500L;
+    private static final int INBOX_MAX_PENDING_PARTS = 64;
+    private static final long INBOX_PART_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+    /* 每批新短信在输出框中最多逐条显示的条数 */
+    private static final int INBOX_DISPLAY_MAX = 5;
+    private static final long SIMULATED_INBOUND_INTERVAL_MILLIS = 60 * 1000L;
+    private static final double SIMULATED_INBOUND_DUPLICATE_RATIO = 0.2;
+    /* 界面只显示最新数据；状态和信号各自单独订阅，只保留一个最新值，对星数据才在共用的缓冲区中覆盖旧事件 */
+    private static final int UI_LATEST_EVENT_CAPACITY = 1;
+    private static final int UI_POINTING_EVENT_CAPACITY = 8;
+    private static final int POINTING_EVENTS = SatelliteEvent.TYPE_POINTING | SatelliteEvent.TYPE_PREDICTED_POINTING;
+    /* 日志文件订阅记录每次状态变化，不丢弃中间状态，缓冲区满时丢弃新事件并在丢弃计数中体现 */
+    private static final int STATE_LOG_EVENT_CAPACITY = 64;
+    /* 发件箱调度、卡槽管理和占空比控制在回调通道线程上同步收到事件，缓冲区只暂存投递过程中到达的事件 */
+    private static final int COMPONENT_EVENT_CAPACITY = 8;
+    private static final int MODEM_STATE_EVENTS = SatelliteEvent.TYPE_SERVICE_STATE | SatelliteEvent.TYPE_SIGNAL_LEVEL;
+
+    /* 创建中或已创建的会话，最后一步在主线程上完成 */
+    private static CompletableFuture<SatelliteSession> instance;
+    /* 进程内第一个会话以进程启动时刻作为启动时间，之后重新创建的会话以创建时刻为准；在类锁下访问 */
+    private static boolean processLaunchClaimed;
+
+    private final Context context;
+    /* 元素为 WeakObserver */
+    private final List<Observer> observers = new CopyOnWriteArrayList<>();
+    /* 会话内各组件之间的监听和回调挂接，释放时一次注销，之后再关闭各组件 */
+    private final RegistrationScope registrations = new RegistrationScope(TAG);
+    /* 最近的日志行，挂接时回放；与观察者列表的增删在同一把锁下进行，回放和实时日志不会重复或遗漏 */
+    private final Deque<String> recentLines = new ArrayDeque<>();
+    private final LogFileSpill logFileSpill;
+    private final Observer broadcaster = new Broadcaster();
+    private final SatelliteMetrics satelliteMetrics;
+    private final long launchNanos;
+    /* 只在主线程上访问，进程内第一个会话记录第一帧之前为 true */
+    private boolean firstFramePending;
+    private final SatComKitDemo satComKitDemo;
+    private final OutboundMessageQueue messageQueue;
+    private final MessageBatcher messageBatcher;
+    private final SatelliteClient satelliteClient;
+    private final LinkQualityScheduler linkQualityScheduler;
+    private final MessageOutbox messageOutbox;
+    private final InboundPipeline inboundPipeline;
+    private final SatelliteSlotManager slotManager;
+    private final PowerDutyCycler dutyCycler;
+    private final PointingPredictor pointingPredictor;
+    private final SatelliteEventBus.Subscription uiStateSubscription;
+    private final SatelliteEventBus.Subscription uiSignalSubscription;
+    private final SatelliteEventBus.Subscription uiPointingSubscription;
+    private final SatelliteEventBus.Subscription stateLogSubscription;
+    private final SubscriptionManager subscriptionManager;
+    /* 卡插拔、卡槽切换时重新查询卫星能力 */
+    private final SubscriptionManager.OnSubscriptionsChangedListener subscriptionsChangedListener =
+            new SubscriptionManager.OnSubscriptionsChangedListener() {
+                @Override
+                public void onSubscriptionsChanged() {
+                    satComKitDemo.invalidateCapabilities();
+                }
+            };
+    private volatile int lastServiceState = SatelliteBackend.SERVICE_STATE_UNAVAILABLE;
+    private volatile int lastSignalLevel = SatelliteBackend.SIGNAL_LEVEL_UNAVAILABLE;
+    private volatile PointingSample lastPointingSample;
+    /* 界面订阅在主线程上复用的对星样本 */
+    private final PointingSample uiPointingSample = new PointingSample(Double.NaN, Double.NaN, Double.NaN,
+            Double.NaN, Double.NaN, Double.NaN);
+    private ConnectionOrchestrator connectionOrchestrator;
+
+    private SatelliteSession(Context context, boolean simulate) {
+        this.context = context;
+        logFileSpill = new LogFileSpill(new File(context.getFilesDir(), "logs"), "satellite.log",
+                LOG_FILE_MAX_BYTES, LOG_FILE_MAX_COUNT);
+
+        /*
+         * 创建接口调用类实例，默认通过卫星SDK访问真实设备，短信结果广播由后端接收
+         * 后端外包一层会话记录和一层指标统计，时钟包含深度睡眠时间
+         */
+        SatelliteBackend backend = recordSession(simulate
+                ? new SimulatedSatelliteBackend(new SimulatorConfig()
+                        .setInbound(SIMULATED_INBOUND_INTERVAL_MILLIS, SIMULATED_INBOUND_DUPLICATE_RATIO))
+                : new AndroidSatelliteBackend(context));
+        satelliteMetrics = new SatelliteMetrics(SystemClock::elapsedRealtimeNanos);
+        if (claimProcessLaunch()) {
+            firstFramePending = true;
+            launchNanos = TimeUnit.MILLISECONDS.toNanos(Process.getStartElapsedRealtime());
+        } else {
+            launchNanos = satelliteMetrics.nowNanos();
+        }
+        satComKitDemo = new SatComKitDemo(broadcaster,
+                new MeteredSatelliteBackend(backend, satelliteMetrics, launchNanos));
+        /*
+         * 订阅事件总线：界面在主线程上收到状态、信号和对星数据；状态变化另写入日志文件，不经过输出框
+         */
+        SatelliteEventBus eventBus = satComKitDemo.getEventBus();
+        uiStateSubscription = eventBus.subscribe(SatelliteEvent.TYPE_SERVICE_STATE, UI_LATEST_EVENT_CAPACITY,
+                SatelliteEventBus.Overflow.DROP_OLDEST, context.getMainExecutor(), this::onUiEvent);
+        registrations.add(() -> eventBus.unsubscribe(uiStateSubscription));
+        uiSignalSubscription = eventBus.subscribe(SatelliteEvent.TYPE_SIGNAL_LEVEL, UI_LATEST_EVENT_CAPACITY,
+                SatelliteEventBus.Overflow.DROP_OLDEST, context.getMainExecutor(), this::onUiEvent);
+        registrations.add(() -> eventBus.unsubscribe(uiSignalSubscription));
+        uiPointingSubscription = eventBus.subscribe(POINTING_EVENTS, UI_POINTING_EVENT_CAPACITY,
+                SatelliteEventBus.Overflow.DROP_OLDEST, context.getMainExecutor(), this::onUiEvent);
+        registrations.add(() -> eventBus.unsubscribe(uiPointingSubscription));
+        stateLogSubscription = eventBus.subscribe(SatelliteEvent.TYPE_SERVICE_STATE | SatelliteEvent.TYPE_SIGNAL_LEVEL,
+                STATE_LOG_EVENT_CAPACITY, SatelliteEventBus.Overflow.DROP_NEWEST, Runnable::run,
+                event -> logFileSpill.write(event.toString()));
+        registrations.add(() -> eventBus.unsubscribe(stateLogSubscription));
+        subscriptionManager = context.getSystemService(SubscriptionManager.class);
+        if (subscriptionManager != null) {
+            subscriptionManager.addOnSubscriptionsChangedListener(context.getMainExecutor(),
+                    subscriptionsChangedListener);
+            registrations.add(() -> subscriptionManager.removeOnSubscriptionsChangedListener(
+                    subscriptionsChangedListener));
+        }
+
+        /*
+         * 创建短信发送队列，每条短信的发送、送达结果通过其关联ID显示在输出框
+         */
+        messageQueue = new OutboundMessageQueue(satComKitDemo, MESSAGE_MAX_IN_FLIGHT,
+                MESSAGE_SENT_TIMEOUT_MILLIS, MESSAGE_DELIVERY_TIMEOUT_MILLIS,
+                message -> {
+                    String line = "message " + message.getId() + " " + message.getState()
+                            + ", sent resultCode: " + message.getSentResultCode()
+                            + ", delivery resultCode: " + message.getDeliveryResultCode();
+                    /* 同时写入 logcat，只导出 logcat 的设备也能统计短信结果 */
+                    Log.i(TAG, line);
+                    log(line);
+                });
+        messageBatcher = new MessageBatcher(messageQueue, MESSAGE_SEGMENT_MAX_CHARS,
+                MESSAGE_BATCH_LATENCY_MILLIS);
+        /* 异步接口，使能、设置卫星卡等操作的结果通过 future 返回，不阻塞主线程 */
+        satelliteClient = new SatelliteClient(satComKitDemo, messageBatcher);
+
+        /*
+         * 创建发件箱，短信先持久化，卫星无服务时暂存，服务恢复后自动发送，上次未发完的短信启动后继续发送
+         * 非紧急短信由链路质量调度等待信号稳定、足够好的窗口再发送
+         */
+        linkQualityScheduler = new LinkQualityScheduler(LINK_WINDOW_SIZE, LINK_LEVEL_THRESHOLD,
+                LINK_MIN_STABLE_MILLIS, LINK_LOOKAHEAD_MILLIS, LINK_TREND_WINDOW_MILLIS, LINK_MAX_TRANSITIONS,
+                SystemClock::elapsedRealtime);
+        messageOutbox = new MessageOutbox(new File(context.getFilesDir(), "outbox/outbox.journal"),
+                messageBatcher, linkQualityScheduler, OUTBOX_BASE_BACKOFF_MILLIS, OUTBOX_MAX_BACKOFF_MILLIS,
+                OUTBOX_MAX_ATTEMPTS);
+        linkQualityScheduler.setListener(messageOutbox);
+        SatelliteEventBus.Subscription linkSubscription = eventBus.subscribe(MODEM_STATE_EVENTS,
+                COMPONENT_EVENT_CAPACITY, SatelliteEventBus.Overflow.DROP_OLDEST, Runnable::run, linkQualityScheduler);
+        registrations.add(() -> eventBus.unsubscribe(linkSubscription));
+        messageOutbox.start();
+
+        /*
+         * 创建收件流水线，收到的卫星短信重组多段、过滤重传后批量写入收件箱，恢复服务时集中到达的积压短信按批处理
+         */
+        inboundPipeline = new InboundPipeline(new File(context.getFilesDir(), "inbox/inbox.journal"),
+                INBOX_DEDUP_CAPACITY, INBOX_RETAINED_MESSAGES, INBOX_MAX_BATCH_MESSAGES, INBOX_BATCH_DELAY_MILLIS,
+                INBOX_MAX_PENDING_PARTS, INBOX_PART_TIMEOUT_MILLIS);
+        inboundPipeline.setListener(this::showInboundMessages);
+        inboundPipeline.start();
+        satComKitDemo.setInboundSmsCallback(inboundPipeline);
+        registrations.add(() -> satComKitDemo.setInboundSmsCallback(null));
+
+        /*
+         * 自动选择卫星卡槽，当前卡槽长时间无服务时切换到另一张卡，切换期间短信保留在发件箱中
+         */
+        slotManager = new SatelliteSlotManager(satelliteClient, linkQualityScheduler, SLOT_FAILOVER_THRESHOLD_MILLIS,
+                SLOT_MIN_DWELL_MILLIS, SATELLITE_SLOT_TIMEOUT_MILLIS);
+        slotManager.setListener((slotId, reason) -> log("satellite slot " + slotId + ": " + reason));
+        SatelliteEventBus.Subscription slotSubscription = eventBus.subscribe(MODEM_STATE_EVENTS,
+                COMPONENT_EVENT_CAPACITY, SatelliteEventBus.Overflow.DROP_OLDEST, Runnable::run, slotManager);
+        registrations.add(() -> eventBus.unsubscribe(slotSubscription));
+        satComKitDemo.addCapabilityListener(slotManager);
+        registrations.add(() -> satComKitDemo.removeCapabilityListener(slotManager));
+        /* 能力可能在加入监听之前已经预取完成 */
+        slotManager.onCapabilitiesChanged(satComKitDemo.getCapabilities());
+        slotManager.start();
+
+        /*
+         * 自动连接完成后由占空比控制接管：对准稳定后暂停对星回调，发件箱空闲后去使能卫星，短信在唤醒窗口内集中发送
+         */
+        dutyCycler = new PowerDutyCycler(satComKitDemo, satelliteClient,
+                context.getSystemService(SensorManager.class), DUTY_ALIGN_STABLE_MILLIS, DUTY_DRIFT_DEGREES,
+                DUTY_IDLE_MILLIS, DUTY_WAKE_INTERVAL_MILLIS, SATELLITE_ENABLE_TIMEOUT_MILLIS, DUTY_MAX_ENABLE_ATTEMPTS,
+                DUTY_ENABLE_BACKOFF_MILLIS);
+        SatelliteEventBus.Subscription dutySubscription = eventBus.subscribe(SatelliteEvent.TYPE_POINTING,
+                COMPONENT_EVENT_CAPACITY, SatelliteEventBus.Overflow.DROP_OLDEST, Runnable::run, dutyCycler);
+        registrations.add(() -> eventBus.unsubscribe(dutySubscription));
+        messageOutbox.setPendingListener(dutyCycler);
+        registrations.add(() -> messageOutbox.setPendingListener(null));
+
+        /*
+         * 对星预测：收到第一个对星回调之前，按缓存的卫星方向和手机姿态给出预测指引，实时数据到达后写回缓存
+         */
+        pointingPredictor = new PointingPredictor(context, satComKitDemo.getEventBus(),
+                new PointingCache(new File(context.getFilesDir(), "pointing/pointing.cache"),
+                        POINTING_CACHE_CELL_DEGREES, POINTING_CACHE_CAPACITY, POINTING_CACHE_MAX_AGE_MILLIS),
+                POINTING_PREDICT_MAX_MILLIS, this::log);
+        registrations.add(pointingPredictor::release);
+    }
+
+    /**
+     * Get the session of this process, creating it on a background thread on first use. Safe to call from any thread.
+     *
+     * @param context any context, the application context is kept
+     * @param simulate whether a newly created session uses the simulator instead of the device SDK
+     * @return future of the process wide session, completed on the main thread
+     */
+    static synchronized CompletableFuture<SatelliteSession> obtain(Context context, boolean simulate) {
+        if (instance == null) {
+            Context appContext = context.getApplicationContext();
+            instance = CompletableFuture.supplyAsync(() -> new SatelliteSession(appContext, simulate),
+                    task -> new Thread(task, SESSION_INIT_THREAD).start())
+                    /* 在主线程上完成，释放和界面挂接都在主线程上进行 */
+                    .thenApplyAsync(session -> session, appContext.getMainExecutor());
+            instance.exceptionally(error -> {
+                Log.e(TAG, "create session failed", error);
+                return null;
+            });
+        }
+        return instance;
+    }
+
+    /**
+     * Release the session of this process if there is one, the next {@link #obtain} creates a new one.
+     * Must be called on the main thread; a session still being created is released on the main thread once created.
+     */
+    static synchronized void releaseInstance() {
+        if (instance != null) {
+            instance.thenAccept(SatelliteSession::release);
+            instance = null;
+        }
+    }
+
+    private static synchronized boolean claimProcessLaunch() {
+        if (processLaunchClaimed) {
+            return false;
+        }
+        processLaunchClaimed = true;
+        return true;
+    }
+
+    /**
+     * Attach an observer and replay the current log and satellite state to it before any live update.
+     * The session only holds the observer weakly, the caller keeps it reachable while attached.
+     *
+     * @param observer observer to attach
+     * @return registration detaching the observer, the session keeps running
+     */
+    public RegistrationScope.Registration attach(Observer observer) {
+        WeakObserver bridge = new WeakObserver(observer);
+        synchronized (recentLines) {
+            boolean first = true;
+            for (String line : recentLines) {
+                observer.onLog(line, first);
+                first = false;
+            }
+            observers.add(bridge);
+        }
+        if (lastServiceState != SatelliteBackend.SERVICE_STATE_UNAVAILABLE) {
+            observer.onServiceStateChanged(lastServiceState);
+        }
+        if (lastSignalLevel != SatelliteBackend.SIGNAL_LEVEL_UNAVAILABLE) {
+            observer.onSignalLevelChanged(lastSignalLevel);
+        }
+        PointingSample sample = lastPointingSample;
+        if (sample != null) {
+            observer.onPointingSample(sample);
+        }
+        return () -> removeObserver(bridge);
+    }
+
+    /**
+     * Append a line to the session log. Safe to call from any thread.
+     *
+     * @param line text to append
+     */
+    public void log(String line) {
+        broadcaster.onLog(line, false);
+    }
+
+    /**
+     * Clear the session log and show a new first line. Safe to call from any thread.
+     *
+     * @param line first line, empty to leave the log blank
+     */
+    public void resetLog(String line) {
+        broadcaster.onLog(line, true);
+    }
+
+    public SatComKitDemo getSatComKitDemo() {
+        return satComKitDemo;
+    }
+
+    public SatelliteClient getSatelliteClient() {
+        return satelliteClient;
+    }
+
+    public MessageOutbox getMessageOutbox() {
+        return messageOutbox;
+    }
+
+    public SatelliteSlotManager getSlotManager() {
+        return slotManager;
+    }
+
+    public SatelliteMetrics getMetrics() {
+        return satelliteMetrics;
+    }
+
+    public long getLaunchNanos() {
+        return launchNanos;
+    }
+
+    /**
+     * Record the latency from the process start to the first frame of the main screen, which may have been drawn
+     * before the session was created. Only the first call in the process is recorded. Must be called on the main
+     * thread.
+     *
+     * @param frameNanos time the first frame was drawn, on the {@link SystemClock#elapsedRealtimeNanos()} clock
+     */
+    public void recordFirstFrame(long frameNanos) {
+        if (!firstFramePending) {
+            return;
+        }
+        firstFramePending = false;
+        satelliteMetrics.recordBetween(SatelliteMetrics.Latency.LAUNCH_TO_FIRST_FRAME, launchNanos, frameNanos);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(frameNanos - launchNanos);
+        log("first frame after " + elapsedMillis + "ms");
+    }
+
+    /**
+     * Start the pointing prediction, once the coarse location permission has been granted or denied so that the
+     * predictor sees the final answer. Later calls do nothing. Must be called on the main thread.
+     */
+    public void startPointingPrediction() {
+        pointingPredictor.start();
+    }
+
+    /**
+     * 开始自动连接，上一次自动连接失败后可重新开始；失败时已去注册回调，重新注册不会被其打断
+     * Must be called on the main thread.
+     *
+     * @param slotId satellite sim slot to set, or a negative value to keep the current one
+     * @param startNanos start time on the metrics clock
+     */
+    public void startAutoConnect(int slotId, long startNanos) {
+        if (connectionOrchestrator != null) {
+            ConnectionOrchestrator.State state = connectionOrchestrator.getState();
+            if (state != ConnectionOrchestrator.State.FAILED) {
+                log("auto connect already " + state);
+                return;
+            }
+            connectionOrchestrator.stop();
+        }
+        connectionOrchestrator = new ConnectionOrchestrator(satComKitDemo, satelliteClient, satelliteMetrics,
+                new ConnectionOrchestrator.Listener() {
+                    @Override
+                    public void onStateChanged(ConnectionOrchestrator.State state, String detail) {
+                        log(state + ": " + detail);
+                    }
+
+                    @Override
+                    public void onReadyToSend(long elapsedMillis) {
+                        log("ready to send after " + elapsedMillis + "ms");
+                        dutyCycler.start(messageOutbox.getPendingCount());
+                    }
+                }, CONNECT_MAX_ALIGN_ERROR_DEGREES, CONNECT_ALIGN_TIMEOUT_MILLIS, SATELLITE_ENABLE_TIMEOUT_MILLIS,
+                SATELLITE_SERVICE_TIMEOUT_MILLIS, CONNECT_BASE_BACKOFF_MILLIS, CONNECT_MAX_ENABLE_ATTEMPTS);
+        connectionOrchestrator.start(slotId, startNanos);
+    }
+
+    private void release() {
+        observers.clear();
+        registrations.close();
+        dutyCycler.stop();
+        slotManager.shutdown();
+        if (connectionOrchestrator != null) {
+            connectionOrchestrator.stop();
+        }
+        satelliteClient.release();
+        inboundPipeline.shutdown();
+        messageOutbox.shutdown();
+        /* 合并中的短信先交给发送队列，再关闭队列，队列关闭时使其中未完成的短信失败 */
+        messageBatcher.shutdown(MESSAGE_BATCH_SHUTDOWN_TIMEOUT_MILLIS);
+        messageQueue.shutdown();
+        satComKitDemo.release();
+        dumpMetrics();
+        logFileSpill.close();
+    }
+
+    private void removeObserver(Observer bridge) {
+        synchronized (recentLines) {
+            observers.remove(bridge);
+        }
+    }
+
+    private void onUiEvent(SatelliteEvent event) {
+        switch (event.getType()) {
+            case SatelliteEvent.TYPE_SERVICE_STATE:
+                broadcaster.onServiceStateChanged(event.getServiceState());
+                break;
+            case SatelliteEvent.TYPE_SIGNAL_LEVEL:
+                broadcaster.onSignalLevelChanged(event.getSignalLevel());
+                break;
+            case SatelliteEvent.TYPE_POINTING:
+            case SatelliteEvent.TYPE_PREDICTED_POINTING:
+                /* 事件对象只在本次投递中有效，复制到主线程上复用的样本，渲染也在主线程上按帧读取 */
+                broadcaster.onPointingSample(uiPointingSample.set(event.getSatelliteEle(), event.getSatelliteAzi(),
+                        event.getSatelliteHor(), event.getPhoneEle(), event.getPhoneAzi(), event.getPhoneHor(),
+                        event.getAngularError(), event.getGuidance(),
+                        event.getType() == SatelliteEvent.TYPE_PREDICTED_POINTING));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void showInboundMessages(List<InboundMessage> messages) {
+        StringBuilder text = new StringBuilder("received ").append(messages.size()).append(" messages");
+        for (int i = 0; i < messages.size() && i < INBOX_DISPLAY_MAX; i++) {
+            text.append('\n').append(messages.get(i));
+        }
+        if (messages.size() > INBOX_DISPLAY_MAX) {
+            text.append("\n...");
+        }
+        log(text.toString());
+    }
+
+    /**
+     * 把后端的回调记录到 files/sessions 下的新文件，文件名带创建时间，用于离线分析和回放
+     *
+     * @param backend backend to record
+     * @return recording backend, or the given backend if the recording cannot be created
+     */
+    private SatelliteBackend recordSession(SatelliteBackend backend) {
+        File dir = new File(context.getFilesDir(), "sessions");
+        File[] sessions = dir.listFiles((file, name) -> name.startsWith("session-") && name.endsWith(".bin"));
+        if (sessions != null && sessions.length >= SESSION_MAX_COUNT) {
+            /* 文件名中的时间位数相同，按名称排序即按时间排序 */
+            Arrays.sort(sessions);
+            for (int i = 0; i <= sessions.length - SESSION_MAX_COUNT; i++) {
+                if (!sessions[i].delete()) {
+                    Log.w(TAG, "delete session failed: " + sessions[i]);
+                }
+            }
+        }
+        File file = new File(dir, "session-" + System.currentTimeMillis() + ".bin");
+        try {
+            return new RecordingSatelliteBackend(backend,
+                    SessionRecorder.create(file, SystemClock::elapsedRealtimeNanos));
+        } catch (IOException e) {
+            Log.e(TAG, "create session recording failed", e);
+            return backend;
+        }
+    }
+
+    private void dumpMetrics() {
+        MetricsSnapshot snapshot = satelliteMetrics.snapshot();
+        Log.i(TAG, "satellite metrics\n" + snapshot);
+        long delivered = snapshot.getCount(SatelliteMetrics.Callback.SMS_DELIVERY);
+        Log.i(TAG, "duty cycle: satellite on " + dutyCycler.getSatelliteOnMillis() + "ms, pointing on "
+                + dutyCycler.getPointingOnMillis() + "ms, " + delivered + " messages delivered");
+        Log.i(TAG, "event bus: ui state " + uiStateSubscription.getDeliveredCount() + " delivered, "
+                + uiStateSubscription.getDroppedCount() + " superseded, ui signal "
+                + uiSignalSubscription.getDeliveredCount() + " delivered, " + uiSignalSubscription.getDroppedCount()
+                + " superseded, ui pointing " + uiPointingSubscription.getDeliveredCount() + " delivered, "
+                + uiPointingSubscription.getDroppedCount() + " dropped, state log "
+                + stateLogSubscription.getDroppedCount() + " dropped");
+        CallbackDispatcher dispatcher = satComKitDemo.getCallbackDispatcher();
+        StringBuilder lanes = new StringBuilder("callback lanes:");
+        for (CallbackDispatcher.Lane lane : CallbackDispatcher.Lane.values()) {
+            lanes.append(' ').append(lane).append(' ').append(dispatcher.getDroppedCount(lane)).append(" dropped");
+        }
+        Log.i(TAG, lanes.toString());
+        Log.i(TAG, "inbox: " + inboundPipeline.getSegmentCount() + " parts, " + inboundPipeline.getMessageCount()
+                + " messages, " + inboundPipeline.getDuplicateCount() + " duplicates");
+        File file = new File(context.getFilesDir(), "metrics/metrics.bin");
+        File dir = file.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            Log.e(TAG, "create metrics dir failed: " + dir);
+            return;
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            snapshot.writeTo(out);
+        } catch (IOException e) {
+            Log.e(TAG, "write metrics failed", e);
+        }
+    }
+
+    /**
+     * 记录最新状态并转发给已挂接的观察者，日志来自会话内各组件，状态、信号和对星数据来自事件总线的界面订阅
+     */
+    private final class Broadcaster implements Observer {
+        @Override
+        public void onLog(String line, boolean reset) {
+            if (!line.isEmpty()) {
+                logFileSpill.write(line);
+            }
+            synchronized (recentLines) {
+                if (reset) {
+                    recentLines.clear();
+                }
+                if (!line.isEmpty() || !reset) {
+                    recentLines.addLast(line);
+                }
+                while (recentLines.size() > LOG_REPLAY_LINES) {
+                    recentLines.removeFirst();
+                }
+                for (Observer observer : observers) {
+                    observer.onLog(line, reset);
+                }
+            }
+        }
+
+        @Override
+        public void onServiceStateChanged(int serviceState) {
+            lastServiceState = serviceState;
+            for (Observer observer : observers) {
+                observer.onServiceStateChanged(serviceState);
+            }
+        }
+
+        @Override
+        public void onSignalLevelChanged(int signalLevel) {
+            lastSignalLevel = signalLevel;
+            for (Observer observer : observers) {
+                observer.onSignalLevelChanged(signalLevel);
+            }
+        }
+
+        @Override
+        public void onPointingSample(PointingSample sample) {
+            lastPointingSample = sample;
+            for (Observer observer : observers) {
+                observer.onPointingSample(sample);
+            }
+        }
+    }
+
+    /**
+     * 弱引用观察者的桥接，会话和 SDK 回调经由它通知界面；界面已被回收时移除自身
+     */
+    private final class WeakObserver implements Observer {
+        private final WeakReference<Observer> target;
+
+        WeakObserver(Observer observer) {
+            this.target = new WeakReference<>(observer);
+        }
+
+        @Override
+        public void onLog(String line, boolean reset) {
+            Observer observer = resolve();
+            if (observer != null) {
+                observer.onLog(line, reset);
+            }
+        }
+
+        @Override
+        public void onServiceStateChanged(int serviceState) {
+            Observer observer = resolve();
+            if (observer != null) {
+                observer.onServiceStateChanged(serviceState);
+            }
+        }
+
+        @Override
+        public void onSignalLevelChanged(int signalLevel) {
+            Observer observer = resolve();
+            if (observer != null) {
+                observer.onSignalLevelChanged(signalLevel);
+            }
+        }
+
+        @Override
+        public void onPointingSample(PointingSample sample) {
+            Observer observer = resolve();
+            if (observer != null) {
+                observer.onPointingSample(sample);
+            }
+        }
+
+        private Observer resolve() {
+            Observer observer = target.get();
+            if (observer == null) {
+                Log.w(TAG, "observer collected without detaching");
+                removeObserver(this);
+            }
+            return observer;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.os.IBinder;
+
+/**
+ * 承载 {@link SatelliteSession} 的前台服务，界面退到后台或重建时维持进程和卫星会话存活
+ * 会话本身是进程级单例，界面直接获取，不需要绑定；服务销毁时释放会话，下次启动重新创建
+ *
+ * @since 2026-10-17
+ */
+public class SatelliteSessionService extends Service {
+    /* 启动参数，为 true 时会话使用模拟器后端 */
+    static final String EXTRA_SIMULATE = "com.example.satellite.extra.SESSION_SIMULATE";
+
+    private static final String CHANNEL_ID = "satellite_session";
+    private static final int NOTIFICATION_ID = 1;
+
+    /**
+     * Start the service hosting the satellite session, does nothing if it is already running.
+     *
+     * @param context any context
+     * @param simulate whether a newly created session uses the simulator
+     */
+    static void start(Context context, boolean simulate) {
+        Intent intent = new Intent(context, SatelliteSessionService.class);
+        intent.putExtra(EXTRA_SIMULATE, simulate);
+        context.startForegroundService(intent);
+    }
+
+    /**
+     * Stop the service and release the satellite session.
+     *
+     * @param context any context
+     */
+    static void stop(Context context) {
+        context.stopService(new Intent(context, SatelliteSessionService.class));
+    }
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        NotificationManager notificationManager = getSystemService(NotificationManager.class);
+        if (notificationManager != null) {
+            notificationManager.createNotificationChannel(new NotificationChannel(CHANNEL_ID,
+                    getString(R.string.sessionChannelName), NotificationManager.IMPORTANCE_LOW));
+        }
+        PendingIntent contentIntent = PendingIntent.getActivity(this, 0, new Intent(this, MainActivity.class),
+                PendingIntent.FLAG_IMMUTABLE);
+        Notification notification = new Notification.Builder(this, CHANNEL_ID)
+                .setContentTitle(getString(R.string.app_name))
+                .setContentText(getString(R.string.sessionNotificationText))
+                .setSmallIcon(R.mipmap.ic_launcher)
+                .setOngoing(true)
+                .setContentIntent(contentIntent)
+                .build();
+        startForeground(NOTIFICATION_ID, notification);
+    }
+
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        /* 进程被回收后重新投递启动参数，会话在没有界面时也能恢复发件箱中未发完的短信 */
+        SatelliteSession.obtain(this, intent != null && intent.getBooleanExtra(EXTRA_SIMULATE, false));
+        return START_REDELIVER_INTENT;
+    }
+
+    @Override
+    public void onDestroy() {
+        SatelliteSession.releaseInstance();
+        stopForeground(STOP_FOREGROUND_REMOVE);
+        super.onDestroy();
+    }
+
+    @Override
+    public IBinder onBind(Intent intent) {
+        return null;
+    }
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.satellite.backend.SatSim;
+import com.example.satellite.backend.SatelliteBackend;
+import com.example.satellite.events.SatelliteEvent;
+import com.example.satellite.events.SatelliteEventBus;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 卫星卡槽管理类，按支持类型、历史服务可用率和平均信号格数为可用卫星卡打分，自动选择得分最高的卡槽
+ * 当前卡槽持续无服务超过门限时切换到得分最高的另一个卡槽；每个卡槽在启用后至少保持一段时间，避免两个卡槽来回切换
+ * 切换期间暂停 {@link LinkQualityScheduler} 的发送窗口，发件箱中的短信保持排队，新卡槽有服务后立即发出
+ * 历史统计按半衰期衰减，较早的服务情况权重逐渐降低；统计只在管理线程上访问
+ *
+ * @since 2026-10-17
+ */
+public class SatelliteSlotManager implements SatelliteEventBus.Listener, CapabilityCache.Listener {
+    /**
+     * 卡槽切换监听，在管理线程上调用
+     */
+    public interface Listener {
+        /**
+         * Called after the satellite sim slot has been switched.
+         *
+         * @param slotId new slot ID
+         * @param reason reason of the switch, for display
+         */
+        void onSlotChanged(int slotId, String reason);
+    }
+
+    /* 尚未选择卡槽 */
+    public static final int SLOT_NONE = -1;
+
+    private static final String TAG = "SatelliteSlotManager";
+    private static final long HISTORY_HALF_LIFE_MILLIS = 30 * 60 * 1000L;
+    /* 没有历史记录的卡槽按该可用率和信号格数估计，使其有机会被尝试 */
+    private static final double PRIOR_AVAILABILITY = 0.5;
+    private static final double PRIOR_LEVEL = 2.0;
+    private static final double LEVEL_EWMA_WEIGHT = 0.2;
+    /* 支持类型与设备一致的卡优先，信号每格的分值远小于可用率 */
+    private static final double SUPPORT_TYPE_BONUS = 10.0;
+    private static final double LEVEL_WEIGHT = 0.05;
+
+    private final SatelliteClient satelliteClient;
+    private final LinkQualityScheduler linkQualityScheduler;
+    private final long failoverThresholdMillis;
+    private final long minDwellMillis;
+    private final long operationTimeoutMillis;
+    private final ScheduledThreadPoolExecutor managerThread = new ScheduledThreadPoolExecutor(1,
+            runnable -> new Thread(runnable, "SatSlotManager"));
+    private volatile Listener listener;
+    private volatile int activeSlot = SLOT_NONE;
+
+    /* 以下状态只在管理线程上访问 */
+    private final Map<Integer, SlotHistory> histories = new HashMap<>();
+    private CapabilitySnapshot capabilities = CapabilitySnapshot.NOT_LOADED;
+    private boolean autoSelect;
+    private long activatedAtMillis;
+    private int serviceState = SatelliteBackend.SERVICE_STATE_UNAVAILABLE;
+    private ScheduledFuture<?> failoverCheck;
+
+    /**
+     * Constructor
+     *
+     * @param satelliteClient asynchronous interface setting the slot
+     * @param linkQualityScheduler scheduler suspended while the slot is switched
+     * @param failoverThresholdMillis time the active slot may stay out of service before failing over
+     * @param minDwellMillis time a slot is kept at least after it has been selected
+     * @param operationTimeoutMillis timeout of setting the slot
+     */
+    public SatelliteSlotManager(SatelliteClient satelliteClient, LinkQualityScheduler linkQualityScheduler,
+                                long failoverThresholdMillis, long minDwellMillis, long operationTimeoutMillis) {
+        if (failoverThresholdMillis <= 0 || minDwellMillis < 0) {
+            throw new IllegalArgumentException("invalid failover policy: " + failoverThresholdMillis
+                    + ", " + minDwellMillis);
+        }
+        this.satelliteClient = satelliteClient;
+        this.linkQualityScheduler = linkQualityScheduler;
+        this.failoverThresholdMillis = failoverThresholdMillis;
+        this.minDwellMillis = minDwellMillis;
+        this.operationTimeoutMillis = operationTimeoutMillis;
+        managerThread.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public int getActiveSlot() {
+        return activeSlot;
+    }
+
+    /**
+     * Select the best slot once the capabilities are loaded and fail over automatically from now on.
+     */
+    public void start() {
+        execute(() -> {
+            autoSelect = true;
+            if (activeSlot == SLOT_NONE) {
+                selectBest(SLOT_NONE, "initial selection");
+            }
+        });
+    }
+
+    /**
+     * Select a slot by hand, it is kept at least for the minimum dwell time.
+     *
+     * @param slotId slot ID: 0 or 1
+     * @return future completed once the slot has been set
+     */
+    public CompletableFuture<Void> selectSlot(int slotId) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        execute(() -> switchTo(slotId, "selected by user").whenComplete((result, error) -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(null);
+            }
+        }));
+        return future;
+    }
+
+    /**
+     * Stop failing over, the active slot is kept.
+     */
+    public void shutdown() {
+        managerThread.shutdownNow();
+        linkQualityScheduler.setSuspended(false);
+    }
+
+    @Override
+    public void onCapabilitiesChanged(CapabilitySnapshot snapshot) {
+        execute(() -> {
+            capabilities = snapshot;
+            if (!autoSelect) {
+                return;
+            }
+            if (activeSlot == SLOT_NONE) {
+                selectBest(SLOT_NONE, "initial selection");
+            } else if (findSim(activeSlot) == null) {
+                /* 当前卡被拔出或不再支持卫星通信 */
+                selectBest(activeSlot, "slot " + activeSlot + " no longer available");
+            }
+        });
+    }
+
+    @Override
+    public void onEvent(SatelliteEvent event) {
+        if (event.getType() == SatelliteEvent.TYPE_SERVICE_STATE) {
+            onServiceStateChanged(event.getServiceState());
+        } else if (event.getType() == SatelliteEvent.TYPE_SIGNAL_LEVEL) {
+            onSignalLevelChanged(event.getSignalLevel());
+        }
+    }
+
+    private void onServiceStateChanged(int state) {
+        execute(() -> {
+            long now = SystemClock.elapsedRealtime();
+            accrueActive(now);
+            serviceState = state;
+            if (!isOutOfService(state)) {
+                cancelFailoverCheck();
+            } else if (failoverCheck == null) {
+                scheduleFailoverCheck(failoverThresholdMillis, now);
+            }
+        });
+    }
+
+    private void onSignalLevelChanged(int signalLevel) {
+        if (signalLevel == SatelliteBackend.SIGNAL_LEVEL_UNAVAILABLE) {
+            return;
+        }
+        execute(() -> {
+            SlotHistory history = historyOf(activeSlot);
+            if (history != null) {
+                history.level = Double.isNaN(history.level) ? signalLevel
+                        : history.level + LEVEL_EWMA_WEIGHT * (signalLevel - history.level);
+            }
+        });
+    }
+
+    private void checkFailover(long outOfServiceSinceMillis) {
+        failoverCheck = null;
+        if (!autoSelect || !isOutOfService(serviceState)) {
+            return;
+        }
+        long now = SystemClock.elapsedRealtime();
+        long dwellRemaining = activatedAtMillis + minDwellMillis - now;
+        if (dwellRemaining > 0) {
+            scheduleFailoverCheck(dwellRemaining, outOfServiceSinceMillis);
+            return;
+        }
+        selectBest(activeSlot, "slot " + activeSlot + " out of service for "
+                + (now - outOfServiceSinceMillis) + "ms");
+    }
+
+    /**
+     * 选择除 excluded 之外得分最高的卡槽
+     *
+     * @param excluded slot not to select, or SLOT_NONE
+     * @param reason reason of the switch
+     */
+    private void selectBest(int excluded, String reason) {
+        if (!capabilities.isLoaded()) {
+            return;
+        }
+        long now = SystemClock.elapsedRealtime();
+        accrueActive(now);
+        int best = SLOT_NONE;
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (SatSim sim : capabilities.getSatSims()) {
+            if (sim.getSlotId() == excluded) {
+                continue;
+            }
+            double score = score(sim, now);
+            Log.d(TAG, "slot " + sim.getSlotId() + " score " + score);
+            if (score > bestScore) {
+                best = sim.getSlotId();
+                bestScore = score;
+            }
+        }
+        if (best == SLOT_NONE) {
+            Log.i(TAG, "no other slot to switch to: " + reason);
+            return;
+        }
+        switchTo(best, reason);
+    }
+
+    private CompletableFuture<Void> switchTo(int slotId, String reason) {
+        long now = SystemClock.elapsedRealtime();
+        accrueActive(now);
+        cancelFailoverCheck();
+        activeSlot = slotId;
+        activatedAtMillis = now;
+        /* 新卡槽的服务状态尚未上报，不沿用旧卡槽的状态 */
+        serviceState = SatelliteBackend.SERVICE_STATE_UNAVAILABLE;
+        histories.computeIfAbsent(slotId, id -> new SlotHistory()).lastUpdateMillis = now;
+        linkQualityScheduler.setSuspended(true);
+        Log.i(TAG, "switching to slot " + slotId + ": " + reason);
+        return satelliteClient.setSatelliteSlot(slotId, operationTimeoutMillis).whenComplete((result, error) -> {
+            linkQualityScheduler.setSuspended(false);
+            if (error != null) {
+                Log.w(TAG, "set slot " + slotId + " failed", error);
+                return;
+            }
+            Listener current = listener;
+            if (current != null) {
+                execute(() -> current.onSlotChanged(slotId, reason));
+            }
+        });
+    }
+
+    private double score(SatSim sim, long now) {
+        double score = 0;
+        int deviceType = capabilities.getSatelliteSupportType();
+        if (deviceType == CapabilitySnapshot.SUPPORT_TYPE_UNKNOWN || sim.getSatelliteSupportType() == deviceType) {
+            score += SUPPORT_TYPE_BONUS;
+        }
+        SlotHistory history = histories.get(sim.getSlotId());
+        double availability = PRIOR_AVAILABILITY;
+        double level = PRIOR_LEVEL;
+        if (history != null) {
+            availability = history.availability();
+            level = Double.isNaN(history.level) ? PRIOR_LEVEL : history.level;
+        }
+        return score + availability + LEVEL_WEIGHT * level;
+    }
+
+    private SatSim findSim(int slotId) {
+        List<SatSim> sims = capabilities.getSatSims();
+        for (SatSim sim : sims) {
+            if (sim.getSlotId() == slotId) {
+                return sim;
+            }
+        }
+        return null;
+    }
+
+    /* 卫星未使能或状态未知的时间不计入可用率 */
+    private void accrueActive(long now) {
+        SlotHistory history = historyOf(activeSlot);
+        if (history != null) {
+            history.accrue(now, isInService(serviceState) || isOutOfService(serviceState), isInService(serviceState));
+        }
+    }
+
+    private SlotHistory historyOf(int slotId) {
+        return slotId == SLOT_NONE ? null : histories.get(slotId);
+    }
+
+    private void scheduleFailoverCheck(long delayMillis, long outOfServiceSinceMillis) {
+        cancelFailoverCheck();
+        try {
+            failoverCheck = managerThread.schedule(() -> checkFailover(outOfServiceSinceMillis),
+                    delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            Log.d(TAG, "slot manager already shut down");
+        }
+    }
+
+    private void cancelFailoverCheck() {
+        if (failoverCheck != null) {
+            failoverCheck.cancel(false);
+            failoverCheck = null;
+        }
+    }
+
+    private void execute(Runnable task) {
+        try {
+            managerThread.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    Log.w(TAG, "slot manager task failed", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            Log.d(TAG, "slot manager already shut down");
+        }
+    }
+
+    private static boolean isInService(int state) {
+        return state == SatelliteBackend.SERVICE_STATE_IN_SERVICE;
+    }
+
+    /* 卫星未使能（关机）或状态未知时不切换卡槽 */
+    private static boolean isOutOfService(int state) {
+        return state != SatelliteBackend.SERVICE_STATE_IN_SERVICE
+                && state != SatelliteBackend.SERVICE_STATE_POWER_OFF
+                && state != SatelliteBackend.SERVICE_STATE_UNAVAILABLE;
+    }
+
+    /**
+     * 单个卡槽的服务历史，观测时间和有服务时间按半衰期指数衰减
+     */
+    private static final class SlotHistory {
+        double observedMillis;
+        double inServiceMillis;
+        double level = Double.NaN;
+        long lastUpdateMillis;
+
+        /**
+         * 把上次更新以来的时间计入历史
+         *
+         * @param now current time
+         * @param observed whether the service state since the last update counts
+         * @param inService whether the slot had service since the last update
+         */
+        void accrue(long now, boolean observed, boolean inService) {
+            long elapsed = observed ? Math.max(0L, now - lastUpdateMillis) : 0L;
+            double decay = Math.pow(0.5, (double) elapsed / HISTORY_HALF_LIFE_MILLIS);
+            observedMillis = observedMillis * decay + elapsed;
+            inServiceMillis = inServiceMillis * decay + (inService ? elapsed : 0);
+            lastUpdateMillis = now;
+        }
+
+        double availability() {
+            return observedMillis > 0 ? inServiceMillis / observedMillis : PRIOR_AVAILABILITY;
+        }
+    }
+}
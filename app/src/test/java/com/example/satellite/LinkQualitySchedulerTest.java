@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import com.example.satellite.backend.SatelliteBackend;
+import com.example.satellite.events.SatelliteEvent;
+import com.example.satellite.events.SatelliteEventBus;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link LinkQualityScheduler} 的单元测试：稳定时间、趋势窗口内的拟合与外推上限、过期样本、
+ * 服务状态反复变化以及拦截期间的定期重新评估
+ *
+ * @since 2026-10-17
+ */
+public class LinkQualitySchedulerTest {
+    private static final int WINDOW_SIZE = 16;
+    private static final int LEVEL_THRESHOLD = 2;
+    private static final long MIN_STABLE_MILLIS = 5000L;
+    private static final long LOOKAHEAD_MILLIS = 10000L;
+    private static final long TREND_WINDOW_MILLIS = 60000L;
+    private static final int MAX_TRANSITIONS = 4;
+    private static final double DELTA = 1e-9;
+
+    private final SatelliteEventBus eventBus = new SatelliteEventBus();
+    private long nowMillis;
+    private final LinkQualityScheduler scheduler = new LinkQualityScheduler(WINDOW_SIZE, LEVEL_THRESHOLD,
+            MIN_STABLE_MILLIS, LOOKAHEAD_MILLIS, TREND_WINDOW_MILLIS, MAX_TRANSITIONS, () -> nowMillis);
+
+    public LinkQualitySchedulerTest() {
+        eventBus.subscribe(SatelliteEvent.TYPE_SERVICE_STATE | SatelliteEvent.TYPE_SIGNAL_LEVEL, WINDOW_SIZE,
+                SatelliteEventBus.Overflow.DROP_OLDEST, Runnable::run, scheduler);
+    }
+
+    @Test
+    public void unknownServiceStateDoesNotHold() {
+        assertTrue(scheduler.isLinkUp());
+        assertTrue(scheduler.mayTransmit(false));
+        assertTrue(Double.isNaN(scheduler.getPredictedLevel()));
+    }
+
+    @Test
+    public void windowOpensOnceServiceIsStable() {
+        serviceState(0L, SatelliteBackend.SERVICE_STATE_IN_SERVICE);
+        signalLevel(0L, 3);
+        nowMillis = 1000L;
+        assertTrue(scheduler.mayTransmit(true));
+        assertFalse(scheduler.mayTransmit(false));
+        assertEquals(MIN_STABLE_MILLIS - 1000L, scheduler.getRecheckDelayMillis());
+        nowMillis = MIN_STABLE_MILLIS;
+        assertTrue(scheduler.mayTransmit(false));
+    }
+
+    @Test
+    public void noServiceHoldsUrgentMessages() {
+        serviceState(0L, SatelliteBackend.SERVICE_STATE_OUT_OF_SERVICE);
+        nowMillis = MIN_STABLE_MILLIS;
+        assertFalse(scheduler.isLinkUp());
+        assertFalse(scheduler.mayTransmit(true));
+        /* 只有新的服务状态能打开窗口，不需要定期重新评估 */
+        assertEquals(-1L, scheduler.getRecheckDelayMillis());
+    }
+
+    @Test
+    public void fallingTrendClosesWindowAndIsClamped() {
+        serviceState(0L, SatelliteBackend.SERVICE_STATE_IN_SERVICE);
+        signalLevel(10000L, 4);
+        signalLevel(12000L, 3);
+        signalLevel(14000L, 2);
+        /* 拟合斜率为每秒 -0.5 格，外推 10 秒后为 -3 格，限制在最新格数下方一格 */
+        assertEquals(1.0, scheduler.getPredictedLevel(), DELTA);
+        assertFalse(scheduler.mayTransmit(false));
+        assertTrue(scheduler.mayTransmit(true));
+    }
+
+    @Test
+    public void risingTrendIsClamped() {
+        serviceState(0L, SatelliteBackend.SERVICE_STATE_IN_SERVICE);
+        signalLevel(10000L, 1);
+        signalLevel(11000L, 2);
+        signalLevel(12000L, 3);
+        assertEquals(4.0, scheduler.getPredictedLevel(), DELTA);
+        assertTrue(scheduler.mayTransmit(false));
+    }
+
+    @Test
+    public void samplesOutsideTrendWindowAreIgnored() {
+        serviceState(0L, SatelliteBackend.SERVICE_STATE_IN_SERVICE);
+        signalLevel(10000L, 4);
+        signalLevel(12000L, 3);
+        signalLevel(14000L, 2);
+        nowMillis = 14000L + TREND_WINDOW_MILLIS - 1;
+        /* 最新样本仍在窗口内，但只有一个，格数最近没有变化 */
+        assertEquals(2.0, scheduler.getPredictedLevel(), DELTA);
+        assertTrue(scheduler.mayTransmit(false));
+        nowMillis = 14000L + 10 * TREND_WINDOW_MILLIS;
+        assertEquals(2.0, scheduler.getPredictedLevel(), DELTA);
+        assertTrue(scheduler.mayTransmit(false));
+    }
+
+    @Test
+    public void trendUsesOnlyRecentSamples() {
+        serviceState(0L, SatelliteBackend.SERVICE_STATE_IN_SERVICE);
+        /* 很久以前的高格数不会拉高最近的下降趋势 */
+        signalLevel(1000L, 5);
+        signalLevel(100000L, 3);
+        signalLevel(102000L, 2);
+        assertEquals(1.0, scheduler.getPredictedLevel(), DELTA);
+        assertFalse(scheduler.mayTransmit(false));
+    }
+
+    @Test
+    public void flappingServiceClosesWindowUntilTransitionsExpire() {
+        for (int i = 0; i <= MAX_TRANSITIONS; i++) {
+            serviceState(i * 1000L, i % 2 == 0 ? SatelliteBackend.SERVICE_STATE_IN_SERVICE
+                    : SatelliteBackend.SERVICE_STATE_OUT_OF_SERVICE);
+        }
+        nowMillis = MAX_TRANSITIONS * 1000L + MIN_STABLE_MILLIS;
+        assertFalse(scheduler.mayTransmit(false));
+        assertTrue(scheduler.mayTransmit(true));
+        /* 拦截期间定期重新评估，前两次切换离开窗口后窗口打开 */
+        assertTrue(scheduler.getRecheckDelayMillis() > 0);
+        nowMillis = 2000L + TREND_WINDOW_MILLIS;
+        assertTrue(scheduler.mayTransmit(false));
+        assertTrue(scheduler.getRecheckDelayMillis() > 0);
+    }
+
+    @Test
+    public void suspendedHoldsEveryMessage() {
+        serviceState(0L, SatelliteBackend.SERVICE_STATE_IN_SERVICE);
+        nowMillis = MIN_STABLE_MILLIS;
+        scheduler.setSuspended(true);
+        assertFalse(scheduler.isLinkUp());
+        assertFalse(scheduler.mayTransmit(true));
+        scheduler.setSuspended(false);
+        assertTrue(scheduler.mayTransmit(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidTrendWindowIsRejected() {
+        new LinkQualityScheduler(WINDOW_SIZE, LEVEL_THRESHOLD, MIN_STABLE_MILLIS, LOOKAHEAD_MILLIS, 0L,
+                MAX_TRANSITIONS, () -> 0L);
+    }
+
+    private void serviceState(long atMillis, int state) {
+        nowMillis = atMillis;
+        eventBus.publishServiceState(atMillis * 1000000L, state);
+    }
+
+    private void signalLevel(long atMillis, int level) {
+        nowMillis = atMillis;
+        eventBus.publishSignalLevel(atMillis * 1000000L, level);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link OutboxJournal} 的单元测试：重放、CRC 校验截断不完整记录、扩容和压缩
+ *
+ * @since 2026-10-17
+ */
+public class OutboxJournalTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replayRestoresEntriesNotYetDone() throws IOException {
+        File file = folder.newFile("outbox.journal");
+        OutboxEntry first = new OutboxEntry(1L, "10086", null, "hello", 1000L, false);
+        OutboxEntry second = new OutboxEntry(2L, "10010", "+8613800", "sos", 2000L, true);
+        try (OutboxJournal journal = OutboxJournal.open(file, new LinkedHashMap<>())) {
+            journal.appendEnqueue(first);
+            journal.appendEnqueue(second);
+            second.attempts = 2;
+            second.nextAttemptAtMillis = 5000L;
+            journal.appendAttempt(second);
+            journal.appendDone(1L);
+            assertEquals(4, journal.getRecordCount());
+        }
+
+        Map<Long, OutboxEntry> live = new LinkedHashMap<>();
+        try (OutboxJournal journal = OutboxJournal.open(file, live)) {
+            assertEquals(4, journal.getRecordCount());
+        }
+        assertEquals(Collections.singleton(2L), live.keySet());
+        OutboxEntry restored = live.get(2L);
+        assertEquals("10010", restored.destinationAddress);
+        assertEquals("+8613800", restored.scAddress);
+        assertEquals("sos", restored.text);
+        assertEquals(2000L, restored.createdAtMillis);
+        assertTrue(restored.urgent);
+        assertEquals(2, restored.attempts);
+        assertEquals(5000L, restored.nextAttemptAtMillis);
+    }
+
+    @Test
+    public void corruptedTailIsDiscardedAndOverwritten() throws IOException {
+        File file = folder.newFile("outbox.journal");
+        try (OutboxJournal journal = OutboxJournal.open(file, new LinkedHashMap<>())) {
+            journal.appendEnqueue(new OutboxEntry(1L, "10086", null, "first", 1000L, false));
+            journal.appendEnqueue(new OutboxEntry(2L, "10086", null, "second", 2000L, false));
+        }
+        /* 翻转最后一条记录体末尾的一个字节，模拟写入中途被杀 */
+        long lastBodyByte = 8 + recordBytes("first") + 4 + recordBodyBytes("second") - 1;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(lastBodyByte);
+            int value = raf.read();
+            raf.seek(lastBodyByte);
+            raf.write(value ^ 0xff);
+        }
+
+        Map<Long, OutboxEntry> live = new LinkedHashMap<>();
+        try (OutboxJournal journal = OutboxJournal.open(file, live)) {
+            assertEquals(1, journal.getRecordCount());
+            assertEquals(Collections.singleton(1L), live.keySet());
+            journal.appendEnqueue(new OutboxEntry(3L, "10086", null, "third", 3000L, false));
+        }
+
+        live.clear();
+        try (OutboxJournal journal = OutboxJournal.open(file, live)) {
+            assertEquals(2, journal.getRecordCount());
+        }
+        assertTrue(live.containsKey(1L));
+        assertFalse(live.containsKey(2L));
+        assertEquals("third", live.get(3L).text);
+    }
+
+    @Test
+    public void journalGrowsBeyondInitialMapping() throws IOException {
+        File file = folder.newFile("outbox.journal");
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append('x');
+        }
+        int count = 200;
+        try (OutboxJournal journal = OutboxJournal.open(file, new LinkedHashMap<>())) {
+            for (long id = 0; id < count; id++) {
+                journal.appendEnqueue(new OutboxEntry(id, "10086", null, text.toString(), id, false));
+            }
+        }
+        assertTrue(file.length() > 64 * 1024);
+
+        Map<Long, OutboxEntry> live = new LinkedHashMap<>();
+        try (OutboxJournal journal = OutboxJournal.open(file, live)) {
+            assertEquals(count, journal.getRecordCount());
+        }
+        assertEquals(count, live.size());
+        assertEquals(text.toString(), live.get(count - 1L).text);
+    }
+
+    @Test
+    public void compactKeepsOnlyLiveEntries() throws IOException {
+        File file = folder.newFile("outbox.journal");
+        Map<Long, OutboxEntry> live = new LinkedHashMap<>();
+        try (OutboxJournal journal = OutboxJournal.open(file, live)) {
+            for (long id = 1; id <= 3; id++) {
+                OutboxEntry entry = new OutboxEntry(id, "10086", null, "message " + id, id, false);
+                journal.appendEnqueue(entry);
+                live.put(id, entry);
+            }
+            journal.appendDone(1L);
+            live.remove(1L);
+            journal.appendDone(3L);
+            live.remove(3L);
+            journal.compact(live.values());
+            assertEquals(1, journal.getRecordCount());
+            journal.appendDone(2L);
+        }
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        Map<Long, OutboxEntry> replayed = new LinkedHashMap<>();
+        try (OutboxJournal journal = OutboxJournal.open(file, replayed)) {
+            assertEquals(2, journal.getRecordCount());
+        }
+        assertTrue(replayed.isEmpty());
+        assertNull(replayed.get(2L));
+    }
+
+    /* 入队记录体：类型、ID、创建时间、标志、重试次数、下次重试时间，以及目的号码、空短信中心号码和正文 */
+    private static int recordBodyBytes(String text) {
+        return 1 + 8 + 8 + 1 + 4 + 8 + 3 * 4 + "10086".length() + text.length();
+    }
+
+    private static int recordBytes(String text) {
+        return 4 + recordBodyBytes(text) + 4;
+    }
+}
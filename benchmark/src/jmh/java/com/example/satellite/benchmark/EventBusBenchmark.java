@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.benchmark;
+
+import com.example.satellite.PointingAligner;
+import com.example.satellite.events.SatelliteEvent;
+import com.example.satellite.events.SatelliteEventBus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 事件总线基准：一次对星回调发布到界面、日志、指标三个订阅方，分别测量同步投递和积压后丢弃的路径，
+ * 以及 PointingPredictor 每个传感器事件的对准计算和预测指引发布
+ * 预期 gc.alloc.rate.norm 为0，即发布、缓冲和投递都不产生垃圾
+ *
+ * @since 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventBusBenchmark {
+    private static final int SAMPLE_COUNT = 1024;
+    private static final int SUBSCRIBER_COUNT = 3;
+    private static final int SUBSCRIBER_CAPACITY = 16;
+    /* 预测期间传感器按 20Hz 采样 */
+    private static final long SAMPLE_INTERVAL_NANOS = 50_000_000L;
+
+    private final SatelliteEventBus directBus = new SatelliteEventBus();
+    private final SatelliteEventBus backloggedBus = new SatelliteEventBus();
+    /* 只入队不执行，模拟一直没有跟上的订阅方；每个订阅方只调度一次投递，之后的事件都在缓冲区内覆盖 */
+    private final Queue<Runnable> stalled = new ArrayDeque<>();
+    private final PointingAligner aligner = new PointingAligner();
+    private final double[] phoneEle = new double[SAMPLE_COUNT];
+    private double errorSum;
+    private int next;
+    private long sampleTimeNanos;
+
+    /**
+     * Subscribe the consumers to both buses.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            phoneEle[i] = 40.0 + random.nextGaussian() * 2;
+        }
+        for (int i = 0; i < SUBSCRIBER_COUNT; i++) {
+            directBus.subscribe(SatelliteEvent.TYPE_ALL, SUBSCRIBER_CAPACITY, SatelliteEventBus.Overflow.DROP_OLDEST,
+                    Runnable::run, event -> errorSum += event.getAngularError());
+            backloggedBus.subscribe(SatelliteEvent.TYPE_ALL, SUBSCRIBER_CAPACITY,
+                    SatelliteEventBus.Overflow.DROP_OLDEST, stalled::add, event -> errorSum += event.getAngularError());
+        }
+    }
+
+    /**
+     * One pointing event delivered to every subscriber on the publishing thread.
+     *
+     * @return accumulated error seen by the subscribers
+     */
+    @Benchmark
+    public double publishDelivered() {
+        directBus.publishPointing(next, 45.0, 120.0, 0.0, nextPhoneEle(), 118.0, 0.0, 5.0,
+                PointingAligner.GUIDANCE_NONE);
+        return errorSum;
+    }
+
+    /**
+     * One pointing event overwriting the oldest buffered event of every stalled subscriber.
+     *
+     * @return number of pending drain tasks, constant once the buffers are full
+     */
+    @Benchmark
+    public int publishDropped() {
+        backloggedBus.publishPointing(next, 45.0, 120.0, 0.0, nextPhoneEle(), 118.0, 0.0, 5.0,
+                PointingAligner.GUIDANCE_NONE);
+        return stalled.size();
+    }
+
+    /**
+     * One rotation vector sample of the pointing predictor: alignment update and the predicted event delivered to
+     * every subscriber on the publishing thread.
+     *
+     * @return accumulated error seen by the subscribers
+     */
+    @Benchmark
+    public double publishPredicted() {
+        sampleTimeNanos += SAMPLE_INTERVAL_NANOS;
+        double ele = nextPhoneEle();
+        int guidance = aligner.update(45.0, 120.0, ele, 118.0, sampleTimeNanos);
+        directBus.publishPredictedPointing(sampleTimeNanos, 45.0, 120.0, 0.0, ele, 118.0, 0.0,
+                aligner.getAngularError(), guidance);
+        return errorSum;
+    }
+
+    private double nextPhoneEle() {
+        double value = phoneEle[next];
+        next = (next + 1) & (SAMPLE_COUNT - 1);
+        return value;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.benchmark;
+
+import com.example.satellite.backend.SatSim;
+import com.example.satellite.backend.SatelliteBackend;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 基准测试使用的假卫星后端，同步调用回调，不引入线程切换和模拟时延
+ * 发送短信时按真实后端的方式为发送、送达结果各生成一个关联数据，代替 Android 上的 PendingIntent
+ *
+ * @since 2026-10-17
+ */
+final class FakeSatelliteBackend implements SatelliteBackend {
+    private static final String MESSAGE_URI_SCHEME = "satmsg";
+    private static final String SENT_ACTION = "com.android.satellit.sms.sent";
+    private static final String DELIVERY_ACTION = "com.android.satellit.sms.delivery";
+
+    private PointingCallback pointingCallback;
+    private SmsResultCallback smsResultCallback;
+    /* 最近一次发送生成的结果关联数据，防止被 JIT 消除 */
+    String lastSentData;
+    String lastDeliveryData;
+
+    /**
+     * Report a pointing update to the registered callback on the calling thread.
+     *
+     * @param values satellite elevation, azimuth, horizontal angle and phone elevation, azimuth, horizontal angle
+     * @param offset index of the satellite elevation in values
+     */
+    void emitPointing(double[] values, int offset) {
+        pointingCallback.onPointingUpdate(values[offset], values[offset + 1], values[offset + 2],
+                values[offset + 3], values[offset + 4], values[offset + 5]);
+    }
+
+    @Override
+    public void requestSatelliteEnabled(boolean enableSatellite, Executor executor, RequestCallback callback) {
+        executor.execute(() -> callback.onRequestResult(true));
+    }
+
+    @Override
+    public int registerForSatelliteModemStateChanged(Executor executor, ModemStateCallback callback) {
+        return 0;
+    }
+
+    @Override
+    public void unregisterForSatelliteModemStateChanged(ModemStateCallback callback) {
+    }
+
+    @Override
+    public int registerForSatellitePointingUpdates(Executor executor, PointingCallback callback) {
+        pointingCallback = callback;
+        return 0;
+    }
+
+    @Override
+    public void unregisterForSatellitePointingUpdates(PointingCallback callback) {
+        pointingCallback = null;
+    }
+
+    @Override
+    public int getSatelliteSupportType() {
+        return 1;
+    }
+
+    @Override
+    public List<SatSim> getAvailableSatSimCards() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void setSatelliteSlot(int slotId) {
+    }
+
+    @Override
+    public void setSmsResultCallback(SmsResultCallback callback) {
+        smsResultCallback = callback;
+    }
+
+    @Override
+    public void sendTextMessage(String destinationAddress, String scAddress, String text, long messageId) {
+        /* 与 AndroidSatelliteBackend 中结果 Intent 的 data 相同：scheme:短信ID#action */
+        lastSentData = MESSAGE_URI_SCHEME + ':' + messageId + '#' + SENT_ACTION;
+        lastDeliveryData = MESSAGE_URI_SCHEME + ':' + messageId + '#' + DELIVERY_ACTION;
+        SmsResultCallback callback = smsResultCallback;
+        if (callback != null) {
+            callback.onSentResult(messageId, RESULT_OK);
+        }
+    }
+
+    @Override
+    public void setInboundSmsCallback(InboundSmsCallback callback) {
+        /* 基准测试只覆盖发送路径 */
+    }
+
+    @Override
+    public void release() {
+        pointingCallback = null;
+        smsResultCallback = null;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.benchmark;
+
+import com.example.satellite.fleet.DeviceLogStats;
+import com.example.satellite.fleet.FleetLogParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 设备群日志解析基准：在堆外缓冲区中生成约 4MB 的会话日志，测量单线程解析一遍的耗时，
+ * 按缓冲区大小换算即为单核吞吐；日志中事件、状态切换和短信行的比例接近真实会话
+ *
+ * @since 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FleetLogParserBenchmark {
+    private static final int TARGET_BYTES = 4 << 20;
+
+    private final FleetLogParser parser = new FleetLogParser(2026);
+    private ByteBuffer log;
+
+    /**
+     * Generate the session log.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        StringBuilder text = new StringBuilder(TARGET_BYTES + 256);
+        long millis = 0;
+        int sequence = 0;
+        while (text.length() < TARGET_BYTES) {
+            millis += random.nextInt(500);
+            String time = String.format(Locale.ROOT, "2026-03-01 %02d:%02d:%02d.%03d ", millis / 3600000 % 24,
+                    millis / 60000 % 60, millis / 1000 % 60, millis % 1000);
+            int kind = random.nextInt(10);
+            text.append(time);
+            if (kind < 4) {
+                text.append('#').append(sequence++).append(" pointing guidance 3 error 1.5");
+            } else if (kind < 6) {
+                text.append('#').append(sequence++).append(" signal level ").append(random.nextInt(6));
+            } else if (kind < 8) {
+                text.append('#').append(sequence++).append(" service state ").append(random.nextInt(4));
+            } else if (kind == 8) {
+                text.append("WAITING_FOR_SERVICE: enabled, waiting for service");
+            } else {
+                text.append("message ").append(sequence).append(" DELIVERED, sent resultCode: -1,")
+                        .append(" delivery resultCode: -1");
+            }
+            text.append('\n');
+        }
+        byte[] bytes = text.toString().getBytes(StandardCharsets.US_ASCII);
+        log = ByteBuffer.allocateDirect(bytes.length);
+        log.put(bytes).flip();
+    }
+
+    /**
+     * Parse the whole log into fresh statistics.
+     *
+     * @return parsed lines
+     */
+    @Benchmark
+    public long parse() {
+        DeviceLogStats stats = new DeviceLogStats("bench");
+        parser.parse(log, 0, log.limit(), true, stats, 0);
+        return stats.getLines();
+    }
+}
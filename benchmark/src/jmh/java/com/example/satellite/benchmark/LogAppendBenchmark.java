@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.benchmark;
+
+import com.example.satellite.LogRing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * addText 日志追加路径基准：按输出框的刷新方式向 {@link LogRing} 追加日志并写入显示文本
+ * 显示文本预先填满不同行数，用于确认每条日志的开销不随会话中累积的日志量增长
+ *
+ * @since 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LogAppendBenchmark {
+    private static final String LINE = "message 1760659200123 SENT, sent resultCode: -1,"
+            + " delivery resultCode: -2147483648";
+
+    /* 输出框保留的行数，500 为应用默认值 */
+    @Param({"50", "500", "5000"})
+    public int capacity;
+
+    /* 每次刷新合并的日志行数，1 表示每条日志单独刷新一次 */
+    @Param({"1", "16"})
+    public int linesPerFlush;
+
+    private LogRing ring;
+    private StringBuilderText text;
+
+    /**
+     * Fill the console to its capacity so that every appended line evicts one.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        ring = new LogRing(capacity);
+        text = new StringBuilderText();
+        for (int i = 0; i < capacity; i++) {
+            ring.add(LINE);
+        }
+        ring.flushTo(text);
+    }
+
+    /**
+     * Append lines and flush them to the text as one main thread flush does.
+     *
+     * @return length of the text
+     */
+    @Benchmark
+    public int appendAndFlush() {
+        for (int i = 0; i < linesPerFlush; i++) {
+            ring.add(LINE);
+        }
+        ring.flushTo(text);
+        return text.length();
+    }
+
+    /**
+     * 以 StringBuilder 近似 Editable 的显示文本，两者删除头部字符的开销都与剩余文本长度有关
+     */
+    private static final class StringBuilderText implements LogRing.Text {
+        private final StringBuilder builder = new StringBuilder();
+
+        @Override
+        public int length() {
+            return builder.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return builder.charAt(index);
+        }
+
+        @Override
+        public void delete(int start, int end) {
+            builder.delete(start, end);
+        }
+
+        @Override
+        public void append(CharSequence sequence) {
+            builder.append(sequence);
+        }
+
+        @Override
+        public void clear() {
+            builder.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.benchmark;
+
+import com.example.satellite.PointingAligner;
+import com.example.satellite.PointingSample;
+import com.example.satellite.PointingTextState;
+import com.example.satellite.events.SatelliteEvent;
+import com.example.satellite.events.SatelliteEventBus;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对星回调路径基准：回调线程上计算对准误差并发布到 satcore 的 {@link SatelliteEventBus}，
+ * 界面订阅在主线程上把事件复制到复用的样本，再格式化发生变化的字段
+ * 与 SatComKitDemo 的对星回调、SatelliteSession 的界面订阅和 PointingRenderer 的处理一致，只是不调用 TextView
+ *
+ * @since 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PointingCallbackBenchmark {
+    private static final int SAMPLE_COUNT = 1024;
+    private static final int VALUES_PER_SAMPLE = 6;
+    /* 对星回调间隔，约 10Hz */
+    private static final long SAMPLE_INTERVAL_NANOS = 100000000L;
+    /* 与 SatelliteSession 界面对星订阅的缓冲区容量一致 */
+    private static final int UI_POINTING_EVENT_CAPACITY = 8;
+
+    private final FakeSatelliteBackend backend = new FakeSatelliteBackend();
+    private final SatelliteEventBus eventBus = new SatelliteEventBus();
+    /* 主线程消息队列，界面订阅的投递任务在此排队，由基准方法按需执行 */
+    private final Queue<Runnable> mainThread = new ArrayDeque<>();
+    private final PointingSample uiSample = new PointingSample(Double.NaN, Double.NaN, Double.NaN, Double.NaN,
+            Double.NaN, Double.NaN);
+    private Blackhole frameSink;
+    private final PointingTextState textState = new PointingTextState();
+    private final PointingAligner aligner = new PointingAligner();
+    private final double[] values = new double[SAMPLE_COUNT * VALUES_PER_SAMPLE];
+    private int next;
+    private long sampleTimeNanos;
+
+    /**
+     * Generate the pointing data and register the callback on the fake backend.
+     */
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            int base = i * VALUES_PER_SAMPLE;
+            /* 卫星位置基本不变，手机姿态每次都在抖动，与真实数据的变化特征一致 */
+            values[base] = 45.0;
+            values[base + 1] = 120.0;
+            values[base + 2] = 0.0;
+            values[base + 3] = 40.0 + random.nextGaussian() * 2;
+            values[base + 4] = 118.0 + random.nextGaussian() * 2;
+            values[base + 5] = random.nextGaussian();
+        }
+        backend.registerForSatellitePointingUpdates(Runnable::run, this::onPointingUpdate);
+        eventBus.subscribe(SatelliteEvent.TYPE_POINTING | SatelliteEvent.TYPE_PREDICTED_POINTING,
+                UI_POINTING_EVENT_CAPACITY, SatelliteEventBus.Overflow.DROP_OLDEST, mainThread::add, this::onUiEvent);
+    }
+
+    /**
+     * Callback thread side: one SDK pointing callback published to the event bus while the main thread is busy,
+     * so the event only overwrites a slot of the UI subscription buffer.
+     *
+     * @return number of queued main thread tasks, at most one
+     */
+    @Benchmark
+    public int callbackPost() {
+        backend.emitPointing(values, nextOffset());
+        return mainThread.size();
+    }
+
+    /**
+     * Alignment engine alone: filter one phone sample and recompute error and guidance, expected not to allocate.
+     *
+     * @return guidance after the sample
+     */
+    @Benchmark
+    public int alignerUpdate() {
+        int offset = nextOffset();
+        sampleTimeNanos += SAMPLE_INTERVAL_NANOS;
+        return aligner.update(values[offset], values[offset + 1], values[offset + 3], values[offset + 4],
+                sampleTimeNanos);
+    }
+
+    /**
+     * One callback followed by the frame that formats its changed angles, i.e. the full path to the views.
+     *
+     * @param blackhole sink for the formatted texts
+     */
+    @Benchmark
+    public void callbackToFrame(Blackhole blackhole) {
+        backend.emitPointing(values, nextOffset());
+        frameSink = blackhole;
+        Runnable task;
+        while ((task = mainThread.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void onPointingUpdate(double satelliteEle, double satelliteAzi, double satelliteHor,
+                                  double phoneEle, double phoneAzi, double phoneHor) {
+        if (Double.isNaN(satelliteEle) || Double.isNaN(phoneEle)) {
+            return;
+        }
+        sampleTimeNanos += SAMPLE_INTERVAL_NANOS;
+        int guidance = aligner.update(satelliteEle, satelliteAzi, phoneEle, phoneAzi, sampleTimeNanos);
+        eventBus.publishPointing(sampleTimeNanos, satelliteEle, satelliteAzi, satelliteHor, phoneEle, phoneAzi,
+                phoneHor, aligner.getAngularError(), guidance);
+    }
+
+    private void onUiEvent(SatelliteEvent event) {
+        uiSample.set(event.getSatelliteEle(), event.getSatelliteAzi(), event.getSatelliteHor(), event.getPhoneEle(),
+                event.getPhoneAzi(), event.getPhoneHor(), event.getAngularError(), event.getGuidance(),
+                event.getType() == SatelliteEvent.TYPE_PREDICTED_POINTING);
+        if (frameSink != null) {
+            render(uiSample, frameSink);
+        }
+    }
+
+    private void render(PointingSample sample, Blackhole blackhole) {
+        int changed = textState.update(sample);
+        for (int field = 0; field < PointingTextState.FIELD_COUNT; field++) {
+            if ((changed & (1 << field)) != 0) {
+                blackhole.consume(textState.getText(field));
+            }
+        }
+    }
+
+    private int nextOffset() {
+        int offset = next * VALUES_PER_SAMPLE;
+        next = (next + 1) & (SAMPLE_COUNT - 1);
+        return offset;
+    }
+}
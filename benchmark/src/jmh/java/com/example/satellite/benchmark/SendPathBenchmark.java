@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.benchmark;
+
+import com.example.satellite.SendCommand;
+import com.example.satellite.backend.SatelliteBackend;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 发送路径基准：从解析输入框文本、紧凑编码内容，到为短信分配关联ID并生成发送、送达结果的关联数据
+ * 结果关联数据由 {@link FakeSatelliteBackend} 按 AndroidSatelliteBackend 构造结果 Intent 的方式生成
+ *
+ * @since 2026-10-17
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SendPathBenchmark {
+    /* plain 为普通文本，position 和 status 为会被紧凑编码的结构化内容 */
+    @Param({"plain", "position", "status"})
+    public String payload;
+
+    private final FakeSatelliteBackend backend = new FakeSatelliteBackend();
+    private String input;
+    private long nextId;
+    private int lastResultCode;
+
+    /**
+     * Build the input text and register the result callback.
+     */
+    @Setup
+    public void setUp() {
+        switch (payload) {
+            case "position":
+                input = "10086 null pos:39.904211,116.407395,43 true";
+                break;
+            case "status":
+                input = "10086 null status:3";
+                break;
+            default:
+                input = "10086 null help-needed-at-base-camp-two";
+                break;
+        }
+        /* 结构化内容编码失败时会退回原文，测到的就只是普通文本的路径 */
+        String text = input.split(" ")[2];
+        int sentLength = SendCommand.parse(input).getText().length();
+        if ("plain".equals(payload) ? sentLength != text.length() : sentLength >= text.length()) {
+            throw new IllegalStateException("payload " + payload + " is not encoded as expected: " + text);
+        }
+        backend.setSmsResultCallback(new SatelliteBackend.SmsResultCallback() {
+            @Override
+            public void onSentResult(long messageId, int resultCode) {
+                lastResultCode = resultCode;
+            }
+
+            @Override
+            public void onDeliveryResult(long messageId, int resultCode) {
+                lastResultCode = resultCode;
+            }
+        });
+    }
+
+    /**
+     * Parse the input and send it through the fake backend.
+     *
+     * @return the sent result data, consumed by JMH
+     */
+    @Benchmark
+    public String parseToIntent() {
+        SendCommand command = SendCommand.parse(input);
+        backend.sendTextMessage(command.getDestinationAddress(), command.getScAddress(), command.getText(),
+                ++nextId);
+        return backend.lastSentData + lastResultCode;
+    }
+
+    /**
+     * Only parse and encode the input, to separate the parsing cost from the correlation cost.
+     *
+     * @return parsed command
+     */
+    @Benchmark
+    public SendCommand parseOnly() {
+        return SendCommand.parse(input);
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.macrobenchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+
+import kotlin.Unit;
+
+/**
+ * 基线配置生成器，记录冷启动到主界面显示期间执行的类和方法，输出用于核对手工编写的 app/src/main/baseline-prof.txt，
+ * 发现启动路径上遗漏的类；编写规则见该文件开头的注释
+ * 需要在 root 的设备或模拟器上运行
+ *
+ * @since 2026-10-17
+ */
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+    @Rule
+    public final BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    /**
+     * Collect the profile of the startup path.
+     */
+    @Test
+    public void startup() {
+        baselineProfileRule.collectBaselineProfile(StartupBenchmark.TARGET_PACKAGE, Collections.emptyList(),
+                scope -> {
+                    scope.pressHome();
+                    scope.startActivityAndWait(StartupBenchmark.launchIntent());
+                    return Unit.INSTANCE;
+                });
+    }
+}
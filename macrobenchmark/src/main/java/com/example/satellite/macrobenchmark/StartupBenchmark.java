@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.macrobenchmark;
+
+import android.content.Intent;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.TraceSectionMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.List;
+
+import kotlin.Unit;
+
+/**
+ * 主界面冷启动性能测试，统计启动到第一帧的时间（timeToInitialDisplayMs）、创建卫星SDK管理类的耗时，
+ * 以及从后端创建到SDK可用的时间，分别在不预编译和按基线配置预编译两种安装方式下测量，对比基线配置的收益
+ * 应用内的 LAUNCH_TO_FIRST_FRAME、LAUNCH_TO_FIRST_SDK_CALL 时延随指标一起写入日志，可与本测试结果对照
+ *
+ * @since 2026-10-17
+ */
+@RunWith(Parameterized.class)
+public class StartupBenchmark {
+    static final String TARGET_PACKAGE = "com.example.satellite";
+    static final String MAIN_ACTIVITY = TARGET_PACKAGE + ".MainActivity";
+    /* 与 MainActivity.EXTRA_SIMULATE 相同 */
+    static final String EXTRA_SIMULATE = "com.example.satellite.extra.SIMULATE";
+    /* 与 AndroidSatelliteBackend 中的跟踪区间名称相同，使用模拟器后端时没有这两个区间 */
+    private static final String TRACE_SDK_INIT = "SatSdkInit";
+    private static final String TRACE_SDK_READY = "SatSdkReady";
+    private static final int ITERATIONS = 10;
+
+    @Rule
+    public final MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    private final CompilationMode compilationMode;
+
+    /**
+     * Constructor
+     *
+     * @param compilationMode how the app is compiled before measuring
+     */
+    public StartupBenchmark(CompilationMode compilationMode) {
+        this.compilationMode = compilationMode;
+    }
+
+    /**
+     * Compilation modes to compare.
+     *
+     * @return no ahead of time compilation and compilation by the baseline profile
+     */
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Object[]> compilationModes() {
+        return Arrays.asList(new Object[] {new CompilationMode.None()},
+                new Object[] {new CompilationMode.Partial(BaselineProfileMode.Require, 0)});
+    }
+
+    /**
+     * Measure cold starts of the main screen.
+     */
+    @Test
+    public void coldStartup() {
+        benchmarkRule.measureRepeated(TARGET_PACKAGE,
+                Arrays.asList(new StartupTimingMetric(), new TraceSectionMetric(TRACE_SDK_INIT),
+                        new TraceSectionMetric(TRACE_SDK_READY)),
+                compilationMode, StartupMode.COLD, ITERATIONS,
+                scope -> {
+                    scope.pressHome();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait(launchIntent());
+                    return Unit.INSTANCE;
+                });
+    }
+
+    /**
+     * Intent starting the main screen, using the simulator backend when the instrumentation argument
+     * {@code simulate} is true.
+     *
+     * @return intent of the main activity
+     */
+    static Intent launchIntent() {
+        boolean simulate = Boolean.parseBoolean(InstrumentationRegistry.getArguments().getString("simulate"));
+        Intent intent = new Intent();
+        intent.setClassName(TARGET_PACKAGE, MAIN_ACTIVITY);
+        intent.putExtra(EXTRA_SIMULATE, simulate);
+        return intent;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import com.example.satellite.backend.SatSim;
+import com.example.satellite.backend.SatelliteBackend;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 设备卫星能力缓存，在后台线程上查询支持类型和可用卫星卡，读取时直接返回最近一次的不可变快照
+ * 创建后立即预取，之后只在 {@link #invalidate()}（卡或卡槽变化）和 {@link #setSatelliteSlot(int)} 后重新查询；
+ * 查询请求会合并，查询期间再次失效只会在本次完成后再查询一次；查询失败时保留旧快照并延迟重试
+ * 设置卫星卡同样在后台线程上执行，调用线程不会阻塞在同步的 SDK 调用上
+ *
+ * @since 2026-10-17
+ */
+public final class CapabilityCache {
+    /**
+     * 快照更新监听，在缓存的后台线程上调用
+     */
+    public interface Listener {
+        /**
+         * Called when a new snapshot has been loaded.
+         *
+         * @param snapshot new snapshot
+         */
+        void onCapabilitiesChanged(CapabilitySnapshot snapshot);
+    }
+
+    private static final Logger LOGGER = Logger.getLogger("SatCapability");
+    private static final long RETRY_DELAY_MILLIS = 5000L;
+    private static final int MAX_RETRIES = 3;
+
+    private final SatelliteBackend backend;
+    private final LongSupplier clockNanos;
+    private final ScheduledThreadPoolExecutor cacheThread = new ScheduledThreadPoolExecutor(1,
+            runnable -> new Thread(runnable, "SatCapability"));
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean(false);
+    private final Set<CompletableFuture<Void>> pendingSlots = ConcurrentHashMap.newKeySet();
+    private volatile CapabilitySnapshot snapshot = CapabilitySnapshot.NOT_LOADED;
+
+    /* 只在缓存线程上访问 */
+    private int failures;
+
+    /**
+     * Constructor, starts prefetching immediately.
+     *
+     * @param backend backend queried in the background
+     * @param clockNanos monotonic clock used to stamp the snapshots
+     */
+    public CapabilityCache(SatelliteBackend backend, LongSupplier clockNanos) {
+        this.backend = backend;
+        this.clockNanos = clockNanos;
+        cacheThread.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        invalidate();
+    }
+
+    /**
+     * Get the latest snapshot without blocking.
+     *
+     * @return latest snapshot, not loaded until the first prefetch completes
+     */
+    public CapabilitySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Add a listener of the snapshot updates.
+     *
+     * @param listener listener to add
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Remove a listener of the snapshot updates.
+     *
+     * @param listener listener to remove
+     */
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Query the capabilities again in the background, e.g. after a sim card or slot change.
+     */
+    public void invalidate() {
+        /* 已有查询排队时不再重复提交，排队的查询会读到最新状态 */
+        if (refreshScheduled.compareAndSet(false, true)) {
+            schedule(this::refresh, 0);
+        }
+    }
+
+    /**
+     * Set the default satellite sim slot in the background, then query the capabilities again.
+     *
+     * @param slotId slot ID: 0 or 1
+     * @return future completed once the slot has been set, failed with {@link RejectedExecutionException} if the
+     *     cache is released before the slot is set
+     */
+    public CompletableFuture<Void> setSatelliteSlot(int slotId) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        pendingSlots.add(future);
+        future.whenComplete((result, error) -> pendingSlots.remove(future));
+        boolean scheduled = schedule(() -> {
+            try {
+                backend.setSatelliteSlot(slotId);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+                throw e;
+            }
+            future.complete(null);
+            invalidate();
+        }, 0);
+        if (!scheduled) {
+            future.completeExceptionally(new RejectedExecutionException("capability cache released"));
+        }
+        return future;
+    }
+
+    /**
+     * Stop the background thread, pending queries are dropped and pending slot changes fail.
+     */
+    public void release() {
+        listeners.clear();
+        cacheThread.shutdownNow();
+        /* 未执行的设置卡槽任务已被丢弃，其 future 不会再由缓存线程完成 */
+        for (CompletableFuture<Void> future : pendingSlots) {
+            future.completeExceptionally(new RejectedExecutionException("capability cache released"));
+        }
+    }
+
+    private void refresh() {
+        /* 先清除标记再查询，查询期间的失效会再排队一次 */
+        refreshScheduled.set(false);
+        CapabilitySnapshot loaded;
+        try {
+            int supportType = backend.getSatelliteSupportType();
+            List<SatSim> sims = Collections.unmodifiableList(new ArrayList<>(backend.getAvailableSatSimCards()));
+            loaded = new CapabilitySnapshot(true, supportType, sims, clockNanos.getAsLong());
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "query capabilities failed", e);
+            if (++failures <= MAX_RETRIES && refreshScheduled.compareAndSet(false, true)) {
+                schedule(this::refresh, RETRY_DELAY_MILLIS);
+            }
+            return;
+        }
+        failures = 0;
+        snapshot = loaded;
+        for (Listener listener : listeners) {
+            listener.onCapabilitiesChanged(loaded);
+        }
+    }
+
+    private boolean schedule(Runnable task, long delayMillis) {
+        try {
+            cacheThread.schedule(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "capability task failed", e);
+                }
+            }, delayMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (RejectedExecutionException e) {
+            LOGGER.fine("capability cache already released");
+            return false;
+        }
+    }
+}
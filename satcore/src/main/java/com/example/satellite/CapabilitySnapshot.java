@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import com.example.satellite.backend.SatSim;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 设备卫星能力的不可变快照：设备支持的卫星类型和支持卫星通信的卡，以及预先格式化好的卡列表文本
+ *
+ * @since 2026-10-17
+ */
+public final class CapabilitySnapshot {
+    /* 尚未完成第一次查询时的支持类型 */
+    public static final int SUPPORT_TYPE_UNKNOWN = -1;
+
+    /* 尚未完成第一次查询时的快照 */
+    static final CapabilitySnapshot NOT_LOADED = new CapabilitySnapshot(false, SUPPORT_TYPE_UNKNOWN,
+            Collections.emptyList(), 0L);
+
+    private final boolean loaded;
+    private final int satelliteSupportType;
+    private final List<SatSim> satSims;
+    private final String satSimsText;
+    private final long loadedAtNanos;
+
+    CapabilitySnapshot(boolean loaded, int satelliteSupportType, List<SatSim> satSims, long loadedAtNanos) {
+        this.loaded = loaded;
+        this.satelliteSupportType = satelliteSupportType;
+        this.satSims = satSims;
+        this.satSimsText = format(satSims);
+        this.loadedAtNanos = loadedAtNanos;
+    }
+
+    /**
+     * Whether the capabilities have been queried at least once.
+     *
+     * @return false until the first prefetch completes
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * The satellite type supported by the device.
+     *
+     * @return support type, {@link #SUPPORT_TYPE_UNKNOWN} until loaded
+     */
+    public int getSatelliteSupportType() {
+        return satelliteSupportType;
+    }
+
+    /**
+     * Available satellite sim cards.
+     *
+     * @return unmodifiable list, empty until loaded
+     */
+    public List<SatSim> getSatSims() {
+        return satSims;
+    }
+
+    /**
+     * The sim cards formatted one per line, computed once when the snapshot is created.
+     *
+     * @return formatted sim card list
+     */
+    public String getSatSimsText() {
+        return satSimsText;
+    }
+
+    public long getLoadedAtNanos() {
+        return loadedAtNanos;
+    }
+
+    private static String format(List<SatSim> sims) {
+        if (sims.isEmpty()) {
+            return "List<SatSim> availableSatSimList is empty!";
+        }
+        StringBuilder builder = new StringBuilder();
+        for (SatSim sim : sims) {
+            builder.append(sim).append('\n');
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Base64;
+
+/**
+ * 结构化短信内容的紧凑编码，用于位置报告、状态码等固定格式的消息
+ * 各字段以 zigzag 变长整数写入字节流，再转为 URL 安全的 Base64 文本，并以 {@link #PREFIX} 开头，
+ * 编码结果只包含 GSM 7 位基本字符集中的字符，每个字符占一个septet，长度即为占用的septet数；
+ * 前缀不用扩展字符集中的字符（如 '~'），扩展字符各占两个septet
+ *
+ * @since 2026-10-17
+ */
+public final class CompactPayloadCodec {
+    /* 紧凑编码消息的前缀，两个字符均在基本字符集中；普通文本很少以 "#%" 开头，不会被误认为紧凑编码 */
+    public static final String PREFIX = "#%";
+    /* 位置报告：纬度、经度（1e-5 度）、海拔（米）、时间（秒） */
+    public static final int TYPE_POSITION = 1;
+    /* 状态码 */
+    public static final int TYPE_STATUS = 2;
+
+    private static final double COORDINATE_SCALE = 1e5;
+    private static final String POSITION_TAG = "pos:";
+    private static final String STATUS_TAG = "status:";
+
+    private CompactPayloadCodec() {
+    }
+
+    /**
+     * Encode a position report.
+     *
+     * @param latitude latitude in degrees
+     * @param longitude longitude in degrees
+     * @param altitudeMeters altitude in meters
+     * @param epochSeconds report time in seconds since epoch, 0 if unknown
+     * @return compact text
+     */
+    public static String encodePosition(double latitude, double longitude, int altitudeMeters, long epochSeconds) {
+        return encode(TYPE_POSITION, Math.round(latitude * COORDINATE_SCALE),
+                Math.round(longitude * COORDINATE_SCALE), altitudeMeters, epochSeconds);
+    }
+
+    /**
+     * Encode a status code.
+     *
+     * @param statusCode application defined status code
+     * @return compact text
+     */
+    public static String encodeStatus(int statusCode) {
+        return encode(TYPE_STATUS, statusCode);
+    }
+
+    /**
+     * Encode typed integer fields.
+     *
+     * @param type payload type
+     * @param fields payload fields
+     * @return compact text
+     */
+    public static String encode(int type, long... fields) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1 + fields.length * 3);
+        writeVarint(out, type);
+        for (long field : fields) {
+            /* zigzag 编码，使绝对值小的负数同样只占少量字节 */
+            writeVarint(out, (field << 1) ^ (field >> 63));
+        }
+        return PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(out.toByteArray());
+    }
+
+    /**
+     * Decode a compact text.
+     *
+     * @param text compact text starting with {@link #PREFIX}
+     * @return payload type followed by its fields, or null if the text is not compact encoded
+     */
+    public static long[] decode(String text) {
+        if (text == null || text.length() <= PREFIX.length() || !text.startsWith(PREFIX)) {
+            return null;
+        }
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(text.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        long[] values = new long[bytes.length];
+        int count = 0;
+        int offset = 0;
+        while (offset < bytes.length) {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (offset == bytes.length || shift > 63) {
+                    return null;
+                }
+                b = bytes[offset++];
+                value |= (long) (b & 0x7f) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            /* 第一个值为类型，未经 zigzag 编码 */
+            values[count] = count == 0 ? value : (value >>> 1) ^ -(value & 1);
+            count++;
+        }
+        long[] result = new long[count];
+        System.arraycopy(values, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Encode a structured text typed by the user, such as {@code pos:39.90421,116.40739,50}
+     * or {@code status:3}.
+     *
+     * @param text text typed by the user
+     * @return compact text, or null if the text is not a known structured form
+     */
+    public static String encodeStructured(String text) {
+        try {
+            if (text.startsWith(POSITION_TAG)) {
+                String[] parts = text.substring(POSITION_TAG.length()).split(",");
+                if (parts.length < 2 || parts.length > 3) {
+                    return null;
+                }
+                int altitude = parts.length == 3 ? Integer.parseInt(parts[2]) : 0;
+                return encodePosition(Double.parseDouble(parts[0]), Double.parseDouble(parts[1]), altitude,
+                        System.currentTimeMillis() / 1000L);
+            }
+            if (text.startsWith(STATUS_TAG)) {
+                return encodeStatus(Integer.parseInt(text.substring(STATUS_TAG.length())));
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        long remaining = value;
+        while ((remaining & ~0x7fL) != 0) {
+            out.write((int) ((remaining & 0x7f) | 0x80));
+            remaining >>>= 7;
+        }
+        out.write((int) remaining);
+    }
+}
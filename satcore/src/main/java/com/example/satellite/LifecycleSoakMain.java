@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import com.example.satellite.backend.SatelliteBackend;
+import com.example.satellite.backend.SimulatedSatelliteBackend;
+import com.example.satellite.backend.SimulatorConfig;
+import com.example.satellite.events.SatelliteEvent;
+import com.example.satellite.events.SatelliteEventBus;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 界面生命周期浸泡测试的命令行入口，反复创建、销毁界面，检查堆内存和线程数保持平稳
+ * 共用一个模拟器后端的会话，每轮创建持有大块内存的界面对象，订阅事件总线和能力缓存后销毁，
+ * 每隔若干轮故意不退订事件总线，模拟漏掉的注销，依靠弱引用订阅回收
+ * 结束时要求线程数回到基线、界面对象全部被回收、总线订阅清零、堆增长不超过上限，否则以状态码1退出
+ * 会话本身依赖 Android 运行环境，其创建和销毁的浸泡测试为 app 的设备测试 SessionLifecycleSoakTest
+ * 用法：LifecycleSoakMain [--screen-cycles 次数] [--forget-every 轮数] [--max-heap-growth-kb KB]
+ *
+ * @since 2026-10-17
+ */
+public final class LifecycleSoakMain {
+    private static final double SIMULATOR_SPEED = 50;
+    private static final long POINTING_INTERVAL_MILLIS = 100L;
+    private static final long SIGNAL_INTERVAL_MILLIS = 200L;
+    /* 界面对象持有的内存，模拟视图树，泄漏时堆增长远超上限 */
+    private static final int SCREEN_PAYLOAD_BYTES = 256 * 1024;
+    private static final int SCREEN_EVENT_CAPACITY = 4;
+    private static final long SETTLE_TIMEOUT_MILLIS = 5000L;
+    private static final int GC_ROUNDS = 3;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private boolean failed;
+
+    private LifecycleSoakMain() {
+    }
+
+    /**
+     * Command line entry.
+     *
+     * @param args command line arguments
+     * @throws Exception if the soak is interrupted
+     */
+    public static void main(String[] args) throws Exception {
+        int screenCycles = 500;
+        int forgetEvery = 10;
+        long maxHeapGrowthKb = 4096;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--screen-cycles":
+                    screenCycles = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--forget-every":
+                    forgetEvery = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--max-heap-growth-kb":
+                    maxHeapGrowthKb = Long.parseLong(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        LifecycleSoakMain soak = new LifecycleSoakMain();
+        soak.soakScreens(screenCycles, forgetEvery, maxHeapGrowthKb * 1024);
+        System.out.println(soak.failed ? "FAILED" : "PASSED");
+        if (soak.failed) {
+            System.exit(1);
+        }
+    }
+
+    private void soakScreens(int cycles, int forgetEvery, long maxHeapGrowthBytes)
+            throws InterruptedException {
+        RegistrationScope session = new RegistrationScope("soak shared session");
+        SimulatedSatelliteBackend backend = new SimulatedSatelliteBackend(newConfig());
+        session.add(backend::release);
+        ExecutorService pointingLane = session.addExecutor(Executors.newSingleThreadExecutor());
+        /* 代替主线程，所有界面的订阅都在这一个线程上投递 */
+        ExecutorService uiThread = session.addExecutor(Executors.newSingleThreadExecutor());
+        CapabilityCache capabilityCache = new CapabilityCache(backend, System::nanoTime);
+        session.add(capabilityCache::release);
+        SatelliteEventBus eventBus = new SatelliteEventBus();
+        session.add(eventBus::clear);
+        SatelliteBackend.PointingCallback pointingCallback =
+            (satelliteEle, satelliteAzi, satelliteHor, phoneEle, phoneAzi, phoneHor) -> eventBus.publishPointing(
+                    System.nanoTime(), satelliteEle, satelliteAzi, satelliteHor, phoneEle, phoneAzi, phoneHor,
+                    Double.NaN, PointingAligner.GUIDANCE_NONE);
+        backend.registerForSatellitePointingUpdates(pointingLane, pointingCallback);
+        session.add(() -> backend.unregisterForSatellitePointingUpdates(pointingCallback));
+
+        int warmup = Math.max(1, cycles / 10);
+        List<WeakReference<Screen>> screens = new ArrayList<>();
+        for (int i = 0; i < warmup; i++) {
+            screens.add(new WeakReference<>(runScreen(eventBus, capabilityCache, uiThread, false)));
+        }
+        /* 共用会话的线程池在首次使用时才创建线程，预热之后再取基线 */
+        int baseThreads = threads.getThreadCount();
+        long baseHeap = usedHeapAfterGc();
+        int forgotten = 0;
+        for (int i = warmup; i < cycles; i++) {
+            boolean forget = forgetEvery > 0 && i % forgetEvery == 0;
+            forgotten += forget ? 1 : 0;
+            screens.add(new WeakReference<>(runScreen(eventBus, capabilityCache, uiThread, forget)));
+        }
+        /* 弱引用订阅在被回收后的下一个事件时退订，回收后等待对星回调再流过一次 */
+        long deadline = System.currentTimeMillis() + SETTLE_TIMEOUT_MILLIS;
+        usedHeapAfterGc();
+        while (eventBus.getSubscriberCount() > 0 && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(POINTING_INTERVAL_MILLIS);
+        }
+        long growth = usedHeapAfterGc() - baseHeap;
+        int alive = 0;
+        for (WeakReference<Screen> screen : screens) {
+            alive += screen.get() != null ? 1 : 0;
+        }
+        int endThreads = threads.getThreadCount();
+        System.out.printf(Locale.ROOT,
+                "screens %d (%d without unsubscribing): alive %d, subscribers %d, threads %d -> %d, "
+                        + "heap growth %dKB%n", cycles, forgotten, alive, eventBus.getSubscriberCount(), baseThreads,
+                endThreads, growth / 1024);
+        check(alive == 0, alive + " screens not collected");
+        check(eventBus.getSubscriberCount() == 0, eventBus.getSubscriberCount() + " subscriptions left");
+        check(endThreads <= baseThreads, "screen threads leaked: " + (endThreads - baseThreads));
+        check(growth <= maxHeapGrowthBytes, "screen heap grew by " + growth / 1024 + "KB");
+        session.close();
+    }
+
+    private static Screen runScreen(SatelliteEventBus eventBus, CapabilityCache capabilityCache,
+                                    ExecutorService uiThread, boolean forgetUnsubscribe) {
+        Screen screen = new Screen();
+        RegistrationScope scope = new RegistrationScope("soak screen");
+        capabilityCache.addListener(screen.capabilityListener);
+        scope.add(() -> capabilityCache.removeListener(screen.capabilityListener));
+        SatelliteEventBus.Subscription subscription = eventBus.subscribeWeakly(SatelliteEvent.TYPE_ALL,
+                SCREEN_EVENT_CAPACITY, SatelliteEventBus.Overflow.DROP_OLDEST, uiThread, screen.eventListener);
+        if (!forgetUnsubscribe) {
+            scope.add(() -> eventBus.unsubscribe(subscription));
+        }
+        capabilityCache.invalidate();
+        scope.close();
+        return screen;
+    }
+
+    private static SimulatorConfig newConfig() {
+        return new SimulatorConfig().setTimeScale(SIMULATOR_SPEED)
+                .setIntervals(POINTING_INTERVAL_MILLIS, SIGNAL_INTERVAL_MILLIS);
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < GC_ROUNDS; i++) {
+            System.gc();
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private void check(boolean condition, String failure) {
+        if (!condition) {
+            failed = true;
+            System.out.println("leak: " + failure);
+        }
+    }
+
+    /**
+     * 模拟界面，持有大块内存，监听只由界面自己强引用
+     */
+    private static final class Screen {
+        private final byte[] payload = new byte[SCREEN_PAYLOAD_BYTES];
+        private long events;
+        private final SatelliteEventBus.Listener eventListener = event -> events++;
+        private final CapabilityCache.Listener capabilityListener = snapshot -> payload[0]++;
+    }
+}
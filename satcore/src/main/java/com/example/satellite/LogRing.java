@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+/**
+ * 固定行数的日志环形缓冲区，累积一批新行后一次性写入显示文本，超出容量时只删除最旧的行
+ * 不依赖 Android，由 LogConsole 在主线程使用，也可在 JVM 上单独进行基准测试；非线程安全
+ *
+ * @since 2026-10-17
+ */
+public final class LogRing {
+    /**
+     * 日志显示文本，例如输出框的 Editable
+     */
+    public interface Text {
+        int length();
+
+        char charAt(int index);
+
+        void delete(int start, int end);
+
+        void append(CharSequence text);
+
+        void clear();
+    }
+
+    private final StringBuilder batch = new StringBuilder();
+    /* 环形缓冲区，记录显示文本中每一行的字符数，不含行前的换行分隔符 */
+    private final int[] lineLengths;
+    private int head;
+    private int lineCount;
+    private int evictedChars;
+    private boolean cleared;
+
+    /**
+     * Constructor
+     *
+     * @param capacity maximum number of lines kept in the text
+     */
+    public LogRing(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.lineLengths = new int[capacity];
+    }
+
+    /**
+     * Add a line to the pending batch.
+     *
+     * @param line text to append, may contain line breaks
+     */
+    public void add(String line) {
+        /* 与原实现保持一致：行与行之间用换行分隔，第一行前不加换行 */
+        if (lineCount > 0) {
+            batch.append('\n');
+        }
+        batch.append(line);
+        if (lineCount == lineLengths.length) {
+            /* 淘汰最旧的行连同其后的换行分隔符，下一行成为首行，前面不再有换行 */
+            evictedChars += lineLengths[head] + 1;
+            head = (head + 1) % lineLengths.length;
+            lineCount--;
+        }
+        lineLengths[(head + lineCount) % lineLengths.length] = line.length();
+        lineCount++;
+    }
+
+    /**
+     * Drop every line, both shown and pending. The text is cleared on the next flush.
+     */
+    public void reset() {
+        /* 清屏之前累积的内容全部作废 */
+        batch.setLength(0);
+        head = 0;
+        lineCount = 0;
+        evictedChars = 0;
+        cleared = true;
+    }
+
+    /**
+     * Write the pending batch to the text and remove the evicted lines from it.
+     *
+     * @param text text showing the lines
+     */
+    public void flushTo(Text text) {
+        if (cleared) {
+            text.clear();
+            cleared = false;
+        }
+        if (evictedChars > 0) {
+            /* 被淘汰的行可能还在本批次中，先删显示文本中已有的部分，再裁剪批次 */
+            int inView = Math.min(evictedChars, text.length());
+            text.delete(0, inView);
+            batch.delete(0, Math.min(evictedChars - inView, batch.length()));
+            evictedChars = 0;
+        }
+        if (batch.length() > 0) {
+            text.append(batch);
+            batch.setLength(0);
+        }
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+/**
+ * 对星对准计算类，对手机仰角、方位角进行滤波，计算与卫星方向的角度误差，并给出稳定的对准指引
+ * 每个轴使用一维卡尔曼滤波，测量噪声由最近一个窗口内的新息平方估计；方位角按 0~360 度环绕处理
+ * 指引在对准判定和方向选择上都带有回差，新指引需连续出现若干个样本后才会切换，避免在边界上来回跳动
+ * 所有状态保存在基本类型字段和预分配的 double 环形缓冲中，更新时不分配对象
+ * 非线程安全，应只在对星回调所在的单个线程上使用
+ *
+ * @since 2026-10-17
+ */
+public final class PointingAligner {
+    /* 对准指引 */
+    public static final int GUIDANCE_NONE = 0;
+    public static final int GUIDANCE_ALIGNED = 1;
+    public static final int GUIDANCE_TURN_LEFT = 2;
+    public static final int GUIDANCE_TURN_RIGHT = 3;
+    public static final int GUIDANCE_TILT_UP = 4;
+    public static final int GUIDANCE_TILT_DOWN = 5;
+    public static final int GUIDANCE_COUNT = 6;
+
+    private static final int DEFAULT_WINDOW_SIZE = 16;
+    /* 手机姿态的过程噪声，单位：度²/秒 */
+    private static final double DEFAULT_PROCESS_NOISE = 25.0;
+    private static final double DEFAULT_ALIGNED_TOLERANCE = 5.0;
+    private static final double DEFAULT_HYSTERESIS = 2.0;
+    private static final int DEFAULT_HOLD_SAMPLES = 3;
+    /* 测量噪声估计的下限和初值，单位：度² */
+    private static final double MIN_MEASUREMENT_NOISE = 0.01;
+    private static final double INITIAL_MEASUREMENT_NOISE = 4.0;
+    /* 两个样本间隔超过该值时认为回调中断过，重新初始化滤波器 */
+    private static final long RESET_GAP_NANOS = 2000000000L;
+
+    private final double processNoise;
+    private final double alignedTolerance;
+    private final double hysteresis;
+    private final int holdSamples;
+
+    private final AxisFilter elevationFilter;
+    private final AxisFilter azimuthFilter;
+    /* 最近窗口内的角度误差平方，用于计算均方根误差 */
+    private final double[] errorSquares;
+    private double errorSquareSum;
+    private int errorIndex;
+    private int errorCount;
+
+    private boolean initialized;
+    private long lastTimeNanos;
+    private double elevationError = Double.NaN;
+    private double azimuthError = Double.NaN;
+    private double angularError = Double.NaN;
+    /* 当前用于给出方向的轴，true 为方位角 */
+    private boolean azimuthAxis = true;
+    private int guidance = GUIDANCE_NONE;
+    private int candidate = GUIDANCE_NONE;
+    private int candidateSamples;
+
+    /**
+     * Constructor with the default window, noise and thresholds.
+     */
+    public PointingAligner() {
+        this(DEFAULT_WINDOW_SIZE, DEFAULT_PROCESS_NOISE, DEFAULT_ALIGNED_TOLERANCE, DEFAULT_HYSTERESIS,
+                DEFAULT_HOLD_SAMPLES);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param windowSize number of samples used to estimate the measurement noise and the error RMS
+     * @param processNoise expected drift of the phone orientation, in degrees squared per second
+     * @param alignedTolerance angular error below which the phone is considered aligned, in degrees
+     * @param hysteresis extra error needed to leave the aligned state or to switch the guidance axis, in degrees
+     * @param holdSamples consecutive samples a new guidance must be seen before it is reported
+     */
+    public PointingAligner(int windowSize, double processNoise, double alignedTolerance, double hysteresis,
+                           int holdSamples) {
+        if (windowSize <= 0 || holdSamples <= 0) {
+            throw new IllegalArgumentException("windowSize and holdSamples must be positive");
+        }
+        if (!(processNoise > 0) || !(alignedTolerance > 0) || !(hysteresis >= 0)) {
+            throw new IllegalArgumentException("invalid noise or thresholds");
+        }
+        this.processNoise = processNoise;
+        this.alignedTolerance = alignedTolerance;
+        this.hysteresis = hysteresis;
+        this.holdSamples = holdSamples;
+        this.elevationFilter = new AxisFilter(windowSize, false);
+        this.azimuthFilter = new AxisFilter(windowSize, true);
+        this.errorSquares = new double[windowSize];
+    }
+
+    /**
+     * Add one pointing sample and recompute the alignment error and guidance.
+     *
+     * @param satelliteEle satellite elevation in degrees
+     * @param satelliteAzi satellite azimuth in degrees, clockwise from north
+     * @param phoneEle raw phone elevation in degrees
+     * @param phoneAzi raw phone azimuth in degrees, clockwise from north
+     * @param timeNanos monotonic time of the sample
+     * @return guidance after this sample, one of the GUIDANCE constants
+     */
+    public int update(double satelliteEle, double satelliteAzi, double phoneEle, double phoneAzi, long timeNanos) {
+        if (Double.isNaN(satelliteEle) || Double.isNaN(satelliteAzi) || Double.isNaN(phoneEle)
+                || Double.isNaN(phoneAzi)) {
+            return guidance;
+        }
+        long gapNanos = timeNanos - lastTimeNanos;
+        if (!initialized || gapNanos < 0 || gapNanos > RESET_GAP_NANOS) {
+            reset();
+            elevationFilter.init(phoneEle);
+            azimuthFilter.init(normalizeAzimuth(phoneAzi));
+            initialized = true;
+        } else {
+            double processVariance = processNoise * gapNanos / 1e9;
+            elevationFilter.update(phoneEle, processVariance);
+            azimuthFilter.update(phoneAzi, processVariance);
+        }
+        lastTimeNanos = timeNanos;
+
+        double filteredEle = elevationFilter.value;
+        double filteredAzi = azimuthFilter.value;
+        elevationError = satelliteEle - filteredEle;
+        azimuthError = wrapDegrees(satelliteAzi - filteredAzi);
+        angularError = angleBetween(satelliteEle, satelliteAzi, filteredEle, filteredAzi);
+        recordError(angularError);
+        updateGuidance(satelliteEle);
+        return guidance;
+    }
+
+    /**
+     * Forget all samples, e.g. after unregistering the pointing callback.
+     */
+    public void reset() {
+        initialized = false;
+        elevationFilter.clear();
+        azimuthFilter.clear();
+        errorSquareSum = 0;
+        errorIndex = 0;
+        errorCount = 0;
+        elevationError = Double.NaN;
+        azimuthError = Double.NaN;
+        angularError = Double.NaN;
+        azimuthAxis = true;
+        guidance = GUIDANCE_NONE;
+        candidate = GUIDANCE_NONE;
+        candidateSamples = 0;
+    }
+
+    public int getGuidance() {
+        return guidance;
+    }
+
+    /**
+     * Satellite elevation minus filtered phone elevation, positive when the phone should tilt up.
+     *
+     * @return error in degrees, NaN before the first sample
+     */
+    public double getElevationError() {
+        return elevationError;
+    }
+
+    /**
+     * Satellite azimuth minus filtered phone azimuth, wrapped to [-180, 180), positive when the phone should turn
+     * right.
+     *
+     * @return error in degrees, NaN before the first sample
+     */
+    public double getAzimuthError() {
+        return azimuthError;
+    }
+
+    /**
+     * Great circle angle between the satellite direction and the filtered phone direction.
+     *
+     * @return error in degrees, NaN before the first sample
+     */
+    public double getAngularError() {
+        return angularError;
+    }
+
+    /**
+     * Root mean square of the angular error over the last window of samples.
+     *
+     * @return RMS error in degrees, NaN before the first sample
+     */
+    public double getErrorRms() {
+        return errorCount == 0 ? Double.NaN : Math.sqrt(Math.max(0, errorSquareSum) / errorCount);
+    }
+
+    public double getFilteredPhoneEle() {
+        return initialized ? elevationFilter.value : Double.NaN;
+    }
+
+    public double getFilteredPhoneAzi() {
+        return initialized ? azimuthFilter.value : Double.NaN;
+    }
+
+    /**
+     * Wrap an angle difference to [-180, 180).
+     *
+     * @param degrees angle in degrees
+     * @return equivalent angle in [-180, 180)
+     */
+    public static double wrapDegrees(double degrees) {
+        double wrapped = (degrees + 180.0) % 360.0;
+        if (wrapped < 0) {
+            wrapped += 360.0;
+        }
+        return wrapped - 180.0;
+    }
+
+    /**
+     * Great circle angle between two directions given as elevation and azimuth, using the haversine formula,
+     * which stays accurate for the small angles near alignment.
+     *
+     * @param ele1 elevation of the first direction in degrees
+     * @param azi1 azimuth of the first direction in degrees
+     * @param ele2 elevation of the second direction in degrees
+     * @param azi2 azimuth of the second direction in degrees
+     * @return angle in degrees between 0 and 180
+     */
+    public static double angleBetween(double ele1, double azi1, double ele2, double azi2) {
+        double lat1 = Math.toRadians(ele1);
+        double lat2 = Math.toRadians(ele2);
+        double sinHalfEle = Math.sin((lat2 - lat1) / 2);
+        double sinHalfAzi = Math.sin(Math.toRadians(wrapDegrees(azi2 - azi1)) / 2);
+        double haversine = sinHalfEle * sinHalfEle + Math.cos(lat1) * Math.cos(lat2) * sinHalfAzi * sinHalfAzi;
+        return Math.toDegrees(2 * Math.asin(Math.sqrt(Math.min(1.0, Math.max(0.0, haversine)))));
+    }
+
+    private static double normalizeAzimuth(double degrees) {
+        return wrapDegrees(degrees - 180.0) + 180.0;
+    }
+
+    private void recordError(double error) {
+        double square = error * error;
+        if (errorCount == errorSquares.length) {
+            errorSquareSum -= errorSquares[errorIndex];
+        } else {
+            errorCount++;
+        }
+        errorSquares[errorIndex] = square;
+        errorSquareSum += square;
+        errorIndex++;
+        if (errorIndex == errorSquares.length) {
+            errorIndex = 0;
+            /* 每转一圈重新求和，消除加减累积的舍入误差 */
+            errorSquareSum = sum(errorSquares, errorCount);
+        }
+    }
+
+    private void updateGuidance(double satelliteEle) {
+        /* 对准判定带回差：进入用容差，离开需超过容差加回差 */
+        double exitTolerance = guidance == GUIDANCE_ALIGNED ? alignedTolerance + hysteresis : alignedTolerance;
+        int proposed;
+        if (angularError < exitTolerance) {
+            proposed = GUIDANCE_ALIGNED;
+        } else {
+            /* 方位角误差按卫星仰角折算为视场中的水平偏移，仰角越高方位角误差的影响越小 */
+            double horizontal = azimuthError * Math.cos(Math.toRadians(satelliteEle));
+            double vertical = elevationError;
+            if (azimuthAxis) {
+                azimuthAxis = Math.abs(vertical) <= Math.abs(horizontal) + hysteresis;
+            } else {
+                azimuthAxis = Math.abs(horizontal) > Math.abs(vertical) + hysteresis;
+            }
+            if (azimuthAxis) {
+                proposed = horizontal > 0 ? GUIDANCE_TURN_RIGHT : GUIDANCE_TURN_LEFT;
+            } else {
+                proposed = vertical > 0 ? GUIDANCE_TILT_UP : GUIDANCE_TILT_DOWN;
+            }
+        }
+        if (proposed == guidance) {
+            candidateSamples = 0;
+            return;
+        }
+        /* 首个有效样本立即给出指引，之后新指引需连续出现 holdSamples 次 */
+        if (proposed != candidate) {
+            candidate = proposed;
+            candidateSamples = 0;
+        }
+        candidateSamples++;
+        if (guidance == GUIDANCE_NONE || candidateSamples >= holdSamples) {
+            guidance = proposed;
+            candidateSamples = 0;
+        }
+    }
+
+    private static double sum(double[] values, int count) {
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            total += values[i];
+        }
+        return total;
+    }
+
+    /**
+     * 单轴一维卡尔曼滤波，状态为角度，测量噪声由窗口内的新息平方均值减去先验方差估计
+     */
+    private static final class AxisFilter {
+        private final boolean circular;
+        private final double[] innovationSquares;
+        private double innovationSquareSum;
+        private int index;
+        private int count;
+        private double value;
+        private double variance;
+
+        AxisFilter(int windowSize, boolean circular) {
+            this.circular = circular;
+            this.innovationSquares = new double[windowSize];
+        }
+
+        void init(double measurement) {
+            value = measurement;
+            variance = INITIAL_MEASUREMENT_NOISE;
+        }
+
+        void update(double measurement, double processVariance) {
+            double priorVariance = variance + processVariance;
+            /* 方位角的新息取环绕后的最短差值，避免在 359 度与 0 度之间跳变 */
+            double innovation = circular ? wrapDegrees(measurement - value) : measurement - value;
+            double measurementNoise = estimateMeasurementNoise(priorVariance);
+            double gain = priorVariance / (priorVariance + measurementNoise);
+            value += gain * innovation;
+            if (circular) {
+                value = normalizeAzimuth(value);
+            }
+            variance = (1 - gain) * priorVariance;
+            recordInnovation(innovation * innovation);
+        }
+
+        void clear() {
+            innovationSquareSum = 0;
+            index = 0;
+            count = 0;
+            value = 0;
+            variance = INITIAL_MEASUREMENT_NOISE;
+        }
+
+        private double estimateMeasurementNoise(double priorVariance) {
+            if (count < innovationSquares.length / 2 + 1) {
+                return INITIAL_MEASUREMENT_NOISE;
+            }
+            return Math.max(MIN_MEASUREMENT_NOISE, innovationSquareSum / count - priorVariance);
+        }
+
+        private void recordInnovation(double square) {
+            if (count == innovationSquares.length) {
+                innovationSquareSum -= innovationSquares[index];
+            } else {
+                count++;
+            }
+            innovationSquares[index] = square;
+            innovationSquareSum += square;
+            index++;
+            if (index == innovationSquares.length) {
+                index = 0;
+                innovationSquareSum = sum(innovationSquares, count);
+            }
+        }
+    }
+}
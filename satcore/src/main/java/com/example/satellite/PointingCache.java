@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 对星方向预测缓存，按粗粒度位置网格记录最近一次收到的卫星仰角、方位角和水平角，新会话启动时即可给出预测的卫星方向，
+ * 不必等待第一个对星回调；实时数据到达后覆盖对应网格的记录
+ * 静止轨道卫星相对地面不动，卫星方向只取决于位置，网格内的方向差异远小于对准容差，因此不按时间分段，
+ * 只按记录时间淘汰过期的网格；本网格没有记录时使用最近的相邻网格
+ * 网格数有上限，超过时淘汰最久未使用的网格
+ * 文件格式：[int 魔数][int 版本][double 网格大小][int 记录数]
+ * [记录：int 纬度序号, int 经度序号, double 仰角, double 方位角, double 水平角, long 记录时间]...[int 以上内容的CRC32]，
+ * 整体写入临时文件后替换，读取时格式、网格大小或校验不符即丢弃整个缓存
+ * 线程安全
+ *
+ * @since 2026-10-17
+ */
+public final class PointingCache {
+    private static final int MAGIC = 0x53415043;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 20;
+    private static final int RECORD_BYTES = 40;
+
+    /**
+     * 预测的卫星方向
+     */
+    public static final class Prediction {
+        /* 卫星的仰角 */
+        public final double satelliteEle;
+        /* 卫星的方位角 */
+        public final double satelliteAzi;
+        /* 卫星的水平角 */
+        public final double satelliteHor;
+        /* 记录时间，单位：毫秒 */
+        public final long recordedMillis;
+        /* 是否来自当前位置所在的网格，否则来自相邻网格 */
+        public final boolean exactCell;
+
+        Prediction(Entry entry, boolean exactCell) {
+            this.satelliteEle = entry.satelliteEle;
+            this.satelliteAzi = entry.satelliteAzi;
+            this.satelliteHor = entry.satelliteHor;
+            this.recordedMillis = entry.recordedMillis;
+            this.exactCell = exactCell;
+        }
+    }
+
+    private final File file;
+    private final double cellDegrees;
+    private final int capacity;
+    private final long maxAgeMillis;
+    /* 按访问顺序排列，最久未使用的在前 */
+    private final Map<Long, Entry> entries;
+    private boolean dirty;
+
+    /**
+     * Constructor, the cache is empty until {@link #load()}.
+     *
+     * @param file file the cache is persisted in
+     * @param cellDegrees size of a grid cell in degrees of latitude and longitude
+     * @param capacity maximum number of cells kept
+     * @param maxAgeMillis age after which a cell is no longer used for predictions
+     */
+    public PointingCache(File file, double cellDegrees, int capacity, long maxAgeMillis) {
+        if (!(cellDegrees > 0) || cellDegrees > 90 || capacity <= 0 || maxAgeMillis <= 0) {
+            throw new IllegalArgumentException("invalid cell size, capacity or age");
+        }
+        this.file = file;
+        this.cellDegrees = cellDegrees;
+        this.capacity = capacity;
+        this.maxAgeMillis = maxAgeMillis;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Replace the content of the cache with the persisted cells. A missing file leaves the cache empty.
+     *
+     * @throws IOException if the file cannot be read or is not a valid cache
+     */
+    public void load() throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        ByteBuffer content;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            long size = channel.size();
+            if (size < HEADER_BYTES + 4 || size > HEADER_BYTES + 4 + (long) capacity * RECORD_BYTES) {
+                throw new IOException("unexpected pointing cache size: " + size);
+            }
+            content = ByteBuffer.allocate((int) size);
+            while (content.hasRemaining() && channel.read(content) >= 0) {
+                /* 读满整个文件 */
+            }
+        }
+        content.flip();
+        CRC32 crc = new CRC32();
+        crc.update(content.array(), 0, content.limit() - 4);
+        if (content.getInt(content.limit() - 4) != (int) crc.getValue()) {
+            throw new IOException("pointing cache checksum mismatch: " + file);
+        }
+        if (content.getInt() != MAGIC || content.getInt() != VERSION) {
+            throw new IOException("not a pointing cache: " + file);
+        }
+        if (Double.compare(content.getDouble(), cellDegrees) != 0) {
+            throw new IOException("pointing cache has a different cell size: " + file);
+        }
+        int count = content.getInt();
+        if (count < 0 || count != (content.limit() - HEADER_BYTES - 4) / RECORD_BYTES) {
+            throw new IOException("invalid pointing cache record count: " + count);
+        }
+        synchronized (this) {
+            entries.clear();
+            for (int i = 0; i < count; i++) {
+                Entry entry = new Entry();
+                long key = cellKey(content.getInt(), content.getInt());
+                entry.set(content.getDouble(), content.getDouble(), content.getDouble(), content.getLong());
+                entries.put(key, entry);
+            }
+            dirty = false;
+        }
+    }
+
+    /**
+     * Write the cache to its file if it changed since it was loaded or last saved.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void save() throws IOException {
+        ByteBuffer content;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            content = ByteBuffer.allocate(HEADER_BYTES + entries.size() * RECORD_BYTES + 4);
+            content.putInt(MAGIC).putInt(VERSION).putDouble(cellDegrees).putInt(entries.size());
+            for (Map.Entry<Long, Entry> cell : entries.entrySet()) {
+                long key = cell.getKey();
+                Entry entry = cell.getValue();
+                content.putInt((int) (key >> 32)).putInt((int) key);
+                content.putDouble(entry.satelliteEle).putDouble(entry.satelliteAzi).putDouble(entry.satelliteHor);
+                content.putLong(entry.recordedMillis);
+            }
+            dirty = false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(content.array(), 0, content.position());
+        content.putInt((int) crc.getValue());
+        content.flip();
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("cannot create " + parent);
+        }
+        File tmpFile = new File(file.getPath() + ".tmp");
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(tmpFile, "rw");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            channel.truncate(0);
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+            channel.force(false);
+        }
+        if (!tmpFile.renameTo(file)) {
+            synchronized (this) {
+                dirty = true;
+            }
+            throw new IOException("cannot replace " + file);
+        }
+    }
+
+    /**
+     * Record the live satellite direction seen at a location.
+     *
+     * @param latitude latitude in degrees
+     * @param longitude longitude in degrees
+     * @param satelliteEle satellite elevation
+     * @param satelliteAzi satellite azimuth
+     * @param satelliteHor satellite horizontal angle
+     * @param nowMillis current wall clock time
+     */
+    public synchronized void record(double latitude, double longitude, double satelliteEle, double satelliteAzi,
+                                    double satelliteHor, long nowMillis) {
+        if (Double.isNaN(latitude) || Double.isNaN(longitude) || Double.isNaN(satelliteEle)
+                || Double.isNaN(satelliteAzi)) {
+            return;
+        }
+        long key = cellKey(latitudeIndex(latitude), longitudeIndex(longitude));
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry();
+            entries.put(key, entry);
+            evictOverflow();
+        }
+        entry.set(satelliteEle, satelliteAzi, satelliteHor, nowMillis);
+        dirty = true;
+    }
+
+    /**
+     * Predict the satellite direction at a location from the cell of the location, or the nearest
+     * neighbouring cell if that one has no recent record.
+     *
+     * @param latitude latitude in degrees
+     * @param longitude longitude in degrees
+     * @param nowMillis current wall clock time
+     * @return predicted direction, null if no cell around the location has a recent record
+     */
+    public synchronized Prediction predict(double latitude, double longitude, long nowMillis) {
+        if (Double.isNaN(latitude) || Double.isNaN(longitude)) {
+            return null;
+        }
+        int latIndex = latitudeIndex(latitude);
+        int lonIndex = longitudeIndex(longitude);
+        Entry exact = entries.get(cellKey(latIndex, lonIndex));
+        if (isFresh(exact, nowMillis)) {
+            return new Prediction(exact, true);
+        }
+        /* 相邻网格按网格中心到当前位置的距离选最近的一个 */
+        double cellLat = latitude / cellDegrees - latIndex - 0.5;
+        double cellLon = normalizeLongitude(longitude) / cellDegrees - lonIndex - 0.5;
+        Entry nearest = null;
+        double nearestDistance = Double.MAX_VALUE;
+        for (int dLat = -1; dLat <= 1; dLat++) {
+            for (int dLon = -1; dLon <= 1; dLon++) {
+                if (dLat == 0 && dLon == 0) {
+                    continue;
+                }
+                Entry entry = entries.get(cellKey(latIndex + dLat, wrapLongitudeIndex(lonIndex + dLon)));
+                double distance = (cellLat - dLat) * (cellLat - dLat) + (cellLon - dLon) * (cellLon - dLon);
+                if (isFresh(entry, nowMillis) && distance < nearestDistance) {
+                    nearest = entry;
+                    nearestDistance = distance;
+                }
+            }
+        }
+        return nearest == null ? null : new Prediction(nearest, false);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private boolean isFresh(Entry entry, long nowMillis) {
+        return entry != null && nowMillis - entry.recordedMillis <= maxAgeMillis;
+    }
+
+    private void evictOverflow() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (entries.size() > capacity && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private int latitudeIndex(double latitude) {
+        return (int) Math.floor(Math.max(-90.0, Math.min(90.0, latitude)) / cellDegrees);
+    }
+
+    private int longitudeIndex(double longitude) {
+        return wrapLongitudeIndex((int) Math.floor(normalizeLongitude(longitude) / cellDegrees));
+    }
+
+    /* 经度方向的网格在 180 度经线处首尾相接 */
+    private int wrapLongitudeIndex(int lonIndex) {
+        int cells = (int) Math.ceil(360.0 / cellDegrees);
+        int minIndex = (int) Math.floor(-180.0 / cellDegrees);
+        return Math.floorMod(lonIndex - minIndex, cells) + minIndex;
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        double normalized = (longitude + 180.0) % 360.0;
+        return (normalized < 0 ? normalized + 360.0 : normalized) - 180.0;
+    }
+
+    private static long cellKey(int latIndex, int lonIndex) {
+        return ((long) latIndex << 32) | (lonIndex & 0xffffffffL);
+    }
+
+    private static final class Entry {
+        private double satelliteEle;
+        private double satelliteAzi;
+        private double satelliteHor;
+        private long recordedMillis;
+
+        void set(double ele, double azi, double hor, long millis) {
+            satelliteEle = ele;
+            satelliteAzi = azi;
+            satelliteHor = hor;
+            recordedMillis = millis;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+/**
+ * 对星数据样本，保存一次回调中卫星与手机的仰角、方位角、水平角，以及对准计算给出的角度误差和指引
+ * 预测样本在收到对星回调之前给出，卫星方向来自缓存，手机方向来自姿态传感器
+ * 同一线程上按帧消费的订阅方可用 {@link #set} 复用一个样本，不为每个回调分配对象；复用的样本不能交给其他线程
+ *
+ * @since 2026-10-17
+ */
+public final class PointingSample {
+    /* 卫星的仰角 */
+    public double satelliteEle;
+    /* 卫星的方位角 */
+    public double satelliteAzi;
+    /* 卫星的水平角 */
+    public double satelliteHor;
+    /* 手机的仰角 */
+    public double phoneEle;
+    /* 手机的方位角 */
+    public double phoneAzi;
+    /* 手机的水平角 */
+    public double phoneHor;
+    /* 滤波后手机方向与卫星方向的夹角，未计算时为 NaN */
+    public double angularError;
+    /* 对准指引，PointingAligner 的 GUIDANCE 常量 */
+    public int guidance;
+    /* 是否为预测样本 */
+    public boolean predicted;
+
+    /**
+     * Constructor of a sample without alignment data.
+     *
+     * @param satelliteEle satellite elevation
+     * @param satelliteAzi satellite azimuth
+     * @param satelliteHor satellite horizontal angle
+     * @param phoneEle phone elevation
+     * @param phoneAzi phone azimuth
+     * @param phoneHor phone horizontal angle
+     */
+    public PointingSample(double satelliteEle, double satelliteAzi, double satelliteHor,
+                          double phoneEle, double phoneAzi, double phoneHor) {
+        this(satelliteEle, satelliteAzi, satelliteHor, phoneEle, phoneAzi, phoneHor, Double.NaN,
+                PointingAligner.GUIDANCE_NONE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param satelliteEle satellite elevation
+     * @param satelliteAzi satellite azimuth
+     * @param satelliteHor satellite horizontal angle
+     * @param phoneEle phone elevation
+     * @param phoneAzi phone azimuth
+     * @param phoneHor phone horizontal angle
+     * @param angularError angle between the satellite and the filtered phone direction
+     * @param guidance alignment guidance, one of the PointingAligner GUIDANCE constants
+     */
+    public PointingSample(double satelliteEle, double satelliteAzi, double satelliteHor,
+                          double phoneEle, double phoneAzi, double phoneHor, double angularError, int guidance) {
+        this(satelliteEle, satelliteAzi, satelliteHor, phoneEle, phoneAzi, phoneHor, angularError, guidance, false);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param satelliteEle satellite elevation
+     * @param satelliteAzi satellite azimuth
+     * @param satelliteHor satellite horizontal angle
+     * @param phoneEle phone elevation
+     * @param phoneAzi phone azimuth
+     * @param phoneHor phone horizontal angle
+     * @param angularError angle between the satellite and the filtered phone direction
+     * @param guidance alignment guidance, one of the PointingAligner GUIDANCE constants
+     * @param predicted whether the sample is predicted rather than reported by the satellite SDK
+     */
+    public PointingSample(double satelliteEle, double satelliteAzi, double satelliteHor, double phoneEle,
+                          double phoneAzi, double phoneHor, double angularError, int guidance, boolean predicted) {
+        this.satelliteEle = satelliteEle;
+        this.satelliteAzi = satelliteAzi;
+        this.satelliteHor = satelliteHor;
+        this.phoneEle = phoneEle;
+        this.phoneAzi = phoneAzi;
+        this.phoneHor = phoneHor;
+        this.angularError = angularError;
+        this.guidance = guidance;
+        this.predicted = predicted;
+    }
+
+    /**
+     * Overwrite every field of a reused sample.
+     *
+     * @param satelliteEle satellite elevation
+     * @param satelliteAzi satellite azimuth
+     * @param satelliteHor satellite horizontal angle
+     * @param phoneEle phone elevation
+     * @param phoneAzi phone azimuth
+     * @param phoneHor phone horizontal angle
+     * @param angularError angle between the satellite and the filtered phone direction
+     * @param guidance alignment guidance, one of the PointingAligner GUIDANCE constants
+     * @param predicted whether the sample is predicted rather than reported by the satellite SDK
+     * @return this sample
+     */
+    public PointingSample set(double satelliteEle, double satelliteAzi, double satelliteHor, double phoneEle,
+                              double phoneAzi, double phoneHor, double angularError, int guidance, boolean predicted) {
+        this.satelliteEle = satelliteEle;
+        this.satelliteAzi = satelliteAzi;
+        this.satelliteHor = satelliteHor;
+        this.phoneEle = phoneEle;
+        this.phoneAzi = phoneAzi;
+        this.phoneHor = phoneHor;
+        this.angularError = angularError;
+        this.guidance = guidance;
+        this.predicted = predicted;
+        return this;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+/**
+ * 对星数据显示状态，记录界面上已显示的六个角度、对准误差和指引，新样本到达时只格式化发生变化的字段
+ * 指引文字由构造时传入的数组按 PointingAligner 的 GUIDANCE 常量取得，不在更新时格式化；
+ * 预测样本的指引文字在构造时加上前缀，与实时指引区分
+ * 不依赖 Android，由 PointingRenderer 在主线程使用，也可在 JVM 上单独进行基准测试
+ *
+ * @since 2026-10-17
+ */
+public final class PointingTextState {
+    /* 各角度在显示状态中的序号 */
+    public static final int FIELD_SATELLITE_ELE = 0;
+    public static final int FIELD_SATELLITE_AZI = 1;
+    public static final int FIELD_SATELLITE_HOR = 2;
+    public static final int FIELD_PHONE_ELE = 3;
+    public static final int FIELD_PHONE_AZI = 4;
+    public static final int FIELD_PHONE_HOR = 5;
+    public static final int FIELD_ALIGN_ERROR = 6;
+    public static final int FIELD_GUIDANCE = 7;
+    public static final int FIELD_COUNT = 8;
+
+    /* 对准误差按 0.1 度显示 */
+    private static final double ERROR_STEP = 10.0;
+    private static final String[] DEFAULT_GUIDANCE_TEXTS = {
+        "-", "aligned", "turn left", "turn right", "tilt up", "tilt down"
+    };
+    private static final String DEFAULT_PREDICTED_PREFIX = "predicted: ";
+    /* 预测指引在显示状态中的标记位，与指引常量按位或 */
+    private static final int PREDICTED_FLAG = 1 << 16;
+
+    private final long[] shownBits = new long[FIELD_COUNT];
+    private final String[] texts = new String[FIELD_COUNT];
+    private final String[] guidanceTexts;
+    private final String[] predictedGuidanceTexts;
+    private boolean rendered;
+
+    /**
+     * Constructor with English guidance texts.
+     */
+    public PointingTextState() {
+        this(DEFAULT_GUIDANCE_TEXTS, DEFAULT_PREDICTED_PREFIX);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param guidanceTexts text of each guidance, indexed by the PointingAligner GUIDANCE constants
+     */
+    public PointingTextState(String[] guidanceTexts) {
+        this(guidanceTexts, DEFAULT_PREDICTED_PREFIX);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param guidanceTexts text of each guidance, indexed by the PointingAligner GUIDANCE constants
+     * @param predictedPrefix prefix of the guidance text of predicted samples
+     */
+    public PointingTextState(String[] guidanceTexts, String predictedPrefix) {
+        if (guidanceTexts.length != PointingAligner.GUIDANCE_COUNT) {
+            throw new IllegalArgumentException("expected " + PointingAligner.GUIDANCE_COUNT + " guidance texts");
+        }
+        this.guidanceTexts = guidanceTexts.clone();
+        this.predictedGuidanceTexts = new String[guidanceTexts.length];
+        for (int i = 0; i < guidanceTexts.length; i++) {
+            predictedGuidanceTexts[i] = predictedPrefix + guidanceTexts[i];
+        }
+    }
+
+    /**
+     * Record a new sample and format the angles that differ from the shown ones.
+     *
+     * @param sample latest pointing sample
+     * @return bit mask of the changed fields, bit i set for field i
+     */
+    public int update(PointingSample sample) {
+        int changed = 0;
+        changed |= updateField(FIELD_SATELLITE_ELE, sample.satelliteEle);
+        changed |= updateField(FIELD_SATELLITE_AZI, sample.satelliteAzi);
+        changed |= updateField(FIELD_SATELLITE_HOR, sample.satelliteHor);
+        changed |= updateField(FIELD_PHONE_ELE, sample.phoneEle);
+        changed |= updateField(FIELD_PHONE_AZI, sample.phoneAzi);
+        changed |= updateField(FIELD_PHONE_HOR, sample.phoneHor);
+        changed |= updateField(FIELD_ALIGN_ERROR, roundError(sample.angularError));
+        changed |= updateGuidance(sample.guidance, sample.predicted);
+        rendered = true;
+        return changed;
+    }
+
+    /**
+     * Get the text of a field after the last update.
+     *
+     * @param field field index, one of the FIELD constants
+     * @return formatted angle, null before the first update
+     */
+    public String getText(int field) {
+        return texts[field];
+    }
+
+    private int updateField(int field, double value) {
+        /* 按位比较，NaN 与 NaN 视为相同，不会每帧重复刷新 */
+        long bits = Double.doubleToLongBits(value);
+        if (rendered && shownBits[field] == bits) {
+            return 0;
+        }
+        shownBits[field] = bits;
+        texts[field] = String.valueOf(value);
+        return 1 << field;
+    }
+
+    private static double roundError(double error) {
+        return Double.isNaN(error) ? error : Math.round(error * ERROR_STEP) / ERROR_STEP;
+    }
+
+    private int updateGuidance(int guidance, boolean predicted) {
+        int shown = predicted ? guidance | PREDICTED_FLAG : guidance;
+        if (rendered && shownBits[FIELD_GUIDANCE] == shown) {
+            return 0;
+        }
+        shownBits[FIELD_GUIDANCE] = shown;
+        texts[FIELD_GUIDANCE] = predicted ? predictedGuidanceTexts[guidance] : guidanceTexts[guidance];
+        return 1 << FIELD_GUIDANCE;
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 注册作用域，收集回调、监听、订阅的注销动作以及需要关闭的线程池，关闭时按注册的相反顺序一次性释放
+ * 界面或会话创建时把每个注册加入作用域，销毁时只关闭作用域，不会因为漏掉某一个注销而让 SDK 或进程级单例
+ * 通过回调一直持有已销毁的对象；某个注销抛出异常时记录日志并继续释放其余注册
+ * 线程安全；关闭之后再加入的注册立即释放
+ *
+ * @since 2026-10-17
+ */
+public final class RegistrationScope implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger("SatRegistration");
+
+    /**
+     * 一个注册的注销动作，只执行一次
+     */
+    public interface Registration {
+        /**
+         * Undo the registration.
+         */
+        void unregister();
+    }
+
+    private final String name;
+    private final Deque<Handle> handles = new ArrayDeque<>();
+    private boolean closed;
+
+    /**
+     * Constructor
+     *
+     * @param name name used in the log, e.g. the owner of the scope
+     */
+    public RegistrationScope(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Add a registration released when the scope is closed.
+     *
+     * @param registration action undoing the registration
+     * @return handle releasing the registration early and removing it from the scope
+     */
+    public Registration add(Registration registration) {
+        Handle handle = new Handle(registration);
+        synchronized (handles) {
+            if (!closed) {
+                handles.addLast(handle);
+                return handle;
+            }
+        }
+        LOGGER.fine(name + " already closed, releasing the registration");
+        handle.unregister();
+        return handle;
+    }
+
+    /**
+     * Add an executor shut down when the scope is closed, queued tasks still run.
+     *
+     * @param executor executor owned by the scope
+     * @param <T> type of the executor
+     * @return the executor
+     */
+    public <T extends ExecutorService> T addExecutor(T executor) {
+        add(executor::shutdown);
+        return executor;
+    }
+
+    public boolean isClosed() {
+        synchronized (handles) {
+            return closed;
+        }
+    }
+
+    /**
+     * Number of registrations not released yet.
+     *
+     * @return open registrations
+     */
+    public int size() {
+        synchronized (handles) {
+            return handles.size();
+        }
+    }
+
+    /**
+     * Release every registration, the last added first. Does nothing if already closed.
+     */
+    @Override
+    public void close() {
+        synchronized (handles) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        while (true) {
+            Handle handle;
+            synchronized (handles) {
+                handle = handles.pollLast();
+            }
+            if (handle == null) {
+                return;
+            }
+            handle.release();
+        }
+    }
+
+    private final class Handle implements Registration {
+        private final Registration registration;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        Handle(Registration registration) {
+            this.registration = registration;
+        }
+
+        @Override
+        public void unregister() {
+            synchronized (handles) {
+                handles.remove(this);
+            }
+            release();
+        }
+
+        void release() {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                registration.unregister();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, name + " unregister failed", e);
+            }
+        }
+    }
+}
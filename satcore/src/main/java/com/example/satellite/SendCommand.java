@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+/**
+ * 短信发送参数，由输入框中以空格分隔的 "号码 短信中心 内容 [紧急]" 解析得到
+ * 形如 pos:纬度,经度[,海拔] 或 status:状态码 的内容会经 {@link CompactPayloadCodec} 紧凑编码
+ *
+ * @since 2026-10-17
+ */
+public final class SendCommand {
+    private final String destinationAddress;
+    private final String scAddress;
+    private final String text;
+    private final boolean urgent;
+
+    private SendCommand(String destinationAddress, String scAddress, String text, boolean urgent) {
+        this.destinationAddress = destinationAddress;
+        this.scAddress = scAddress;
+        this.text = text;
+        this.urgent = urgent;
+    }
+
+    /**
+     * Parse the input of the send button.
+     *
+     * @param input space separated destination address, service center address, text and optional urgent flag
+     * @return parsed command, or null if the number of parameters is not 3 or 4
+     */
+    public static SendCommand parse(String input) {
+        String[] strList = input.split(" ");
+        if (strList.length != 3 && strList.length != 4) {
+            return null;
+        }
+        String compactText = CompactPayloadCodec.encodeStructured(strList[2]);
+        return new SendCommand(strList[0], strList[1], compactText == null ? strList[2] : compactText,
+                strList.length == 4 && Boolean.parseBoolean(strList[3]));
+    }
+
+    public String getDestinationAddress() {
+        return destinationAddress;
+    }
+
+    public String getScAddress() {
+        return scAddress;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public boolean isUrgent() {
+        return urgent;
+    }
+}
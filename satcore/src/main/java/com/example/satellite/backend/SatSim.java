@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.backend;
+
+/**
+ * 支持卫星通信的 SIM 卡信息
+ *
+ * @since 2026-10-17
+ */
+public final class SatSim {
+    private final int slotId;
+    private final int satelliteSupportType;
+    private final String simOperator;
+    private final String phoneNumber;
+
+    /**
+     * Constructor
+     *
+     * @param slotId slot ID: 0 or 1
+     * @param satelliteSupportType satellite type supported by the card
+     * @param simOperator operator of the card
+     * @param phoneNumber phone number of the card
+     */
+    public SatSim(int slotId, int satelliteSupportType, String simOperator, String phoneNumber) {
+        this.slotId = slotId;
+        this.satelliteSupportType = satelliteSupportType;
+        this.simOperator = simOperator;
+        this.phoneNumber = phoneNumber;
+    }
+
+    public int getSlotId() {
+        return slotId;
+    }
+
+    public int getSatelliteSupportType() {
+        return satelliteSupportType;
+    }
+
+    public String getSimOperator() {
+        return simOperator;
+    }
+
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    @Override
+    public String toString() {
+        return "mSlotId: " + slotId + "; mSupportSatType: " + satelliteSupportType
+                + "; mOperator: " + simOperator + "; mPhoneNumber: " + phoneNumber;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.backend;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 卫星通信后端接口，抽象 SatComKitDemo 用到的卫星接口调用
+ * 回调只携带基本类型数据，不依赖卫星SDK和Android的类型，既可以由真实设备实现，也可以由模拟器在 JVM 上实现
+ *
+ * @since 2026-10-17
+ */
+public interface SatelliteBackend {
+    /* 卫星服务状态，取值与 HnSatelliteServiceState 中的定义一致 */
+    int SERVICE_STATE_IN_SERVICE = 0;
+    int SERVICE_STATE_OUT_OF_SERVICE = 1;
+    int SERVICE_STATE_EMERGENCY_ONLY = 2;
+    int SERVICE_STATE_POWER_OFF = 3;
+    int SERVICE_STATE_UNKNOWN_ACCOUNT = 4;
+    /* SDK 上报的服务状态数据为空 */
+    int SERVICE_STATE_UNAVAILABLE = -1;
+    /* SDK 上报的信号数据为空 */
+    int SIGNAL_LEVEL_UNAVAILABLE = -1;
+
+    /* 短信结果码，取值与 Activity.RESULT_OK 及 SmsManager 中的定义一致 */
+    int RESULT_OK = -1;
+    int RESULT_ERROR_GENERIC_FAILURE = 1;
+    int RESULT_ERROR_NO_SERVICE = 4;
+
+    /**
+     * 对星、搜星数据回调，SDK 上报的数据为空时各角度为 NaN
+     */
+    interface PointingCallback {
+        void onPointingUpdate(double satelliteEle, double satelliteAzi, double satelliteHor,
+                              double phoneEle, double phoneAzi, double phoneHor);
+    }
+
+    /**
+     * 卫星服务状态和信号状态回调
+     */
+    interface ModemStateCallback {
+        void onServiceStateChanged(int serviceState);
+
+        void onSignalStrengthChanged(int signalLevel);
+    }
+
+    /**
+     * 卫星使能结果回调
+     */
+    interface RequestCallback {
+        void onRequestResult(boolean result);
+    }
+
+    /**
+     * 短信发送结果和送达结果回调
+     */
+    interface SmsResultCallback {
+        void onSentResult(long messageId, int resultCode);
+
+        void onDeliveryResult(long messageId, int resultCode);
+    }
+
+    /**
+     * 收到卫星短信的回调，多段短信的每一段分别回调，由接收方重组
+     */
+    interface InboundSmsCallback {
+        /**
+         * Called for every received part of a text message.
+         *
+         * @param originatingAddress sender of the message
+         * @param body text of this part
+         * @param timestampMillis service center timestamp of this part
+         * @param reference concatenation reference number shared by the parts of one message
+         * @param partIndex 1 based index of this part
+         * @param partCount number of parts of the message, 1 for a single part message
+         */
+        void onSmsReceived(String originatingAddress, String body, long timestampMillis, int reference,
+                           int partIndex, int partCount);
+    }
+
+    /**
+     * Request to enable or disable satellite.
+     *
+     * @param enableSatellite true for enable and false for disable
+     * @param executor executor running the callback
+     * @param callback callback receiving the result
+     */
+    void requestSatelliteEnabled(boolean enableSatellite, Executor executor, RequestCallback callback);
+
+    /**
+     * Registers for modem state changed from satellite modem.
+     *
+     * @param executor executor running the callback
+     * @param callback callback to register
+     * @return The result of the operation.
+     */
+    int registerForSatelliteModemStateChanged(Executor executor, ModemStateCallback callback);
+
+    /**
+     * Unregisters for modem state changed from satellite modem.
+     *
+     * @param callback registered callback
+     */
+    void unregisterForSatelliteModemStateChanged(ModemStateCallback callback);
+
+    /**
+     * Registers for satellite pointing info updates.
+     *
+     * @param executor executor running the callback
+     * @param callback callback to register
+     * @return The result of the operation.
+     */
+    int registerForSatellitePointingUpdates(Executor executor, PointingCallback callback);
+
+    /**
+     * Unregisters for satellite pointing info updates.
+     *
+     * @param callback registered callback
+     */
+    void unregisterForSatellitePointingUpdates(PointingCallback callback);
+
+    /**
+     * The satellite type of current device supported.
+     *
+     * @return satellite support type
+     */
+    int getSatelliteSupportType();
+
+    /**
+     * Get available satellite sim card information.
+     *
+     * @return available satellite sim cards, empty if none
+     */
+    List<SatSim> getAvailableSatSimCards();
+
+    /**
+     * Set default satellite sim slot.
+     *
+     * @param slotId slot ID: 0 or 1
+     */
+    void setSatelliteSlot(int slotId);
+
+    /**
+     * Set the callback receiving the results of every sent message.
+     *
+     * @param callback result callback, null to drop results
+     */
+    void setSmsResultCallback(SmsResultCallback callback);
+
+    /**
+     * Send a text message based satellite, results are reported with the given message ID.
+     *
+     * @param destinationAddress the address to send the message to
+     * @param scAddress the service center address or null to use the current default SMSC
+     * @param text the body of the message to send
+     * @param messageId ID correlating the sent and delivery results with this message
+     */
+    void sendTextMessage(String destinationAddress, String scAddress, String text, long messageId);
+
+    /**
+     * Set the callback receiving the text messages sent to this device over satellite.
+     *
+     * @param callback inbound callback, null to stop receiving
+     */
+    void setInboundSmsCallback(InboundSmsCallback callback);
+
+    /**
+     * Release the resources of this backend.
+     */
+    void release();
+}
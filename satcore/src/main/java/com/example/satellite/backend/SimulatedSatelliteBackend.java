@@ -0,0 +1,566 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.backend;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 模拟的卫星通信后端，不依赖卫星硬件和 Android，可在任意 JVM 上运行
+ * 手机姿态在卫星方向附近随机抖动并逐渐对准，信号格数由对星偏差决定，使能后信号不为0即有服务；
+ * 使能、发送、送达的时延和失败比例可配置，也可由 {@link SimulationScenario} 在运行中强制服务状态和信号、调整链路参数；
+ * 可按配置向本机发送短信，无服务期间短信积压在网络侧，恢复服务后集中到达，长短信分段乱序到达，部分分段被重传；
+ * 所有时间均为模拟时间，按配置的倍率加速运行，用于在开发机上对回调和发送路径进行压力和时延测试
+ *
+ * @since 2026-10-17
+ */
+public class SimulatedSatelliteBackend implements SatelliteBackend {
+    /* 服务状态或信号不强制，由模型计算 */
+    public static final int AUTO = Integer.MIN_VALUE;
+
+    private static final Logger LOGGER = Logger.getLogger("SatSimulator");
+    private static final int MAX_SIGNAL_LEVEL = 5;
+    /* 对星偏差每增加该角度，信号降低一格 */
+    private static final double DEGREES_PER_LEVEL = 8.0;
+    /* 每次姿态更新向卫星方向修正的比例，模拟用户逐渐对星 */
+    private static final double ALIGN_RATE = 0.05;
+    private static final long NO_SERVICE_LATENCY_MILLIS = 100L;
+    /* 模拟收到短信的单段长度和最大段数 */
+    private static final int INBOUND_PART_CHARS = 67;
+    private static final int INBOUND_MAX_PARTS = 4;
+    private static final String[] INBOUND_SENDERS = {"+8613900000001", "+8613900000002", "10086"};
+
+    private final double timeScale;
+    private final long startNanos = System.nanoTime();
+    private final Random random;
+    private final int satelliteSupportType;
+    private final List<SatSim> satSims;
+    private final ScheduledThreadPoolExecutor simulatorThread = new ScheduledThreadPoolExecutor(1,
+            runnable -> new Thread(runnable, "SatSimulator"));
+    private final List<Registration<PointingCallback>> pointingCallbacks = new CopyOnWriteArrayList<>();
+    private final List<Registration<ModemStateCallback>> modemStateCallbacks = new CopyOnWriteArrayList<>();
+    private volatile SmsResultCallback smsResultCallback;
+    private volatile InboundSmsCallback inboundSmsCallback;
+
+    /* 以下状态只在模拟线程上访问 */
+    private long pointingIntervalMillis;
+    private long signalIntervalMillis;
+    /* 下一次对星和信号更新的到期时刻（System.nanoTime），按绝对时刻排期，任务执行耗时不会累积成频率偏低 */
+    private long pointingDueNanos = startNanos;
+    private long signalDueNanos = startNanos;
+    private double satelliteEle;
+    private double satelliteAzi;
+    private final double noiseDegrees;
+    private double phoneEle;
+    private double phoneAzi;
+    private double phoneHor;
+    private long enableLatencyMillis;
+    private double enableFailureRatio;
+    private long sentLatencyMillis;
+    private double sentFailureRatio;
+    private long deliveryLatencyMillis;
+    private double deliveryFailureRatio;
+    private int forcedServiceState = AUTO;
+    private int forcedSignalLevel = AUTO;
+    private boolean enabled;
+    private int serviceState = SERVICE_STATE_POWER_OFF;
+    private int signalLevel;
+    private int selectedSlot;
+    private final long inboundIntervalMillis;
+    private final double inboundDuplicateRatio;
+    /* 网络侧等待下发的短信分段 */
+    private final Deque<InboundPart> networkQueue = new ArrayDeque<>();
+    private int inboundReference;
+    private long inboundSequence;
+
+    /**
+     * Constructor, starts producing pointing and signal updates immediately.
+     *
+     * @param config initial parameters of the simulation
+     */
+    public SimulatedSatelliteBackend(SimulatorConfig config) {
+        this.timeScale = config.getTimeScale();
+        this.random = new Random(config.getSeed());
+        this.satelliteSupportType = config.getSatelliteSupportType();
+        this.satSims = config.getSatSims();
+        this.pointingIntervalMillis = config.getPointingIntervalMillis();
+        this.signalIntervalMillis = config.getSignalIntervalMillis();
+        this.satelliteEle = config.getSatelliteElevation();
+        this.satelliteAzi = config.getSatelliteAzimuth();
+        this.noiseDegrees = config.getPointingNoiseDegrees();
+        this.enableLatencyMillis = config.getEnableLatencyMillis();
+        this.enableFailureRatio = config.getEnableFailureRatio();
+        this.sentLatencyMillis = config.getSentLatencyMillis();
+        this.sentFailureRatio = config.getSentFailureRatio();
+        this.deliveryLatencyMillis = config.getDeliveryLatencyMillis();
+        this.deliveryFailureRatio = config.getDeliveryFailureRatio();
+        this.inboundIntervalMillis = config.getInboundIntervalMillis();
+        this.inboundDuplicateRatio = config.getInboundDuplicateRatio();
+        /* 初始时手机大致朝向正北、水平放置 */
+        this.phoneEle = 0;
+        this.phoneAzi = 0;
+        this.phoneHor = 0;
+        simulatorThread.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        schedule(this::pointingTick, 0);
+        schedule(this::signalTick, 0);
+        if (inboundIntervalMillis > 0) {
+            schedule(this::inboundTick, jitter(inboundIntervalMillis));
+        }
+    }
+
+    @Override
+    public void requestSatelliteEnabled(boolean enableSatellite, Executor executor, RequestCallback callback) {
+        execute(() -> schedule(() -> {
+            boolean result = random.nextDouble() >= enableFailureRatio;
+            if (result) {
+                enabled = enableSatellite;
+                updateServiceState();
+            }
+            deliver(executor, () -> callback.onRequestResult(result));
+        }, jitter(enableLatencyMillis)));
+    }
+
+    @Override
+    public int registerForSatelliteModemStateChanged(Executor executor, ModemStateCallback callback) {
+        Registration<ModemStateCallback> registration = new Registration<>(executor, callback);
+        modemStateCallbacks.add(registration);
+        /* 注册后立即上报一次当前服务状态，与真实设备行为一致 */
+        execute(() -> deliver(executor, () -> callback.onServiceStateChanged(serviceState)));
+        return 0;
+    }
+
+    @Override
+    public void unregisterForSatelliteModemStateChanged(ModemStateCallback callback) {
+        modemStateCallbacks.removeIf(registration -> registration.callback == callback);
+    }
+
+    @Override
+    public int registerForSatellitePointingUpdates(Executor executor, PointingCallback callback) {
+        pointingCallbacks.add(new Registration<>(executor, callback));
+        return 0;
+    }
+
+    @Override
+    public void unregisterForSatellitePointingUpdates(PointingCallback callback) {
+        pointingCallbacks.removeIf(registration -> registration.callback == callback);
+    }
+
+    @Override
+    public int getSatelliteSupportType() {
+        return satelliteSupportType;
+    }
+
+    @Override
+    public List<SatSim> getAvailableSatSimCards() {
+        return satSims;
+    }
+
+    @Override
+    public void setSatelliteSlot(int slotId) {
+        execute(() -> selectedSlot = slotId);
+    }
+
+    @Override
+    public void setSmsResultCallback(SmsResultCallback callback) {
+        this.smsResultCallback = callback;
+    }
+
+    @Override
+    public void sendTextMessage(String destinationAddress, String scAddress, String text, long messageId) {
+        execute(() -> {
+            if (!enabled || serviceState != SERVICE_STATE_IN_SERVICE || !hasSatSim(selectedSlot)) {
+                schedule(() -> reportSent(messageId, RESULT_ERROR_NO_SERVICE), NO_SERVICE_LATENCY_MILLIS);
+                return;
+            }
+            schedule(() -> {
+                if (serviceState != SERVICE_STATE_IN_SERVICE) {
+                    /* 发送过程中服务中断 */
+                    reportSent(messageId, RESULT_ERROR_NO_SERVICE);
+                    return;
+                }
+                if (random.nextDouble() < sentFailureRatio) {
+                    reportSent(messageId, RESULT_ERROR_GENERIC_FAILURE);
+                    return;
+                }
+                reportSent(messageId, RESULT_OK);
+                boolean delivered = random.nextDouble() >= deliveryFailureRatio;
+                schedule(() -> reportDelivery(messageId, delivered ? RESULT_OK : RESULT_ERROR_GENERIC_FAILURE),
+                        jitter(deliveryLatencyMillis));
+            }, jitter(sentLatencyMillis));
+        });
+    }
+
+    @Override
+    public void setInboundSmsCallback(InboundSmsCallback callback) {
+        this.inboundSmsCallback = callback;
+        execute(this::deliverInbound);
+    }
+
+    @Override
+    public void release() {
+        pointingCallbacks.clear();
+        modemStateCallbacks.clear();
+        smsResultCallback = null;
+        inboundSmsCallback = null;
+        simulatorThread.shutdownNow();
+    }
+
+    /**
+     * Force the service state instead of deriving it from the signal.
+     *
+     * @param state service state, or {@link #AUTO}
+     */
+    public void forceServiceState(int state) {
+        execute(() -> {
+            forcedServiceState = state;
+            updateServiceState();
+        });
+    }
+
+    /**
+     * Force the signal level instead of deriving it from the pointing error.
+     *
+     * @param level signal level, or {@link #AUTO}
+     */
+    public void forceSignalLevel(int level) {
+        execute(() -> {
+            forcedSignalLevel = level;
+            updateSignalLevel();
+            updateServiceState();
+        });
+    }
+
+    /**
+     * Move the satellite, the simulated user then realigns the phone.
+     *
+     * @param elevation satellite elevation in degrees
+     * @param azimuth satellite azimuth in degrees
+     */
+    public void moveSatellite(double elevation, double azimuth) {
+        execute(() -> {
+            satelliteEle = elevation;
+            satelliteAzi = azimuth;
+        });
+    }
+
+    /**
+     * Change the intervals of the pointing updates and the signal reports, taking effect after the next update.
+     *
+     * @param pointingMillis simulated time between pointing updates
+     * @param signalMillis simulated time between signal strength reports
+     */
+    public void setIntervals(long pointingMillis, long signalMillis) {
+        SimulatorConfig.requirePositive(pointingMillis);
+        SimulatorConfig.requirePositive(signalMillis);
+        execute(() -> {
+            pointingIntervalMillis = pointingMillis;
+            signalIntervalMillis = signalMillis;
+        });
+    }
+
+    /**
+     * Change the latency and failure ratio of enable requests made from now on.
+     *
+     * @param latencyMillis mean simulated time until the result
+     * @param failureRatio ratio of failed requests between 0 and 1
+     */
+    public void setEnable(long latencyMillis, double failureRatio) {
+        SimulatorConfig.requireNonNegative(latencyMillis);
+        SimulatorConfig.requireRatio(failureRatio);
+        execute(() -> {
+            enableLatencyMillis = latencyMillis;
+            enableFailureRatio = failureRatio;
+        });
+    }
+
+    /**
+     * Change the latency and failure ratio of messages sent from now on.
+     *
+     * @param latencyMillis mean simulated time until the sent result
+     * @param failureRatio ratio of failed sends between 0 and 1
+     */
+    public void setSent(long latencyMillis, double failureRatio) {
+        SimulatorConfig.requireNonNegative(latencyMillis);
+        SimulatorConfig.requireRatio(failureRatio);
+        execute(() -> {
+            sentLatencyMillis = latencyMillis;
+            sentFailureRatio = failureRatio;
+        });
+    }
+
+    /**
+     * Change the latency and failure ratio of deliveries of messages sent from now on.
+     *
+     * @param latencyMillis mean simulated time from the sent result until the delivery result
+     * @param failureRatio ratio of failed deliveries between 0 and 1
+     */
+    public void setDelivery(long latencyMillis, double failureRatio) {
+        SimulatorConfig.requireNonNegative(latencyMillis);
+        SimulatorConfig.requireRatio(failureRatio);
+        execute(() -> {
+            deliveryLatencyMillis = latencyMillis;
+            deliveryFailureRatio = failureRatio;
+        });
+    }
+
+    /**
+     * Run a task on the simulator thread after a simulated delay.
+     *
+     * @param task task to run
+     * @param simulatedDelayMillis delay in simulated time
+     */
+    public void schedule(Runnable task, long simulatedDelayMillis) {
+        scheduleNanos(task, toRealNanos(simulatedDelayMillis));
+    }
+
+    /**
+     * Get the simulated time since the backend was created.
+     *
+     * @return simulated milliseconds
+     */
+    public long getSimulatedTimeMillis() {
+        return (long) ((System.nanoTime() - startNanos) / 1000000.0 * timeScale);
+    }
+
+    public double getTimeScale() {
+        return timeScale;
+    }
+
+    private void pointingTick() {
+        /* 手机姿态向卫星方向修正并叠加噪声，方位角按最短路径修正并保持在 [0, 360) */
+        double azimuthError = wrapDegrees(satelliteAzi - phoneAzi);
+        phoneAzi = normalizeDegrees(phoneAzi + azimuthError * ALIGN_RATE + random.nextGaussian() * noiseDegrees);
+        phoneEle += (satelliteEle - phoneEle) * ALIGN_RATE + random.nextGaussian() * noiseDegrees;
+        phoneHor = random.nextGaussian() * noiseDegrees;
+        double sEle = satelliteEle;
+        double sAzi = satelliteAzi;
+        double pEle = phoneEle;
+        double pAzi = phoneAzi;
+        double pHor = phoneHor;
+        for (Registration<PointingCallback> registration : pointingCallbacks) {
+            deliver(registration.executor,
+                () -> registration.callback.onPointingUpdate(sEle, sAzi, 0, pEle, pAzi, pHor));
+        }
+        pointingDueNanos = nextDueNanos(pointingDueNanos, pointingIntervalMillis);
+        scheduleNanos(this::pointingTick, pointingDueNanos - System.nanoTime());
+    }
+
+    private void signalTick() {
+        updateSignalLevel();
+        updateServiceState();
+        if (enabled) {
+            int level = signalLevel;
+            for (Registration<ModemStateCallback> registration : modemStateCallbacks) {
+                deliver(registration.executor, () -> registration.callback.onSignalStrengthChanged(level));
+            }
+        }
+        signalDueNanos = nextDueNanos(signalDueNanos, signalIntervalMillis);
+        scheduleNanos(this::signalTick, signalDueNanos - System.nanoTime());
+    }
+
+    /**
+     * 周期任务的下一个到期时刻，在上一个到期时刻上加一个周期，而不是从本次执行结束时算起
+     *
+     * @param dueNanos due time of the run that just happened
+     * @param intervalMillis simulated period
+     * @return next due time, moved to now if the simulator fell more than one period behind
+     */
+    private long nextDueNanos(long dueNanos, long intervalMillis) {
+        long intervalNanos = Math.max(1L, toRealNanos(intervalMillis));
+        long next = dueNanos + intervalNanos;
+        long now = System.nanoTime();
+        if (now - next > intervalNanos) {
+            /* 落后超过一个周期时不再连续补发，从当前时刻重新计时 */
+            return now;
+        }
+        return next;
+    }
+
+    private long toRealNanos(long simulatedMillis) {
+        return (long) (simulatedMillis * 1000000.0 / timeScale);
+    }
+
+    private void scheduleNanos(Runnable task, long delayNanos) {
+        try {
+            simulatorThread.schedule(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "simulator task failed", e);
+                }
+            }, Math.max(0L, delayNanos), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            LOGGER.fine("simulator already released");
+        }
+    }
+
+    private void updateSignalLevel() {
+        if (forcedSignalLevel != AUTO) {
+            signalLevel = forcedSignalLevel;
+            return;
+        }
+        double azimuthError = wrapDegrees(satelliteAzi - phoneAzi);
+        double elevationError = satelliteEle - phoneEle;
+        double error = Math.sqrt(azimuthError * azimuthError + elevationError * elevationError);
+        int level = (int) Math.round(MAX_SIGNAL_LEVEL - error / DEGREES_PER_LEVEL);
+        signalLevel = Math.max(0, Math.min(MAX_SIGNAL_LEVEL, level));
+    }
+
+    private void updateServiceState() {
+        int state;
+        if (!enabled) {
+            state = SERVICE_STATE_POWER_OFF;
+        } else if (forcedServiceState != AUTO) {
+            state = forcedServiceState;
+        } else {
+            state = signalLevel > 0 ? SERVICE_STATE_IN_SERVICE : SERVICE_STATE_OUT_OF_SERVICE;
+        }
+        if (state == serviceState) {
+            return;
+        }
+        serviceState = state;
+        for (Registration<ModemStateCallback> registration : modemStateCallbacks) {
+            deliver(registration.executor, () -> registration.callback.onServiceStateChanged(state));
+        }
+        /* 恢复服务时积压的短信集中到达 */
+        deliverInbound();
+    }
+
+    private void inboundTick() {
+        String sender = INBOUND_SENDERS[random.nextInt(INBOUND_SENDERS.length)];
+        long sequence = ++inboundSequence;
+        StringBuilder text = new StringBuilder("inbound ").append(sequence);
+        int prefixLength = text.length();
+        int length = 1 + random.nextInt(INBOUND_PART_CHARS * INBOUND_MAX_PARTS);
+        while (text.length() < length) {
+            text.append(' ').append(Long.toString(random.nextLong() & Long.MAX_VALUE, 36));
+        }
+        text.setLength(Math.max(length, prefixLength));
+        long timestampMillis = getSimulatedTimeMillis();
+        int partCount = (text.length() + INBOUND_PART_CHARS - 1) / INBOUND_PART_CHARS;
+        int reference = inboundReference++ & 0xff;
+        List<InboundPart> parts = new ArrayList<>();
+        for (int i = 0; i < partCount; i++) {
+            int end = Math.min(text.length(), (i + 1) * INBOUND_PART_CHARS);
+            String body = text.substring(i * INBOUND_PART_CHARS, end);
+            InboundPart part = new InboundPart(sender, body, timestampMillis, reference, i + 1, partCount);
+            parts.add(part);
+            if (random.nextDouble() < inboundDuplicateRatio) {
+                parts.add(part);
+            }
+        }
+        /* 卫星链路上多段短信的各段不保证按序到达 */
+        Collections.shuffle(parts, random);
+        networkQueue.addAll(parts);
+        deliverInbound();
+        schedule(this::inboundTick, jitter(inboundIntervalMillis));
+    }
+
+    private void deliverInbound() {
+        InboundSmsCallback callback = inboundSmsCallback;
+        if (callback == null || !enabled || serviceState != SERVICE_STATE_IN_SERVICE || !hasSatSim(selectedSlot)) {
+            return;
+        }
+        while (!networkQueue.isEmpty()) {
+            InboundPart part = networkQueue.pollFirst();
+            callback.onSmsReceived(part.sender, part.body, part.timestampMillis, part.reference, part.partIndex,
+                    part.partCount);
+        }
+    }
+
+    private void reportSent(long messageId, int resultCode) {
+        SmsResultCallback callback = smsResultCallback;
+        if (callback != null) {
+            callback.onSentResult(messageId, resultCode);
+        }
+    }
+
+    private void reportDelivery(long messageId, int resultCode) {
+        SmsResultCallback callback = smsResultCallback;
+        if (callback != null) {
+            callback.onDeliveryResult(messageId, resultCode);
+        }
+    }
+
+    private boolean hasSatSim(int slotId) {
+        for (SatSim sim : satSims) {
+            if (sim.getSlotId() == slotId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long jitter(long meanMillis) {
+        /* 时延在均值的 0.5 到 1.5 倍之间均匀分布 */
+        return (long) (meanMillis * (0.5 + random.nextDouble()));
+    }
+
+    private void deliver(Executor executor, Runnable callback) {
+        try {
+            executor.execute(callback);
+        } catch (RejectedExecutionException e) {
+            LOGGER.fine("callback executor rejected the update");
+        }
+    }
+
+    private void execute(Runnable task) {
+        schedule(task, 0);
+    }
+
+    private static double wrapDegrees(double degrees) {
+        double wrapped = degrees % 360.0;
+        if (wrapped > 180.0) {
+            wrapped -= 360.0;
+        } else if (wrapped < -180.0) {
+            wrapped += 360.0;
+        }
+        return wrapped;
+    }
+
+    private static double normalizeDegrees(double degrees) {
+        double normalized = degrees % 360.0;
+        return normalized < 0 ? normalized + 360.0 : normalized;
+    }
+
+    private static final class InboundPart {
+        final String sender;
+        final String body;
+        final long timestampMillis;
+        final int reference;
+        final int partIndex;
+        final int partCount;
+
+        InboundPart(String sender, String body, long timestampMillis, int reference, int partIndex, int partCount) {
+            this.sender = sender;
+            this.body = body;
+            this.timestampMillis = timestampMillis;
+            this.reference = reference;
+            this.partIndex = partIndex;
+            this.partCount = partCount;
+        }
+    }
+
+    private static final class Registration<T> {
+        final Executor executor;
+        final T callback;
+
+        Registration(Executor executor, T callback) {
+            this.executor = executor;
+            this.callback = callback;
+        }
+    }
+}
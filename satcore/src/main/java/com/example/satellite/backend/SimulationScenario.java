@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.backend;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 模拟器脚本，按模拟时间依次修改 {@link SimulatedSatelliteBackend} 的链路状态
+ * 每行一个步骤，格式为 "模拟时间毫秒 命令 参数..."，# 之后为注释，支持的命令：
+ * service auto|状态, signal auto|格数, satellite 仰角 方位角, intervals 对星间隔 信号间隔,
+ * enable 时延 失败比例, sent 时延 失败比例, delivery 时延 失败比例, end
+ *
+ * @since 2026-10-17
+ */
+public final class SimulationScenario {
+    private final List<Step> steps;
+    private final long durationMillis;
+
+    private SimulationScenario(List<Step> steps, long durationMillis) {
+        this.steps = steps;
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * Parse a scenario script.
+     *
+     * @param reader script source, not closed
+     * @return parsed scenario
+     * @throws IOException if reading fails
+     * @throws IllegalArgumentException if a line is malformed
+     */
+    public static SimulationScenario parse(Reader reader) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        List<Step> steps = new ArrayList<>();
+        long duration = 0;
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            String content = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (content.isEmpty()) {
+                continue;
+            }
+            String[] tokens = content.split("\\s+");
+            try {
+                Step step = parseStep(tokens);
+                steps.add(step);
+                duration = Math.max(duration, step.atMillis);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("line " + lineNumber + ": " + content, e);
+            }
+        }
+        Collections.sort(steps, (left, right) -> Long.compare(left.atMillis, right.atMillis));
+        return new SimulationScenario(steps, duration);
+    }
+
+    /**
+     * Simulated time of the last step, the scenario is over afterwards.
+     *
+     * @return duration in simulated milliseconds
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    /**
+     * Schedule every step on the simulator, relative to the current simulated time.
+     *
+     * @param backend simulator the steps are applied to
+     */
+    public void start(SimulatedSatelliteBackend backend) {
+        for (Step step : steps) {
+            backend.schedule(() -> step.apply(backend), step.atMillis);
+        }
+    }
+
+    private static Step parseStep(String[] tokens) {
+        if (tokens.length < 2) {
+            throw new IllegalArgumentException("missing command");
+        }
+        long at = Long.parseLong(tokens[0]);
+        if (at < 0) {
+            throw new IllegalArgumentException("negative time");
+        }
+        String command = tokens[1].toLowerCase(Locale.ROOT);
+        switch (command) {
+            case "service":
+                requireArgs(tokens, 1);
+                return new Step(at, command, parseAuto(tokens[2]), 0, 0);
+            case "signal":
+                requireArgs(tokens, 1);
+                return new Step(at, command, parseAuto(tokens[2]), 0, 0);
+            case "satellite":
+            case "intervals":
+            case "enable":
+            case "sent":
+            case "delivery":
+                requireArgs(tokens, 2);
+                return new Step(at, command, 0, Double.parseDouble(tokens[2]), Double.parseDouble(tokens[3]));
+            case "end":
+                return new Step(at, command, 0, 0, 0);
+            default:
+                throw new IllegalArgumentException("unknown command " + command);
+        }
+    }
+
+    private static void requireArgs(String[] tokens, int count) {
+        if (tokens.length != count + 2) {
+            throw new IllegalArgumentException(tokens[1] + " expects " + count + " arguments");
+        }
+    }
+
+    private static int parseAuto(String token) {
+        return "auto".equalsIgnoreCase(token) ? SimulatedSatelliteBackend.AUTO : Integer.parseInt(token);
+    }
+
+    private static final class Step {
+        final long atMillis;
+        final String command;
+        final int value;
+        final double first;
+        final double second;
+
+        Step(long atMillis, String command, int value, double first, double second) {
+            this.atMillis = atMillis;
+            this.command = command;
+            this.value = value;
+            this.first = first;
+            this.second = second;
+        }
+
+        void apply(SimulatedSatelliteBackend backend) {
+            switch (command) {
+                case "service":
+                    backend.forceServiceState(value);
+                    break;
+                case "signal":
+                    backend.forceSignalLevel(value);
+                    break;
+                case "satellite":
+                    backend.moveSatellite(first, second);
+                    break;
+                case "intervals":
+                    backend.setIntervals((long) first, (long) second);
+                    break;
+                case "enable":
+                    backend.setEnable((long) first, second);
+                    break;
+                case "sent":
+                    backend.setSent((long) first, second);
+                    break;
+                case "delivery":
+                    backend.setDelivery((long) first, second);
+                    break;
+                default:
+                    /* end 只标记场景结束时间 */
+                    break;
+            }
+        }
+    }
+}
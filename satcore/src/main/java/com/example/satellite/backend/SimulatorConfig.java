@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.backend;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 卫星模拟器的初始参数，各时间参数均为模拟时间，运行时按 timeScale 加速
+ * 运行过程中可由 {@link SimulationScenario} 调整其中的链路参数
+ *
+ * @since 2026-10-17
+ */
+public final class SimulatorConfig {
+    private double timeScale = 1.0;
+    private long seed = 1L;
+    private long pointingIntervalMillis = 100L;
+    private long signalIntervalMillis = 1000L;
+    private double satelliteElevation = 45.0;
+    private double satelliteAzimuth = 120.0;
+    private double pointingNoiseDegrees = 2.0;
+    private long enableLatencyMillis = 3000L;
+    private double enableFailureRatio;
+    private long sentLatencyMillis = 5000L;
+    private double sentFailureRatio;
+    private long deliveryLatencyMillis = 20000L;
+    private double deliveryFailureRatio;
+    private long inboundIntervalMillis;
+    private double inboundDuplicateRatio;
+    private int satelliteSupportType = 1;
+    private final List<SatSim> satSims = new ArrayList<>();
+
+    /**
+     * Constructor, one Tiantong sim card in slot 0 by default
+     */
+    public SimulatorConfig() {
+        satSims.add(new SatSim(0, 1, "46011", "+8613800000000"));
+    }
+
+    /**
+     * Set how much faster than real time the simulation runs, e.g. 100 for 100x.
+     *
+     * @param timeScale speed up factor, positive
+     * @return this config
+     */
+    public SimulatorConfig setTimeScale(double timeScale) {
+        if (!(timeScale > 0)) {
+            throw new IllegalArgumentException("invalid time scale: " + timeScale);
+        }
+        this.timeScale = timeScale;
+        return this;
+    }
+
+    /**
+     * Set the seed of the random source, equal seeds give equal event sequences.
+     *
+     * @param seed random seed
+     * @return this config
+     */
+    public SimulatorConfig setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Set the intervals of the pointing updates and the signal strength reports.
+     *
+     * @param pointingIntervalMillis simulated time between pointing updates
+     * @param signalIntervalMillis simulated time between signal strength reports
+     * @return this config
+     */
+    public SimulatorConfig setIntervals(long pointingIntervalMillis, long signalIntervalMillis) {
+        this.pointingIntervalMillis = requirePositive(pointingIntervalMillis);
+        this.signalIntervalMillis = requirePositive(signalIntervalMillis);
+        return this;
+    }
+
+    /**
+     * Set where the satellite is and how much the phone orientation jitters.
+     *
+     * @param elevation satellite elevation in degrees
+     * @param azimuth satellite azimuth in degrees
+     * @param noiseDegrees standard deviation of the phone orientation noise
+     * @return this config
+     */
+    public SimulatorConfig setSatellite(double elevation, double azimuth, double noiseDegrees) {
+        this.satelliteElevation = elevation;
+        this.satelliteAzimuth = azimuth;
+        this.pointingNoiseDegrees = noiseDegrees;
+        return this;
+    }
+
+    /**
+     * Set the latency and failure ratio of satellite enable requests.
+     *
+     * @param latencyMillis mean simulated time until the result
+     * @param failureRatio ratio of failed requests between 0 and 1
+     * @return this config
+     */
+    public SimulatorConfig setEnable(long latencyMillis, double failureRatio) {
+        this.enableLatencyMillis = requireNonNegative(latencyMillis);
+        this.enableFailureRatio = requireRatio(failureRatio);
+        return this;
+    }
+
+    /**
+     * Set the latency and failure ratio of the sent results.
+     *
+     * @param latencyMillis mean simulated time until the sent result
+     * @param failureRatio ratio of failed sends between 0 and 1
+     * @return this config
+     */
+    public SimulatorConfig setSent(long latencyMillis, double failureRatio) {
+        this.sentLatencyMillis = requireNonNegative(latencyMillis);
+        this.sentFailureRatio = requireRatio(failureRatio);
+        return this;
+    }
+
+    /**
+     * Set the latency and failure ratio of the delivery results.
+     *
+     * @param latencyMillis mean simulated time from the sent result until the delivery result
+     * @param failureRatio ratio of failed deliveries between 0 and 1
+     * @return this config
+     */
+    public SimulatorConfig setDelivery(long latencyMillis, double failureRatio) {
+        this.deliveryLatencyMillis = requireNonNegative(latencyMillis);
+        this.deliveryFailureRatio = requireRatio(failureRatio);
+        return this;
+    }
+
+    /**
+     * Set how often messages are sent to the device, messages wait in the network while there is no service
+     * and arrive as a burst once service is regained.
+     *
+     * @param intervalMillis mean simulated time between inbound messages, 0 for none
+     * @param duplicateRatio ratio of message parts the network retransmits between 0 and 1
+     * @return this config
+     */
+    public SimulatorConfig setInbound(long intervalMillis, double duplicateRatio) {
+        this.inboundIntervalMillis = requireNonNegative(intervalMillis);
+        this.inboundDuplicateRatio = requireRatio(duplicateRatio);
+        return this;
+    }
+
+    /**
+     * Set the supported satellite type and the available satellite sim cards.
+     *
+     * @param satelliteSupportType satellite type of the simulated device
+     * @param sims available sim cards
+     * @return this config
+     */
+    public SimulatorConfig setDevice(int satelliteSupportType, List<SatSim> sims) {
+        this.satelliteSupportType = satelliteSupportType;
+        this.satSims.clear();
+        this.satSims.addAll(sims);
+        return this;
+    }
+
+    public double getTimeScale() {
+        return timeScale;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getPointingIntervalMillis() {
+        return pointingIntervalMillis;
+    }
+
+    public long getSignalIntervalMillis() {
+        return signalIntervalMillis;
+    }
+
+    public double getSatelliteElevation() {
+        return satelliteElevation;
+    }
+
+    public double getSatelliteAzimuth() {
+        return satelliteAzimuth;
+    }
+
+    public double getPointingNoiseDegrees() {
+        return pointingNoiseDegrees;
+    }
+
+    public long getEnableLatencyMillis() {
+        return enableLatencyMillis;
+    }
+
+    public double getEnableFailureRatio() {
+        return enableFailureRatio;
+    }
+
+    public long getSentLatencyMillis() {
+        return sentLatencyMillis;
+    }
+
+    public double getSentFailureRatio() {
+        return sentFailureRatio;
+    }
+
+    public long getDeliveryLatencyMillis() {
+        return deliveryLatencyMillis;
+    }
+
+    public double getDeliveryFailureRatio() {
+        return deliveryFailureRatio;
+    }
+
+    public long getInboundIntervalMillis() {
+        return inboundIntervalMillis;
+    }
+
+    public double getInboundDuplicateRatio() {
+        return inboundDuplicateRatio;
+    }
+
+    public int getSatelliteSupportType() {
+        return satelliteSupportType;
+    }
+
+    public List<SatSim> getSatSims() {
+        return Collections.unmodifiableList(new ArrayList<>(satSims));
+    }
+
+    static long requirePositive(long millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("interval must be positive: " + millis);
+        }
+        return millis;
+    }
+
+    static long requireNonNegative(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("latency must not be negative: " + millis);
+        }
+        return millis;
+    }
+
+    static double requireRatio(double ratio) {
+        if (!(ratio >= 0 && ratio <= 1)) {
+            throw new IllegalArgumentException("ratio must be within [0, 1]: " + ratio);
+        }
+        return ratio;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.backend;
+
+import com.example.satellite.inbound.InboundPipeline;
+import com.example.satellite.metrics.MeteredSatelliteBackend;
+import com.example.satellite.metrics.MetricsSnapshot;
+import com.example.satellite.metrics.SatelliteMetrics;
+import com.example.satellite.recording.RecordingSatelliteBackend;
+import com.example.satellite.recording.SessionRecorder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 在开发机 JVM 上运行模拟器场景的命令行入口，按设定速率发送短信并统计回调数量、发送结果和时延
+ * 时延由 {@link SatelliteMetrics} 按模拟时间统计，可用 --metrics-out 保存为二进制快照，
+ * 可用 --record 把回调记录为会话文件，供 SessionReplayMain 回放；
+ * 可用 --inbound-interval 让模拟网络向本机发送短信，经收件流水线重组、去重后写入临时收件箱文件
+ * 用法：SimulatorMain [--scenario 文件或classpath资源] [--speed 倍率] [--send-interval 模拟毫秒] [--seed 种子]
+ * [--metrics-out 文件] [--record 文件] [--inbound-interval 模拟毫秒]
+ *
+ * @since 2026-10-17
+ */
+public final class SimulatorMain {
+    private static final String DEFAULT_SCENARIO = "scenarios/default.scenario";
+    private static final double INBOUND_DUPLICATE_RATIO = 0.2;
+    private static final int INBOX_DEDUP_CAPACITY = 4096;
+    private static final int INBOX_RETAINED_MESSAGES = 500;
+    private static final int INBOX_MAX_BATCH_MESSAGES = 64;
+    private static final long INBOX_BATCH_DELAY_MILLIS = 50L;
+    private static final int INBOX_MAX_PENDING_PARTS = 64;
+    private static final long INBOX_PART_TIMEOUT_MILLIS = 60 * 1000L;
+
+    private final AtomicLong sentOk = new AtomicLong();
+    private final AtomicLong sentFailed = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong deliveryFailed = new AtomicLong();
+
+    private SimulatorMain() {
+    }
+
+    /**
+     * Command line entry.
+     *
+     * @param args command line arguments
+     * @throws Exception if the scenario cannot be read or the run is interrupted
+     */
+    public static void main(String[] args) throws Exception {
+        String scenarioPath = DEFAULT_SCENARIO;
+        double speed = 100;
+        long sendIntervalMillis = 2000;
+        long seed = 1;
+        String metricsOut = null;
+        String recordFile = null;
+        long inboundIntervalMillis = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--scenario":
+                    scenarioPath = value(args, ++i);
+                    break;
+                case "--speed":
+                    speed = Double.parseDouble(value(args, ++i));
+                    break;
+                case "--send-interval":
+                    sendIntervalMillis = Long.parseLong(value(args, ++i));
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value(args, ++i));
+                    break;
+                case "--metrics-out":
+                    metricsOut = value(args, ++i);
+                    break;
+                case "--record":
+                    recordFile = value(args, ++i);
+                    break;
+                case "--inbound-interval":
+                    inboundIntervalMillis = Long.parseLong(value(args, ++i));
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        SimulationScenario scenario;
+        try (Reader reader = new InputStreamReader(openScenario(scenarioPath), StandardCharsets.UTF_8)) {
+            scenario = SimulationScenario.parse(reader);
+        }
+        MetricsSnapshot snapshot = new SimulatorMain().run(scenario,
+                new SimulatorConfig().setTimeScale(speed).setSeed(seed)
+                        .setInbound(inboundIntervalMillis, INBOUND_DUPLICATE_RATIO), sendIntervalMillis,
+                recordFile == null ? null : new File(recordFile));
+        if (metricsOut != null) {
+            try (OutputStream out = new FileOutputStream(metricsOut)) {
+                snapshot.writeTo(out);
+            }
+        }
+    }
+
+    private static String value(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("missing value for " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    private static InputStream openScenario(String path) throws IOException {
+        InputStream resource = SimulatorMain.class.getClassLoader().getResourceAsStream(path);
+        return resource != null ? resource : new FileInputStream(path);
+    }
+
+    private MetricsSnapshot run(SimulationScenario scenario, SimulatorConfig config, long sendIntervalMillis,
+            File recordFile) throws InterruptedException, IOException {
+        /* 与应用中的回调通道一致，对星、状态、使能结果分别在独立线程上处理 */
+        ExecutorService pointingLane = Executors.newSingleThreadExecutor();
+        ExecutorService modemLane = Executors.newSingleThreadExecutor();
+        ExecutorService requestLane = Executors.newSingleThreadExecutor();
+        SimulatedSatelliteBackend simulator = new SimulatedSatelliteBackend(config);
+        /* 指标时钟按倍率放大，时延直接以模拟时间统计 */
+        double timeScale = config.getTimeScale();
+        SatelliteMetrics metrics = new SatelliteMetrics(() -> (long) (System.nanoTime() * timeScale));
+        /* 记录的时间同样按倍率放大，回放时与模拟时间一致 */
+        SatelliteBackend recorded = recordFile == null ? simulator : new RecordingSatelliteBackend(simulator,
+                SessionRecorder.create(recordFile, () -> (long) (System.nanoTime() * timeScale)));
+        SatelliteBackend backend = new MeteredSatelliteBackend(recorded, metrics);
+        backend.setSmsResultCallback(new SatelliteBackend.SmsResultCallback() {
+            @Override
+            public void onSentResult(long messageId, int resultCode) {
+                (resultCode == SatelliteBackend.RESULT_OK ? sentOk : sentFailed).incrementAndGet();
+            }
+
+            @Override
+            public void onDeliveryResult(long messageId, int resultCode) {
+                (resultCode == SatelliteBackend.RESULT_OK ? delivered : deliveryFailed).incrementAndGet();
+            }
+        });
+        backend.registerForSatellitePointingUpdates(pointingLane,
+            (satelliteEle, satelliteAzi, satelliteHor, phoneEle, phoneAzi, phoneHor) -> {
+            });
+        backend.registerForSatelliteModemStateChanged(modemLane, new SatelliteBackend.ModemStateCallback() {
+            @Override
+            public void onServiceStateChanged(int serviceState) {
+            }
+
+            @Override
+            public void onSignalStrengthChanged(int signalLevel) {
+            }
+        });
+        InboundPipeline inbox = null;
+        File inboxFile = null;
+        if (config.getInboundIntervalMillis() > 0) {
+            inboxFile = File.createTempFile("inbox", ".journal");
+            inbox = new InboundPipeline(inboxFile, INBOX_DEDUP_CAPACITY, INBOX_RETAINED_MESSAGES,
+                    INBOX_MAX_BATCH_MESSAGES, INBOX_BATCH_DELAY_MILLIS, INBOX_MAX_PENDING_PARTS,
+                    INBOX_PART_TIMEOUT_MILLIS);
+            inbox.start();
+            backend.setInboundSmsCallback(inbox);
+        }
+        CountDownLatch enabled = new CountDownLatch(1);
+        backend.requestSatelliteEnabled(true, requestLane, result -> enabled.countDown());
+        scenario.start(simulator);
+        AtomicLong nextMessageId = new AtomicLong();
+        long realDurationNanos = (long) (scenario.getDurationMillis() * 1000000.0 / config.getTimeScale());
+        long startNanos = System.nanoTime();
+        enabled.await(realDurationNanos, TimeUnit.NANOSECONDS);
+        long sendIntervalNanos = Math.max(1L, (long) (sendIntervalMillis * 1000000.0 / config.getTimeScale()));
+        long nextSend = System.nanoTime();
+        while (System.nanoTime() - startNanos < realDurationNanos) {
+            long id = nextMessageId.incrementAndGet();
+            backend.sendTextMessage("10086", null, "sim " + id, id);
+            nextSend += sendIntervalNanos;
+            long sleepNanos = nextSend - System.nanoTime();
+            if (sleepNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        MetricsSnapshot snapshot = metrics.snapshot();
+        backend.release();
+        pointingLane.shutdown();
+        modemLane.shutdown();
+        requestLane.shutdown();
+        report(nextMessageId.get(), elapsedNanos, timeScale, snapshot);
+        if (inbox != null) {
+            inbox.shutdown();
+            inbox.awaitTermination(10, TimeUnit.SECONDS);
+            System.out.printf(Locale.ROOT, "inbound parts %d: messages %d, duplicates %d%n", inbox.getSegmentCount(),
+                    inbox.getMessageCount(), inbox.getDuplicateCount());
+            if (!inboxFile.delete()) {
+                inboxFile.deleteOnExit();
+            }
+        }
+        return snapshot;
+    }
+
+    private void report(long messages, long elapsedNanos, double timeScale, MetricsSnapshot snapshot) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf(Locale.ROOT, "real %.2fs, simulated %.1fs (x%.0f)%n", seconds, seconds * timeScale,
+                timeScale);
+        System.out.printf(Locale.ROOT, "messages %d: sent %d, send failed %d, delivered %d, delivery failed %d%n",
+                messages, sentOk.get(), sentFailed.get(), delivered.get(), deliveryFailed.get());
+        /* 回调速率按模拟时间计算 */
+        System.out.print(snapshot);
+    }
+}
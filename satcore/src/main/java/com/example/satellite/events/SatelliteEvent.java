@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.events;
+
+/**
+ * 事件总线上的卫星回调事件，只有基本类型字段，按类型使用其中一部分
+ * 对象由 {@link SatelliteEventBus} 预先分配并循环复用，只在 {@link SatelliteEventBus.Listener#onEvent} 调用期间有效，
+ * 订阅方需要保留时应复制字段，不能保存对象本身
+ *
+ * @since 2026-10-17
+ */
+public final class SatelliteEvent {
+    /* 类型为位掩码，订阅时可按位或组合 */
+    public static final int TYPE_SERVICE_STATE = 1;
+    public static final int TYPE_SIGNAL_LEVEL = 1 << 1;
+    public static final int TYPE_POINTING = 1 << 2;
+    /* 收到对星回调之前，由缓存的卫星方向和手机姿态传感器得到的预测对星数据，字段与 TYPE_POINTING 相同 */
+    public static final int TYPE_PREDICTED_POINTING = 1 << 3;
+    public static final int TYPE_ALL = TYPE_SERVICE_STATE | TYPE_SIGNAL_LEVEL | TYPE_POINTING
+            | TYPE_PREDICTED_POINTING;
+
+    private int type;
+    private long sequence;
+    private long timestampNanos;
+    /* 服务状态、信号格数或对准指引 */
+    private int value;
+    private double satelliteEle;
+    private double satelliteAzi;
+    private double satelliteHor;
+    private double phoneEle;
+    private double phoneAzi;
+    private double phoneHor;
+    private double angularError;
+
+    SatelliteEvent() {
+    }
+
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Sequence number of the event on the bus, gaps between events of one publishing thread show drops.
+     *
+     * @return sequence number starting at 1
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimestampNanos() {
+        return timestampNanos;
+    }
+
+    /**
+     * Service state of a {@link #TYPE_SERVICE_STATE} event.
+     *
+     * @return state defined in {@code HnSatelliteServiceState}
+     */
+    public int getServiceState() {
+        return value;
+    }
+
+    /**
+     * Signal level of a {@link #TYPE_SIGNAL_LEVEL} event.
+     *
+     * @return signal level
+     */
+    public int getSignalLevel() {
+        return value;
+    }
+
+    /**
+     * Alignment guidance of a {@link #TYPE_POINTING} or {@link #TYPE_PREDICTED_POINTING} event.
+     *
+     * @return one of the PointingAligner GUIDANCE constants
+     */
+    public int getGuidance() {
+        return value;
+    }
+
+    public double getSatelliteEle() {
+        return satelliteEle;
+    }
+
+    public double getSatelliteAzi() {
+        return satelliteAzi;
+    }
+
+    public double getSatelliteHor() {
+        return satelliteHor;
+    }
+
+    public double getPhoneEle() {
+        return phoneEle;
+    }
+
+    public double getPhoneAzi() {
+        return phoneAzi;
+    }
+
+    public double getPhoneHor() {
+        return phoneHor;
+    }
+
+    /**
+     * Filtered angle between the phone and the satellite of a {@link #TYPE_POINTING} or
+     * {@link #TYPE_PREDICTED_POINTING} event.
+     *
+     * @return angle in degrees, NaN if not computed
+     */
+    public double getAngularError() {
+        return angularError;
+    }
+
+    @Override
+    public String toString() {
+        switch (type) {
+            case TYPE_SERVICE_STATE:
+                return "#" + sequence + " service state " + value;
+            case TYPE_SIGNAL_LEVEL:
+                return "#" + sequence + " signal level " + value;
+            case TYPE_POINTING:
+                return "#" + sequence + " pointing guidance " + value + " error " + angularError;
+            case TYPE_PREDICTED_POINTING:
+                return "#" + sequence + " predicted pointing guidance " + value + " error " + angularError;
+            default:
+                return "#" + sequence + " type " + type;
+        }
+    }
+
+    void setState(int eventType, long eventSequence, long eventTimestampNanos, int eventValue) {
+        type = eventType;
+        sequence = eventSequence;
+        timestampNanos = eventTimestampNanos;
+        value = eventValue;
+    }
+
+    void setPointing(double satEle, double satAzi, double satHor, double phEle, double phAzi, double phHor,
+                     double error) {
+        satelliteEle = satEle;
+        satelliteAzi = satAzi;
+        satelliteHor = satHor;
+        phoneEle = phEle;
+        phoneAzi = phAzi;
+        phoneHor = phHor;
+        angularError = error;
+    }
+
+    void copyFrom(SatelliteEvent other) {
+        setState(other.type, other.sequence, other.timestampNanos, other.value);
+        setPointing(other.satelliteEle, other.satelliteAzi, other.satelliteHor, other.phoneEle, other.phoneAzi,
+                other.phoneHor, other.angularError);
+    }
+}
@@ -0,0 +1,389 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.events;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 进程内的卫星回调事件总线，SDK 只注册一次回调，由总线分发给界面、日志、指标、告警等多个订阅方
+ * 每个订阅方有自己的环形缓冲区，槽位中的 {@link SatelliteEvent} 在订阅时一次性分配，发布时把基本类型字段写入槽位，
+ * 投递时复制到订阅方专用的投递对象，发布和投递都不分配对象；订阅方列表为整体替换的数组，遍历时也不分配迭代器
+ * 订阅方在各自的执行器上收到事件，缓冲区满时按订阅时指定的策略丢弃，慢订阅方不会拖慢发布方和其他订阅方
+ * 发布方法可在任意线程上调用，同一线程发布的事件按发布顺序投递，不同线程（如状态通道和对星通道）之间的先后不保证
+ * 界面等生命周期较短的订阅方可用 {@link #subscribeWeakly} 订阅，总线只弱引用监听，订阅方被回收后自动退订
+ *
+ * @since 2026-10-17
+ */
+public final class SatelliteEventBus {
+    private static final Logger LOGGER = Logger.getLogger("SatEventBus");
+    private static final Subscription[] NO_SUBSCRIPTIONS = new Subscription[0];
+
+    /**
+     * 缓冲区满时的处理策略
+     */
+    public enum Overflow {
+        /* 覆盖最早的未投递事件，订阅方总是收到最新的数据；容量为1时只保留最新一个事件 */
+        DROP_OLDEST,
+        /* 丢弃新事件，订阅方收到的事件连续但可能滞后 */
+        DROP_NEWEST
+    }
+
+    /**
+     * 事件监听，在订阅时指定的执行器上调用
+     */
+    public interface Listener {
+        /**
+         * Called for every event of the subscribed types.
+         *
+         * @param event recycled event, only valid until this method returns
+         */
+        void onEvent(SatelliteEvent event);
+    }
+
+    private final Object subscriptionLock = new Object();
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile Subscription[] subscriptions = NO_SUBSCRIPTIONS;
+
+    /**
+     * Subscribe to the events of some types.
+     *
+     * @param typeMask bitwise or of the SatelliteEvent TYPE constants
+     * @param capacity number of undelivered events buffered for this subscriber, positive
+     * @param overflow what to drop when the buffer is full
+     * @param executor executor the listener is called on, e.g. a single thread of the subscriber
+     * @param listener listener of the events
+     * @return subscription to unsubscribe and to read the delivery counters
+     */
+    public Subscription subscribe(int typeMask, int capacity, Overflow overflow, Executor executor,
+                                  Listener listener) {
+        return addSubscription(typeMask, capacity, overflow, executor, listener, false);
+    }
+
+    /**
+     * Subscribe to the events of some types, holding the listener only weakly.
+     * The owner of the listener must keep it strongly reachable; once it is collected the subscription
+     * unsubscribes itself when its next event is delivered.
+     *
+     * @param typeMask bitwise or of the SatelliteEvent TYPE constants
+     * @param capacity number of undelivered events buffered for this subscriber, positive
+     * @param overflow what to drop when the buffer is full
+     * @param executor executor the listener is called on, e.g. a single thread of the subscriber
+     * @param listener listener of the events, weakly referenced
+     * @return subscription to unsubscribe and to read the delivery counters
+     */
+    public Subscription subscribeWeakly(int typeMask, int capacity, Overflow overflow, Executor executor,
+                                        Listener listener) {
+        return addSubscription(typeMask, capacity, overflow, executor, listener, true);
+    }
+
+    private Subscription addSubscription(int typeMask, int capacity, Overflow overflow, Executor executor,
+                                         Listener listener, boolean weak) {
+        if ((typeMask & SatelliteEvent.TYPE_ALL) == 0) {
+            throw new IllegalArgumentException("invalid type mask: " + typeMask);
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("invalid capacity: " + capacity);
+        }
+        if (overflow == null || executor == null || listener == null) {
+            throw new IllegalArgumentException("overflow, executor and listener are required");
+        }
+        Subscription subscription = new Subscription(this, typeMask, capacity, overflow, executor, listener, weak);
+        synchronized (subscriptionLock) {
+            Subscription[] current = subscriptions;
+            Subscription[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = subscription;
+            subscriptions = updated;
+        }
+        return subscription;
+    }
+
+    /**
+     * Unsubscribe, undelivered events are discarded. Does nothing if already unsubscribed.
+     *
+     * @param subscription subscription returned by {@link #subscribe}
+     */
+    public void unsubscribe(Subscription subscription) {
+        synchronized (subscriptionLock) {
+            Subscription[] current = subscriptions;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == subscription) {
+                    Subscription[] updated = new Subscription[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    subscriptions = updated;
+                    break;
+                }
+            }
+        }
+        subscription.close();
+    }
+
+    /**
+     * Unsubscribe every subscriber.
+     */
+    public void clear() {
+        Subscription[] current;
+        synchronized (subscriptionLock) {
+            current = subscriptions;
+            subscriptions = NO_SUBSCRIPTIONS;
+        }
+        for (Subscription subscription : current) {
+            subscription.close();
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.length;
+    }
+
+    /**
+     * Publish a service state change.
+     *
+     * @param timestampNanos time of the callback
+     * @param serviceState state defined in {@code HnSatelliteServiceState}
+     */
+    public void publishServiceState(long timestampNanos, int serviceState) {
+        publishState(SatelliteEvent.TYPE_SERVICE_STATE, timestampNanos, serviceState);
+    }
+
+    /**
+     * Publish a signal level change.
+     *
+     * @param timestampNanos time of the callback
+     * @param signalLevel signal level
+     */
+    public void publishSignalLevel(long timestampNanos, int signalLevel) {
+        publishState(SatelliteEvent.TYPE_SIGNAL_LEVEL, timestampNanos, signalLevel);
+    }
+
+    /**
+     * Publish a filtered pointing sample.
+     *
+     * @param timestampNanos time of the callback
+     * @param satelliteEle satellite elevation
+     * @param satelliteAzi satellite azimuth
+     * @param satelliteHor satellite horizontal angle
+     * @param phoneEle phone elevation
+     * @param phoneAzi phone azimuth
+     * @param phoneHor phone horizontal angle
+     * @param angularError angle between the satellite and the filtered phone direction
+     * @param guidance alignment guidance, one of the PointingAligner GUIDANCE constants
+     */
+    public void publishPointing(long timestampNanos, double satelliteEle, double satelliteAzi, double satelliteHor,
+                                double phoneEle, double phoneAzi, double phoneHor, double angularError,
+                                int guidance) {
+        publishAngles(SatelliteEvent.TYPE_POINTING, timestampNanos, satelliteEle, satelliteAzi, satelliteHor,
+                phoneEle, phoneAzi, phoneHor, angularError, guidance);
+    }
+
+    /**
+     * Publish a pointing sample predicted before the live pointing updates arrive.
+     *
+     * @param timestampNanos time of the phone orientation
+     * @param satelliteEle predicted satellite elevation
+     * @param satelliteAzi predicted satellite azimuth
+     * @param satelliteHor predicted satellite horizontal angle
+     * @param phoneEle phone elevation from the orientation sensor
+     * @param phoneAzi phone azimuth from the orientation sensor
+     * @param phoneHor phone horizontal angle from the orientation sensor
+     * @param angularError angle between the predicted satellite and the filtered phone direction
+     * @param guidance alignment guidance, one of the PointingAligner GUIDANCE constants
+     */
+    public void publishPredictedPointing(long timestampNanos, double satelliteEle, double satelliteAzi,
+                                         double satelliteHor, double phoneEle, double phoneAzi, double phoneHor,
+                                         double angularError, int guidance) {
+        publishAngles(SatelliteEvent.TYPE_PREDICTED_POINTING, timestampNanos, satelliteEle, satelliteAzi,
+                satelliteHor, phoneEle, phoneAzi, phoneHor, angularError, guidance);
+    }
+
+    private void publishAngles(int type, long timestampNanos, double satelliteEle, double satelliteAzi,
+                               double satelliteHor, double phoneEle, double phoneAzi, double phoneHor,
+                               double angularError, int guidance) {
+        Subscription[] current = subscriptions;
+        if (current.length == 0) {
+            return;
+        }
+        long eventSequence = sequence.incrementAndGet();
+        for (Subscription subscription : current) {
+            if ((subscription.typeMask & type) == 0) {
+                continue;
+            }
+            boolean offered;
+            synchronized (subscription) {
+                SatelliteEvent slot = subscription.claimLocked();
+                offered = slot != null;
+                if (offered) {
+                    slot.setState(type, eventSequence, timestampNanos, guidance);
+                    slot.setPointing(satelliteEle, satelliteAzi, satelliteHor, phoneEle, phoneAzi, phoneHor,
+                            angularError);
+                }
+            }
+            if (offered) {
+                subscription.scheduleDrain();
+            }
+        }
+    }
+
+    private void publishState(int type, long timestampNanos, int value) {
+        Subscription[] current = subscriptions;
+        if (current.length == 0) {
+            return;
+        }
+        long eventSequence = sequence.incrementAndGet();
+        for (Subscription subscription : current) {
+            if ((subscription.typeMask & type) == 0) {
+                continue;
+            }
+            boolean offered;
+            synchronized (subscription) {
+                SatelliteEvent slot = subscription.claimLocked();
+                offered = slot != null;
+                if (offered) {
+                    slot.setState(type, eventSequence, timestampNanos, value);
+                }
+            }
+            if (offered) {
+                subscription.scheduleDrain();
+            }
+        }
+    }
+
+    /**
+     * 一个订阅方的缓冲区和投递状态；缓冲区由发布方和投递方在对象锁下访问，投递对象只在投递任务中使用
+     */
+    public static final class Subscription {
+        private final SatelliteEventBus bus;
+        private final int typeMask;
+        private final Overflow overflow;
+        private final Executor executor;
+        /* 强引用订阅时为监听本身，弱引用订阅时为 null */
+        private final Listener listener;
+        private final WeakReference<Listener> weakListener;
+        private final SatelliteEvent[] ring;
+        private final SatelliteEvent delivery = new SatelliteEvent();
+        private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+        /* 投递任务只创建一次，每次调度复用 */
+        private final Runnable drainTask = this::drain;
+        private int head;
+        private int count;
+        private boolean closed;
+        private volatile long droppedCount;
+        private volatile long deliveredCount;
+
+        private Subscription(SatelliteEventBus bus, int typeMask, int capacity, Overflow overflow, Executor executor,
+                             Listener listener, boolean weak) {
+            this.bus = bus;
+            this.typeMask = typeMask;
+            this.overflow = overflow;
+            this.executor = executor;
+            this.listener = weak ? null : listener;
+            this.weakListener = weak ? new WeakReference<>(listener) : null;
+            this.ring = new SatelliteEvent[capacity];
+            for (int i = 0; i < capacity; i++) {
+                ring[i] = new SatelliteEvent();
+            }
+        }
+
+        /**
+         * Number of events dropped because this subscriber did not keep up.
+         *
+         * @return dropped events since subscribing
+         */
+        public long getDroppedCount() {
+            return droppedCount;
+        }
+
+        public long getDeliveredCount() {
+            return deliveredCount;
+        }
+
+        /**
+         * Number of events buffered and not delivered yet.
+         *
+         * @return pending events
+         */
+        public synchronized int getPendingCount() {
+            return count;
+        }
+
+        private SatelliteEvent claimLocked() {
+            if (closed) {
+                return null;
+            }
+            if (count == ring.length) {
+                droppedCount++;
+                if (overflow == Overflow.DROP_NEWEST) {
+                    return null;
+                }
+                head = (head + 1) % ring.length;
+                count--;
+            }
+            SatelliteEvent slot = ring[(head + count) % ring.length];
+            count++;
+            return slot;
+        }
+
+        private synchronized void close() {
+            closed = true;
+            count = 0;
+        }
+
+        private void scheduleDrain() {
+            if (!drainScheduled.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                executor.execute(drainTask);
+            } catch (RejectedExecutionException e) {
+                /* 订阅方的执行器已关闭，事件留在缓冲区中，下次发布时再尝试 */
+                drainScheduled.set(false);
+                LOGGER.fine("subscriber executor already shut down");
+            }
+        }
+
+        private void drain() {
+            do {
+                while (poll()) {
+                    Listener target = listener != null ? listener : weakListener.get();
+                    if (target == null) {
+                        /* 弱引用的订阅方已被回收，没有人再退订 */
+                        LOGGER.fine("weak subscriber collected, unsubscribing");
+                        bus.unsubscribe(this);
+                        break;
+                    }
+                    try {
+                        target.onEvent(delivery);
+                    } catch (RuntimeException e) {
+                        LOGGER.log(Level.WARNING, "event listener failed", e);
+                    }
+                    deliveredCount++;
+                }
+                drainScheduled.set(false);
+                /* 清除标记之后发布的事件可能没有调度投递，重新检查一次 */
+            } while (hasPending() && drainScheduled.compareAndSet(false, true));
+        }
+
+        private synchronized boolean poll() {
+            if (count == 0) {
+                return false;
+            }
+            delivery.copyFrom(ring[head]);
+            head = (head + 1) % ring.length;
+            count--;
+            return true;
+        }
+
+        private synchronized boolean hasPending() {
+            return count > 0;
+        }
+    }
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.fleet;
+
+import com.example.satellite.metrics.HistogramSnapshot;
+import com.example.satellite.metrics.LatencyHistogram;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 一台设备（或整个设备群）的日志统计：服务状态和信号格数分布、卫星使能结果、短信发送送达结果及失败码，
+ * 以及使能成功到有服务、启动到可发送短信的时延
+ * 解析时各分块各自累加计数，服务状态等有先后关系的事件按 [时间, 序号|类型] 成对记录，
+ * 合并后由 {@link #finish()} 按时间排序再配对计算时延；合并和完成都不是线程安全的
+ *
+ * @since 2026-10-17
+ */
+public final class DeviceLogStats {
+    /* 服务状态 -1~4 按状态加一计数，其他值计入最后一项 */
+    public static final int SERVICE_STATE_SLOTS = 7;
+    /* 信号格数 0~5 分别计数，其他值计入最后一项 */
+    public static final int SIGNAL_LEVEL_SLOTS = 7;
+    /* 失败码所在的阶段 */
+    public static final int PHASE_SENT = 0;
+    public static final int PHASE_DELIVERY = 1;
+
+    /* 时序事件类型，占序号的低两位 */
+    static final int KIND_ENABLED = 1;
+    static final int KIND_IN_SERVICE = 2;
+
+    private final String device;
+    long files;
+    long bytes;
+    long lines;
+    long skippedLines;
+    final long[] serviceStates = new long[SERVICE_STATE_SLOTS];
+    final long[] signalLevels = new long[SIGNAL_LEVEL_SLOTS];
+    long enableAttempts;
+    long enableSucceeded;
+    long enableFailed;
+    long enableRejected;
+    long serviceTimeouts;
+    long connectReady;
+    long connectFailed;
+    long messagesSent;
+    long messagesDelivered;
+    long messagesFailed;
+    /* 键为阶段左移32位或结果码，失败很少，按需创建 */
+    private Map<Long, long[]> failureCodes;
+    /* 成对保存：时间（毫秒），序号左移两位或事件类型 */
+    private final LongArray timeline = new LongArray();
+    private final LongArray readyMillis = new LongArray();
+    private final LongArray timeToServiceMillis = new LongArray();
+    private final LatencyHistogram timeToServiceHistogram = new LatencyHistogram();
+    private final LatencyHistogram readyHistogram = new LatencyHistogram();
+
+    /**
+     * Constructor
+     *
+     * @param device device the logs come from, or a name of the whole fleet
+     */
+    public DeviceLogStats(String device) {
+        this.device = device;
+    }
+
+    public String getDevice() {
+        return device;
+    }
+
+    public long getFiles() {
+        return files;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    /**
+     * Lines longer than {@link FleetLogParser#MAX_LINE_BYTES} that were skipped.
+     *
+     * @return skipped lines
+     */
+    public long getSkippedLines() {
+        return skippedLines;
+    }
+
+    /**
+     * Number of changes to a service state.
+     *
+     * @param state state defined in {@code HnSatelliteServiceState}, -1 to 4; other values share the last slot
+     * @return number of changes
+     */
+    public long getServiceStateCount(int state) {
+        return serviceStates[serviceStateSlot(state)];
+    }
+
+    /**
+     * Number of changes to a signal level.
+     *
+     * @param level signal level 0 to 5; other values share the last slot
+     * @return number of changes
+     */
+    public long getSignalLevelCount(int level) {
+        return signalLevels[signalLevelSlot(level)];
+    }
+
+    public long getEnableAttempts() {
+        return enableAttempts;
+    }
+
+    public long getEnableSucceeded() {
+        return enableSucceeded;
+    }
+
+    public long getEnableFailed() {
+        return enableFailed;
+    }
+
+    public long getEnableRejected() {
+        return enableRejected;
+    }
+
+    public long getServiceTimeouts() {
+        return serviceTimeouts;
+    }
+
+    public long getConnectReady() {
+        return connectReady;
+    }
+
+    public long getConnectFailed() {
+        return connectFailed;
+    }
+
+    public long getMessagesSent() {
+        return messagesSent;
+    }
+
+    public long getMessagesDelivered() {
+        return messagesDelivered;
+    }
+
+    public long getMessagesFailed() {
+        return messagesFailed;
+    }
+
+    /**
+     * Share of the messages with a final state that were delivered. Messages still waiting for a delivery
+     * report when the log ends are not counted.
+     *
+     * @return ratio between 0 and 1, NaN if no message reached a final state
+     */
+    public double getDeliveryRatio() {
+        long finished = messagesDelivered + messagesFailed;
+        return finished == 0 ? Double.NaN : (double) messagesDelivered / finished;
+    }
+
+    /**
+     * Failed messages by the phase and result code that failed them.
+     *
+     * @return map from (phase &lt;&lt; 32 | result code) to count, ordered by phase then code
+     */
+    public Map<Long, Long> getFailureCodes() {
+        Map<Long, Long> result = new TreeMap<>();
+        if (failureCodes != null) {
+            for (Map.Entry<Long, long[]> entry : failureCodes.entrySet()) {
+                result.put(entry.getKey(), entry.getValue()[0]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Distribution of the time from a successful enable to the next in service state, in milliseconds.
+     * Only valid after {@link #finish()}.
+     *
+     * @return histogram snapshot
+     */
+    public HistogramSnapshot getTimeToService() {
+        return timeToServiceHistogram.snapshot();
+    }
+
+    /**
+     * Distribution of the time from the launch to ready to send, in milliseconds.
+     * Only valid after {@link #finish()}.
+     *
+     * @return histogram snapshot
+     */
+    public HistogramSnapshot getReadyLatency() {
+        return readyHistogram.snapshot();
+    }
+
+    void countServiceState(int state) {
+        serviceStates[serviceStateSlot(state)]++;
+    }
+
+    void countSignalLevel(int level) {
+        signalLevels[signalLevelSlot(level)]++;
+    }
+
+    void countFailure(int phase, int resultCode) {
+        if (failureCodes == null) {
+            failureCodes = new TreeMap<>();
+        }
+        failureCodes.computeIfAbsent(((long) phase << 32) | (resultCode & 0xffffffffL), key -> new long[1])[0]++;
+    }
+
+    void addTimeline(long timeMillis, long sequence, int kind) {
+        timeline.add(timeMillis);
+        timeline.add((sequence << 2) | kind);
+    }
+
+    void addReadyMillis(long millis) {
+        readyMillis.add(millis);
+    }
+
+    /**
+     * Add the counters and events of another part of the same device's logs.
+     *
+     * @param other statistics of another chunk or file
+     */
+    void merge(DeviceLogStats other) {
+        files += other.files;
+        bytes += other.bytes;
+        lines += other.lines;
+        skippedLines += other.skippedLines;
+        for (int i = 0; i < SERVICE_STATE_SLOTS; i++) {
+            serviceStates[i] += other.serviceStates[i];
+        }
+        for (int i = 0; i < SIGNAL_LEVEL_SLOTS; i++) {
+            signalLevels[i] += other.signalLevels[i];
+        }
+        enableAttempts += other.enableAttempts;
+        enableSucceeded += other.enableSucceeded;
+        enableFailed += other.enableFailed;
+        enableRejected += other.enableRejected;
+        serviceTimeouts += other.serviceTimeouts;
+        connectReady += other.connectReady;
+        connectFailed += other.connectFailed;
+        messagesSent += other.messagesSent;
+        messagesDelivered += other.messagesDelivered;
+        messagesFailed += other.messagesFailed;
+        if (other.failureCodes != null) {
+            for (Map.Entry<Long, long[]> entry : other.failureCodes.entrySet()) {
+                if (failureCodes == null) {
+                    failureCodes = new TreeMap<>();
+                }
+                failureCodes.computeIfAbsent(entry.getKey(), key -> new long[1])[0] += entry.getValue()[0];
+            }
+        }
+        timeline.addAll(other.timeline);
+        readyMillis.addAll(other.readyMillis);
+        timeToServiceMillis.addAll(other.timeToServiceMillis);
+    }
+
+    /**
+     * Order the events of the device by time and compute the latency distributions.
+     * Called once after all parts of the device's logs are merged.
+     */
+    void finish() {
+        int count = timeline.size() / 2;
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        /* 时间相同时按文件和行的先后排序 */
+        Arrays.sort(order, (a, b) -> {
+            int byTime = Long.compare(timeline.get(2 * a), timeline.get(2 * b));
+            return byTime != 0 ? byTime : Long.compare(timeline.get(2 * a + 1), timeline.get(2 * b + 1));
+        });
+        /* 从第一次使能成功算到之后第一次有服务，期间重试使能不重新计时 */
+        long enabledAt = -1;
+        for (Integer index : order) {
+            long time = timeline.get(2 * index);
+            int kind = (int) (timeline.get(2 * index + 1) & 3);
+            if (kind == KIND_ENABLED && enabledAt < 0) {
+                enabledAt = time;
+            } else if (kind == KIND_IN_SERVICE && enabledAt >= 0) {
+                timeToServiceMillis.add(time - enabledAt);
+                enabledAt = -1;
+            }
+        }
+        recordAll();
+    }
+
+    /**
+     * Merge a finished device into fleet wide statistics.
+     *
+     * @param deviceStats finished statistics of one device
+     */
+    void mergeFinished(DeviceLogStats deviceStats) {
+        merge(deviceStats);
+        for (int i = 0; i < deviceStats.timeToServiceMillis.size(); i++) {
+            timeToServiceHistogram.record(deviceStats.timeToServiceMillis.get(i));
+        }
+        for (int i = 0; i < deviceStats.readyMillis.size(); i++) {
+            readyHistogram.record(deviceStats.readyMillis.get(i));
+        }
+    }
+
+    private void recordAll() {
+        for (int i = 0; i < timeToServiceMillis.size(); i++) {
+            timeToServiceHistogram.record(timeToServiceMillis.get(i));
+        }
+        for (int i = 0; i < readyMillis.size(); i++) {
+            readyHistogram.record(readyMillis.get(i));
+        }
+    }
+
+    private static int serviceStateSlot(int state) {
+        return state >= -1 && state < SERVICE_STATE_SLOTS - 2 ? state + 1 : SERVICE_STATE_SLOTS - 1;
+    }
+
+    private static int signalLevelSlot(int level) {
+        return level >= 0 && level < SIGNAL_LEVEL_SLOTS - 1 ? level : SIGNAL_LEVEL_SLOTS - 1;
+    }
+}
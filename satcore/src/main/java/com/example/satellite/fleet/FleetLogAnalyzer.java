@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.fleet;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 设备群日志分析，把各设备导出的日志文件切成固定大小的分块，以只读内存映射交给 fork/join 线程池并行解析，
+ * 分块结果按设备合并后计算每台设备和整个设备群的统计
+ * 设备按目录结构区分：目录参数下第一层子目录名即设备名，直接位于目录参数下的文件和文件参数以文件名第一个 '.' 之前的部分为设备名，
+ * 因此 device42/satellite.log、device42/satellite.log.1 和 device42.log 都属于 device42
+ * 分块按字节切分，每个分块解析起点落在本块内的行，并多映射 {@link FleetLogParser#MAX_LINE_BYTES} 字节以读完末尾的行
+ *
+ * @since 2026-10-17
+ */
+public final class FleetLogAnalyzer {
+    /* 默认分块大小，足够摊薄映射开销，又能让大文件分散到多个线程 */
+    public static final long DEFAULT_CHUNK_BYTES = 32L << 20;
+    /* 映射区域不能超过 int 范围 */
+    private static final long MAX_CHUNK_BYTES = 1L << 30;
+    /* 序号中文件编号之下留给文件内偏移的位数 */
+    private static final int FILE_OFFSET_BITS = 40;
+
+    /**
+     * 分析结果
+     */
+    public static final class Report {
+        private final DeviceLogStats fleet;
+        private final Map<String, DeviceLogStats> devices;
+
+        Report(DeviceLogStats fleet, Map<String, DeviceLogStats> devices) {
+            this.fleet = fleet;
+            this.devices = devices;
+        }
+
+        public DeviceLogStats getFleet() {
+            return fleet;
+        }
+
+        /**
+         * Statistics of each device.
+         *
+         * @return unmodifiable map from device to statistics, ordered by device
+         */
+        public Map<String, DeviceLogStats> getDevices() {
+            return devices;
+        }
+    }
+
+    private final int parallelism;
+    private final long chunkBytes;
+    private final int logcatYear;
+
+    /**
+     * Constructor
+     *
+     * @param parallelism number of parser threads
+     * @param chunkBytes size of the chunks the files are split into
+     * @param logcatYear year of the logcat lines, which carry no year
+     */
+    public FleetLogAnalyzer(int parallelism, long chunkBytes, int logcatYear) {
+        if (parallelism <= 0 || chunkBytes <= 0 || chunkBytes > MAX_CHUNK_BYTES) {
+            throw new IllegalArgumentException("invalid parallelism or chunk size: " + parallelism + ", "
+                    + chunkBytes);
+        }
+        this.parallelism = parallelism;
+        this.chunkBytes = chunkBytes;
+        this.logcatYear = logcatYear;
+    }
+
+    /**
+     * Parse all log files under the given files and directories.
+     *
+     * @param inputs log files, or directories holding the logs of one device per sub directory
+     * @return statistics per device and for the whole fleet
+     * @throws IOException if an input cannot be listed or read
+     */
+    public Report analyze(List<File> inputs) throws IOException {
+        List<Chunk> chunks = split(inputs);
+        Map<String, DeviceLogStats> parsed;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            parsed = chunks.isEmpty() ? new HashMap<>() : pool.invoke(new ParseTask(chunks, 0, chunks.size()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+        Map<String, DeviceLogStats> devices = new TreeMap<>(parsed);
+        DeviceLogStats fleet = new DeviceLogStats("fleet");
+        for (DeviceLogStats device : devices.values()) {
+            device.finish();
+            fleet.mergeFinished(device);
+        }
+        return new Report(fleet, Collections.unmodifiableMap(devices));
+    }
+
+    private List<Chunk> split(List<File> inputs) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        int fileIndex = 0;
+        for (File input : inputs) {
+            Path root = input.toPath();
+            List<Path> files;
+            if (Files.isDirectory(root)) {
+                try (Stream<Path> walk = Files.walk(root)) {
+                    files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                }
+            } else if (Files.isRegularFile(root)) {
+                files = Collections.singletonList(root);
+            } else {
+                throw new IOException("no such file or directory: " + input);
+            }
+            for (Path file : files) {
+                String device = deviceOf(root, file);
+                long size = Files.size(file);
+                long start = 0;
+                do {
+                    chunks.add(new Chunk(file, fileIndex, device, start, Math.min(size, start + chunkBytes), size));
+                    start += chunkBytes;
+                } while (start < size);
+                fileIndex++;
+            }
+        }
+        return chunks;
+    }
+
+    private static String deviceOf(Path root, Path file) {
+        Path relative = root.equals(file) ? file.getFileName() : root.relativize(file);
+        if (relative.getNameCount() > 1) {
+            return relative.getName(0).toString();
+        }
+        String name = relative.toString();
+        int dot = name.indexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private Map<String, DeviceLogStats> parse(Chunk chunk) throws IOException {
+        DeviceLogStats stats = new DeviceLogStats(chunk.device);
+        Map<String, DeviceLogStats> result = new HashMap<>();
+        result.put(chunk.device, stats);
+        if (chunk.start == 0) {
+            stats.files++;
+            stats.bytes += chunk.fileSize;
+        }
+        if (chunk.start >= chunk.end) {
+            return result;
+        }
+        /* 从前一个字节开始映射，以判断分块起点是否恰好是行首 */
+        long mapStart = chunk.start == 0 ? 0 : chunk.start - 1;
+        long mapEnd = Math.min(chunk.fileSize, chunk.end + FleetLogParser.MAX_LINE_BYTES);
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(chunk.file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+        }
+        int from = 0;
+        if (chunk.start > 0) {
+            /* 跨越分块起点的行属于前一个分块 */
+            while (from < buffer.limit() && buffer.get(from) != '\n') {
+                from++;
+            }
+            from++;
+        }
+        new FleetLogParser(logcatYear).parse(buffer, from, (int) (chunk.end - mapStart), mapEnd == chunk.fileSize,
+                stats, ((long) chunk.fileIndex << FILE_OFFSET_BITS) + mapStart);
+        return result;
+    }
+
+    private final class ParseTask extends RecursiveTask<Map<String, DeviceLogStats>> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<Chunk> chunks;
+        private final int from;
+        private final int to;
+
+        ParseTask(List<Chunk> chunks, int from, int to) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<String, DeviceLogStats> compute() {
+            if (to - from == 1) {
+                try {
+                    return parse(chunks.get(from));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            int middle = (from + to) >>> 1;
+            ParseTask right = new ParseTask(chunks, middle, to);
+            right.fork();
+            Map<String, DeviceLogStats> merged = new ParseTask(chunks, from, middle).compute();
+            for (Map.Entry<String, DeviceLogStats> entry : right.join().entrySet()) {
+                DeviceLogStats existing = merged.get(entry.getKey());
+                if (existing == null) {
+                    merged.put(entry.getKey(), entry.getValue());
+                } else {
+                    existing.merge(entry.getValue());
+                }
+            }
+            return merged;
+        }
+    }
+
+    private static final class Chunk {
+        private final Path file;
+        private final int fileIndex;
+        private final String device;
+        private final long start;
+        private final long end;
+        private final long fileSize;
+
+        Chunk(Path file, int fileIndex, String device, long start, long end, long fileSize) {
+            this.file = file;
+            this.fileIndex = fileIndex;
+            this.device = device;
+            this.start = start;
+            this.end = end;
+            this.fileSize = fileSize;
+        }
+    }
+}
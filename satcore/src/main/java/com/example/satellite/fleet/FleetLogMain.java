@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.fleet;
+
+import com.example.satellite.metrics.HistogramSnapshot;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 设备群日志分析的命令行入口，并行解析各设备导出的会话日志和 logcat，打印整个设备群（可选每台设备）的
+ * 服务状态和信号分布、使能结果、有服务时延、短信送达率和失败码，以及解析吞吐
+ * 用法：FleetLogMain 文件或目录... [--parallelism 线程数] [--chunk-mb MB] [--logcat-year 年份] [--per-device]
+ *
+ * @since 2026-10-17
+ */
+public final class FleetLogMain {
+    private static final int[] SERVICE_STATES = {-1, 0, 1, 2, 3, 4};
+    private static final int SIGNAL_LEVELS = 6;
+    private static final int[] PERCENTILES = {50, 90, 99};
+
+    private FleetLogMain() {
+    }
+
+    /**
+     * Command line entry.
+     *
+     * @param args command line arguments
+     * @throws Exception if a log cannot be read
+     */
+    public static void main(String[] args) throws Exception {
+        List<File> inputs = new ArrayList<>();
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        long chunkBytes = FleetLogAnalyzer.DEFAULT_CHUNK_BYTES;
+        int logcatYear = Calendar.getInstance().get(Calendar.YEAR);
+        boolean perDevice = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--parallelism":
+                    parallelism = Integer.parseInt(value(args, ++i));
+                    break;
+                case "--chunk-mb":
+                    chunkBytes = Long.parseLong(value(args, ++i)) << 20;
+                    break;
+                case "--logcat-year":
+                    logcatYear = Integer.parseInt(value(args, ++i));
+                    break;
+                case "--per-device":
+                    perDevice = true;
+                    break;
+                default:
+                    if (args[i].startsWith("--")) {
+                        throw new IllegalArgumentException("unknown option " + args[i]);
+                    }
+                    inputs.add(new File(args[i]));
+                    break;
+            }
+        }
+        if (inputs.isEmpty()) {
+            throw new IllegalArgumentException("usage: FleetLogMain <file|dir>... [--parallelism <threads>]"
+                    + " [--chunk-mb <MB>] [--logcat-year <year>] [--per-device]");
+        }
+
+        long startNanos = System.nanoTime();
+        FleetLogAnalyzer.Report report = new FleetLogAnalyzer(parallelism, chunkBytes, logcatYear).analyze(inputs);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        DeviceLogStats fleet = report.getFleet();
+        System.out.printf(Locale.ROOT, "%d files, %d devices, %d lines (%d skipped), %.1f MB in %.2fs, %.2f GB/s"
+                        + " on %d threads%n", fleet.getFiles(), report.getDevices().size(), fleet.getLines(),
+                fleet.getSkippedLines(), fleet.getBytes() / 1e6, elapsedNanos / 1e9,
+                fleet.getBytes() / (double) Math.max(1, elapsedNanos), parallelism);
+        print(fleet);
+        if (perDevice) {
+            for (DeviceLogStats device : report.getDevices().values()) {
+                System.out.println();
+                System.out.printf(Locale.ROOT, "== %s: %d files, %d lines%n", device.getDevice(), device.getFiles(),
+                        device.getLines());
+                print(device);
+            }
+        }
+    }
+
+    private static String value(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("missing value for " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    private static void print(DeviceLogStats stats) {
+        StringBuilder states = new StringBuilder("service state");
+        for (int state : SERVICE_STATES) {
+            states.append(' ').append(state).append('=').append(stats.getServiceStateCount(state));
+        }
+        states.append(" other=").append(stats.getServiceStateCount(Integer.MAX_VALUE));
+        System.out.println(states);
+        StringBuilder levels = new StringBuilder("signal level");
+        for (int level = 0; level < SIGNAL_LEVELS; level++) {
+            levels.append(' ').append(level).append('=').append(stats.getSignalLevelCount(level));
+        }
+        levels.append(" other=").append(stats.getSignalLevelCount(Integer.MAX_VALUE));
+        System.out.println(levels);
+        System.out.printf(Locale.ROOT, "enable: %d attempts, %d succeeded, %d failed, %d rejected,"
+                        + " %d without service in time%n", stats.getEnableAttempts(), stats.getEnableSucceeded(),
+                stats.getEnableFailed(), stats.getEnableRejected(), stats.getServiceTimeouts());
+        System.out.printf(Locale.ROOT, "connect: %d ready, %d failed%n", stats.getConnectReady(),
+                stats.getConnectFailed());
+        printLatency("enabled to in service", stats.getTimeToService());
+        printLatency("launch to ready", stats.getReadyLatency());
+        System.out.printf(Locale.ROOT, "messages: %d sent, %d delivered, %d failed, delivery ratio %.1f%%%n",
+                stats.getMessagesSent(), stats.getMessagesDelivered(), stats.getMessagesFailed(),
+                stats.getDeliveryRatio() * 100);
+        for (Map.Entry<Long, Long> entry : stats.getFailureCodes().entrySet()) {
+            long key = entry.getKey();
+            int code = (int) key;
+            System.out.printf(Locale.ROOT, "  %s resultCode %s: %d%n",
+                    (key >>> 32) == DeviceLogStats.PHASE_SENT ? "sent" : "delivery",
+                    code == Integer.MIN_VALUE ? "none" : String.valueOf(code), entry.getValue());
+        }
+    }
+
+    private static void printLatency(String name, HistogramSnapshot snapshot) {
+        if (snapshot.getCount() == 0) {
+            System.out.printf(Locale.ROOT, "%s: no samples%n", name);
+            return;
+        }
+        StringBuilder line = new StringBuilder(name).append(": n=").append(snapshot.getCount());
+        for (int percentile : PERCENTILES) {
+            line.append(" p").append(percentile).append('=').append(snapshot.getValueAtPercentile(percentile))
+                    .append("ms");
+        }
+        line.append(" max=").append(snapshot.getMax()).append("ms");
+        System.out.println(line);
+    }
+}
@@ -0,0 +1,478 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.fleet;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 设备日志的逐行解析器，直接在（内存映射的）字节缓冲区上按 ASCII 字节比较，不为每行创建字符串
+ * 支持两种行格式：会话日志文件 satellite.log 的 "yyyy-MM-dd HH:mm:ss.SSS 内容"，
+ * 以及 logcat threadtime 格式的 "MM-dd HH:mm:ss.SSS pid tid 级别 标签: 内容"，logcat 不带年份，按构造时给定的年份计算
+ * 识别的内容：事件总线的 "#序号 service state 状态" 和 "#序号 signal level 格数"，
+ * 连接编排的状态切换 "状态: 原因"（logcat 中为 ConnectionOrchestrator 标签下的 "旧状态 -> 新状态: 原因"），
+ * "ready to send after N ms"，以及短信状态 "message 编号 状态, sent resultCode: 码, delivery resultCode: 码"；
+ * logcat 中另外识别 SatComKitDemo 标签下的 "service state 状态"、"signal level 格数"，
+ * SatelliteSession 标签下的短信状态，以及 SatComKitDemo（早期版本）和 MainActivity 标签下使能结果 "result: true/false"，
+ * 早期版本去使能的结果格式相同，也按使能计数；其他行只计入行数
+ * 时间只用于计算时延，不区分时区；超过 {@link #MAX_LINE_BYTES} 的行跳过
+ * 不是线程安全的，每个解析任务使用一个实例
+ *
+ * @since 2026-10-17
+ */
+public final class FleetLogParser {
+    /* 最长的行，分块时多映射这么多字节以读完跨越分块末尾的行 */
+    public static final int MAX_LINE_BYTES = 16 * 1024;
+
+    private static final int RESULT_OK = -1;
+    private static final int SPILL_TIME_BYTES = 24;
+    private static final int LOGCAT_TIME_BYTES = 18;
+    private static final long MILLIS_PER_DAY = 24L * 3600 * 1000;
+    private static final long LOW_7_BITS = 0x7f7f7f7f7f7f7f7fL;
+    private static final long NEWLINES = 0x0a0a0a0a0a0a0a0aL;
+
+    private static final byte[] SERVICE_STATE = ascii(" service state ");
+    private static final byte[] SIGNAL_LEVEL = ascii(" signal level ");
+    private static final byte[] MESSAGE = ascii("message ");
+    private static final byte[] SENT_RESULT = ascii(", sent resultCode: ");
+    private static final byte[] DELIVERY_RESULT = ascii(", delivery resultCode: ");
+    private static final byte[] READY_AFTER = ascii("ready to send after ");
+    private static final byte[] ARROW = ascii(" -> ");
+    private static final byte[] COLON = ascii(": ");
+    private static final byte[] ORCHESTRATOR_TAG = ascii("ConnectionOrchestrator");
+    private static final byte[] DEMO_TAG = ascii("SatComKitDemo");
+    private static final byte[] ACTIVITY_TAG = ascii("MainActivity");
+    private static final byte[] SESSION_TAG = ascii("SatelliteSession");
+    private static final byte[] LOGCAT_SERVICE_STATE = ascii("service state ");
+    private static final byte[] LOGCAT_SIGNAL_LEVEL = ascii("signal level ");
+    private static final byte[] RESULT_TRUE = ascii("result: true");
+    private static final byte[] RESULT_FALSE = ascii("result: false");
+    private static final byte[] ENABLING = ascii("ENABLING");
+    private static final byte[] WAITING_FOR_SERVICE = ascii("WAITING_FOR_SERVICE");
+    private static final byte[] BACKING_OFF = ascii("BACKING_OFF");
+    private static final byte[] READY = ascii("READY");
+    private static final byte[] FAILED = ascii("FAILED");
+    private static final byte[] SENT = ascii("SENT");
+    private static final byte[] DELIVERED = ascii("DELIVERED");
+    private static final byte[] ENABLE_FAILED = ascii("enable failed");
+    private static final byte[] ENABLE_REJECTED = ascii("enable rejected");
+    private static final byte[] NO_SERVICE = ascii("no service within");
+
+    /* logcat 中识别的标签 */
+    private static final int TAG_OTHER = 0;
+    private static final int TAG_ORCHESTRATOR = 1;
+    private static final int TAG_DEMO = 2;
+    private static final int TAG_ACTIVITY = 3;
+    private static final int TAG_SESSION = 4;
+
+    private final int logcatYear;
+    private ByteBuffer buffer;
+    private DeviceLogStats stats;
+    /* 最近一次解析的数字 */
+    private long number;
+    /* 最近一次解析的 logcat 行的标签 */
+    private int logcatTag;
+
+    /**
+     * Constructor
+     *
+     * @param logcatYear year of the logcat lines, which carry no year
+     */
+    public FleetLogParser(int logcatYear) {
+        this.logcatYear = logcatYear;
+    }
+
+    /**
+     * Parse the lines starting in [from, to) of a buffer. A line may extend past {@code to} up to the limit of
+     * the buffer; a line without a line feed before the limit is parsed only at the end of the input.
+     *
+     * @param buffer bytes of the log, read with absolute gets only
+     * @param from index of the first line start
+     * @param to index after which no line starts in this part
+     * @param endOfInput whether the limit of the buffer is the end of the file
+     * @param stats statistics of the device the log comes from
+     * @param sequenceBase sequence of the buffer's first byte, ordering events logged at the same millisecond
+     */
+    public void parse(ByteBuffer buffer, int from, int to, boolean endOfInput, DeviceLogStats stats,
+                      long sequenceBase) {
+        this.buffer = buffer;
+        this.stats = stats;
+        int limit = buffer.limit();
+        int start = from;
+        while (start < to) {
+            int window = Math.min(limit, start + MAX_LINE_BYTES);
+            int end = indexOfNewline(start, window);
+            if (end >= 0 || (window == limit && endOfInput)) {
+                int lineEnd = end >= 0 ? end : limit;
+                parseLine(start, lineEnd > start && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd,
+                        sequenceBase + start);
+                start = lineEnd + 1;
+                continue;
+            }
+            /* 超长的行跳到下一个换行之后 */
+            stats.skippedLines++;
+            end = indexOfNewline(window, limit);
+            if (end < 0) {
+                break;
+            }
+            start = end + 1;
+        }
+        this.buffer = null;
+        this.stats = null;
+    }
+
+    private void parseLine(int start, int end, long sequence) {
+        stats.lines++;
+        long timeMillis = -1;
+        int text = start;
+        boolean logcat = false;
+        if (isSpillTime(start, end)) {
+            timeMillis = epochMillis(digits(start, 4), digits(start + 5, 2), digits(start + 8, 2), start + 11);
+            text = start + SPILL_TIME_BYTES;
+        } else if (isLogcatTime(start, end)) {
+            timeMillis = epochMillis(logcatYear, digits(start, 2), digits(start + 3, 2), start + 6);
+            text = logcatMessage(start + LOGCAT_TIME_BYTES, end);
+            if (text < 0) {
+                return;
+            }
+            logcat = true;
+        }
+        if (text >= end) {
+            return;
+        }
+        if (logcat) {
+            parseLogcat(text, end, timeMillis, sequence);
+        } else if (buffer.get(text) == '#') {
+            parseEvent(text + 1, end, timeMillis, sequence);
+        } else if (startsWith(text, end, MESSAGE)) {
+            parseMessage(text + MESSAGE.length, end);
+        } else if (startsWith(text, end, READY_AFTER)) {
+            int after = parseNumber(text + READY_AFTER.length, end);
+            if (after > 0 && number >= 0) {
+                stats.addReadyMillis(number);
+            }
+        } else {
+            parseTransition(text, end, timeMillis, sequence, false);
+        }
+    }
+
+    private void parseLogcat(int start, int end, long timeMillis, long sequence) {
+        switch (logcatTag) {
+            case TAG_ORCHESTRATOR:
+                parseTransition(start, end, timeMillis, sequence, true);
+                break;
+            case TAG_DEMO:
+                if (startsWith(start, end, LOGCAT_SERVICE_STATE)) {
+                    parseServiceState(start + LOGCAT_SERVICE_STATE.length, end, timeMillis, sequence);
+                } else if (startsWith(start, end, LOGCAT_SIGNAL_LEVEL)) {
+                    parseSignalLevel(start + LOGCAT_SIGNAL_LEVEL.length, end);
+                } else {
+                    parseEnableResult(start, end, timeMillis, sequence);
+                }
+                break;
+            case TAG_ACTIVITY:
+                parseEnableResult(start, end, timeMillis, sequence);
+                break;
+            case TAG_SESSION:
+                if (startsWith(start, end, MESSAGE)) {
+                    parseMessage(start + MESSAGE.length, end);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void parseEvent(int start, int end, long timeMillis, long sequence) {
+        int pos = parseNumber(start, end);
+        if (pos < 0) {
+            return;
+        }
+        if (startsWith(pos, end, SERVICE_STATE)) {
+            parseServiceState(pos + SERVICE_STATE.length, end, timeMillis, sequence);
+        } else if (startsWith(pos, end, SIGNAL_LEVEL)) {
+            parseSignalLevel(pos + SIGNAL_LEVEL.length, end);
+        }
+    }
+
+    private void parseServiceState(int start, int end, long timeMillis, long sequence) {
+        if (parseNumber(start, end) != end) {
+            return;
+        }
+        int state = (int) number;
+        stats.countServiceState(state);
+        if (state == 0 && timeMillis >= 0) {
+            stats.addTimeline(timeMillis, sequence, DeviceLogStats.KIND_IN_SERVICE);
+        }
+    }
+
+    private void parseSignalLevel(int start, int end) {
+        if (parseNumber(start, end) == end) {
+            stats.countSignalLevel((int) number);
+        }
+    }
+
+    /* 手动使能的结果，成功时与编排进入 WAITING_FOR_SERVICE 一样作为使能完成的时刻 */
+    private void parseEnableResult(int start, int end, long timeMillis, long sequence) {
+        if (equalsRange(start, end, RESULT_TRUE)) {
+            stats.enableAttempts++;
+            stats.enableSucceeded++;
+            if (timeMillis >= 0) {
+                stats.addTimeline(timeMillis, sequence, DeviceLogStats.KIND_ENABLED);
+            }
+        } else if (equalsRange(start, end, RESULT_FALSE)) {
+            stats.enableAttempts++;
+            stats.enableRejected++;
+        }
+    }
+
+    private void parseMessage(int start, int end) {
+        /* 跳过短信编号，取状态 */
+        int stateStart = indexOf((byte) ' ', start, end) + 1;
+        if (stateStart <= 0) {
+            return;
+        }
+        int stateEnd = indexOf((byte) ',', stateStart, end);
+        if (stateEnd < 0 || !startsWith(stateEnd, end, SENT_RESULT)) {
+            return;
+        }
+        if (equalsRange(stateStart, stateEnd, SENT)) {
+            stats.messagesSent++;
+        } else if (equalsRange(stateStart, stateEnd, DELIVERED)) {
+            stats.messagesDelivered++;
+        } else if (equalsRange(stateStart, stateEnd, FAILED)) {
+            int pos = parseNumber(stateEnd + SENT_RESULT.length, end);
+            if (pos < 0) {
+                return;
+            }
+            int sentCode = (int) number;
+            if (!startsWith(pos, end, DELIVERY_RESULT) || parseNumber(pos + DELIVERY_RESULT.length, end) != end) {
+                return;
+            }
+            stats.messagesFailed++;
+            /* 发送成功后才失败的是送达失败 */
+            if (sentCode == RESULT_OK) {
+                stats.countFailure(DeviceLogStats.PHASE_DELIVERY, (int) number);
+            } else {
+                stats.countFailure(DeviceLogStats.PHASE_SENT, sentCode);
+            }
+        }
+    }
+
+    private void parseTransition(int start, int end, long timeMillis, long sequence, boolean logcat) {
+        int stateStart = start;
+        int stateEnd = stateWordEnd(start, end);
+        if (logcat) {
+            if (!startsWith(stateEnd, end, ARROW)) {
+                return;
+            }
+            stateStart = stateEnd + ARROW.length;
+            stateEnd = stateWordEnd(stateStart, end);
+        }
+        if (stateEnd == stateStart || !startsWith(stateEnd, end, COLON)) {
+            return;
+        }
+        int detail = stateEnd + COLON.length;
+        if (equalsRange(stateStart, stateEnd, ENABLING)) {
+            stats.enableAttempts++;
+        } else if (equalsRange(stateStart, stateEnd, WAITING_FOR_SERVICE)) {
+            stats.enableSucceeded++;
+            if (timeMillis >= 0) {
+                stats.addTimeline(timeMillis, sequence, DeviceLogStats.KIND_ENABLED);
+            }
+        } else if (equalsRange(stateStart, stateEnd, BACKING_OFF)) {
+            countEnableFailure(detail, end);
+        } else if (equalsRange(stateStart, stateEnd, FAILED)) {
+            countEnableFailure(detail, end);
+            stats.connectFailed++;
+        } else if (equalsRange(stateStart, stateEnd, READY)) {
+            stats.connectReady++;
+        }
+    }
+
+    private void countEnableFailure(int detail, int end) {
+        if (startsWith(detail, end, ENABLE_FAILED)) {
+            stats.enableFailed++;
+        } else if (startsWith(detail, end, ENABLE_REJECTED)) {
+            stats.enableRejected++;
+        } else if (startsWith(detail, end, NO_SERVICE)) {
+            stats.serviceTimeouts++;
+        }
+    }
+
+    /* 返回 logcat 标签之后的内容起点并记下标签，不是识别的标签时返回-1 */
+    private int logcatMessage(int start, int end) {
+        /* pid、tid、级别三个字段，字段之间可能有多个空格 */
+        int pos = start;
+        for (int field = 0; field < 3; field++) {
+            pos = skipSpaces(pos, end);
+            while (pos < end && buffer.get(pos) != ' ') {
+                pos++;
+            }
+        }
+        pos = skipSpaces(pos, end);
+        int tagEnd = pos;
+        while (tagEnd < end && buffer.get(tagEnd) != ' ' && buffer.get(tagEnd) != ':') {
+            tagEnd++;
+        }
+        logcatTag = logcatTag(pos, tagEnd);
+        if (logcatTag == TAG_OTHER) {
+            return -1;
+        }
+        pos = skipSpaces(tagEnd, end);
+        return startsWith(pos, end, COLON) ? pos + COLON.length : -1;
+    }
+
+    private int logcatTag(int start, int end) {
+        if (equalsRange(start, end, ORCHESTRATOR_TAG)) {
+            return TAG_ORCHESTRATOR;
+        }
+        if (equalsRange(start, end, DEMO_TAG)) {
+            return TAG_DEMO;
+        }
+        if (equalsRange(start, end, ACTIVITY_TAG)) {
+            return TAG_ACTIVITY;
+        }
+        return equalsRange(start, end, SESSION_TAG) ? TAG_SESSION : TAG_OTHER;
+    }
+
+    private boolean isSpillTime(int start, int end) {
+        return end - start > SPILL_TIME_BYTES && isDigits(start, 4) && buffer.get(start + 4) == '-'
+                && isDigits(start + 5, 2) && buffer.get(start + 7) == '-' && isDigits(start + 8, 2)
+                && buffer.get(start + 10) == ' ' && isClock(start + 11) && buffer.get(start + 23) == ' ';
+    }
+
+    private boolean isLogcatTime(int start, int end) {
+        return end - start > LOGCAT_TIME_BYTES && isDigits(start, 2) && buffer.get(start + 2) == '-'
+                && isDigits(start + 3, 2) && buffer.get(start + 5) == ' ' && isClock(start + 6)
+                && buffer.get(start + 18) == ' ';
+    }
+
+    /* HH:mm:ss.SSS */
+    private boolean isClock(int pos) {
+        return isDigits(pos, 2) && buffer.get(pos + 2) == ':' && isDigits(pos + 3, 2) && buffer.get(pos + 5) == ':'
+                && isDigits(pos + 6, 2) && buffer.get(pos + 8) == '.' && isDigits(pos + 9, 3);
+    }
+
+    private long epochMillis(int year, int month, int day, int clock) {
+        long millis = daysFromCivil(year, month, day) * MILLIS_PER_DAY;
+        millis += digits(clock, 2) * 3600_000L + digits(clock + 3, 2) * 60_000L + digits(clock + 6, 2) * 1000L;
+        return millis + digits(clock + 9, 3);
+    }
+
+    /* 公历日期到 1970-01-01 的天数 */
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    private boolean isDigits(int pos, int count) {
+        for (int i = pos; i < pos + count; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int digits(int pos, int count) {
+        int value = 0;
+        for (int i = pos; i < pos + count; i++) {
+            value = value * 10 + buffer.get(i) - '0';
+        }
+        return value;
+    }
+
+    /* 解析带符号的十进制数到 number，返回数字之后的位置，没有数字时返回-1 */
+    private int parseNumber(int start, int end) {
+        int pos = start;
+        boolean negative = pos < end && buffer.get(pos) == '-';
+        if (negative) {
+            pos++;
+        }
+        int digitsStart = pos;
+        long value = 0;
+        while (pos < end && pos - digitsStart < 18) {
+            byte b = buffer.get(pos);
+            if (b < '0' || b > '9') {
+                break;
+            }
+            value = value * 10 + b - '0';
+            pos++;
+        }
+        if (pos == digitsStart) {
+            return -1;
+        }
+        number = negative ? -value : value;
+        return pos;
+    }
+
+    private int stateWordEnd(int start, int end) {
+        int pos = start;
+        while (pos < end) {
+            byte b = buffer.get(pos);
+            if ((b < 'A' || b > 'Z') && b != '_') {
+                break;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    private int skipSpaces(int start, int end) {
+        int pos = start;
+        while (pos < end && buffer.get(pos) == ' ') {
+            pos++;
+        }
+        return pos;
+    }
+
+    /* 每次读取8个字节，按位运算找出其中的换行符，缓冲区为默认的大端字节序，第一个字节在最高位 */
+    private int indexOfNewline(int start, int end) {
+        int pos = start;
+        for (; pos + Long.BYTES <= end; pos += Long.BYTES) {
+            long word = buffer.getLong(pos) ^ NEWLINES;
+            long found = ~(((word & LOW_7_BITS) + LOW_7_BITS) | word | LOW_7_BITS);
+            if (found != 0) {
+                return pos + (Long.numberOfLeadingZeros(found) >>> 3);
+            }
+        }
+        return indexOf((byte) '\n', pos, end);
+    }
+
+    private int indexOf(byte target, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean startsWith(int pos, int end, byte[] literal) {
+        if (end - pos < literal.length) {
+            return false;
+        }
+        for (int i = 0; i < literal.length; i++) {
+            if (buffer.get(pos + i) != literal[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean equalsRange(int start, int end, byte[] literal) {
+        return end - start == literal.length && startsWith(start, end, literal);
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
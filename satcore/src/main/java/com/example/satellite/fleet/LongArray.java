@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.fleet;
+
+import java.util.Arrays;
+
+/**
+ * 按需扩容的 long 数组，保存解析出的少量时序事件和时延，避免装箱
+ *
+ * @since 2026-10-17
+ */
+final class LongArray {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] values = new long[0];
+    private int size;
+
+    void add(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(INITIAL_CAPACITY, size * 2));
+        }
+        values[size++] = value;
+    }
+
+    void addAll(LongArray other) {
+        if (size + other.size > values.length) {
+            values = Arrays.copyOf(values, Math.max(INITIAL_CAPACITY, size + other.size));
+        }
+        System.arraycopy(other.values, 0, values, size, other.size);
+        size += other.size;
+    }
+
+    long get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+}
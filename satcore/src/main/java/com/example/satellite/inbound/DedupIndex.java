@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.inbound;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 收件去重索引，只保存最近若干条短信及分段的64位哈希，不保存短信内容
+ * 哈希表为线性探测的开放寻址 long 数组，容量为保存条数的两倍以上；另有一个环形数组记录插入顺序，
+ * 满后按先进先出淘汰最早的哈希，删除时后移探测链上的元素，不留墓碑，查询和插入均为常数时间且不分配对象
+ * 容量为 4096 时共占用约 100KB，卫星网络重传的短信通常在几分钟内到达，远在淘汰之前
+ * 非线程安全，由调用方在单一线程上使用
+ *
+ * @since 2026-10-17
+ */
+public final class DedupIndex {
+    /* 0 表示空槽，哈希恰好为0时改用该值 */
+    private static final long EMPTY = 0L;
+    private static final long ZERO_REPLACEMENT = 1L;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final long[] table;
+    private final int mask;
+    private final long[] ring;
+    private int ringHead;
+    private int size;
+
+    /**
+     * Constructor
+     *
+     * @param capacity number of most recent keys remembered, positive
+     */
+    public DedupIndex(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 28)) {
+            throw new IllegalArgumentException("invalid capacity: " + capacity);
+        }
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        this.table = new long[tableSize];
+        this.mask = tableSize - 1;
+        this.ring = new long[capacity];
+    }
+
+    /**
+     * Hash identifying a message, equal for every retransmission of it.
+     *
+     * @param originatingAddress sender of the message
+     * @param timestampMillis service center timestamp of the message
+     * @param body full text of the message
+     * @return 64 bit key of the message
+     */
+    public static long keyOf(String originatingAddress, long timestampMillis, String body) {
+        long hash = FNV_OFFSET;
+        hash = mix(hash, originatingAddress == null ? new byte[0]
+                : originatingAddress.getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash ^ ((timestampMillis >>> (i * 8)) & 0xff)) * FNV_PRIME;
+        }
+        hash = mix(hash, body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8));
+        /* FNV 的低位分布较差，再做一次终结混淆，线性探测只使用低位 */
+        return finish(hash);
+    }
+
+    /**
+     * Hash identifying one part of a multipart message, equal for every retransmission of that part.
+     * A single part message has the same key as the whole message.
+     *
+     * @param originatingAddress sender of the message
+     * @param timestampMillis service center timestamp of the part
+     * @param body text of the part
+     * @param reference concatenation reference number
+     * @param partIndex 1 based index of the part
+     * @param partCount number of parts of the message
+     * @return 64 bit key of the part
+     */
+    public static long keyOfPart(String originatingAddress, long timestampMillis, String body, int reference,
+                                 int partIndex, int partCount) {
+        long key = keyOf(originatingAddress, timestampMillis, body);
+        if (partCount <= 1) {
+            return key;
+        }
+        long position = ((long) reference << 32) | ((long) (partIndex & 0xffff) << 16) | (partCount & 0xffff);
+        return finish(key ^ position * 0x9e3779b97f4a7c15L);
+    }
+
+    /**
+     * Remember a key, evicting the oldest one when full.
+     *
+     * @param key message key
+     * @return true if the key was not remembered yet, false for a duplicate
+     */
+    public boolean add(long key) {
+        long stored = key == EMPTY ? ZERO_REPLACEMENT : key;
+        if (indexOf(stored) >= 0) {
+            return false;
+        }
+        if (size == ring.length) {
+            remove(ring[ringHead]);
+        } else {
+            size++;
+        }
+        ring[ringHead] = stored;
+        ringHead = (ringHead + 1) % ring.length;
+        int slot = slotOf(stored);
+        while (table[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = stored;
+        return true;
+    }
+
+    /**
+     * Whether a key is remembered.
+     *
+     * @param key message key
+     * @return true if the key was added and not evicted yet
+     */
+    public boolean contains(long key) {
+        return indexOf(key == EMPTY ? ZERO_REPLACEMENT : key) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int indexOf(long stored) {
+        int slot = slotOf(stored);
+        while (table[slot] != EMPTY) {
+            if (table[slot] == stored) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void remove(long stored) {
+        int hole = indexOf(stored);
+        if (hole < 0) {
+            return;
+        }
+        table[hole] = EMPTY;
+        /* 后移删除：探测链上理想位置不在 (hole, next] 之间的元素前移填补空槽 */
+        int next = (hole + 1) & mask;
+        while (table[next] != EMPTY) {
+            int ideal = slotOf(table[next]);
+            boolean movable = hole <= next ? ideal <= hole || ideal > next : ideal <= hole && ideal > next;
+            if (movable) {
+                table[hole] = table[next];
+                table[next] = EMPTY;
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private int slotOf(long stored) {
+        return (int) stored & mask;
+    }
+
+    private static long finish(long hash) {
+        /* murmur3 的64位终结函数 */
+        long result = hash ^ (hash >>> 33);
+        result *= 0xff51afd7ed558ccdL;
+        result ^= result >>> 33;
+        result *= 0xc4ceb9fe1a85ec53L;
+        return result ^ (result >>> 33);
+    }
+
+    private static long mix(long hash, byte[] bytes) {
+        long result = hash;
+        for (byte value : bytes) {
+            result = (result ^ (value & 0xff)) * FNV_PRIME;
+        }
+        /* 长度参与哈希，避免地址和正文的拼接边界不同却得到相同哈希 */
+        return (result ^ bytes.length) * FNV_PRIME;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.inbound;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.zip.CRC32;
+
+/**
+ * 收件箱日志文件，只追加写入，按批提交
+ * 文件头为魔数和版本号，其后为连续的记录：
+ * [int 记录体长度][记录体：long 短信中心时间戳, long 接收时间, 发送方地址, 正文][int 记录体CRC32]，
+ * 字符串为 int 字节数加 UTF-8 内容
+ * 一批短信编码到同一个缓冲区，一次写入、一次刷盘，突发收到大量短信时写入次数与批数而非短信数成正比；
+ * 重放时长度越界或校验失败的位置即为有效内容的末尾，其后的残缺记录被截断
+ *
+ * @since 2026-10-17
+ */
+public final class InboundJournal implements Closeable {
+    private static final int MAGIC = 0x5341494e;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    /* 单条记录体的上限，超过即视为损坏 */
+    private static final int MAX_RECORD_BYTES = 64 * 1024;
+    private static final int INITIAL_BUFFER_BYTES = 8 * 1024;
+
+    private final File file;
+    private final CRC32 crc = new CRC32();
+    private RandomAccessFile randomAccessFile;
+    private FileChannel channel;
+    private ByteBuffer batchBuffer = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+    private int recordCount;
+
+    private InboundJournal(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Open a journal, replaying the most recent messages into the given deque.
+     *
+     * @param file journal file, created if missing
+     * @param recent receives the replayed messages in journal order, oldest first
+     * @param maxRecent number of most recent messages kept in the deque
+     * @return opened journal positioned after the last valid record
+     * @throws IOException if the file cannot be opened
+     */
+    public static InboundJournal open(File file, Deque<InboundMessage> recent, int maxRecent) throws IOException {
+        InboundJournal journal = new InboundJournal(file);
+        journal.openChannel();
+        journal.replay(recent, maxRecent);
+        return journal;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Append a batch of messages with a single write, then force it to the storage device.
+     *
+     * @param batch messages to persist
+     * @throws IOException if the batch cannot be written
+     */
+    public void append(Collection<InboundMessage> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchBuffer.clear();
+        for (InboundMessage message : batch) {
+            encode(message);
+        }
+        batchBuffer.flip();
+        long position = channel.size();
+        while (batchBuffer.hasRemaining()) {
+            position += channel.write(batchBuffer, position);
+        }
+        channel.force(false);
+        recordCount += batch.size();
+    }
+
+    /**
+     * Rewrite the journal so that it only holds the given messages.
+     *
+     * @param retained messages to keep, oldest first
+     * @throws IOException if the new journal cannot be written
+     */
+    public void compact(Collection<InboundMessage> retained) throws IOException {
+        File tmpFile = new File(file.getPath() + ".tmp");
+        if (tmpFile.exists() && !tmpFile.delete()) {
+            throw new IOException("cannot delete " + tmpFile);
+        }
+        InboundJournal compacted = new InboundJournal(tmpFile);
+        compacted.openChannel();
+        compacted.writeHeader();
+        compacted.append(retained);
+        compacted.close();
+        close();
+        boolean renamed = tmpFile.renameTo(file);
+        /* 替换失败时原文件保持不变，同样重新打开后继续使用 */
+        openChannel();
+        replay(null, 0);
+        if (!renamed) {
+            throw new IOException("cannot replace " + file);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        channel.close();
+        randomAccessFile.close();
+        channel = null;
+    }
+
+    private void openChannel() throws IOException {
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        channel = randomAccessFile.getChannel();
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION);
+        header.flip();
+        channel.truncate(0);
+        channel.write(header, 0);
+    }
+
+    private void replay(Deque<InboundMessage> recent, int maxRecent) throws IOException {
+        recordCount = 0;
+        long size = channel.size();
+        if (size < HEADER_BYTES) {
+            writeHeader();
+            return;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("journal too large: " + size);
+        }
+        ByteBuffer content = ByteBuffer.allocate((int) size);
+        while (content.hasRemaining() && channel.read(content, content.position()) >= 0) {
+            /* 读满整个文件 */
+        }
+        content.flip();
+        if (content.getInt() != MAGIC || content.getInt() != VERSION) {
+            throw new IOException("not an inbox journal: " + file);
+        }
+        Deque<InboundMessage> replayed = recent == null ? null : new ArrayDeque<>();
+        int validEnd = content.position();
+        while (content.remaining() >= 4) {
+            int bodyBytes = content.getInt();
+            if (bodyBytes <= 0 || bodyBytes > MAX_RECORD_BYTES || content.remaining() < bodyBytes + 4) {
+                break;
+            }
+            crc.reset();
+            crc.update(content.array(), content.position(), bodyBytes);
+            int bodyStart = content.position();
+            content.position(bodyStart + bodyBytes);
+            if (content.getInt() != (int) crc.getValue()) {
+                break;
+            }
+            if (replayed != null) {
+                content.position(bodyStart);
+                replayed.addLast(decode(content));
+                if (replayed.size() > maxRecent) {
+                    replayed.removeFirst();
+                }
+                content.position(bodyStart + bodyBytes + 4);
+            }
+            recordCount++;
+            validEnd = content.position();
+        }
+        if (validEnd < size) {
+            /* 丢弃写入中途被打断的残缺记录，之后的追加从有效末尾开始 */
+            channel.truncate(validEnd);
+        }
+        if (replayed != null) {
+            recent.addAll(replayed);
+        }
+    }
+
+    private void encode(InboundMessage message) {
+        byte[] address = message.getOriginatingAddress().getBytes(StandardCharsets.UTF_8);
+        byte[] body = message.getBody().getBytes(StandardCharsets.UTF_8);
+        int bodyBytes = 8 + 8 + 4 + address.length + 4 + body.length;
+        ensureCapacity(4 + bodyBytes + 4);
+        batchBuffer.putInt(bodyBytes);
+        int start = batchBuffer.position();
+        batchBuffer.putLong(message.getTimestampMillis()).putLong(message.getReceivedAtMillis())
+                .putInt(address.length).put(address).putInt(body.length).put(body);
+        crc.reset();
+        crc.update(batchBuffer.array(), start, bodyBytes);
+        batchBuffer.putInt((int) crc.getValue());
+    }
+
+    private static InboundMessage decode(ByteBuffer content) {
+        long timestampMillis = content.getLong();
+        long receivedAtMillis = content.getLong();
+        byte[] address = new byte[content.getInt()];
+        content.get(address);
+        byte[] body = new byte[content.getInt()];
+        content.get(body);
+        return new InboundMessage(new String(address, StandardCharsets.UTF_8),
+                new String(body, StandardCharsets.UTF_8), timestampMillis, receivedAtMillis);
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (batchBuffer.remaining() >= bytes) {
+            return;
+        }
+        int capacity = batchBuffer.capacity();
+        while (capacity - batchBuffer.position() < bytes) {
+            capacity *= 2;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(capacity);
+        batchBuffer.flip();
+        grown.put(batchBuffer);
+        batchBuffer = grown;
+    }
+}
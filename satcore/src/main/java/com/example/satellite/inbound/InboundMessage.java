@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.inbound;
+
+/**
+ * 收到的一条完整卫星短信，多段短信已按顺序拼接
+ *
+ * @since 2026-10-17
+ */
+public final class InboundMessage {
+    private final String originatingAddress;
+    private final String body;
+    private final long timestampMillis;
+    private final long receivedAtMillis;
+
+    /**
+     * Constructor
+     *
+     * @param originatingAddress sender of the message
+     * @param body full text of the message
+     * @param timestampMillis service center timestamp, equal for every retransmission
+     * @param receivedAtMillis wall clock time the message was completed on this device
+     */
+    public InboundMessage(String originatingAddress, String body, long timestampMillis, long receivedAtMillis) {
+        this.originatingAddress = originatingAddress == null ? "" : originatingAddress;
+        this.body = body == null ? "" : body;
+        this.timestampMillis = timestampMillis;
+        this.receivedAtMillis = receivedAtMillis;
+    }
+
+    public String getOriginatingAddress() {
+        return originatingAddress;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public long getReceivedAtMillis() {
+        return receivedAtMillis;
+    }
+
+    /**
+     * Key of this message in the {@link DedupIndex}.
+     *
+     * @return 64 bit key, equal for retransmissions of the same message
+     */
+    public long getDedupKey() {
+        return DedupIndex.keyOf(originatingAddress, timestampMillis, body);
+    }
+
+    @Override
+    public String toString() {
+        return originatingAddress + ": " + body;
+    }
+}
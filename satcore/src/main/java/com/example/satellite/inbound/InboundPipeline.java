@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.inbound;
+
+import com.example.satellite.backend.SatelliteBackend;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 卫星短信收件流水线：分段重组、去重、批量持久化，然后按批通知监听者
+ * 后端回调线程只把分段放入无锁队列，由收件线程一次取空队列处理，恢复服务后积压短信集中到达时，
+ * 一次处理即可完成一整批，不会为每个分段单独提交任务或单独写盘；
+ * 卫星网络重传造成的重复分段由 {@link MultipartReassembler} 在重组时过滤，重组完成的短信再由 {@link DedupIndex} 去重；
+ * 索引只记录完整收到的短信，因超时或分组数超限被丢弃的长短信，其分段重传后仍能重组；
+ * 启动时用日志中最近的短信预热索引，进程重启后收到的整条重传同样被过滤；
+ * 新短信攒到批大小或最早一条等待超过批时延后由 {@link InboundJournal} 一次写入，写入后才通知监听者
+ *
+ * @since 2026-10-17
+ */
+public class InboundPipeline implements SatelliteBackend.InboundSmsCallback {
+    /**
+     * 新短信监听，在收件线程上调用
+     */
+    public interface Listener {
+        /**
+         * Called after a batch of new messages has been persisted.
+         *
+         * @param messages new messages in arrival order, never empty
+         */
+        void onMessagesReceived(List<InboundMessage> messages);
+    }
+
+    private static final Logger LOGGER = Logger.getLogger("SatInbound");
+    /* 日志记录数超过保留短信数的该倍数时压缩 */
+    private static final int COMPACT_RATIO = 4;
+
+    private final File journalFile;
+    private final int maxBatchMessages;
+    private final long maxBatchDelayMillis;
+    private final int retainedMessages;
+    private final long partTimeoutMillis;
+    private final ScheduledThreadPoolExecutor inboundThread = new ScheduledThreadPoolExecutor(1,
+            runnable -> new Thread(runnable, "SatInbound"));
+    private final Queue<Segment> segments = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final LongAdder segmentCount = new LongAdder();
+    private final LongAdder duplicateCount = new LongAdder();
+    private final LongAdder messageCount = new LongAdder();
+    private volatile Listener listener;
+
+    /* 以下状态只在收件线程上访问 */
+    private final DedupIndex dedupIndex;
+    private final MultipartReassembler reassembler;
+    private final Deque<InboundMessage> recent = new ArrayDeque<>();
+    private List<InboundMessage> batch = new ArrayList<>();
+    private ScheduledFuture<?> batchFlush;
+    private InboundJournal journal;
+
+    /**
+     * Constructor
+     *
+     * @param journalFile file persisting the received messages
+     * @param dedupCapacity number of most recent messages whose retransmissions are dropped
+     * @param retainedMessages number of most recent messages kept in the journal
+     * @param maxBatchMessages number of new messages written at once
+     * @param maxBatchDelayMillis time a new message waits at most for others to share its write
+     * @param maxPendingParts number of incomplete multipart messages kept at most
+     * @param partTimeoutMillis time after which an incomplete multipart message is dropped
+     */
+    public InboundPipeline(File journalFile, int dedupCapacity, int retainedMessages, int maxBatchMessages,
+                           long maxBatchDelayMillis, int maxPendingParts, long partTimeoutMillis) {
+        if (retainedMessages <= 0 || maxBatchMessages <= 0 || maxBatchDelayMillis < 0) {
+            throw new IllegalArgumentException("invalid batching policy");
+        }
+        this.journalFile = journalFile;
+        this.dedupIndex = new DedupIndex(dedupCapacity);
+        this.reassembler = new MultipartReassembler(maxPendingParts, partTimeoutMillis);
+        this.retainedMessages = retainedMessages;
+        this.maxBatchMessages = maxBatchMessages;
+        this.maxBatchDelayMillis = maxBatchDelayMillis;
+        this.partTimeoutMillis = partTimeoutMillis;
+        inboundThread.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Open the journal in the background and warm the dedup index with the persisted messages.
+     */
+    public void start() {
+        execute(() -> {
+            File directory = journalFile.getParentFile();
+            if (directory != null && !directory.exists() && !directory.mkdirs()) {
+                LOGGER.warning("cannot create " + directory);
+            }
+            try {
+                journal = InboundJournal.open(journalFile, recent, retainedMessages);
+            } catch (IOException e) {
+                /* 日志不可用时仍然重组、去重并通知，只是不持久化 */
+                LOGGER.log(Level.SEVERE, "open inbox journal failed", e);
+            }
+            for (InboundMessage message : recent) {
+                dedupIndex.add(message.getDedupKey());
+            }
+            LOGGER.info("replayed " + recent.size() + " inbox messages");
+        });
+        try {
+            inboundThread.scheduleWithFixedDelay(this::expireParts, partTimeoutMillis, partTimeoutMillis,
+                    TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOGGER.fine("inbound pipeline already shut down");
+        }
+    }
+
+    @Override
+    public void onSmsReceived(String originatingAddress, String body, long timestampMillis, int reference,
+                              int partIndex, int partCount) {
+        segments.add(new Segment(originatingAddress, body, timestampMillis, reference, partIndex, partCount));
+        /* 已有处理任务在排队时不再提交，突发到达的分段由同一个任务一次取空 */
+        if (drainScheduled.compareAndSet(false, true)) {
+            execute(this::drain);
+        }
+    }
+
+    /**
+     * Most recent messages, including those persisted by earlier runs.
+     *
+     * @return snapshot of the retained messages, oldest first, completed on the inbound thread
+     */
+    public CompletableFuture<List<InboundMessage>> getRecentMessages() {
+        CompletableFuture<List<InboundMessage>> future = new CompletableFuture<>();
+        if (!execute(() -> future.complete(Collections.unmodifiableList(new ArrayList<>(recent))))) {
+            future.complete(Collections.emptyList());
+        }
+        return future;
+    }
+
+    public long getSegmentCount() {
+        return segmentCount.sum();
+    }
+
+    public long getDuplicateCount() {
+        return duplicateCount.sum();
+    }
+
+    public long getMessageCount() {
+        return messageCount.sum();
+    }
+
+    /**
+     * Persist the messages waiting for their batch and close the journal.
+     */
+    public void shutdown() {
+        execute(() -> {
+            drain();
+            flush();
+            if (journal != null) {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "close inbox journal failed", e);
+                }
+                journal = null;
+            }
+        });
+        inboundThread.shutdown();
+    }
+
+    /**
+     * Wait until the work queued before {@link #shutdown()} has finished.
+     *
+     * @param timeout maximum time to wait
+     * @param unit unit of the timeout
+     * @return true if the pipeline terminated, false if the timeout elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return inboundThread.awaitTermination(timeout, unit);
+    }
+
+    private void drain() {
+        /* 先清除标志再取队列，取空之后到达的分段会提交新的任务 */
+        drainScheduled.set(false);
+        long nowMillis = System.currentTimeMillis();
+        Segment segment;
+        while ((segment = segments.poll()) != null) {
+            segmentCount.increment();
+            long duplicateParts = reassembler.getDuplicateCount();
+            InboundMessage message = reassembler.add(segment.originatingAddress, segment.body,
+                    segment.timestampMillis, segment.reference, segment.partIndex, segment.partCount, nowMillis);
+            if (reassembler.getDuplicateCount() != duplicateParts) {
+                duplicateCount.increment();
+                continue;
+            }
+            if (message == null) {
+                continue;
+            }
+            /* 短信完整收到后才记入索引，与之前收到的短信和日志中预热的短信比较 */
+            if (!dedupIndex.add(message.getDedupKey())) {
+                duplicateCount.increment();
+                continue;
+            }
+            batch.add(message);
+            if (batch.size() >= maxBatchMessages) {
+                flush();
+            }
+        }
+        if (!batch.isEmpty() && batchFlush == null) {
+            try {
+                batchFlush = inboundThread.schedule(this::flush, maxBatchDelayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                /* 关闭过程中由 shutdown 的任务写入 */
+                LOGGER.fine("inbound pipeline already shut down");
+            }
+        }
+    }
+
+    private void flush() {
+        if (batchFlush != null) {
+            batchFlush.cancel(false);
+            batchFlush = null;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<InboundMessage> written = batch;
+        batch = new ArrayList<>();
+        if (journal != null) {
+            try {
+                journal.append(written);
+            } catch (IOException e) {
+                LOGGER.log(Level.SEVERE, "write inbox journal failed", e);
+            }
+        }
+        recent.addAll(written);
+        while (recent.size() > retainedMessages) {
+            recent.removeFirst();
+        }
+        messageCount.add(written.size());
+        compactIfNeeded();
+        Listener current = listener;
+        if (current != null) {
+            current.onMessagesReceived(Collections.unmodifiableList(written));
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (journal == null || journal.getRecordCount() <= retainedMessages * COMPACT_RATIO) {
+            return;
+        }
+        try {
+            journal.compact(recent);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "compact inbox journal failed", e);
+        }
+    }
+
+    private void expireParts() {
+        int expired = reassembler.expire(System.currentTimeMillis());
+        if (expired > 0) {
+            LOGGER.warning(expired + " incomplete multipart messages dropped");
+        }
+    }
+
+    private boolean execute(Runnable task) {
+        try {
+            inboundThread.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            LOGGER.fine("inbound pipeline already shut down");
+            return false;
+        }
+    }
+
+    private static final class Segment {
+        final String originatingAddress;
+        final String body;
+        final long timestampMillis;
+        final int reference;
+        final int partIndex;
+        final int partCount;
+
+        Segment(String originatingAddress, String body, long timestampMillis, int reference, int partIndex,
+                int partCount) {
+            this.originatingAddress = originatingAddress;
+            this.body = body;
+            this.timestampMillis = timestampMillis;
+            this.reference = reference;
+            this.partIndex = partIndex;
+            this.partCount = partCount;
+        }
+    }
+}
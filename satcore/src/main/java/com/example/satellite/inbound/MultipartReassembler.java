@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.inbound;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 多段短信重组，按发送方地址、参考号和总段数分组，收齐所有分段后按序号拼接
+ * 分段可以乱序到达，重传造成的重复分段直接忽略：等待中的分组按序号判断，已重组完成的短信按最近完成的分段键判断，
+ * 迟到的重传分段不会留下收不齐的分组；等待中的分组数有上限，超出时丢弃最早的分组，
+ * 长时间收不齐的分组由 {@link #expire(long)} 丢弃，防止卫星链路丢段时内存无限增长；
+ * 被丢弃分组的分段没有记录，之后重传的分段仍会重新分组
+ * 非线程安全，由调用方在单一线程上使用
+ *
+ * @since 2026-10-17
+ */
+public final class MultipartReassembler {
+    /* 短信连接信息元素中总段数只有一个字节 */
+    private static final int MAX_PARTS = 255;
+    /* 记住的已完成分段数为分组上限的倍数，长短信通常只有几段 */
+    private static final int COMPLETED_PARTS_PER_GROUP = 8;
+
+    private final int maxGroups;
+    private final long timeoutMillis;
+    /* 按创建顺序排列，最早的分组在前 */
+    private final Map<String, Group> groups = new LinkedHashMap<>();
+    private final DedupIndex completedParts;
+    private long droppedGroups;
+    private long duplicateParts;
+
+    /**
+     * Constructor
+     *
+     * @param maxGroups number of incomplete messages kept at most
+     * @param timeoutMillis time after the first part at which an incomplete message is dropped
+     */
+    public MultipartReassembler(int maxGroups, long timeoutMillis) {
+        if (maxGroups <= 0 || timeoutMillis <= 0) {
+            throw new IllegalArgumentException("invalid reassembly limits");
+        }
+        this.maxGroups = maxGroups;
+        this.timeoutMillis = timeoutMillis;
+        this.completedParts = new DedupIndex(maxGroups * COMPLETED_PARTS_PER_GROUP);
+    }
+
+    /**
+     * Add one part of a message.
+     *
+     * @param originatingAddress sender of the message
+     * @param body text of this part
+     * @param timestampMillis service center timestamp of this part
+     * @param reference concatenation reference number shared by the parts of one message
+     * @param partIndex 1 based index of this part
+     * @param partCount number of parts of the message, 1 for a single part message
+     * @param nowMillis current wall clock time
+     * @return the complete message once its last missing part arrived, otherwise null; duplicates of a received part
+     *     also return null and are counted by {@link #getDuplicateCount()}
+     */
+    public InboundMessage add(String originatingAddress, String body, long timestampMillis, int reference,
+                              int partIndex, int partCount, long nowMillis) {
+        if (partCount <= 1 || partCount > MAX_PARTS || partIndex < 1 || partIndex > partCount) {
+            /* 单段短信，或连接信息无效时按单段处理，不丢失内容 */
+            return new InboundMessage(originatingAddress, body, timestampMillis, nowMillis);
+        }
+        String key = originatingAddress + '\u0000' + reference + '/' + partCount;
+        Group group = groups.get(key);
+        if (group == null && completedParts.contains(DedupIndex.keyOfPart(originatingAddress, timestampMillis, body,
+                reference, partIndex, partCount))) {
+            duplicateParts++;
+            return null;
+        }
+        if (group == null) {
+            if (groups.size() >= maxGroups) {
+                Iterator<Group> oldest = groups.values().iterator();
+                oldest.next();
+                oldest.remove();
+                droppedGroups++;
+            }
+            group = new Group(partCount, nowMillis);
+            groups.put(key, group);
+        }
+        if (group.parts[partIndex - 1] != null) {
+            duplicateParts++;
+            return null;
+        }
+        group.parts[partIndex - 1] = body == null ? "" : body;
+        group.partTimestamps[partIndex - 1] = timestampMillis;
+        if (++group.received < partCount) {
+            return null;
+        }
+        groups.remove(key);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < partCount; i++) {
+            text.append(group.parts[i]);
+            completedParts.add(DedupIndex.keyOfPart(originatingAddress, group.partTimestamps[i], group.parts[i],
+                    reference, i + 1, partCount));
+        }
+        return new InboundMessage(originatingAddress, text.toString(), group.partTimestamps[0], nowMillis);
+    }
+
+    /**
+     * Drop the incomplete messages whose first part arrived too long ago.
+     *
+     * @param nowMillis current wall clock time
+     * @return number of messages dropped
+     */
+    public int expire(long nowMillis) {
+        int expired = 0;
+        Iterator<Group> iterator = groups.values().iterator();
+        while (iterator.hasNext()) {
+            if (nowMillis - iterator.next().firstAtMillis < timeoutMillis) {
+                /* 按创建顺序排列，其后的分组都未超时 */
+                break;
+            }
+            iterator.remove();
+            expired++;
+        }
+        droppedGroups += expired;
+        return expired;
+    }
+
+    public int getPendingCount() {
+        return groups.size();
+    }
+
+    public long getDroppedCount() {
+        return droppedGroups;
+    }
+
+    public long getDuplicateCount() {
+        return duplicateParts;
+    }
+
+    private static final class Group {
+        final String[] parts;
+        final long[] partTimestamps;
+        final long firstAtMillis;
+        int received;
+
+        Group(int partCount, long firstAtMillis) {
+            this.parts = new String[partCount];
+            this.partTimestamps = new long[partCount];
+            this.firstAtMillis = firstAtMillis;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.inbound;
+
+/**
+ * 3GPP TS 23.040 SMS-DELIVER PDU 中的短信连接信息（参考号、总段数、序号）
+ * 只解析用户数据头中的连接信息元素（IEI 0x00 为8位参考号，0x08 为16位参考号），正文仍由系统解码
+ *
+ * @since 2026-10-17
+ */
+public final class SmsConcatHeader {
+    private static final int MTI_MASK = 0x03;
+    private static final int MTI_DELIVER = 0x00;
+    private static final int UDHI = 0x40;
+    private static final int IEI_CONCAT_8BIT = 0x00;
+    private static final int IEI_CONCAT_16BIT = 0x08;
+    /* PID、DCS 和7字节的短信中心时间戳 */
+    private static final int PID_DCS_SCTS_BYTES = 9;
+
+    private final int reference;
+    private final int partIndex;
+    private final int partCount;
+
+    private SmsConcatHeader(int reference, int partIndex, int partCount) {
+        this.reference = reference;
+        this.partIndex = partIndex;
+        this.partCount = partCount;
+    }
+
+    /**
+     * Parse the concatenation information of a deliver PDU that starts with the service center address.
+     *
+     * @param pdu raw PDU in 3GPP format
+     * @return concatenation information, null for a single part message or an unparsable PDU
+     */
+    public static SmsConcatHeader parse(byte[] pdu) {
+        if (pdu == null || pdu.length == 0) {
+            return null;
+        }
+        int offset = 1 + (pdu[0] & 0xff);
+        if (offset >= pdu.length) {
+            return null;
+        }
+        int firstOctet = pdu[offset++] & 0xff;
+        if ((firstOctet & MTI_MASK) != MTI_DELIVER || (firstOctet & UDHI) == 0 || offset >= pdu.length) {
+            return null;
+        }
+        /* 发送方地址长度以半字节计，另有1字节号码类型 */
+        int addressDigits = pdu[offset++] & 0xff;
+        offset += 1 + (addressDigits + 1) / 2;
+        offset += PID_DCS_SCTS_BYTES;
+        /* 跳过用户数据长度，随后是用户数据头长度 */
+        offset += 1;
+        if (offset >= pdu.length) {
+            return null;
+        }
+        int headerEnd = offset + 1 + (pdu[offset] & 0xff);
+        offset++;
+        if (headerEnd > pdu.length) {
+            return null;
+        }
+        while (offset + 2 <= headerEnd) {
+            int iei = pdu[offset] & 0xff;
+            int length = pdu[offset + 1] & 0xff;
+            int data = offset + 2;
+            if (data + length > headerEnd) {
+                return null;
+            }
+            if (iei == IEI_CONCAT_8BIT && length == 3) {
+                return of(pdu[data] & 0xff, pdu[data + 2] & 0xff, pdu[data + 1] & 0xff);
+            }
+            if (iei == IEI_CONCAT_16BIT && length == 4) {
+                return of(((pdu[data] & 0xff) << 8) | (pdu[data + 1] & 0xff), pdu[data + 3] & 0xff,
+                        pdu[data + 2] & 0xff);
+            }
+            offset = data + length;
+        }
+        return null;
+    }
+
+    private static SmsConcatHeader of(int reference, int partIndex, int partCount) {
+        if (partCount < 2 || partIndex < 1 || partIndex > partCount) {
+            return null;
+        }
+        return new SmsConcatHeader(reference, partIndex, partCount);
+    }
+
+    public int getReference() {
+        return reference;
+    }
+
+    public int getPartIndex() {
+        return partIndex;
+    }
+
+    public int getPartCount() {
+        return partCount;
+    }
+}
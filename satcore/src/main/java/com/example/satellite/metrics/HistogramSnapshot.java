@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.metrics;
+
+/**
+ * 时延直方图某一时刻的不可变副本，用于计算分位数
+ *
+ * @since 2026-10-17
+ */
+public final class HistogramSnapshot {
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long min;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long count, long sum, long min, long max) {
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMin() {
+        return min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Mean of the recorded values.
+     *
+     * @return mean, 0 if nothing was recorded
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Value below which the given percentage of the recorded values fall.
+     *
+     * @param percentile percentage between 0 and 100
+     * @return value at the percentile, within the bucket precision, 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        for (long bucket : counts) {
+            total += bucket;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(Math.min(100.0, Math.max(0.0, percentile)) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                /* 取桶的中点，并限制在实际记录的最小、最大值之间 */
+                long low = LatencyHistogram.bucketLowerBound(i);
+                long high = LatencyHistogram.bucketUpperBound(i);
+                return Math.max(min, Math.min(max, low + (high - low) / 2));
+            }
+        }
+        return max;
+    }
+
+    long getSum() {
+        return sum;
+    }
+
+    long[] getBucketCounts() {
+        return counts;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁时延直方图，按对数-线性分桶：每个2的幂区间再等分为 {@link #SUB_BUCKET_COUNT} 个子桶，
+ * 相对误差不超过 1/SUB_BUCKET_COUNT，固定内存即可覆盖从微秒到数天的时延；
+ * 记录只使用原子加和比较交换，可在任意回调线程上并发调用
+ *
+ * @since 2026-10-17
+ */
+public final class LatencyHistogram {
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /* 最高位为第62位的值所在的桶序号加一 */
+    static final int BUCKET_COUNT = (62 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Record one value.
+     *
+     * @param value value to record, negative values are recorded as 0
+     */
+    public void record(long value) {
+        long recorded = Math.max(0L, value);
+        counts.incrementAndGet(bucketIndex(recorded));
+        totalCount.incrementAndGet();
+        sum.addAndGet(recorded);
+        long current = min.get();
+        while (recorded < current && !min.compareAndSet(current, recorded)) {
+            current = min.get();
+        }
+        current = max.get();
+        while (recorded > current && !max.compareAndSet(current, recorded)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Copy the current state. Concurrent records may be partially included.
+     *
+     * @return snapshot of this histogram
+     */
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+        }
+        long count = totalCount.get();
+        return new HistogramSnapshot(copy, count, sum.get(), count == 0 ? 0 : min.get(),
+                count == 0 ? 0 : max.get());
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT * 2) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKET_COUNT + (int) (value >>> shift);
+    }
+
+    static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKET_COUNT * 2) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long top = index - (long) shift * SUB_BUCKET_COUNT;
+        return top << shift;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT * 2) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long top = index - (long) shift * SUB_BUCKET_COUNT;
+        return ((top + 1) << shift) - 1;
+    }
+}
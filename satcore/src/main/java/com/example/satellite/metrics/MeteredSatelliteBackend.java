@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.metrics;
+
+import com.example.satellite.backend.SatSim;
+import com.example.satellite.backend.SatelliteBackend;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 带指标统计的卫星后端，包装任意 {@link SatelliteBackend}，在调用和回调处打时间戳并记录到 {@link SatelliteMetrics}
+ * 回调在被包装后端所在的线程上先计数再转发，不改变回调线程和顺序
+ * 指定启动时刻时，另记录启动到第一次调用被包装后端返回的时延，用于衡量冷启动时 SDK 初始化的开销
+ *
+ * @since 2026-10-17
+ */
+public class MeteredSatelliteBackend implements SatelliteBackend {
+    /* 跟踪时延的短信数上限，达到上限时先清理过期的短信，仍然已满则淘汰最早发送的一条，防止丢失结果的短信无限累积 */
+    private static final int MAX_PENDING_MESSAGES = 4096;
+    /* 超过该时间仍未收到结果的短信不会再有结果，略长于发送队列的发送超时与送达超时之和 */
+    private static final long PENDING_MAX_AGE_NANOS = TimeUnit.MINUTES.toNanos(15);
+
+    private final SatelliteBackend delegate;
+    private final SatelliteMetrics metrics;
+    private final Map<ModemStateCallback, ModemStateCallback> modemStateCallbacks = new ConcurrentHashMap<>();
+    private final Map<PointingCallback, PointingCallback> pointingCallbacks = new ConcurrentHashMap<>();
+    /* 短信ID到 {发送时间, 发送结果时间} */
+    private final Map<Long, long[]> pendingMessages = new ConcurrentHashMap<>();
+    private final long launchNanos;
+    private final AtomicBoolean firstCallPending;
+
+    /**
+     * Constructor
+     *
+     * @param delegate backend actually performing the operations
+     * @param metrics metrics receiving the latencies and callback counts
+     */
+    public MeteredSatelliteBackend(SatelliteBackend delegate, SatelliteMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.launchNanos = 0L;
+        this.firstCallPending = new AtomicBoolean(false);
+    }
+
+    /**
+     * Constructor also recording the latency from the launch to the first call returned by the delegate.
+     *
+     * @param delegate backend actually performing the operations
+     * @param metrics metrics receiving the latencies and callback counts
+     * @param launchNanos launch time on the metrics clock
+     */
+    public MeteredSatelliteBackend(SatelliteBackend delegate, SatelliteMetrics metrics, long launchNanos) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+        this.launchNanos = launchNanos;
+        this.firstCallPending = new AtomicBoolean(true);
+    }
+
+    public SatelliteMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public void requestSatelliteEnabled(boolean enableSatellite, Executor executor, RequestCallback callback) {
+        long start = metrics.nowNanos();
+        delegate.requestSatelliteEnabled(enableSatellite, executor, result -> {
+            metrics.recordSince(SatelliteMetrics.Latency.ENABLE_REQUEST, start);
+            metrics.count(SatelliteMetrics.Callback.REQUEST_RESULT);
+            callback.onRequestResult(result);
+        });
+        recordFirstCall();
+    }
+
+    @Override
+    public int registerForSatelliteModemStateChanged(Executor executor, ModemStateCallback callback) {
+        ModemStateCallback metered = new ModemStateCallback() {
+            @Override
+            public void onServiceStateChanged(int serviceState) {
+                metrics.count(SatelliteMetrics.Callback.SERVICE_STATE);
+                callback.onServiceStateChanged(serviceState);
+            }
+
+            @Override
+            public void onSignalStrengthChanged(int signalLevel) {
+                metrics.count(SatelliteMetrics.Callback.SIGNAL_STRENGTH);
+                callback.onSignalStrengthChanged(signalLevel);
+            }
+        };
+        ModemStateCallback previous = modemStateCallbacks.put(callback, metered);
+        if (previous != null) {
+            delegate.unregisterForSatelliteModemStateChanged(previous);
+        }
+        int result = delegate.registerForSatelliteModemStateChanged(executor, metered);
+        recordFirstCall();
+        return result;
+    }
+
+    @Override
+    public void unregisterForSatelliteModemStateChanged(ModemStateCallback callback) {
+        ModemStateCallback metered = modemStateCallbacks.remove(callback);
+        if (metered != null) {
+            delegate.unregisterForSatelliteModemStateChanged(metered);
+        }
+    }
+
+    @Override
+    public int registerForSatellitePointingUpdates(Executor executor, PointingCallback callback) {
+        long start = metrics.nowNanos();
+        AtomicBoolean first = new AtomicBoolean(true);
+        PointingCallback metered = (satelliteEle, satelliteAzi, satelliteHor, phoneEle, phoneAzi, phoneHor) -> {
+            metrics.count(SatelliteMetrics.Callback.POINTING);
+            if (first.get() && first.compareAndSet(true, false)) {
+                metrics.recordSince(SatelliteMetrics.Latency.POINTING_FIRST_SAMPLE, start);
+            }
+            callback.onPointingUpdate(satelliteEle, satelliteAzi, satelliteHor, phoneEle, phoneAzi, phoneHor);
+        };
+        PointingCallback previous = pointingCallbacks.put(callback, metered);
+        if (previous != null) {
+            delegate.unregisterForSatellitePointingUpdates(previous);
+        }
+        int result = delegate.registerForSatellitePointingUpdates(executor, metered);
+        recordFirstCall();
+        return result;
+    }
+
+    @Override
+    public void unregisterForSatellitePointingUpdates(PointingCallback callback) {
+        PointingCallback metered = pointingCallbacks.remove(callback);
+        if (metered != null) {
+            delegate.unregisterForSatellitePointingUpdates(metered);
+        }
+    }
+
+    @Override
+    public int getSatelliteSupportType() {
+        int supportType = delegate.getSatelliteSupportType();
+        recordFirstCall();
+        return supportType;
+    }
+
+    @Override
+    public List<SatSim> getAvailableSatSimCards() {
+        List<SatSim> sims = delegate.getAvailableSatSimCards();
+        recordFirstCall();
+        return sims;
+    }
+
+    @Override
+    public void setSatelliteSlot(int slotId) {
+        delegate.setSatelliteSlot(slotId);
+        recordFirstCall();
+    }
+
+    @Override
+    public void setSmsResultCallback(SmsResultCallback callback) {
+        if (callback == null) {
+            delegate.setSmsResultCallback(null);
+            return;
+        }
+        delegate.setSmsResultCallback(new SmsResultCallback() {
+            @Override
+            public void onSentResult(long messageId, int resultCode) {
+                metrics.count(SatelliteMetrics.Callback.SMS_SENT);
+                long[] times = pendingMessages.get(messageId);
+                if (times != null) {
+                    metrics.recordSince(SatelliteMetrics.Latency.SEND_TO_SENT, times[0]);
+                    if (resultCode == RESULT_OK) {
+                        /* 重新放入映射，送达结果在其他线程回调时也能看到发送结果时间 */
+                        pendingMessages.put(messageId, new long[] {times[0], metrics.nowNanos()});
+                    } else {
+                        /* 发送失败不会有送达结果 */
+                        pendingMessages.remove(messageId);
+                    }
+                }
+                callback.onSentResult(messageId, resultCode);
+            }
+
+            @Override
+            public void onDeliveryResult(long messageId, int resultCode) {
+                metrics.count(SatelliteMetrics.Callback.SMS_DELIVERY);
+                long[] times = pendingMessages.remove(messageId);
+                if (times != null) {
+                    metrics.recordSince(SatelliteMetrics.Latency.SEND_TO_DELIVERY, times[0]);
+                    if (times[1] != 0) {
+                        metrics.recordSince(SatelliteMetrics.Latency.SENT_TO_DELIVERY, times[1]);
+                    }
+                }
+                callback.onDeliveryResult(messageId, resultCode);
+            }
+        });
+    }
+
+    @Override
+    public void sendTextMessage(String destinationAddress, String scAddress, String text, long messageId) {
+        long now = metrics.nowNanos();
+        if (pendingMessages.size() >= MAX_PENDING_MESSAGES) {
+            evictPending(now);
+        }
+        pendingMessages.put(messageId, new long[] {now, 0L});
+        delegate.sendTextMessage(destinationAddress, scAddress, text, messageId);
+        recordFirstCall();
+    }
+
+    @Override
+    public void setInboundSmsCallback(InboundSmsCallback callback) {
+        if (callback == null) {
+            delegate.setInboundSmsCallback(null);
+            return;
+        }
+        delegate.setInboundSmsCallback((originatingAddress, body, timestampMillis, reference, partIndex,
+            partCount) -> {
+            metrics.count(SatelliteMetrics.Callback.SMS_INBOUND);
+            callback.onSmsReceived(originatingAddress, body, timestampMillis, reference, partIndex, partCount);
+        });
+    }
+
+    @Override
+    public void release() {
+        modemStateCallbacks.clear();
+        pointingCallbacks.clear();
+        pendingMessages.clear();
+        delegate.release();
+    }
+
+    /**
+     * 清理超过最长等待时间的短信，没有过期的短信时淘汰最早发送的一条
+     *
+     * @param now current time on the metrics clock
+     */
+    private void evictPending(long now) {
+        pendingMessages.values().removeIf(times -> now - times[0] > PENDING_MAX_AGE_NANOS);
+        if (pendingMessages.size() < MAX_PENDING_MESSAGES) {
+            return;
+        }
+        Long oldestId = null;
+        long oldestNanos = Long.MAX_VALUE;
+        for (Map.Entry<Long, long[]> entry : pendingMessages.entrySet()) {
+            if (oldestId == null || entry.getValue()[0] - oldestNanos < 0) {
+                oldestId = entry.getKey();
+                oldestNanos = entry.getValue()[0];
+            }
+        }
+        if (oldestId != null) {
+            pendingMessages.remove(oldestId);
+        }
+    }
+
+    private void recordFirstCall() {
+        if (firstCallPending.get() && firstCallPending.compareAndSet(true, false)) {
+            metrics.recordSince(SatelliteMetrics.Latency.LAUNCH_TO_FIRST_SDK_CALL, launchNanos);
+        }
+    }
+}
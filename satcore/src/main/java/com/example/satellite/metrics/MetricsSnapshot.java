@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.metrics;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 卫星指标某一时刻的不可变副本，可写为紧凑的二进制格式并读回
+ * 格式：魔数、版本、快照时间、统计时长，随后按枚举序号依次写计数器和直方图；
+ * 直方图只写非空桶，桶序号取与前一个非空桶的差值，数值均为变长整数
+ *
+ * @since 2026-10-17
+ */
+public final class MetricsSnapshot {
+    private static final int MAGIC = 0x5341544d;
+    private static final int VERSION = 1;
+
+    private final long wallTimeMillis;
+    private final long elapsedNanos;
+    private final Map<SatelliteMetrics.Latency, HistogramSnapshot> latencies;
+    private final Map<SatelliteMetrics.Callback, Long> counts;
+
+    MetricsSnapshot(long wallTimeMillis, long elapsedNanos, Map<SatelliteMetrics.Latency, HistogramSnapshot> latencies,
+                    Map<SatelliteMetrics.Callback, Long> counts) {
+        this.wallTimeMillis = wallTimeMillis;
+        this.elapsedNanos = elapsedNanos;
+        this.latencies = latencies;
+        this.counts = counts;
+    }
+
+    public long getWallTimeMillis() {
+        return wallTimeMillis;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Latency histogram of an operation, in microseconds.
+     *
+     * @param latency operation
+     * @return histogram snapshot
+     */
+    public HistogramSnapshot getLatency(SatelliteMetrics.Latency latency) {
+        return latencies.get(latency);
+    }
+
+    /**
+     * Number of callbacks of a type since the metrics were created.
+     *
+     * @param callback callback type
+     * @return callback count
+     */
+    public long getCount(SatelliteMetrics.Callback callback) {
+        Long count = counts.get(callback);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Average callback rate of a type since the metrics were created.
+     *
+     * @param callback callback type
+     * @return callbacks per second
+     */
+    public double getRatePerSecond(SatelliteMetrics.Callback callback) {
+        return elapsedNanos <= 0 ? 0 : getCount(callback) * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Write this snapshot in the compact binary format.
+     *
+     * @param out destination, not closed
+     * @throws IOException if writing fails
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeLong(wallTimeMillis);
+        writeVarLong(data, elapsedNanos);
+        writeVarLong(data, SatelliteMetrics.Callback.values().length);
+        for (SatelliteMetrics.Callback callback : SatelliteMetrics.Callback.values()) {
+            writeVarLong(data, getCount(callback));
+        }
+        writeVarLong(data, SatelliteMetrics.Latency.values().length);
+        for (SatelliteMetrics.Latency latency : SatelliteMetrics.Latency.values()) {
+            HistogramSnapshot histogram = latencies.get(latency);
+            writeVarLong(data, histogram.getCount());
+            writeVarLong(data, histogram.getSum());
+            writeVarLong(data, histogram.getMin());
+            writeVarLong(data, histogram.getMax());
+            long[] buckets = histogram.getBucketCounts();
+            int nonEmpty = 0;
+            for (long bucket : buckets) {
+                if (bucket != 0) {
+                    nonEmpty++;
+                }
+            }
+            writeVarLong(data, nonEmpty);
+            int previous = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                if (buckets[i] != 0) {
+                    writeVarLong(data, i - previous);
+                    writeVarLong(data, buckets[i]);
+                    previous = i;
+                }
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * Read a snapshot written by {@link #writeTo}. Entries unknown to this version are skipped.
+     *
+     * @param in source, not closed
+     * @return snapshot read
+     * @throws IOException if reading fails or the data is not a metrics snapshot
+     */
+    public static MetricsSnapshot readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC || data.readUnsignedByte() != VERSION) {
+            throw new IOException("not a metrics snapshot");
+        }
+        long wallTime = data.readLong();
+        long elapsed = readVarLong(data);
+        Map<SatelliteMetrics.Callback, Long> counts = new EnumMap<>(SatelliteMetrics.Callback.class);
+        SatelliteMetrics.Callback[] callbacks = SatelliteMetrics.Callback.values();
+        long counterCount = readVarLong(data);
+        for (int i = 0; i < counterCount; i++) {
+            long count = readVarLong(data);
+            if (i < callbacks.length) {
+                counts.put(callbacks[i], count);
+            }
+        }
+        Map<SatelliteMetrics.Latency, HistogramSnapshot> latencies = new EnumMap<>(SatelliteMetrics.Latency.class);
+        SatelliteMetrics.Latency[] kinds = SatelliteMetrics.Latency.values();
+        long histogramCount = readVarLong(data);
+        for (int i = 0; i < histogramCount; i++) {
+            long count = readVarLong(data);
+            long sum = readVarLong(data);
+            long min = readVarLong(data);
+            long max = readVarLong(data);
+            long nonEmpty = readVarLong(data);
+            long[] buckets = new long[LatencyHistogram.BUCKET_COUNT];
+            int index = 0;
+            for (int j = 0; j < nonEmpty; j++) {
+                index += (int) readVarLong(data);
+                if (index < 0 || index >= buckets.length) {
+                    throw new IOException("bucket index out of range: " + index);
+                }
+                buckets[index] = readVarLong(data);
+            }
+            if (i < kinds.length) {
+                latencies.put(kinds[i], new HistogramSnapshot(buckets, count, sum, min, max));
+            }
+        }
+        for (SatelliteMetrics.Latency kind : kinds) {
+            if (!latencies.containsKey(kind)) {
+                latencies.put(kind, new HistogramSnapshot(new long[LatencyHistogram.BUCKET_COUNT], 0, 0, 0, 0));
+            }
+        }
+        return new MetricsSnapshot(wallTime, elapsed, Collections.unmodifiableMap(latencies),
+                Collections.unmodifiableMap(counts));
+    }
+
+    /**
+     * One line per latency with count and percentiles in milliseconds, then the callback rates.
+     *
+     * @return human readable summary
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (SatelliteMetrics.Latency latency : SatelliteMetrics.Latency.values()) {
+            HistogramSnapshot histogram = latencies.get(latency);
+            builder.append(String.format(Locale.ROOT, "%s n=%d p50=%.1fms p99=%.1fms max=%.1fms%n", latency,
+                    histogram.getCount(), histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0, histogram.getMax() / 1000.0));
+        }
+        for (SatelliteMetrics.Callback callback : SatelliteMetrics.Callback.values()) {
+            builder.append(String.format(Locale.ROOT, "%s n=%d rate=%.2f/s%n", callback, getCount(callback),
+                    getRatePerSecond(callback)));
+        }
+        return builder.toString();
+    }
+
+    private static void writeVarLong(DataOutputStream data, long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            data.writeByte((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        data.writeByte((int) remaining);
+    }
+
+    private static long readVarLong(DataInputStream data) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = data.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed varint");
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.metrics;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 卫星操作指标，为每类操作的端到端时延维护一个直方图，为每类回调维护一个计数器
+ * 时延以微秒记录；时钟可注入，Android 上应使用包含深度睡眠时间的 elapsedRealtimeNanos，
+ * 否则等待送达报告期间手机休眠会使时延偏小
+ *
+ * @since 2026-10-17
+ */
+public final class SatelliteMetrics {
+    /**
+     * 记录时延的操作
+     */
+    public enum Latency {
+        /* requestSatelliteEnabled 到 onRequestResult */
+        ENABLE_REQUEST,
+        /* sendTextMessage 到发送结果 */
+        SEND_TO_SENT,
+        /* 发送结果到送达结果 */
+        SENT_TO_DELIVERY,
+        /* sendTextMessage 到送达结果 */
+        SEND_TO_DELIVERY,
+        /* 注册对星回调到收到第一个对星数据 */
+        POINTING_FIRST_SAMPLE,
+        /* 应用启动（或手动开始自动连接）到自动连接完成、可以发送短信 */
+        LAUNCH_TO_READY,
+        /* 进程启动到主界面第一帧绘制完成 */
+        LAUNCH_TO_FIRST_FRAME,
+        /* 进程启动到第一次卫星SDK调用返回 */
+        LAUNCH_TO_FIRST_SDK_CALL
+    }
+
+    /**
+     * 计数的回调类型
+     */
+    public enum Callback {
+        POINTING,
+        SERVICE_STATE,
+        SIGNAL_STRENGTH,
+        REQUEST_RESULT,
+        SMS_SENT,
+        SMS_DELIVERY,
+        /* 收到的短信分段 */
+        SMS_INBOUND
+    }
+
+    private final LongSupplier clockNanos;
+    private final long startNanos;
+    private final Map<Latency, LatencyHistogram> histograms = new EnumMap<>(Latency.class);
+    private final Map<Callback, LongAdder> counters = new EnumMap<>(Callback.class);
+
+    /**
+     * Constructor
+     *
+     * @param clockNanos monotonic clock in nanoseconds
+     */
+    public SatelliteMetrics(LongSupplier clockNanos) {
+        this.clockNanos = clockNanos;
+        this.startNanos = clockNanos.getAsLong();
+        /* 映射在构造后不再修改，并发读取是安全的 */
+        for (Latency latency : Latency.values()) {
+            histograms.put(latency, new LatencyHistogram());
+        }
+        for (Callback callback : Callback.values()) {
+            counters.put(callback, new LongAdder());
+        }
+    }
+
+    /**
+     * Current time of the metrics clock, used as the start of an operation.
+     *
+     * @return time in nanoseconds
+     */
+    public long nowNanos() {
+        return clockNanos.getAsLong();
+    }
+
+    /**
+     * Record the latency of an operation that started at the given time and ends now.
+     *
+     * @param latency operation
+     * @param startNanos value of {@link #nowNanos()} when the operation started
+     */
+    public void recordSince(Latency latency, long startNanos) {
+        histograms.get(latency).record((clockNanos.getAsLong() - startNanos) / 1000L);
+    }
+
+    /**
+     * Record the latency of an operation whose start and end were both taken from the metrics clock earlier.
+     *
+     * @param latency operation
+     * @param startNanos value of {@link #nowNanos()} when the operation started
+     * @param endNanos value of {@link #nowNanos()} when the operation ended
+     */
+    public void recordBetween(Latency latency, long startNanos, long endNanos) {
+        histograms.get(latency).record((endNanos - startNanos) / 1000L);
+    }
+
+    /**
+     * Count one callback.
+     *
+     * @param callback callback type
+     */
+    public void count(Callback callback) {
+        counters.get(callback).increment();
+    }
+
+    /**
+     * Copy the current state of every histogram and counter.
+     *
+     * @return snapshot, can be dumped with {@link MetricsSnapshot#writeTo}
+     */
+    public MetricsSnapshot snapshot() {
+        Map<Latency, HistogramSnapshot> latencies = new EnumMap<>(Latency.class);
+        for (Map.Entry<Latency, LatencyHistogram> entry : histograms.entrySet()) {
+            latencies.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        Map<Callback, Long> counts = new EnumMap<>(Callback.class);
+        for (Map.Entry<Callback, LongAdder> entry : counters.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().sum());
+        }
+        return new MetricsSnapshot(System.currentTimeMillis(), clockNanos.getAsLong() - startNanos,
+                Collections.unmodifiableMap(latencies), Collections.unmodifiableMap(counts));
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.recording;
+
+import com.example.satellite.backend.SatSim;
+import com.example.satellite.backend.SatelliteBackend;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 记录回调的卫星后端，包装任意 {@link SatelliteBackend}，回调在被包装后端所在的线程上先写入 {@link SessionRecorder} 再转发
+ * 写入失败时停止记录并打印一次日志，不影响回调的转发；release 时关闭记录文件
+ *
+ * @since 2026-10-17
+ */
+public class RecordingSatelliteBackend implements SatelliteBackend {
+    private static final Logger LOGGER = Logger.getLogger("SessionRecorder");
+
+    private final SatelliteBackend delegate;
+    private final SessionRecorder recorder;
+    private final Map<ModemStateCallback, ModemStateCallback> modemStateCallbacks = new ConcurrentHashMap<>();
+    private final Map<PointingCallback, PointingCallback> pointingCallbacks = new ConcurrentHashMap<>();
+    private volatile boolean failed;
+
+    /**
+     * Constructor
+     *
+     * @param delegate backend actually performing the operations
+     * @param recorder recorder receiving the callbacks, closed on {@link #release()}
+     */
+    public RecordingSatelliteBackend(SatelliteBackend delegate, SessionRecorder recorder) {
+        this.delegate = delegate;
+        this.recorder = recorder;
+    }
+
+    public SessionRecorder getRecorder() {
+        return recorder;
+    }
+
+    @Override
+    public void requestSatelliteEnabled(boolean enableSatellite, Executor executor, RequestCallback callback) {
+        delegate.requestSatelliteEnabled(enableSatellite, executor, result -> {
+            if (!failed) {
+                try {
+                    recorder.recordEnableResult(result);
+                } catch (IOException e) {
+                    fail(e);
+                }
+            }
+            callback.onRequestResult(result);
+        });
+    }
+
+    @Override
+    public int registerForSatelliteModemStateChanged(Executor executor, ModemStateCallback callback) {
+        ModemStateCallback recording = new ModemStateCallback() {
+            @Override
+            public void onServiceStateChanged(int serviceState) {
+                if (!failed) {
+                    try {
+                        recorder.recordServiceState(serviceState);
+                    } catch (IOException e) {
+                        fail(e);
+                    }
+                }
+                callback.onServiceStateChanged(serviceState);
+            }
+
+            @Override
+            public void onSignalStrengthChanged(int signalLevel) {
+                if (!failed) {
+                    try {
+                        recorder.recordSignalLevel(signalLevel);
+                    } catch (IOException e) {
+                        fail(e);
+                    }
+                }
+                callback.onSignalStrengthChanged(signalLevel);
+            }
+        };
+        ModemStateCallback previous = modemStateCallbacks.put(callback, recording);
+        if (previous != null) {
+            delegate.unregisterForSatelliteModemStateChanged(previous);
+        }
+        return delegate.registerForSatelliteModemStateChanged(executor, recording);
+    }
+
+    @Override
+    public void unregisterForSatelliteModemStateChanged(ModemStateCallback callback) {
+        ModemStateCallback recording = modemStateCallbacks.remove(callback);
+        if (recording != null) {
+            delegate.unregisterForSatelliteModemStateChanged(recording);
+        }
+    }
+
+    @Override
+    public int registerForSatellitePointingUpdates(Executor executor, PointingCallback callback) {
+        PointingCallback recording = (satelliteEle, satelliteAzi, satelliteHor, phoneEle, phoneAzi, phoneHor) -> {
+            if (!failed) {
+                try {
+                    recorder.recordPointing(satelliteEle, satelliteAzi, satelliteHor, phoneEle, phoneAzi, phoneHor);
+                } catch (IOException e) {
+                    fail(e);
+                }
+            }
+            callback.onPointingUpdate(satelliteEle, satelliteAzi, satelliteHor, phoneEle, phoneAzi, phoneHor);
+        };
+        PointingCallback previous = pointingCallbacks.put(callback, recording);
+        if (previous != null) {
+            delegate.unregisterForSatellitePointingUpdates(previous);
+        }
+        return delegate.registerForSatellitePointingUpdates(executor, recording);
+    }
+
+    @Override
+    public void unregisterForSatellitePointingUpdates(PointingCallback callback) {
+        PointingCallback recording = pointingCallbacks.remove(callback);
+        if (recording != null) {
+            delegate.unregisterForSatellitePointingUpdates(recording);
+        }
+    }
+
+    @Override
+    public int getSatelliteSupportType() {
+        return delegate.getSatelliteSupportType();
+    }
+
+    @Override
+    public List<SatSim> getAvailableSatSimCards() {
+        return delegate.getAvailableSatSimCards();
+    }
+
+    @Override
+    public void setSatelliteSlot(int slotId) {
+        delegate.setSatelliteSlot(slotId);
+    }
+
+    @Override
+    public void setSmsResultCallback(SmsResultCallback callback) {
+        if (callback == null) {
+            delegate.setSmsResultCallback(null);
+            return;
+        }
+        delegate.setSmsResultCallback(new SmsResultCallback() {
+            @Override
+            public void onSentResult(long messageId, int resultCode) {
+                if (!failed) {
+                    try {
+                        recorder.recordSmsSent(messageId, resultCode);
+                    } catch (IOException e) {
+                        fail(e);
+                    }
+                }
+                callback.onSentResult(messageId, resultCode);
+            }
+
+            @Override
+            public void onDeliveryResult(long messageId, int resultCode) {
+                if (!failed) {
+                    try {
+                        recorder.recordSmsDelivery(messageId, resultCode);
+                    } catch (IOException e) {
+                        fail(e);
+                    }
+                }
+                callback.onDeliveryResult(messageId, resultCode);
+            }
+        });
+    }
+
+    @Override
+    public void sendTextMessage(String destinationAddress, String scAddress, String text, long messageId) {
+        delegate.sendTextMessage(destinationAddress, scAddress, text, messageId);
+    }
+
+    @Override
+    public void setInboundSmsCallback(InboundSmsCallback callback) {
+        /* 收到的短信内容属于用户数据，不写入会话记录 */
+        delegate.setInboundSmsCallback(callback);
+    }
+
+    @Override
+    public void release() {
+        modemStateCallbacks.clear();
+        pointingCallbacks.clear();
+        delegate.release();
+        /* 先释放被包装的后端，已在回调线程排队的回调在置位后也不再写入记录 */
+        failed = true;
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "close recording failed", e);
+        }
+    }
+
+    private void fail(IOException e) {
+        if (!failed) {
+            failed = true;
+            LOGGER.log(Level.WARNING, "recording stopped", e);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.recording;
+
+import com.example.satellite.backend.SatSim;
+import com.example.satellite.backend.SatelliteBackend;
+import com.example.satellite.backend.SimulatorConfig;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 回放会话记录的卫星后端，把 {@link SessionRecording} 中的事件按记录时的间隔（或按倍率、或尽快）重新上报给注册的回调
+ * 使能结果交给最早一个尚未收到结果的使能请求，短信结果按记录中的短信ID上报，发送短信本身不产生结果；
+ * 支持类型和卫星卡未被记录，取模拟器的默认值
+ *
+ * @since 2026-10-17
+ */
+public class ReplaySatelliteBackend implements SatelliteBackend {
+    /* 不等待记录中的时间间隔，尽快回放 */
+    public static final double AS_FAST_AS_POSSIBLE = Double.POSITIVE_INFINITY;
+
+    private static final Logger LOGGER = Logger.getLogger("SessionReplay");
+
+    private final SessionRecording recording;
+    private final double speed;
+    private final SimulatorConfig deviceConfig = new SimulatorConfig();
+    private final ScheduledThreadPoolExecutor replayThread = new ScheduledThreadPoolExecutor(1,
+            runnable -> new Thread(runnable, "SessionReplay"));
+    private final List<Registration<PointingCallback>> pointingCallbacks = new CopyOnWriteArrayList<>();
+    private final List<Registration<ModemStateCallback>> modemStateCallbacks = new CopyOnWriteArrayList<>();
+    private final Queue<Registration<RequestCallback>> pendingRequests = new ConcurrentLinkedQueue<>();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile SmsResultCallback smsResultCallback;
+
+    /* 以下状态只在回放线程上访问 */
+    private long startNanos;
+    private int nextEvent;
+
+    /**
+     * Constructor, the replay starts with {@link #start()}.
+     *
+     * @param recording recording to replay
+     * @param speed 1 to keep the recorded timing, a larger value to replay faster, or {@link #AS_FAST_AS_POSSIBLE}
+     */
+    public ReplaySatelliteBackend(SessionRecording recording, double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("speed must be positive");
+        }
+        this.recording = recording;
+        this.speed = speed;
+        replayThread.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    /**
+     * Start replaying the events to the callbacks registered so far and later.
+     */
+    public void start() {
+        execute(() -> {
+            startNanos = System.nanoTime();
+            nextEvent = 0;
+            replayDue();
+        });
+    }
+
+    /**
+     * Wait until every event has been handed to the callback executors.
+     *
+     * @param timeout maximum time to wait
+     * @param unit unit of the timeout
+     * @return true if the replay finished, false on timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitFinished(long timeout, TimeUnit unit) throws InterruptedException {
+        return finished.await(timeout, unit);
+    }
+
+    @Override
+    public void requestSatelliteEnabled(boolean enableSatellite, Executor executor, RequestCallback callback) {
+        pendingRequests.add(new Registration<>(executor, callback));
+    }
+
+    @Override
+    public int registerForSatelliteModemStateChanged(Executor executor, ModemStateCallback callback) {
+        modemStateCallbacks.add(new Registration<>(executor, callback));
+        return 0;
+    }
+
+    @Override
+    public void unregisterForSatelliteModemStateChanged(ModemStateCallback callback) {
+        modemStateCallbacks.removeIf(registration -> registration.callback == callback);
+    }
+
+    @Override
+    public int registerForSatellitePointingUpdates(Executor executor, PointingCallback callback) {
+        pointingCallbacks.add(new Registration<>(executor, callback));
+        return 0;
+    }
+
+    @Override
+    public void unregisterForSatellitePointingUpdates(PointingCallback callback) {
+        pointingCallbacks.removeIf(registration -> registration.callback == callback);
+    }
+
+    @Override
+    public int getSatelliteSupportType() {
+        return deviceConfig.getSatelliteSupportType();
+    }
+
+    @Override
+    public List<SatSim> getAvailableSatSimCards() {
+        return deviceConfig.getSatSims();
+    }
+
+    @Override
+    public void setSatelliteSlot(int slotId) {
+    }
+
+    @Override
+    public void setSmsResultCallback(SmsResultCallback callback) {
+        smsResultCallback = callback;
+    }
+
+    @Override
+    public void sendTextMessage(String destinationAddress, String scAddress, String text, long messageId) {
+        LOGGER.fine("replay ignores sent message " + messageId);
+    }
+
+    @Override
+    public void setInboundSmsCallback(InboundSmsCallback callback) {
+        /* 会话记录不包含收到的短信，回放时不会回调 */
+    }
+
+    @Override
+    public void release() {
+        pointingCallbacks.clear();
+        modemStateCallbacks.clear();
+        pendingRequests.clear();
+        smsResultCallback = null;
+        replayThread.shutdownNow();
+    }
+
+    private void replayDue() {
+        int count = recording.getEventCount();
+        boolean fast = speed == AS_FAST_AS_POSSIBLE;
+        while (nextEvent < count) {
+            if (!fast) {
+                long dueNanos = (long) (recording.getTimeNanos(nextEvent) / speed);
+                long waitNanos = dueNanos - (System.nanoTime() - startNanos);
+                if (waitNanos > 0) {
+                    schedule(this::replayDue, waitNanos);
+                    return;
+                }
+            }
+            dispatch(nextEvent++);
+        }
+        finished.countDown();
+    }
+
+    private void dispatch(int index) {
+        switch (recording.getType(index)) {
+            case SessionRecording.TYPE_POINTING:
+                dispatchPointing(index);
+                break;
+            case SessionRecording.TYPE_SERVICE_STATE:
+                int serviceState = recording.getIntValue(index);
+                for (Registration<ModemStateCallback> registration : modemStateCallbacks) {
+                    deliver(registration.executor, () -> registration.callback.onServiceStateChanged(serviceState));
+                }
+                break;
+            case SessionRecording.TYPE_SIGNAL_LEVEL:
+                int signalLevel = recording.getIntValue(index);
+                for (Registration<ModemStateCallback> registration : modemStateCallbacks) {
+                    deliver(registration.executor, () -> registration.callback.onSignalStrengthChanged(signalLevel));
+                }
+                break;
+            case SessionRecording.TYPE_ENABLE_RESULT:
+                Registration<RequestCallback> request = pendingRequests.poll();
+                if (request != null) {
+                    boolean result = recording.getIntValue(index) != 0;
+                    deliver(request.executor, () -> request.callback.onRequestResult(result));
+                }
+                break;
+            case SessionRecording.TYPE_SMS_SENT:
+            case SessionRecording.TYPE_SMS_DELIVERY:
+                dispatchSmsResult(index);
+                break;
+            default:
+                LOGGER.fine("unknown event type " + recording.getType(index));
+                break;
+        }
+    }
+
+    private void dispatchPointing(int index) {
+        double satelliteEle = recording.getAngle(index, 0);
+        double satelliteAzi = recording.getAngle(index, 1);
+        double satelliteHor = recording.getAngle(index, 2);
+        double phoneEle = recording.getAngle(index, 3);
+        double phoneAzi = recording.getAngle(index, 4);
+        double phoneHor = recording.getAngle(index, 5);
+        for (Registration<PointingCallback> registration : pointingCallbacks) {
+            deliver(registration.executor, () -> registration.callback.onPointingUpdate(satelliteEle, satelliteAzi,
+                    satelliteHor, phoneEle, phoneAzi, phoneHor));
+        }
+    }
+
+    private void dispatchSmsResult(int index) {
+        SmsResultCallback callback = smsResultCallback;
+        if (callback == null) {
+            return;
+        }
+        long messageId = recording.getMessageId(index);
+        int resultCode = recording.getIntValue(index);
+        if (recording.getType(index) == SessionRecording.TYPE_SMS_SENT) {
+            callback.onSentResult(messageId, resultCode);
+        } else {
+            callback.onDeliveryResult(messageId, resultCode);
+        }
+    }
+
+    private void schedule(Runnable task, long delayNanos) {
+        try {
+            replayThread.schedule(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "replay task failed", e);
+                }
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            LOGGER.fine("replay already released");
+        }
+    }
+
+    private void execute(Runnable task) {
+        schedule(task, 0);
+    }
+
+    private static void deliver(Executor executor, Runnable callback) {
+        try {
+            executor.execute(callback);
+        } catch (RejectedExecutionException e) {
+            LOGGER.fine("callback executor rejected the update");
+        }
+    }
+
+    private static final class Registration<T> {
+        final Executor executor;
+        final T callback;
+
+        Registration(Executor executor, T callback) {
+            this.executor = executor;
+            this.callback = callback;
+        }
+    }
+}
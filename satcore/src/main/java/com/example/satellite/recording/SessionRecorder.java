@@ -0,0 +1,348 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.recording;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.function.LongSupplier;
+import java.util.zip.CRC32;
+
+/**
+ * 卫星回调会话记录器，将对星、服务状态、信号、使能结果、短信结果事件按列式块写入只追加的内存映射文件
+ * 文件头：[int 魔数][int 版本][long 开始时的墙上时间毫秒]，其后为连续的块：[int 块体长度][块体][int 块体CRC32]
+ * 块体按列依次存放：事件数，时间差列，类型列，整数值列，短信ID差值列，六个对星角度差值列，均为变长整数；
+ * 对星角度量化为千分之一度，NaN 以固定哨兵值表示。长度最后写入，作为块的提交标记，与发件箱日志相同
+ * 回调线程只把基本类型值写入预分配的列数组，块满时才编码写入映射区域，每个事件摊销的开销很小；
+ * 进程被杀时会丢失尚未写满的最后一块
+ *
+ * @since 2026-10-17
+ */
+public final class SessionRecorder implements Closeable {
+    static final int MAGIC = 0x53415452;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    /* 块内最多的事件数 */
+    static final int BLOCK_EVENTS = 256;
+    static final int POINTING_VALUES = 6;
+    /* 对星角度的量化倍数，即千分之一度 */
+    static final double ANGLE_SCALE = 1000.0;
+    static final long NAN_ANGLE = Integer.MIN_VALUE;
+
+    /* 事件类型 */
+    static final byte TYPE_POINTING = 0;
+    static final byte TYPE_SERVICE_STATE = 1;
+    static final byte TYPE_SIGNAL_LEVEL = 2;
+    static final byte TYPE_ENABLE_RESULT = 3;
+    static final byte TYPE_SMS_SENT = 4;
+    static final byte TYPE_SMS_DELIVERY = 5;
+
+    private static final int INITIAL_CAPACITY = 256 * 1024;
+    /* 单个事件编码后的最大字节数：时间、类型、整数值、短信ID、六个角度 */
+    private static final int MAX_EVENT_BYTES = 10 + 1 + 5 + 10 + POINTING_VALUES * 10;
+    private static final int MAX_BLOCK_BYTES = 5 + BLOCK_EVENTS * MAX_EVENT_BYTES;
+
+    private final File file;
+    private final LongSupplier clockNanos;
+    private final long startNanos;
+    private final CRC32 crc = new CRC32();
+
+    /* 当前块的列，事件数为 eventCount */
+    private final long[] times = new long[BLOCK_EVENTS];
+    private final byte[] types = new byte[BLOCK_EVENTS];
+    private final int[] intValues = new int[BLOCK_EVENTS];
+    private final long[] messageIds = new long[BLOCK_EVENTS];
+    private final long[] angles = new long[BLOCK_EVENTS * POINTING_VALUES];
+    private int eventCount;
+    private int intCount;
+    private int messageCount;
+    private int pointingCount;
+
+    private RandomAccessFile randomAccessFile;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int position;
+    private long recordedEvents;
+
+    private SessionRecorder(File file, LongSupplier clockNanos) {
+        this.file = file;
+        this.clockNanos = clockNanos;
+        this.startNanos = clockNanos.getAsLong();
+    }
+
+    /**
+     * Create a new recording, replacing any existing file.
+     *
+     * @param file recording file
+     * @param clockNanos monotonic clock in nanoseconds, event times are relative to its value at creation
+     * @return recorder ready to record
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static SessionRecorder create(File file, LongSupplier clockNanos) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("cannot create " + dir);
+        }
+        if (file.exists() && !file.delete()) {
+            throw new IOException("cannot delete " + file);
+        }
+        SessionRecorder recorder = new SessionRecorder(file, clockNanos);
+        recorder.map(INITIAL_CAPACITY);
+        recorder.buffer.putInt(0, MAGIC);
+        recorder.buffer.putInt(4, VERSION);
+        recorder.buffer.putLong(8, System.currentTimeMillis());
+        recorder.position = HEADER_BYTES;
+        return recorder;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Number of events recorded so far, including the ones not yet written to the file.
+     *
+     * @return event count
+     */
+    public synchronized long getRecordedEvents() {
+        return recordedEvents + eventCount;
+    }
+
+    /**
+     * Record a pointing update, NaN angles are kept as NaN.
+     *
+     * @param satelliteEle satellite elevation
+     * @param satelliteAzi satellite azimuth
+     * @param satelliteHor satellite horizontal angle
+     * @param phoneEle phone elevation
+     * @param phoneAzi phone azimuth
+     * @param phoneHor phone horizontal angle
+     * @throws IOException if the recorder is closed or a full block cannot be written
+     */
+    public synchronized void recordPointing(double satelliteEle, double satelliteAzi, double satelliteHor,
+            double phoneEle, double phoneAzi, double phoneHor) throws IOException {
+        ensureOpen();
+        int base = pointingCount * POINTING_VALUES;
+        angles[base] = quantize(satelliteEle);
+        angles[base + 1] = quantize(satelliteAzi);
+        angles[base + 2] = quantize(satelliteHor);
+        angles[base + 3] = quantize(phoneEle);
+        angles[base + 4] = quantize(phoneAzi);
+        angles[base + 5] = quantize(phoneHor);
+        pointingCount++;
+        addEvent(TYPE_POINTING);
+    }
+
+    /**
+     * Record a service state change.
+     *
+     * @param serviceState service state
+     * @throws IOException if the recorder is closed or a full block cannot be written
+     */
+    public synchronized void recordServiceState(int serviceState) throws IOException {
+        ensureOpen();
+        intValues[intCount++] = serviceState;
+        addEvent(TYPE_SERVICE_STATE);
+    }
+
+    /**
+     * Record a signal level change.
+     *
+     * @param signalLevel signal level
+     * @throws IOException if the recorder is closed or a full block cannot be written
+     */
+    public synchronized void recordSignalLevel(int signalLevel) throws IOException {
+        ensureOpen();
+        intValues[intCount++] = signalLevel;
+        addEvent(TYPE_SIGNAL_LEVEL);
+    }
+
+    /**
+     * Record the result of an enable or disable request.
+     *
+     * @param result request result
+     * @throws IOException if the recorder is closed or a full block cannot be written
+     */
+    public synchronized void recordEnableResult(boolean result) throws IOException {
+        ensureOpen();
+        intValues[intCount++] = result ? 1 : 0;
+        addEvent(TYPE_ENABLE_RESULT);
+    }
+
+    /**
+     * Record the sent result of a message.
+     *
+     * @param messageId message ID
+     * @param resultCode result code
+     * @throws IOException if the recorder is closed or a full block cannot be written
+     */
+    public synchronized void recordSmsSent(long messageId, int resultCode) throws IOException {
+        ensureOpen();
+        intValues[intCount++] = resultCode;
+        messageIds[messageCount++] = messageId;
+        addEvent(TYPE_SMS_SENT);
+    }
+
+    /**
+     * Record the delivery result of a message.
+     *
+     * @param messageId message ID
+     * @param resultCode result code
+     * @throws IOException if the recorder is closed or a full block cannot be written
+     */
+    public synchronized void recordSmsDelivery(long messageId, int resultCode) throws IOException {
+        ensureOpen();
+        intValues[intCount++] = resultCode;
+        messageIds[messageCount++] = messageId;
+        addEvent(TYPE_SMS_DELIVERY);
+    }
+
+    /**
+     * Write the events of the current partial block to the file.
+     *
+     * @throws IOException if the block cannot be written
+     */
+    public synchronized void flush() throws IOException {
+        if (channel != null && eventCount > 0) {
+            writeBlock();
+        }
+    }
+
+    /**
+     * Write the pending events and truncate the file to the recorded length.
+     *
+     * @throws IOException if the last block cannot be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            flush();
+            buffer.force();
+        } finally {
+            buffer = null;
+            channel.close();
+            randomAccessFile.close();
+            channel = null;
+        }
+        /* 映射区域释放后再截断，去掉末尾预留的空白 */
+        try (RandomAccessFile truncate = new RandomAccessFile(file, "rw")) {
+            truncate.setLength(position);
+        }
+    }
+
+    private static long quantize(double angle) {
+        return Double.isNaN(angle) ? NAN_ANGLE : Math.round(angle * ANGLE_SCALE);
+    }
+
+    private void addEvent(byte type) throws IOException {
+        times[eventCount] = clockNanos.getAsLong() - startNanos;
+        types[eventCount] = type;
+        eventCount++;
+        if (eventCount == BLOCK_EVENTS) {
+            writeBlock();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (channel == null) {
+            throw new IOException("recorder closed");
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        try {
+            encodeBlock();
+        } finally {
+            /* 写入失败时丢弃这一块，列数组可以继续记录后续事件 */
+            eventCount = 0;
+            intCount = 0;
+            messageCount = 0;
+            pointingCount = 0;
+        }
+    }
+
+    private void encodeBlock() throws IOException {
+        ensureCapacity(position + 4 + MAX_BLOCK_BYTES + 4 + 4);
+        int bodyStart = position + 4;
+        buffer.position(bodyStart);
+        putVarLong(eventCount);
+        long previousTime = 0;
+        for (int i = 0; i < eventCount; i++) {
+            /* 时钟在锁内读取，时间单调递增；仍按有符号差值保存，注入的时钟回退时也能正确还原 */
+            putVarLong(zigZag(times[i] - previousTime));
+            previousTime = times[i];
+        }
+        buffer.put(types, 0, eventCount);
+        for (int i = 0; i < intCount; i++) {
+            putVarLong(zigZag(intValues[i]));
+        }
+        long previousId = 0;
+        for (int i = 0; i < messageCount; i++) {
+            putVarLong(zigZag(messageIds[i] - previousId));
+            previousId = messageIds[i];
+        }
+        for (int column = 0; column < POINTING_VALUES; column++) {
+            long previous = 0;
+            for (int i = 0; i < pointingCount; i++) {
+                long value = angles[i * POINTING_VALUES + column];
+                putVarLong(zigZag(value - previous));
+                previous = value;
+            }
+        }
+        int bodyBytes = buffer.position() - bodyStart;
+        buffer.putInt(checksum(bodyStart, bodyBytes));
+        /* 长度最后写入，作为这一块的提交标记 */
+        buffer.putInt(position, bodyBytes);
+        position = bodyStart + bodyBytes + 4;
+        recordedEvents += eventCount;
+    }
+
+    private void map(int capacity) throws IOException {
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        channel = randomAccessFile.getChannel();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private void ensureCapacity(int required) throws IOException {
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        int capacity = buffer.capacity();
+        while (capacity < required) {
+            capacity *= 2;
+        }
+        channel.close();
+        randomAccessFile.close();
+        map(capacity);
+    }
+
+    private int checksum(int bodyStart, int bodyBytes) {
+        ByteBuffer body = buffer.duplicate();
+        body.limit(bodyStart + bodyBytes).position(bodyStart);
+        crc.reset();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private void putVarLong(long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            buffer.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        buffer.put((byte) remaining);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.recording;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * 读入内存的会话记录，由 {@link SessionRecorder} 写出的文件解码为按事件序号访问的基本类型数组
+ * 读取到长度为0、长度越界或校验失败的块即停止，之前的完整块仍然可用
+ *
+ * @since 2026-10-17
+ */
+public final class SessionRecording {
+    /* 事件类型，与文件中的类型值一致 */
+    public static final int TYPE_POINTING = SessionRecorder.TYPE_POINTING;
+    public static final int TYPE_SERVICE_STATE = SessionRecorder.TYPE_SERVICE_STATE;
+    public static final int TYPE_SIGNAL_LEVEL = SessionRecorder.TYPE_SIGNAL_LEVEL;
+    public static final int TYPE_ENABLE_RESULT = SessionRecorder.TYPE_ENABLE_RESULT;
+    public static final int TYPE_SMS_SENT = SessionRecorder.TYPE_SMS_SENT;
+    public static final int TYPE_SMS_DELIVERY = SessionRecorder.TYPE_SMS_DELIVERY;
+
+    private final long startWallTimeMillis;
+    private int eventCount;
+    private long[] times = new long[SessionRecorder.BLOCK_EVENTS];
+    private byte[] types = new byte[SessionRecorder.BLOCK_EVENTS];
+    /* 按事件序号存放：非对星事件的整数值，对星事件为其在 angles 中的序号；短信结果事件的短信ID */
+    private int[] intValues = new int[SessionRecorder.BLOCK_EVENTS];
+    private long[] messageIds = new long[SessionRecorder.BLOCK_EVENTS];
+    private double[] angles = new double[SessionRecorder.BLOCK_EVENTS * SessionRecorder.POINTING_VALUES];
+    private int pointingCount;
+
+    private SessionRecording(long startWallTimeMillis) {
+        this.startWallTimeMillis = startWallTimeMillis;
+    }
+
+    /**
+     * Read a recording file.
+     *
+     * @param file file written by {@link SessionRecorder}
+     * @return decoded recording
+     * @throws IOException if the file cannot be read or is not a session recording
+     */
+    public static SessionRecording read(File file) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            long length = channel.size();
+            if (length < SessionRecorder.HEADER_BYTES || length > Integer.MAX_VALUE) {
+                throw new IOException("not a session recording: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            if (buffer.getInt(0) != SessionRecorder.MAGIC || buffer.getInt(4) != SessionRecorder.VERSION) {
+                throw new IOException("not a session recording: " + file);
+            }
+            SessionRecording recording = new SessionRecording(buffer.getLong(8));
+            recording.readBlocks(buffer);
+            return recording;
+        }
+    }
+
+    public long getStartWallTimeMillis() {
+        return startWallTimeMillis;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Type of an event.
+     *
+     * @param index event index
+     * @return one of the TYPE constants
+     */
+    public int getType(int index) {
+        return types[index];
+    }
+
+    /**
+     * Time of an event since the recording started.
+     *
+     * @param index event index
+     * @return time in nanoseconds
+     */
+    public long getTimeNanos(int index) {
+        return times[index];
+    }
+
+    /**
+     * Value of a non pointing event: the service state, the signal level, 1 or 0 for the enable result, or the SMS
+     * result code.
+     *
+     * @param index event index
+     * @return event value
+     */
+    public int getIntValue(int index) {
+        return intValues[index];
+    }
+
+    /**
+     * Message ID of an SMS result event.
+     *
+     * @param index event index
+     * @return message ID
+     */
+    public long getMessageId(int index) {
+        return messageIds[index];
+    }
+
+    /**
+     * Angle of a pointing event.
+     *
+     * @param index event index
+     * @param field 0 to 5: satellite elevation, azimuth, horizontal angle, then phone elevation, azimuth, horizontal
+     *     angle
+     * @return angle in degrees, NaN if the SDK reported no data
+     */
+    public double getAngle(int index, int field) {
+        return angles[intValues[index] * SessionRecorder.POINTING_VALUES + field];
+    }
+
+    /**
+     * Duration of the recording.
+     *
+     * @return time of the last event in nanoseconds, 0 if empty
+     */
+    public long getDurationNanos() {
+        return eventCount == 0 ? 0 : times[eventCount - 1];
+    }
+
+    private void readBlocks(MappedByteBuffer buffer) throws IOException {
+        CRC32 crc = new CRC32();
+        int position = SessionRecorder.HEADER_BYTES;
+        while (position + 4 <= buffer.capacity()) {
+            int bodyBytes = buffer.getInt(position);
+            int bodyStart = position + 4;
+            if (bodyBytes <= 0 || bodyStart + (long) bodyBytes + 4 > buffer.capacity()) {
+                break;
+            }
+            ByteBuffer body = buffer.duplicate();
+            body.limit(bodyStart + bodyBytes).position(bodyStart);
+            crc.reset();
+            crc.update(body);
+            if ((int) crc.getValue() != buffer.getInt(bodyStart + bodyBytes)) {
+                break;
+            }
+            body.limit(bodyStart + bodyBytes).position(bodyStart);
+            decodeBlock(body);
+            position = bodyStart + bodyBytes + 4;
+        }
+    }
+
+    private void decodeBlock(ByteBuffer body) throws IOException {
+        int count = (int) readVarLong(body);
+        if (count <= 0 || count > SessionRecorder.BLOCK_EVENTS) {
+            throw new IOException("invalid block size " + count);
+        }
+        int first = eventCount;
+        grow(first + count);
+        /* 每块的时间差从0开始，块可以独立解码 */
+        long time = 0;
+        for (int i = 0; i < count; i++) {
+            time += unZigZag(readVarLong(body));
+            times[first + i] = time;
+        }
+        body.get(types, first, count);
+        int pointingInBlock = 0;
+        for (int i = first; i < first + count; i++) {
+            if (types[i] == SessionRecorder.TYPE_POINTING) {
+                /* 对星事件的整数值存放其在 angles 中的序号 */
+                intValues[i] = pointingCount + pointingInBlock;
+                pointingInBlock++;
+            } else {
+                intValues[i] = (int) unZigZag(readVarLong(body));
+            }
+        }
+        long messageId = 0;
+        for (int i = first; i < first + count; i++) {
+            if (types[i] == SessionRecorder.TYPE_SMS_SENT || types[i] == SessionRecorder.TYPE_SMS_DELIVERY) {
+                messageId += unZigZag(readVarLong(body));
+                messageIds[i] = messageId;
+            }
+        }
+        growAngles(pointingCount + pointingInBlock);
+        for (int column = 0; column < SessionRecorder.POINTING_VALUES; column++) {
+            long value = 0;
+            for (int i = 0; i < pointingInBlock; i++) {
+                value += unZigZag(readVarLong(body));
+                angles[(pointingCount + i) * SessionRecorder.POINTING_VALUES + column] =
+                        value == SessionRecorder.NAN_ANGLE ? Double.NaN : value / SessionRecorder.ANGLE_SCALE;
+            }
+        }
+        pointingCount += pointingInBlock;
+        eventCount += count;
+    }
+
+    private void grow(int required) {
+        if (required <= times.length) {
+            return;
+        }
+        int capacity = Math.max(required, times.length * 2);
+        times = Arrays.copyOf(times, capacity);
+        types = Arrays.copyOf(types, capacity);
+        intValues = Arrays.copyOf(intValues, capacity);
+        messageIds = Arrays.copyOf(messageIds, capacity);
+    }
+
+    private void growAngles(int requiredEvents) {
+        int required = requiredEvents * SessionRecorder.POINTING_VALUES;
+        if (required > angles.length) {
+            angles = Arrays.copyOf(angles, Math.max(required, angles.length * 2));
+        }
+    }
+
+    private static long readVarLong(ByteBuffer body) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (!body.hasRemaining()) {
+                throw new IOException("truncated block");
+            }
+            int b = body.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed varint");
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.recording;
+
+import com.example.satellite.backend.SatelliteBackend;
+import com.example.satellite.metrics.MeteredSatelliteBackend;
+import com.example.satellite.metrics.MetricsSnapshot;
+import com.example.satellite.metrics.SatelliteMetrics;
+
+import java.io.File;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 在开发机 JVM 上回放会话记录的命令行入口，经 {@link MeteredSatelliteBackend} 统计各类回调，打印回放耗时和吞吐
+ * 用法：SessionReplayMain 记录文件 [--speed 倍率|max]，默认按记录时的间隔回放
+ *
+ * @since 2026-10-17
+ */
+public final class SessionReplayMain {
+    private SessionReplayMain() {
+    }
+
+    /**
+     * Command line entry.
+     *
+     * @param args command line arguments
+     * @throws Exception if the recording cannot be read or the replay is interrupted
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            throw new IllegalArgumentException("usage: SessionReplayMain <recording> [--speed <factor>|max]");
+        }
+        double speed = 1;
+        for (int i = 1; i < args.length; i++) {
+            if (!"--speed".equals(args[i])) {
+                throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+            String value = value(args, ++i);
+            speed = "max".equals(value) ? ReplaySatelliteBackend.AS_FAST_AS_POSSIBLE : Double.parseDouble(value);
+        }
+        SessionRecording recording = SessionRecording.read(new File(args[0]));
+        System.out.printf(Locale.ROOT, "%d events over %.1fs%n", recording.getEventCount(),
+                recording.getDurationNanos() / 1e9);
+
+        /* 与应用中的回调通道一致，对星、状态、使能结果分别在独立线程上处理 */
+        ExecutorService pointingLane = Executors.newSingleThreadExecutor();
+        ExecutorService modemLane = Executors.newSingleThreadExecutor();
+        ExecutorService requestLane = Executors.newSingleThreadExecutor();
+        ReplaySatelliteBackend replay = new ReplaySatelliteBackend(recording, speed);
+        SatelliteMetrics metrics = new SatelliteMetrics(System::nanoTime);
+        SatelliteBackend backend = new MeteredSatelliteBackend(replay, metrics);
+        backend.setSmsResultCallback(new SatelliteBackend.SmsResultCallback() {
+            @Override
+            public void onSentResult(long messageId, int resultCode) {
+            }
+
+            @Override
+            public void onDeliveryResult(long messageId, int resultCode) {
+            }
+        });
+        backend.registerForSatellitePointingUpdates(pointingLane,
+            (satelliteEle, satelliteAzi, satelliteHor, phoneEle, phoneAzi, phoneHor) -> {
+            });
+        backend.registerForSatelliteModemStateChanged(modemLane, new SatelliteBackend.ModemStateCallback() {
+            @Override
+            public void onServiceStateChanged(int serviceState) {
+            }
+
+            @Override
+            public void onSignalStrengthChanged(int signalLevel) {
+            }
+        });
+        backend.requestSatelliteEnabled(true, requestLane, result -> {
+        });
+
+        long startNanos = System.nanoTime();
+        replay.start();
+        replay.awaitFinished(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        /* 等待各回调通道处理完已排队的回调 */
+        pointingLane.shutdown();
+        modemLane.shutdown();
+        requestLane.shutdown();
+        pointingLane.awaitTermination(1, TimeUnit.MINUTES);
+        modemLane.awaitTermination(1, TimeUnit.MINUTES);
+        requestLane.awaitTermination(1, TimeUnit.MINUTES);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        MetricsSnapshot snapshot = metrics.snapshot();
+        backend.release();
+
+        System.out.printf(Locale.ROOT, "replayed in %.3fs, %.0f events/s%n", elapsedNanos / 1e9,
+                recording.getEventCount() * 1e9 / Math.max(1L, elapsedNanos));
+        for (SatelliteMetrics.Callback callback : SatelliteMetrics.Callback.values()) {
+            System.out.printf(Locale.ROOT, "%s n=%d%n", callback, snapshot.getCount(callback));
+        }
+    }
+
+    private static String value(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("missing value for " + args[index - 1]);
+        }
+        return args[index];
+    }
+}
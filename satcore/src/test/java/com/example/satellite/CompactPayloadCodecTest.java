@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link CompactPayloadCodec} 的单元测试：编解码往返、负数和边界值、非法输入以及用户输入的结构化文本
+ *
+ * @since 2026-10-17
+ */
+public class CompactPayloadCodecTest {
+    @Test
+    public void positionRoundTripsAtCoordinateResolution() {
+        String text = CompactPayloadCodec.encodePosition(39.90421, -116.40739, -12, 1_700_000_000L);
+        assertTrue(text.startsWith(CompactPayloadCodec.PREFIX));
+        assertArrayEquals(new long[] {CompactPayloadCodec.TYPE_POSITION, 3_990_421L, -11_640_739L, -12L,
+            1_700_000_000L}, CompactPayloadCodec.decode(text));
+    }
+
+    @Test
+    public void statusRoundTrips() {
+        assertArrayEquals(new long[] {CompactPayloadCodec.TYPE_STATUS, 3L},
+                CompactPayloadCodec.decode(CompactPayloadCodec.encodeStatus(3)));
+    }
+
+    @Test
+    public void extremeFieldsRoundTrip() {
+        long[] fields = {0L, -1L, 1L, Long.MIN_VALUE, Long.MAX_VALUE, Integer.MIN_VALUE};
+        long[] decoded = CompactPayloadCodec.decode(CompactPayloadCodec.encode(7, fields));
+        assertNotNull(decoded);
+        assertEquals(7L, decoded[0]);
+        for (int i = 0; i < fields.length; i++) {
+            assertEquals(fields[i], decoded[i + 1]);
+        }
+    }
+
+    @Test
+    public void encodedTextUsesOnlyGsmBasicCharacters() {
+        String text = CompactPayloadCodec.encode(1, -123456789L, 987654321L, Long.MIN_VALUE);
+        /* 前缀和 Base64 字符都在 GSM 7 位基本字符集中，不含占两个septet的扩展字符 */
+        for (char c : text.toCharArray()) {
+            assertTrue("unexpected character " + c, c == '#' || c == '%' || c == '-' || c == '_'
+                    || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9'));
+        }
+    }
+
+    @Test
+    public void decodeRejectsPlainAndMalformedText() {
+        assertNull(CompactPayloadCodec.decode(null));
+        assertNull(CompactPayloadCodec.decode("hello"));
+        assertNull(CompactPayloadCodec.decode("#%"));
+        assertNull(CompactPayloadCodec.decode("#%not base64!"));
+        /* 只有一个前缀字符的普通文本 */
+        assertNull(CompactPayloadCodec.decode("#hashtag"));
+        /* 旧前缀 '~' 是扩展字符，不再识别 */
+        assertNull(CompactPayloadCodec.decode("~AgY"));
+        /* 0x80 为未结束的变长整数 */
+        assertNull(CompactPayloadCodec.decode("#%gA"));
+    }
+
+    @Test
+    public void structuredPositionIsShorterThanPlainText() {
+        String plain = "pos:39.90421,116.40739,50";
+        String encoded = CompactPayloadCodec.encodeStructured(plain);
+        assertNotNull(encoded);
+        assertTrue(encoded.length() < plain.length());
+        long[] decoded = CompactPayloadCodec.decode(encoded);
+        assertNotNull(decoded);
+        assertEquals(3_990_421L, decoded[1]);
+        assertEquals(11_640_739L, decoded[2]);
+        assertEquals(50L, decoded[3]);
+    }
+
+    @Test
+    public void structuredStatusIsEncoded() {
+        assertArrayEquals(new long[] {CompactPayloadCodec.TYPE_STATUS, 42L},
+                CompactPayloadCodec.decode(CompactPayloadCodec.encodeStructured("status:42")));
+    }
+
+    @Test
+    public void unknownOrMalformedStructuredTextStaysPlain() {
+        assertNull(CompactPayloadCodec.encodeStructured("hello"));
+        assertNull(CompactPayloadCodec.encodeStructured("pos:39.9"));
+        assertNull(CompactPayloadCodec.encodeStructured("pos:1,2,3,4"));
+        assertNull(CompactPayloadCodec.encodeStructured("pos:north,east"));
+        /* 海拔只接受整数米 */
+        assertNull(CompactPayloadCodec.encodeStructured("pos:39.9,116.4,43.5"));
+        assertNull(CompactPayloadCodec.encodeStructured("status:ok"));
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link LogRing} 的单元测试：超出容量时淘汰最旧的行、空行、跨越已显示文本和未刷新批次的淘汰以及清屏，
+ * 显示文本始终等于最近若干行以换行连接的结果
+ *
+ * @since 2026-10-17
+ */
+public class LogRingTest {
+    private final StringBuilderText text = new StringBuilderText();
+
+    @Test
+    public void oldestLinesAreEvicted() {
+        LogRing ring = new LogRing(3);
+        for (String line : new String[] {"a", "bb", "ccc", "dddd"}) {
+            ring.add(line);
+        }
+        ring.flushTo(text);
+        assertEquals("bb\nccc\ndddd", text.toString());
+        assertEquals(3, ring.getLineCount());
+        ring.add("e");
+        ring.flushTo(text);
+        assertEquals("ccc\ndddd\ne", text.toString());
+    }
+
+    @Test
+    public void emptyLinesAreKeptAndEvicted() {
+        LogRing ring = new LogRing(2);
+        ring.add("a");
+        ring.add("");
+        ring.flushTo(text);
+        assertEquals("a\n", text.toString());
+        /* 淘汰后首行为空行 */
+        ring.add("b");
+        ring.flushTo(text);
+        assertEquals("\nb", text.toString());
+        ring.add("");
+        ring.flushTo(text);
+        assertEquals("b\n", text.toString());
+        ring.add("");
+        ring.flushTo(text);
+        assertEquals("\n", text.toString());
+        ring.add("c");
+        ring.flushTo(text);
+        assertEquals("\nc", text.toString());
+        ring.add("d");
+        ring.flushTo(text);
+        assertEquals("c\nd", text.toString());
+    }
+
+    @Test
+    public void leadingEmptyLineIsShown() {
+        LogRing ring = new LogRing(3);
+        ring.add("");
+        ring.flushTo(text);
+        ring.add("x");
+        ring.flushTo(text);
+        assertEquals("\nx", text.toString());
+        /* 没有新行的刷新不改变显示文本 */
+        ring.flushTo(text);
+        assertEquals("\nx", text.toString());
+        ring.add("y");
+        ring.add("z");
+        ring.flushTo(text);
+        assertEquals("x\ny\nz", text.toString());
+    }
+
+    @Test
+    public void evictionSplitsShownTextAndPendingBatch() {
+        LogRing ring = new LogRing(3);
+        ring.add("one");
+        ring.add("two");
+        ring.flushTo(text);
+        /* 一批新行淘汰了已显示的两行和本批次中的第一行 */
+        ring.add("three");
+        ring.add("");
+        ring.add("five");
+        ring.add("six");
+        ring.flushTo(text);
+        assertEquals("\nfive\nsix", text.toString());
+        ring.add("seven");
+        ring.flushTo(text);
+        assertEquals("five\nsix\nseven", text.toString());
+    }
+
+    @Test
+    public void resetClearsShownAndPendingLines() {
+        LogRing ring = new LogRing(2);
+        ring.add("a");
+        ring.flushTo(text);
+        ring.add("b");
+        ring.reset();
+        ring.add("c");
+        ring.flushTo(text);
+        assertEquals("c", text.toString());
+        assertEquals(1, ring.getLineCount());
+    }
+
+    @Test
+    public void randomBatchesMatchLastLines() {
+        Random random = new Random(7);
+        for (int capacity = 1; capacity <= 5; capacity++) {
+            LogRing ring = new LogRing(capacity);
+            StringBuilderText shown = new StringBuilderText();
+            Deque<String> expected = new ArrayDeque<>();
+            for (int i = 0; i < 2000; i++) {
+                /* 空行、普通行和含换行的多行内容 */
+                int kind = random.nextInt(4);
+                String line = kind == 0 ? "" : kind == 3 ? i + "\nx" : Integer.toString(i);
+                ring.add(line);
+                expected.addLast(line);
+                if (expected.size() > capacity) {
+                    expected.removeFirst();
+                }
+                /* 有时连续刷新两次，第二次没有新行 */
+                for (int flushes = random.nextInt(4) - 1; flushes > 0; flushes--) {
+                    ring.flushTo(shown);
+                    assertEquals("capacity " + capacity + " line " + i, String.join("\n", expected),
+                            shown.toString());
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroCapacityIsRejected() {
+        new LogRing(0);
+    }
+
+    private static final class StringBuilderText implements LogRing.Text {
+        private final StringBuilder builder = new StringBuilder();
+
+        @Override
+        public int length() {
+            return builder.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return builder.charAt(index);
+        }
+
+        @Override
+        public void delete(int start, int end) {
+            builder.delete(start, end);
+        }
+
+        @Override
+        public void append(CharSequence text) {
+            builder.append(text);
+        }
+
+        @Override
+        public void clear() {
+            builder.setLength(0);
+        }
+
+        @Override
+        public String toString() {
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link PointingAligner} 的单元测试：角度环绕、大圆夹角、滤波降噪、方位角过 0 度以及指引的回差和保持
+ *
+ * @since 2026-10-17
+ */
+public class PointingAlignerTest {
+    /* 对星回调约 20Hz */
+    private static final long SAMPLE_NANOS = 50_000_000L;
+    private static final double DELTA = 1e-9;
+
+    @Test
+    public void wrapDegreesReturnsHalfOpenRange() {
+        assertEquals(-170.0, PointingAligner.wrapDegrees(190.0), DELTA);
+        assertEquals(170.0, PointingAligner.wrapDegrees(-190.0), DELTA);
+        assertEquals(-180.0, PointingAligner.wrapDegrees(180.0), DELTA);
+        assertEquals(-180.0, PointingAligner.wrapDegrees(-180.0), DELTA);
+        assertEquals(-1.0, PointingAligner.wrapDegrees(719.0), DELTA);
+        assertEquals(0.0, PointingAligner.wrapDegrees(360.0), DELTA);
+    }
+
+    @Test
+    public void angleBetweenIsGreatCircleAngle() {
+        assertEquals(0.0, PointingAligner.angleBetween(30, 120, 30, 120), DELTA);
+        assertEquals(10.0, PointingAligner.angleBetween(20, 45, 30, 45), 1e-6);
+        assertEquals(2.0, PointingAligner.angleBetween(0, 359, 0, 1), 1e-6);
+        /* 天顶方向与方位角无关 */
+        assertEquals(0.0, PointingAligner.angleBetween(90, 0, 90, 180), 1e-6);
+        assertEquals(180.0, PointingAligner.angleBetween(0, 0, 0, 180), 1e-6);
+    }
+
+    @Test
+    public void firstSampleGivesGuidanceImmediately() {
+        PointingAligner aligner = new PointingAligner();
+        assertEquals(PointingAligner.GUIDANCE_NONE, aligner.getGuidance());
+        assertTrue(Double.isNaN(aligner.getAngularError()));
+        assertEquals(PointingAligner.GUIDANCE_TURN_RIGHT, aligner.update(45, 90, 45, 60, 0));
+        assertEquals(30.0, aligner.getAzimuthError(), DELTA);
+        assertEquals(0.0, aligner.getElevationError(), DELTA);
+
+        aligner.reset();
+        assertEquals(PointingAligner.GUIDANCE_TILT_DOWN, aligner.update(10, 90, 40, 90, 0));
+        aligner.reset();
+        assertEquals(PointingAligner.GUIDANCE_ALIGNED, aligner.update(40, 200, 41, 201, 0));
+    }
+
+    @Test
+    public void azimuthFilterWrapsAroundNorth() {
+        PointingAligner aligner = new PointingAligner();
+        int guidance = PointingAligner.GUIDANCE_NONE;
+        for (int i = 0; i < 100; i++) {
+            /* 原始方位角在 358 度和 2 度之间交替 */
+            double phoneAzi = i % 2 == 0 ? 358.0 : 2.0;
+            guidance = aligner.update(30, 40, 30, phoneAzi, i * SAMPLE_NANOS);
+            double filtered = aligner.getFilteredPhoneAzi();
+            assertTrue("filtered azimuth " + filtered, filtered >= 0 && filtered < 360);
+            assertTrue("filtered azimuth " + filtered, filtered > 350 || filtered < 10);
+        }
+        assertEquals(40.0, aligner.getAzimuthError(), 3.0);
+        assertEquals(PointingAligner.GUIDANCE_TURN_RIGHT, guidance);
+    }
+
+    @Test
+    public void filterReducesMeasurementNoise() {
+        PointingAligner aligner = new PointingAligner();
+        Random random = new Random(7);
+        double rawSquares = 0;
+        int samples = 400;
+        for (int i = 0; i < samples; i++) {
+            double noiseEle = random.nextGaussian() * 3;
+            double noiseAzi = random.nextGaussian() * 3;
+            rawSquares += noiseEle * noiseEle + noiseAzi * noiseAzi;
+            aligner.update(45, 180, 45 + noiseEle, 180 + noiseAzi, i * SAMPLE_NANOS);
+        }
+        double rawRms = Math.sqrt(rawSquares / samples);
+        assertTrue("filtered RMS " + aligner.getErrorRms() + " raw RMS " + rawRms,
+                aligner.getErrorRms() < rawRms * 0.75);
+    }
+
+    @Test
+    public void guidanceChangesOnlyAfterHoldSamples() {
+        PointingAligner aligner = new PointingAligner(16, 25.0, 5.0, 2.0, 3);
+        long time = 0;
+        for (int i = 0; i < 20; i++) {
+            assertEquals(PointingAligner.GUIDANCE_ALIGNED, aligner.update(30, 100, 30, 100, time));
+            time += SAMPLE_NANOS;
+        }
+        int changedAt = -1;
+        for (int i = 0; i < 40 && changedAt < 0; i++) {
+            /* 手机向左偏开 40 度，需要右转 */
+            if (aligner.update(30, 100, 30, 60, time) == PointingAligner.GUIDANCE_TURN_RIGHT) {
+                changedAt = i;
+            }
+            time += SAMPLE_NANOS;
+        }
+        assertTrue("guidance changed at sample " + changedAt, changedAt >= 2);
+    }
+
+    @Test
+    public void hysteresisSuppressesFlickerAtTheToleranceBoundary() {
+        PointingAligner aligner = new PointingAligner();
+        Random random = new Random(3);
+        int changes = 0;
+        int previous = PointingAligner.GUIDANCE_NONE;
+        for (int i = 0; i < 400; i++) {
+            /* 误差在对准容差 5 度附近抖动 */
+            int guidance = aligner.update(30, 100, 30, 100 - 5.5 + random.nextGaussian(), i * SAMPLE_NANOS);
+            if (previous != PointingAligner.GUIDANCE_NONE && guidance != previous) {
+                changes++;
+            }
+            previous = guidance;
+        }
+        assertTrue("guidance changed " + changes + " times", changes <= 2);
+    }
+
+    @Test
+    public void nanSamplesAreIgnoredAndGapsRestartTheFilter() {
+        PointingAligner aligner = new PointingAligner();
+        aligner.update(30, 100, 20, 100, 0);
+        aligner.update(30, 100, 20, 100, SAMPLE_NANOS);
+        double error = aligner.getElevationError();
+        assertEquals(PointingAligner.GUIDANCE_TILT_UP, aligner.update(30, 100, Double.NaN, 100, 2 * SAMPLE_NANOS));
+        assertEquals(error, aligner.getElevationError(), DELTA);
+
+        /* 回调中断 3 秒后，新样本直接作为滤波初值 */
+        aligner.update(30, 100, 50, 100, 3_000_000_000L);
+        assertEquals(50.0, aligner.getFilteredPhoneEle(), DELTA);
+        assertEquals(PointingAligner.GUIDANCE_TILT_DOWN, aligner.getGuidance());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsEmptyWindow() {
+        new PointingAligner(0, 25.0, 5.0, 2.0, 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructorRejectsNegativeHysteresis() {
+        new PointingAligner(16, 25.0, 5.0, -1.0, 3);
+    }
+}
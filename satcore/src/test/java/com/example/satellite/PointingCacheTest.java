@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link PointingCache} 的单元测试：本网格和相邻网格的预测、180 度经线处首尾相接、过期和容量淘汰、保存加载以及损坏文件
+ *
+ * @since 2026-10-17
+ */
+public class PointingCacheTest {
+    private static final double CELL_DEGREES = 1.0;
+    private static final int CAPACITY = 16;
+    private static final long MAX_AGE_MILLIS = 1000L;
+    private static final double DELTA = 1e-9;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void ownCellPredictsRecordedDirection() throws IOException {
+        PointingCache cache = newCache();
+        cache.record(30.2, 120.7, 45.0, 135.0, 2.5, 100L);
+        PointingCache.Prediction prediction = cache.predict(30.9, 120.1, 200L);
+        assertNotNull(prediction);
+        assertTrue(prediction.exactCell);
+        assertEquals(45.0, prediction.satelliteEle, DELTA);
+        assertEquals(135.0, prediction.satelliteAzi, DELTA);
+        assertEquals(2.5, prediction.satelliteHor, DELTA);
+        assertEquals(100L, prediction.recordedMillis);
+    }
+
+    @Test
+    public void nearestNeighbourCellIsUsed() throws IOException {
+        PointingCache cache = newCache();
+        /* 南侧网格和东侧网格各有一条记录，查询位置所在的网格没有记录 */
+        cache.record(30.5, 120.5, 40.0, 130.0, 0.0, 0L);
+        cache.record(31.5, 121.5, 50.0, 140.0, 0.0, 0L);
+        PointingCache.Prediction southWest = cache.predict(31.1, 120.1, 0L);
+        assertNotNull(southWest);
+        assertFalse(southWest.exactCell);
+        assertEquals(40.0, southWest.satelliteEle, DELTA);
+        PointingCache.Prediction northEast = cache.predict(31.9, 120.9, 0L);
+        assertNotNull(northEast);
+        assertEquals(50.0, northEast.satelliteEle, DELTA);
+        /* 两个网格之外没有预测 */
+        assertNull(cache.predict(33.5, 120.5, 0L));
+    }
+
+    @Test
+    public void longitudeWrapsAtAntimeridian() throws IOException {
+        PointingCache cache = newCache();
+        cache.record(0.5, 179.5, 60.0, 90.0, 0.0, 0L);
+        PointingCache.Prediction prediction = cache.predict(0.5, -179.5, 0L);
+        assertNotNull(prediction);
+        assertFalse(prediction.exactCell);
+        assertEquals(60.0, prediction.satelliteEle, DELTA);
+        /* 超出 [-180, 180) 的经度按同一网格处理 */
+        PointingCache.Prediction wrapped = cache.predict(0.5, 179.5 - 360.0, 0L);
+        assertNotNull(wrapped);
+        assertTrue(wrapped.exactCell);
+    }
+
+    @Test
+    public void staleCellsAreNotPredicted() throws IOException {
+        PointingCache cache = newCache();
+        cache.record(30.5, 120.5, 45.0, 135.0, 0.0, 0L);
+        assertNotNull(cache.predict(30.5, 120.5, MAX_AGE_MILLIS));
+        assertNull(cache.predict(30.5, 120.5, MAX_AGE_MILLIS + 1));
+        /* 实时数据覆盖后重新可用 */
+        cache.record(30.5, 120.5, 46.0, 135.0, 0.0, 2 * MAX_AGE_MILLIS);
+        assertEquals(46.0, cache.predict(30.5, 120.5, 2 * MAX_AGE_MILLIS).satelliteEle, DELTA);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedCellIsEvicted() throws IOException {
+        PointingCache cache = new PointingCache(folder.newFile("pointing.cache"), CELL_DEGREES, 2, MAX_AGE_MILLIS);
+        cache.record(10.5, 10.5, 10.0, 10.0, 0.0, 0L);
+        cache.record(20.5, 20.5, 20.0, 20.0, 0.0, 0L);
+        assertNotNull(cache.predict(10.5, 10.5, 0L));
+        cache.record(30.5, 30.5, 30.0, 30.0, 0.0, 0L);
+        assertEquals(2, cache.size());
+        assertNotNull(cache.predict(10.5, 10.5, 0L));
+        assertNull(cache.predict(20.5, 20.5, 0L));
+        assertNotNull(cache.predict(30.5, 30.5, 0L));
+    }
+
+    @Test
+    public void missingValuesAreIgnored() throws IOException {
+        PointingCache cache = newCache();
+        cache.record(Double.NaN, 120.5, 45.0, 135.0, 0.0, 0L);
+        cache.record(30.5, 120.5, Double.NaN, 135.0, 0.0, 0L);
+        assertEquals(0, cache.size());
+        assertNull(cache.predict(30.5, Double.NaN, 0L));
+    }
+
+    @Test
+    public void saveAndLoadRoundTrip() throws IOException {
+        File file = new File(folder.getRoot(), "pointing/pointing.cache");
+        PointingCache cache = new PointingCache(file, CELL_DEGREES, CAPACITY, MAX_AGE_MILLIS);
+        cache.record(30.5, 120.5, 45.0, 135.0, 2.5, 100L);
+        cache.record(-33.5, -70.5, 30.0, 10.0, -1.0, 200L);
+        cache.save();
+        assertTrue(file.isFile());
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        PointingCache loaded = new PointingCache(file, CELL_DEGREES, CAPACITY, MAX_AGE_MILLIS);
+        loaded.load();
+        assertEquals(2, loaded.size());
+        PointingCache.Prediction prediction = loaded.predict(-33.5, -70.5, 300L);
+        assertNotNull(prediction);
+        assertEquals(30.0, prediction.satelliteEle, DELTA);
+        assertEquals(10.0, prediction.satelliteAzi, DELTA);
+        assertEquals(-1.0, prediction.satelliteHor, DELTA);
+        assertEquals(200L, prediction.recordedMillis);
+    }
+
+    @Test
+    public void unchangedCacheIsNotWritten() throws IOException {
+        File file = new File(folder.getRoot(), "pointing.cache");
+        PointingCache cache = new PointingCache(file, CELL_DEGREES, CAPACITY, MAX_AGE_MILLIS);
+        cache.load();
+        cache.save();
+        assertFalse(file.exists());
+    }
+
+    @Test
+    public void corruptedFileIsRejected() throws IOException {
+        File file = folder.newFile("pointing.cache");
+        PointingCache cache = new PointingCache(file, CELL_DEGREES, CAPACITY, MAX_AGE_MILLIS);
+        cache.record(30.5, 120.5, 45.0, 135.0, 0.0, 0L);
+        cache.save();
+        /* 翻转记录中的一个字节，校验和不再匹配 */
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(24);
+            int value = raf.read();
+            raf.seek(24);
+            raf.write(value ^ 0xff);
+        }
+        assertLoadFails(new PointingCache(file, CELL_DEGREES, CAPACITY, MAX_AGE_MILLIS));
+    }
+
+    @Test
+    public void differentCellSizeIsRejected() throws IOException {
+        File file = folder.newFile("pointing.cache");
+        PointingCache cache = new PointingCache(file, CELL_DEGREES, CAPACITY, MAX_AGE_MILLIS);
+        cache.record(30.5, 120.5, 45.0, 135.0, 0.0, 0L);
+        cache.save();
+        assertLoadFails(new PointingCache(file, 0.5, CAPACITY, MAX_AGE_MILLIS));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidCellSizeIsRejected() {
+        new PointingCache(new File("unused"), 0.0, CAPACITY, MAX_AGE_MILLIS);
+    }
+
+    private PointingCache newCache() throws IOException {
+        return new PointingCache(folder.newFile("pointing.cache"), CELL_DEGREES, CAPACITY, MAX_AGE_MILLIS);
+    }
+
+    private static void assertLoadFails(PointingCache cache) {
+        try {
+            cache.load();
+            fail("expected IOException");
+        } catch (IOException e) {
+            assertEquals(0, cache.size());
+        }
+    }
+}
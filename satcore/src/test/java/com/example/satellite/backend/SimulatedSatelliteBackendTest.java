@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.backend;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link SimulatedSatelliteBackend} 的单元测试：加速运行时对星和信号更新的实际频率与配置一致，不随时间漂移
+ *
+ * @since 2026-10-17
+ */
+public class SimulatedSatelliteBackendTest {
+    private static final double TIME_SCALE = 100.0;
+    /* 模拟时间 1 秒一次对星更新、10 秒一次信号上报，按 100 倍加速后分别为 100Hz 和 10Hz */
+    private static final long POINTING_INTERVAL_MILLIS = 1000L;
+    private static final long SIGNAL_INTERVAL_MILLIS = 10000L;
+    private static final long WARM_UP_MILLIS = 300L;
+    private static final long MEASURE_MILLIS = 2000L;
+    private static final double TOLERANCE = 0.05;
+
+    @Test
+    public void deliveredRatesMatchConfiguredIntervals() throws InterruptedException {
+        SimulatedSatelliteBackend backend = new SimulatedSatelliteBackend(new SimulatorConfig()
+                .setTimeScale(TIME_SCALE)
+                .setIntervals(POINTING_INTERVAL_MILLIS, SIGNAL_INTERVAL_MILLIS)
+                .setEnable(0L, 0.0));
+        AtomicInteger pointingCount = new AtomicInteger();
+        AtomicInteger signalCount = new AtomicInteger();
+        CountDownLatch enabled = new CountDownLatch(1);
+        try {
+            backend.registerForSatellitePointingUpdates(Runnable::run,
+                (satelliteEle, satelliteAzi, satelliteHor, phoneEle, phoneAzi, phoneHor) -> {
+                    pointingCount.incrementAndGet();
+                    /* 模拟回调有一定耗时，固定间隔排期时会累积成频率偏低 */
+                    busyWait(TimeUnit.MILLISECONDS.toNanos(2));
+                });
+            backend.registerForSatelliteModemStateChanged(Runnable::run, new SatelliteBackend.ModemStateCallback() {
+                @Override
+                public void onServiceStateChanged(int satService) {
+                }
+
+                @Override
+                public void onSignalStrengthChanged(int satSignal) {
+                    signalCount.incrementAndGet();
+                }
+            });
+            backend.requestSatelliteEnabled(true, Runnable::run, result -> enabled.countDown());
+            assertTrue(enabled.await(1, TimeUnit.SECONDS));
+            Thread.sleep(WARM_UP_MILLIS);
+
+            long startNanos = System.nanoTime();
+            int pointingStart = pointingCount.get();
+            int signalStart = signalCount.get();
+            Thread.sleep(MEASURE_MILLIS);
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            assertRate("pointing", (pointingCount.get() - pointingStart) / seconds,
+                    TIME_SCALE * 1000.0 / POINTING_INTERVAL_MILLIS);
+            assertRate("signal", (signalCount.get() - signalStart) / seconds,
+                    TIME_SCALE * 1000.0 / SIGNAL_INTERVAL_MILLIS);
+        } finally {
+            backend.release();
+        }
+    }
+
+    private static void assertRate(String name, double actualHz, double expectedHz) {
+        assertTrue(name + " rate " + actualHz + "Hz, expected " + expectedHz + "Hz",
+                Math.abs(actualHz - expectedHz) <= expectedHz * TOLERANCE);
+    }
+
+    private static void busyWait(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() < end) {
+            /* 忙等，与回调线程上的实际处理耗时一致 */
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.fleet;
+
+import com.example.satellite.metrics.HistogramSnapshot;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link FleetLogAnalyzer} 的单元测试：按 1KB 分块并行解析与整个文件一次解析的统计完全一致，
+ * 跨越分块边界的行只计入一次
+ *
+ * @since 2026-10-17
+ */
+public class FleetLogAnalyzerTest {
+    private static final int LOGCAT_YEAR = 2026;
+    private static final int SMALL_CHUNK_BYTES = 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void smallChunksGiveSameStatsAsSingleChunk() throws IOException {
+        File root = folder.newFolder("fleet");
+        writeLog(new File(root, "device-a/satellite.log"), 1, false);
+        writeLog(new File(root, "device-a/logcat.txt"), 2, true);
+        writeLog(new File(root, "device-b/satellite.log"), 3, false);
+
+        FleetLogAnalyzer.Report whole = new FleetLogAnalyzer(1, FleetLogAnalyzer.DEFAULT_CHUNK_BYTES, LOGCAT_YEAR)
+                .analyze(Collections.singletonList(root));
+        FleetLogAnalyzer.Report chunked = new FleetLogAnalyzer(4, SMALL_CHUNK_BYTES, LOGCAT_YEAR)
+                .analyze(Collections.singletonList(root));
+
+        assertEquals(Arrays.asList("device-a", "device-b"), new ArrayList<>(whole.getDevices().keySet()));
+        assertEquals(whole.getDevices().keySet(), chunked.getDevices().keySet());
+        for (String device : whole.getDevices().keySet()) {
+            assertSameStats(whole.getDevices().get(device), chunked.getDevices().get(device));
+        }
+        DeviceLogStats fleet = whole.getFleet();
+        assertSameStats(fleet, chunked.getFleet());
+        /* 日志足够长，确实跨越了多个分块，且各类行都被识别 */
+        assertTrue(fleet.getBytes() > 20L * SMALL_CHUNK_BYTES);
+        assertEquals(3, fleet.getFiles());
+        assertTrue(fleet.getEnableSucceeded() > 0);
+        assertTrue(fleet.getMessagesFailed() > 0);
+        assertTrue(fleet.getTimeToService().getCount() > 0);
+        assertTrue(fleet.getReadyLatency().getCount() > 0);
+    }
+
+    /**
+     * 生成一台设备的会话日志或 logcat，包含事件、状态切换、使能结果和短信行
+     *
+     * @param file file to write, parent directories are created
+     * @param seed seed of the generated content
+     * @param logcat whether to write logcat threadtime lines instead of session log lines
+     * @throws IOException if the file cannot be written
+     */
+    private static void writeLog(File file, long seed, boolean logcat) throws IOException {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder();
+        long millis = 0;
+        int sequence = 0;
+        for (int i = 0; i < 600; i++) {
+            millis += random.nextInt(2000);
+            String time = String.format(Locale.ROOT, "%02d:%02d:%02d.%03d", millis / 3600000 % 24,
+                    millis / 60000 % 60, millis / 1000 % 60, millis % 1000);
+            int kind = random.nextInt(8);
+            if (logcat) {
+                text.append("03-01 ").append(time).append("  1234  1301 I ");
+                if (kind < 3) {
+                    text.append("SatComKitDemo: service state ").append(random.nextInt(3));
+                } else if (kind < 5) {
+                    text.append("SatComKitDemo: signal level ").append(random.nextInt(6));
+                } else if (kind == 5) {
+                    text.append("MainActivity: result: ").append(random.nextBoolean());
+                } else if (kind == 6) {
+                    text.append("SatelliteSession: message ").append(i).append(" FAILED, sent resultCode: ")
+                            .append(random.nextInt(3) - 1).append(", delivery resultCode: 4");
+                } else {
+                    text.append("ConnectionOrchestrator: ENABLING -> WAITING_FOR_SERVICE: enabled");
+                }
+            } else {
+                text.append("2026-03-01 ").append(time).append(' ');
+                if (kind < 3) {
+                    text.append('#').append(sequence++).append(" service state ").append(random.nextInt(3));
+                } else if (kind < 5) {
+                    text.append('#').append(sequence++).append(" signal level ").append(random.nextInt(6));
+                } else if (kind == 5) {
+                    text.append("WAITING_FOR_SERVICE: enabled, waiting for service");
+                } else if (kind == 6) {
+                    text.append("message ").append(i).append(random.nextBoolean() ? " DELIVERED" : " FAILED")
+                            .append(", sent resultCode: -1, delivery resultCode: ").append(random.nextInt(3));
+                } else {
+                    text.append("ready to send after ").append(random.nextInt(60000)).append("ms");
+                }
+            }
+            text.append('\n');
+        }
+        File parent = file.getParentFile();
+        assertTrue(parent.isDirectory() || parent.mkdirs());
+        Files.write(file.toPath(), text.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /* DeviceLogStats 没有实现 equals，逐项比较公开的统计 */
+    private static void assertSameStats(DeviceLogStats expected, DeviceLogStats actual) {
+        String device = expected.getDevice();
+        assertEquals(device, actual.getDevice());
+        assertEquals(device, expected.getFiles(), actual.getFiles());
+        assertEquals(device, expected.getBytes(), actual.getBytes());
+        assertEquals(device, expected.getLines(), actual.getLines());
+        assertEquals(device, expected.getSkippedLines(), actual.getSkippedLines());
+        for (int state = -1; state < DeviceLogStats.SERVICE_STATE_SLOTS - 1; state++) {
+            assertEquals(device, expected.getServiceStateCount(state), actual.getServiceStateCount(state));
+        }
+        for (int level = 0; level < DeviceLogStats.SIGNAL_LEVEL_SLOTS; level++) {
+            assertEquals(device, expected.getSignalLevelCount(level), actual.getSignalLevelCount(level));
+        }
+        assertEquals(device, expected.getEnableAttempts(), actual.getEnableAttempts());
+        assertEquals(device, expected.getEnableSucceeded(), actual.getEnableSucceeded());
+        assertEquals(device, expected.getEnableFailed(), actual.getEnableFailed());
+        assertEquals(device, expected.getEnableRejected(), actual.getEnableRejected());
+        assertEquals(device, expected.getServiceTimeouts(), actual.getServiceTimeouts());
+        assertEquals(device, expected.getConnectReady(), actual.getConnectReady());
+        assertEquals(device, expected.getConnectFailed(), actual.getConnectFailed());
+        assertEquals(device, expected.getMessagesSent(), actual.getMessagesSent());
+        assertEquals(device, expected.getMessagesDelivered(), actual.getMessagesDelivered());
+        assertEquals(device, expected.getMessagesFailed(), actual.getMessagesFailed());
+        assertEquals(device, expected.getFailureCodes(), actual.getFailureCodes());
+        assertSameHistogram(device, expected.getTimeToService(), actual.getTimeToService());
+        assertSameHistogram(device, expected.getReadyLatency(), actual.getReadyLatency());
+    }
+
+    private static void assertSameHistogram(String device, HistogramSnapshot expected, HistogramSnapshot actual) {
+        assertEquals(device, expected.getCount(), actual.getCount());
+        assertEquals(device, expected.getMin(), actual.getMin());
+        assertEquals(device, expected.getMax(), actual.getMax());
+        assertEquals(device, expected.getMean(), actual.getMean(), 0.0);
+        assertEquals(device, expected.getValueAtPercentile(50), actual.getValueAtPercentile(50));
+        assertEquals(device, expected.getValueAtPercentile(99), actual.getValueAtPercentile(99));
+    }
+}
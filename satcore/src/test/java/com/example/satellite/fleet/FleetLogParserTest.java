@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.fleet;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link FleetLogParser} 的单元测试：会话日志文件的事件、状态切换和短信行，logcat 各标签下的状态、信号、使能结果和短信行，
+ * 以及回车换行、超长行和不完整的行
+ *
+ * @since 2026-10-17
+ */
+public class FleetLogParserTest {
+    private static final int LOGCAT_YEAR = 2026;
+
+    @Test
+    public void spillEventsCountServiceStatesAndSignalLevels() {
+        DeviceLogStats stats = parse(
+                "2026-03-01 10:00:00.000 #1 service state 0",
+                "2026-03-01 10:00:00.100 #2 signal level 3",
+                "2026-03-01 10:00:00.200 #3 service state 1",
+                "2026-03-01 10:00:00.300 #4 signal level 9",
+                "2026-03-01 10:00:00.400 #5 service state",
+                "2026-03-01 10:00:00.500 #6 service state 0 extra");
+        assertEquals(6, stats.getLines());
+        assertEquals(1, stats.getServiceStateCount(0));
+        assertEquals(1, stats.getServiceStateCount(1));
+        assertEquals(1, stats.getSignalLevelCount(3));
+        /* 超出范围的格数计入最后一项 */
+        assertEquals(1, stats.getSignalLevelCount(DeviceLogStats.SIGNAL_LEVEL_SLOTS - 1));
+    }
+
+    @Test
+    public void spillTransitionsGiveEnableCountsAndLatencies() {
+        DeviceLogStats stats = parse(
+                "2026-03-01 10:00:00.000 ENABLING: aligned, attempt 1",
+                "2026-03-01 10:00:01.000 BACKING_OFF: enable rejected, retrying in 2000ms",
+                "2026-03-01 10:00:03.000 ENABLING: retry, attempt 2",
+                "2026-03-01 10:00:04.000 BACKING_OFF: enable failed: timeout, retrying in 4000ms",
+                "2026-03-01 10:00:08.000 ENABLING: retry, attempt 3",
+                "2026-03-01 10:00:09.000 WAITING_FOR_SERVICE: enabled, waiting for service",
+                "2026-03-01 10:00:11.500 #7 service state 0",
+                "2026-03-01 10:00:11.600 READY: in service",
+                "2026-03-01 10:00:11.600 ready to send after 11600ms",
+                "2026-03-01 10:05:00.000 FAILED: no service within 300000ms");
+        stats.finish();
+        assertEquals(3, stats.getEnableAttempts());
+        assertEquals(1, stats.getEnableSucceeded());
+        assertEquals(1, stats.getEnableRejected());
+        assertEquals(1, stats.getEnableFailed());
+        assertEquals(1, stats.getServiceTimeouts());
+        assertEquals(1, stats.getConnectReady());
+        assertEquals(1, stats.getConnectFailed());
+        assertEquals(1, stats.getTimeToService().getCount());
+        assertEquals(2500, stats.getTimeToService().getMin());
+        assertEquals(1, stats.getReadyLatency().getCount());
+        assertEquals(11600, stats.getReadyLatency().getMin());
+    }
+
+    @Test
+    public void spillMessagesCountResultsAndFailureCodes() {
+        DeviceLogStats stats = parse(
+                "2026-03-01 10:00:00.000 message 1 SENT, sent resultCode: -1, delivery resultCode: 0",
+                "2026-03-01 10:00:01.000 message 1 DELIVERED, sent resultCode: -1, delivery resultCode: -1",
+                "2026-03-01 10:00:02.000 message 2 FAILED, sent resultCode: -1, delivery resultCode: 5",
+                "2026-03-01 10:00:03.000 message 3 FAILED, sent resultCode: 2, delivery resultCode: 0",
+                "2026-03-01 10:00:04.000 message 4 QUEUED, sent resultCode: 0, delivery resultCode: 0",
+                "2026-03-01 10:00:05.000 message 5 FAILED, sent resultCode: x");
+        assertEquals(1, stats.getMessagesSent());
+        assertEquals(1, stats.getMessagesDelivered());
+        assertEquals(2, stats.getMessagesFailed());
+        Map<Long, Long> codes = new HashMap<>();
+        codes.put(failureKey(DeviceLogStats.PHASE_DELIVERY, 5), 1L);
+        codes.put(failureKey(DeviceLogStats.PHASE_SENT, 2), 1L);
+        assertEquals(codes, stats.getFailureCodes());
+    }
+
+    @Test
+    public void logcatOrchestratorTransitionsAreCounted() {
+        DeviceLogStats stats = parse(
+                "03-01 10:00:00.000  1234  1250 I ConnectionOrchestrator: ALIGNING -> ENABLING: aligned, attempt 1",
+                "03-01 10:00:01.000  1234  1250 I ConnectionOrchestrator: ENABLING -> WAITING_FOR_SERVICE: enabled",
+                "03-01 10:00:02.000  1234  1250 I ConnectionOrchestrator: WAITING_FOR_SERVICE -> READY: in service",
+                /* 会话日志格式的状态切换在 logcat 中不计入 */
+                "03-01 10:00:03.000  1234  1250 I ConnectionOrchestrator: READY: in service");
+        assertEquals(4, stats.getLines());
+        assertEquals(1, stats.getEnableAttempts());
+        assertEquals(1, stats.getEnableSucceeded());
+        assertEquals(1, stats.getConnectReady());
+    }
+
+    @Test
+    public void logcatModemStateLinesAreCounted() {
+        DeviceLogStats stats = parse(
+                "03-01 10:00:00.000  1234  1250 I MainActivity: result: true",
+                "03-01 10:00:01.000  1234  1301 I SatComKitDemo: service state 1",
+                "03-01 10:00:02.000  1234  1301 I SatComKitDemo: signal level 2",
+                "03-01 10:00:04.000  1234  1301 I SatComKitDemo: service state 0",
+                "03-01 10:00:05.000  1234  1301 I SatComKitDemo: signal level",
+                /* 其他标签下的同样内容不计入 */
+                "03-01 10:00:06.000  1234  1301 I SatelliteClient: service state 0");
+        stats.finish();
+        assertEquals(1, stats.getServiceStateCount(0));
+        assertEquals(1, stats.getServiceStateCount(1));
+        assertEquals(1, stats.getSignalLevelCount(2));
+        assertEquals(1, stats.getTimeToService().getCount());
+        assertEquals(4000, stats.getTimeToService().getMin());
+    }
+
+    @Test
+    public void logcatEnableResultsAreCounted() {
+        DeviceLogStats stats = parse(
+                "03-01 10:00:00.000  1234  1234 I SatComKitDemo: result: true",
+                "03-01 10:00:01.000  1234  1234 I SatComKitDemo: result: false",
+                "03-01 10:00:02.000  1234  1234 I MainActivity: result: true",
+                "03-01 10:00:03.000  1234  1234 I MainActivity: result: false",
+                /* 步骤3、4的注册结果是整数，不是使能结果 */
+                "03-01 10:00:04.000  1234  1234 I MainActivity: result: 0",
+                "03-01 10:00:05.000  1234  1234 I MainActivity: result: trueish",
+                "03-01 10:00:06.000  1234  1234 I SatelliteSession: result: true");
+        assertEquals(4, stats.getEnableAttempts());
+        assertEquals(2, stats.getEnableSucceeded());
+        assertEquals(2, stats.getEnableRejected());
+        assertEquals(0, stats.getEnableFailed());
+    }
+
+    @Test
+    public void logcatMessageLinesAreCounted() {
+        DeviceLogStats stats = parse(
+                "03-01 10:00:00.000  1234  1400 I SatelliteSession: message 1 SENT, sent resultCode: -1,"
+                        + " delivery resultCode: 0",
+                "03-01 10:00:01.000  1234  1400 I SatelliteSession: message 1 DELIVERED, sent resultCode: -1,"
+                        + " delivery resultCode: -1",
+                "03-01 10:00:02.000  1234  1400 I SatelliteSession: message 2 FAILED, sent resultCode: 7,"
+                        + " delivery resultCode: 0",
+                "03-01 10:00:03.000  1234  1400 I MainActivity: message 3 DELIVERED, sent resultCode: -1,"
+                        + " delivery resultCode: -1");
+        assertEquals(1, stats.getMessagesSent());
+        assertEquals(1, stats.getMessagesDelivered());
+        assertEquals(1, stats.getMessagesFailed());
+        assertEquals(1L, (long) stats.getFailureCodes().get(failureKey(DeviceLogStats.PHASE_SENT, 7)));
+    }
+
+    @Test
+    public void carriageReturnsAndUntimedLinesAreHandled() {
+        DeviceLogStats stats = parse(
+                "2026-03-01 10:00:00.000 #1 service state 2\r",
+                "03-01 10:00:00.000  1234  1301 I SatComKitDemo: signal level 5\r",
+                "#2 service state 3",
+                "");
+        assertEquals(4, stats.getLines());
+        assertEquals(1, stats.getServiceStateCount(2));
+        assertEquals(1, stats.getServiceStateCount(3));
+        assertEquals(1, stats.getSignalLevelCount(5));
+    }
+
+    @Test
+    public void overlongLineIsSkipped() {
+        StringBuilder longLine = new StringBuilder("2026-03-01 10:00:00.000 #1 service state 0 ");
+        while (longLine.length() <= FleetLogParser.MAX_LINE_BYTES) {
+            longLine.append('x');
+        }
+        DeviceLogStats stats = parse(longLine.toString(), "2026-03-01 10:00:01.000 #2 service state 1");
+        assertEquals(1, stats.getSkippedLines());
+        assertEquals(1, stats.getLines());
+        assertEquals(0, stats.getServiceStateCount(0));
+        assertEquals(1, stats.getServiceStateCount(1));
+    }
+
+    @Test
+    public void unterminatedLineWaitsForEndOfInput() {
+        byte[] bytes = "2026-03-01 10:00:00.000 #1 service state 0\n2026-03-01 10:00:01.000 #2 service state 1"
+                .getBytes(StandardCharsets.US_ASCII);
+        DeviceLogStats partial = new DeviceLogStats("device");
+        new FleetLogParser(LOGCAT_YEAR).parse(ByteBuffer.wrap(bytes), 0, bytes.length, false, partial, 0);
+        assertEquals(1, partial.getLines());
+        DeviceLogStats complete = new DeviceLogStats("device");
+        new FleetLogParser(LOGCAT_YEAR).parse(ByteBuffer.wrap(bytes), 0, bytes.length, true, complete, 0);
+        assertEquals(2, complete.getLines());
+        assertEquals(1, complete.getServiceStateCount(1));
+    }
+
+    private static DeviceLogStats parse(String... lines) {
+        byte[] bytes = (String.join("\n", lines) + "\n").getBytes(StandardCharsets.US_ASCII);
+        DeviceLogStats stats = new DeviceLogStats("device");
+        new FleetLogParser(LOGCAT_YEAR).parse(ByteBuffer.wrap(bytes), 0, bytes.length, true, stats, 0);
+        return stats;
+    }
+
+    private static long failureKey(int phase, int resultCode) {
+        return ((long) phase << 32) | (resultCode & 0xffffffffL);
+    }
+}
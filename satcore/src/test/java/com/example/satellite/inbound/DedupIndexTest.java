@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.inbound;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link DedupIndex} 的单元测试：重复判断、先进先出淘汰、后移删除后的查询以及短信和分段的哈希
+ *
+ * @since 2026-10-17
+ */
+public class DedupIndexTest {
+    @Test
+    public void secondAddOfSameKeyIsDuplicate() {
+        DedupIndex index = new DedupIndex(4);
+        long key = DedupIndex.keyOf("10086", 1000L, "hello");
+        assertTrue(index.add(key));
+        assertFalse(index.add(key));
+        assertTrue(index.contains(key));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void zeroKeyIsRemembered() {
+        DedupIndex index = new DedupIndex(4);
+        assertFalse(index.contains(0L));
+        assertTrue(index.add(0L));
+        assertTrue(index.contains(0L));
+        assertFalse(index.add(0L));
+    }
+
+    @Test
+    public void oldestKeyIsEvictedWhenFull() {
+        DedupIndex index = new DedupIndex(3);
+        for (long key = 1; key <= 4; key++) {
+            assertTrue(index.add(key));
+        }
+        assertEquals(3, index.size());
+        assertFalse(index.contains(1L));
+        assertTrue(index.contains(2L));
+        assertTrue(index.contains(4L));
+        assertTrue(index.add(1L));
+        assertFalse(index.contains(2L));
+    }
+
+    @Test
+    public void collidingKeysStayReachableAfterEviction() {
+        /* 表大小为8，低3位相同的键落在同一条探测链上，淘汰链头后其余键仍能查到 */
+        DedupIndex index = new DedupIndex(4);
+        long[] keys = {8L, 16L, 24L, 32L};
+        for (long key : keys) {
+            assertTrue(index.add(key));
+        }
+        assertTrue(index.add(40L));
+        assertFalse(index.contains(8L));
+        for (int i = 1; i < keys.length; i++) {
+            assertTrue(index.contains(keys[i]));
+        }
+        assertTrue(index.contains(40L));
+    }
+
+    @Test
+    public void manyKeysKeepOnlyMostRecent() {
+        int capacity = 1000;
+        DedupIndex index = new DedupIndex(capacity);
+        for (int i = 0; i < 10 * capacity; i++) {
+            assertTrue(index.add(DedupIndex.keyOf("10086", i, "message")));
+        }
+        assertEquals(capacity, index.size());
+        for (int i = 0; i < 10 * capacity; i++) {
+            assertEquals(i >= 9 * capacity, index.contains(DedupIndex.keyOf("10086", i, "message")));
+        }
+    }
+
+    @Test
+    public void keyDependsOnEveryField() {
+        long key = DedupIndex.keyOf("10086", 1000L, "hello");
+        assertEquals(key, DedupIndex.keyOf("10086", 1000L, "hello"));
+        assertNotEquals(key, DedupIndex.keyOf("10010", 1000L, "hello"));
+        assertNotEquals(key, DedupIndex.keyOf("10086", 1001L, "hello"));
+        assertNotEquals(key, DedupIndex.keyOf("10086", 1000L, "hello!"));
+        /* 地址和正文的拼接边界不同 */
+        assertNotEquals(DedupIndex.keyOf("1008", 0L, "6hello"), DedupIndex.keyOf("10086", 0L, "hello"));
+        assertEquals(DedupIndex.keyOf(null, 0L, null), DedupIndex.keyOf("", 0L, ""));
+    }
+
+    @Test
+    public void singlePartKeyEqualsMessageKey() {
+        long key = DedupIndex.keyOf("10086", 1000L, "hello");
+        assertEquals(key, DedupIndex.keyOfPart("10086", 1000L, "hello", 7, 1, 1));
+        long first = DedupIndex.keyOfPart("10086", 1000L, "hello", 7, 1, 2);
+        assertNotEquals(key, first);
+        assertNotEquals(first, DedupIndex.keyOfPart("10086", 1000L, "hello", 7, 2, 2));
+        assertNotEquals(first, DedupIndex.keyOfPart("10086", 1000L, "hello", 8, 1, 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveCapacity() {
+        new DedupIndex(0);
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.inbound;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link InboundJournal} 的单元测试：按批追加后重放、只保留最近的短信、截断残缺记录和压缩
+ *
+ * @since 2026-10-17
+ */
+public class InboundJournalTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void replayReturnsAppendedMessagesInOrder() throws IOException {
+        File file = new File(folder.getRoot(), "inbox.journal");
+        try (InboundJournal journal = InboundJournal.open(file, new ArrayDeque<>(), 10)) {
+            assertEquals(0, journal.getRecordCount());
+            journal.append(Arrays.asList(message("10086", "hello", 1000L), message("10010", "你好", 2000L)));
+            journal.append(Collections.singletonList(message("10086", "", 3000L)));
+            journal.append(Collections.emptyList());
+            assertEquals(3, journal.getRecordCount());
+        }
+
+        Deque<InboundMessage> recent = new ArrayDeque<>();
+        try (InboundJournal journal = InboundJournal.open(file, recent, 10)) {
+            assertEquals(3, journal.getRecordCount());
+        }
+        assertEquals(3, recent.size());
+        InboundMessage first = recent.removeFirst();
+        assertEquals("10086", first.getOriginatingAddress());
+        assertEquals("hello", first.getBody());
+        assertEquals(1000L, first.getTimestampMillis());
+        assertEquals(1001L, first.getReceivedAtMillis());
+        assertEquals("你好", recent.removeFirst().getBody());
+        assertEquals("", recent.removeFirst().getBody());
+    }
+
+    @Test
+    public void replayKeepsOnlyMostRecentMessages() throws IOException {
+        File file = new File(folder.getRoot(), "inbox.journal");
+        try (InboundJournal journal = InboundJournal.open(file, new ArrayDeque<>(), 0)) {
+            for (int i = 0; i < 10; i++) {
+                journal.append(Collections.singletonList(message("10086", "message " + i, i)));
+            }
+        }
+
+        Deque<InboundMessage> recent = new ArrayDeque<>();
+        try (InboundJournal journal = InboundJournal.open(file, recent, 3)) {
+            assertEquals(10, journal.getRecordCount());
+        }
+        assertEquals(3, recent.size());
+        assertEquals("message 7", recent.getFirst().getBody());
+        assertEquals("message 9", recent.getLast().getBody());
+    }
+
+    @Test
+    public void corruptedTailIsTruncatedAndOverwritten() throws IOException {
+        File file = new File(folder.getRoot(), "inbox.journal");
+        try (InboundJournal journal = InboundJournal.open(file, new ArrayDeque<>(), 10)) {
+            journal.append(Arrays.asList(message("10086", "first", 1000L), message("10086", "second", 2000L)));
+        }
+        /* 翻转最后一条记录体末尾的一个字节，模拟写入中途被杀 */
+        long lastBodyByte = file.length() - 4 - 1;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(lastBodyByte);
+            int value = raf.read();
+            raf.seek(lastBodyByte);
+            raf.write(value ^ 0xff);
+        }
+
+        Deque<InboundMessage> recent = new ArrayDeque<>();
+        try (InboundJournal journal = InboundJournal.open(file, recent, 10)) {
+            assertEquals(1, journal.getRecordCount());
+            assertEquals(8 + recordBytes("first"), file.length());
+            journal.append(Collections.singletonList(message("10086", "third", 3000L)));
+        }
+        assertEquals(1, recent.size());
+        assertEquals("first", recent.getFirst().getBody());
+
+        recent.clear();
+        try (InboundJournal journal = InboundJournal.open(file, recent, 10)) {
+            assertEquals(2, journal.getRecordCount());
+        }
+        assertEquals("first", recent.removeFirst().getBody());
+        assertEquals("third", recent.removeFirst().getBody());
+    }
+
+    @Test
+    public void partialLengthPrefixIsTruncated() throws IOException {
+        File file = new File(folder.getRoot(), "inbox.journal");
+        try (InboundJournal journal = InboundJournal.open(file, new ArrayDeque<>(), 10)) {
+            journal.append(Collections.singletonList(message("10086", "first", 1000L)));
+        }
+        long validLength = file.length();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(validLength);
+            raf.write(new byte[] {0, 0});
+        }
+        try (InboundJournal journal = InboundJournal.open(file, new ArrayDeque<>(), 10)) {
+            assertEquals(1, journal.getRecordCount());
+        }
+        assertEquals(validLength, file.length());
+    }
+
+    @Test(expected = IOException.class)
+    public void foreignFileIsRejected() throws IOException {
+        File file = folder.newFile("other.bin");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.write("not a journal".getBytes(StandardCharsets.US_ASCII));
+        }
+        InboundJournal.open(file, new ArrayDeque<>(), 10).close();
+    }
+
+    @Test
+    public void compactKeepsOnlyRetainedMessages() throws IOException {
+        File file = new File(folder.getRoot(), "inbox.journal");
+        try (InboundJournal journal = InboundJournal.open(file, new ArrayDeque<>(), 10)) {
+            for (int i = 0; i < 5; i++) {
+                journal.append(Collections.singletonList(message("10086", "message " + i, i)));
+            }
+            List<InboundMessage> retained = Arrays.asList(message("10086", "message 3", 3L),
+                    message("10086", "message 4", 4L));
+            journal.compact(retained);
+            assertEquals(2, journal.getRecordCount());
+            journal.append(Collections.singletonList(message("10086", "message 5", 5L)));
+            assertEquals(3, journal.getRecordCount());
+        }
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+
+        Deque<InboundMessage> recent = new ArrayDeque<>();
+        try (InboundJournal journal = InboundJournal.open(file, recent, 10)) {
+            assertEquals(3, journal.getRecordCount());
+        }
+        assertEquals("message 3", recent.getFirst().getBody());
+        assertEquals("message 5", recent.getLast().getBody());
+        assertTrue(file.length() < 8 + 5 * recordBytes("message 0"));
+    }
+
+    private static InboundMessage message(String address, String body, long timestampMillis) {
+        return new InboundMessage(address, body, timestampMillis, timestampMillis + 1);
+    }
+
+    /* 记录体：两个时间戳、地址和正文各带 int 字节数 */
+    private static int recordBytes(String body) {
+        return 4 + 8 + 8 + 4 + "10086".length() + 4 + body.getBytes(StandardCharsets.UTF_8).length + 4;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.inbound;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link MultipartReassembler} 的单元测试：乱序重组、重复分段、分组数超限和超时丢弃后重传分段的重组
+ *
+ * @since 2026-10-17
+ */
+public class MultipartReassemblerTest {
+    private static final String ADDRESS = "10086";
+    private static final long TIMEOUT_MILLIS = 60_000L;
+
+    @Test
+    public void singlePartIsReturnedImmediately() {
+        MultipartReassembler reassembler = new MultipartReassembler(4, TIMEOUT_MILLIS);
+        InboundMessage message = reassembler.add(ADDRESS, "hello", 1000L, 0, 1, 1, 2000L);
+        assertNotNull(message);
+        assertEquals("hello", message.getBody());
+        assertEquals(1000L, message.getTimestampMillis());
+        assertEquals(2000L, message.getReceivedAtMillis());
+        assertEquals(0, reassembler.getPendingCount());
+    }
+
+    @Test
+    public void invalidConcatInfoIsTreatedAsSinglePart() {
+        MultipartReassembler reassembler = new MultipartReassembler(4, TIMEOUT_MILLIS);
+        assertEquals("a", reassembler.add(ADDRESS, "a", 1000L, 7, 3, 2, 2000L).getBody());
+        assertEquals("b", reassembler.add(ADDRESS, "b", 1000L, 7, 0, 2, 2000L).getBody());
+        assertEquals(0, reassembler.getPendingCount());
+    }
+
+    @Test
+    public void partsAreJoinedInIndexOrder() {
+        MultipartReassembler reassembler = new MultipartReassembler(4, TIMEOUT_MILLIS);
+        assertNull(reassembler.add(ADDRESS, "c", 1002L, 7, 3, 3, 2000L));
+        assertNull(reassembler.add(ADDRESS, "a", 1000L, 7, 1, 3, 2001L));
+        assertEquals(1, reassembler.getPendingCount());
+        InboundMessage message = reassembler.add(ADDRESS, "b", 1001L, 7, 2, 3, 2002L);
+        assertNotNull(message);
+        assertEquals("abc", message.getBody());
+        /* 短信时间戳取第一段的时间戳 */
+        assertEquals(1000L, message.getTimestampMillis());
+        assertEquals(2002L, message.getReceivedAtMillis());
+        assertEquals(0, reassembler.getPendingCount());
+    }
+
+    @Test
+    public void duplicatePartOfPendingGroupIsCounted() {
+        MultipartReassembler reassembler = new MultipartReassembler(4, TIMEOUT_MILLIS);
+        assertNull(reassembler.add(ADDRESS, "a", 1000L, 7, 1, 2, 2000L));
+        assertNull(reassembler.add(ADDRESS, "a", 1000L, 7, 1, 2, 2001L));
+        assertEquals(1L, reassembler.getDuplicateCount());
+        assertEquals("ab", reassembler.add(ADDRESS, "b", 1001L, 7, 2, 2, 2002L).getBody());
+    }
+
+    @Test
+    public void lateRetransmitOfCompletedMessageLeavesNoGroup() {
+        MultipartReassembler reassembler = new MultipartReassembler(4, TIMEOUT_MILLIS);
+        reassembler.add(ADDRESS, "a", 1000L, 7, 1, 2, 2000L);
+        assertNotNull(reassembler.add(ADDRESS, "b", 1001L, 7, 2, 2, 2001L));
+        assertNull(reassembler.add(ADDRESS, "b", 1001L, 7, 2, 2, 5000L));
+        assertNull(reassembler.add(ADDRESS, "a", 1000L, 7, 1, 2, 5001L));
+        assertEquals(2L, reassembler.getDuplicateCount());
+        assertEquals(0, reassembler.getPendingCount());
+    }
+
+    @Test
+    public void sameReferenceWithNewContentIsReassembledAgain() {
+        MultipartReassembler reassembler = new MultipartReassembler(4, TIMEOUT_MILLIS);
+        reassembler.add(ADDRESS, "a", 1000L, 7, 1, 2, 2000L);
+        reassembler.add(ADDRESS, "b", 1001L, 7, 2, 2, 2001L);
+        /* 参考号只有一个字节，发送方会循环使用 */
+        assertNull(reassembler.add(ADDRESS, "c", 9000L, 7, 1, 2, 9500L));
+        assertEquals("cd", reassembler.add(ADDRESS, "d", 9001L, 7, 2, 2, 9501L).getBody());
+        assertEquals(0L, reassembler.getDuplicateCount());
+    }
+
+    @Test
+    public void oldestGroupIsDroppedWhenFullAndRetransmitIsReassembled() {
+        MultipartReassembler reassembler = new MultipartReassembler(2, TIMEOUT_MILLIS);
+        assertNull(reassembler.add(ADDRESS, "a", 1000L, 1, 1, 2, 2000L));
+        assertNull(reassembler.add(ADDRESS, "x", 1000L, 2, 1, 2, 2001L));
+        assertNull(reassembler.add(ADDRESS, "y", 1000L, 3, 1, 2, 2002L));
+        assertEquals(2, reassembler.getPendingCount());
+        assertEquals(1L, reassembler.getDroppedCount());
+
+        /* 被丢弃分组的分段重传后重新分组，不被当作重复 */
+        assertNull(reassembler.add(ADDRESS, "a", 1000L, 1, 1, 2, 3000L));
+        InboundMessage message = reassembler.add(ADDRESS, "b", 1001L, 1, 2, 2, 3001L);
+        assertNotNull(message);
+        assertEquals("ab", message.getBody());
+        assertEquals(0L, reassembler.getDuplicateCount());
+    }
+
+    @Test
+    public void expiredGroupIsDroppedAndRetransmitIsReassembled() {
+        MultipartReassembler reassembler = new MultipartReassembler(4, TIMEOUT_MILLIS);
+        assertNull(reassembler.add(ADDRESS, "a", 1000L, 7, 1, 2, 2000L));
+        reassembler.expire(2000L + TIMEOUT_MILLIS - 1);
+        assertEquals(1, reassembler.getPendingCount());
+        reassembler.expire(2000L + TIMEOUT_MILLIS);
+        assertEquals(0, reassembler.getPendingCount());
+        assertEquals(1L, reassembler.getDroppedCount());
+
+        long now = 3000L + TIMEOUT_MILLIS;
+        assertNull(reassembler.add(ADDRESS, "b", 1001L, 7, 2, 2, now));
+        assertEquals("ab", reassembler.add(ADDRESS, "a", 1000L, 7, 1, 2, now + 1).getBody());
+        assertEquals(0L, reassembler.getDuplicateCount());
+    }
+
+    @Test
+    public void groupsAreKeyedBySenderAndPartCount() {
+        MultipartReassembler reassembler = new MultipartReassembler(4, TIMEOUT_MILLIS);
+        assertNull(reassembler.add(ADDRESS, "a", 1000L, 7, 1, 2, 2000L));
+        assertNull(reassembler.add("10010", "x", 1000L, 7, 2, 2, 2000L));
+        assertNull(reassembler.add(ADDRESS, "p", 1000L, 7, 2, 3, 2000L));
+        assertEquals(3, reassembler.getPendingCount());
+        assertEquals("ab", reassembler.add(ADDRESS, "b", 1001L, 7, 2, 2, 2001L).getBody());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsInvalidLimits() {
+        new MultipartReassembler(0, TIMEOUT_MILLIS);
+    }
+}
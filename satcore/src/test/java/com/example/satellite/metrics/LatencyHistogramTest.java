@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.metrics;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link LatencyHistogram} 和 {@link HistogramSnapshot} 的单元测试：分桶边界、分位数误差和并发记录
+ *
+ * @since 2026-10-17
+ */
+public class LatencyHistogramTest {
+    @Test
+    public void bucketsCoverEveryValueWithinRelativePrecision() {
+        Random random = new Random(1);
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong() >>> (1 + random.nextInt(63));
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(index >= 0 && index < LatencyHistogram.BUCKET_COUNT);
+            long low = LatencyHistogram.bucketLowerBound(index);
+            long high = LatencyHistogram.bucketUpperBound(index);
+            assertTrue(value + " not in [" + low + ", " + high + "]", low <= value && value <= high);
+            assertTrue(high - low <= low / LatencyHistogram.SUB_BUCKET_COUNT);
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void bucketsAreContiguous() {
+        for (int index = 1; index < LatencyHistogram.BUCKET_COUNT; index++) {
+            assertEquals(LatencyHistogram.bucketUpperBound(index - 1) + 1, LatencyHistogram.bucketLowerBound(index));
+        }
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 50; value++) {
+            histogram.record(value);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(50, snapshot.getCount());
+        assertEquals(1, snapshot.getMin());
+        assertEquals(50, snapshot.getMax());
+        assertEquals(25.5, snapshot.getMean(), 1e-9);
+        assertEquals(25, snapshot.getValueAtPercentile(50));
+        assertEquals(45, snapshot.getValueAtPercentile(90));
+        assertEquals(1, snapshot.getValueAtPercentile(0));
+        assertEquals(50, snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void percentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int count = 100_000;
+        for (int value = 1; value <= count; value++) {
+            histogram.record(value * 1000L);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        for (int percentile : new int[] {1, 25, 50, 90, 99}) {
+            long expected = percentile * (count / 100) * 1000L;
+            long actual = snapshot.getValueAtPercentile(percentile);
+            assertTrue("p" + percentile + " = " + actual,
+                    Math.abs(actual - expected) <= expected / LatencyHistogram.SUB_BUCKET_COUNT);
+        }
+        assertEquals(count * 1000L, snapshot.getMax());
+    }
+
+    @Test
+    public void emptyAndNegativeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        HistogramSnapshot empty = histogram.snapshot();
+        assertEquals(0, empty.getCount());
+        assertEquals(0, empty.getMin());
+        assertEquals(0, empty.getMax());
+        assertEquals(0, empty.getValueAtPercentile(99));
+        assertEquals(0.0, empty.getMean(), 0.0);
+
+        histogram.record(-5);
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(1, snapshot.getCount());
+        assertEquals(0, snapshot.getMax());
+        assertEquals(0, snapshot.getValueAtPercentile(50));
+    }
+
+    @Test
+    public void concurrentRecordsAreAllCounted() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        int threads = 4;
+        int perThread = 50_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            Thread worker = new Thread(() -> {
+                for (int i = 1; i <= perThread; i++) {
+                    histogram.record(i + offset);
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals((long) threads * perThread, snapshot.getCount());
+        assertEquals(1, snapshot.getMin());
+        assertEquals(perThread + threads - 1, snapshot.getMax());
+        long bucketTotal = 0;
+        for (long bucket : snapshot.getBucketCounts()) {
+            bucketTotal += bucket;
+        }
+        assertEquals(snapshot.getCount(), bucketTotal);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.metrics;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link MetricsSnapshot} 二进制格式的单元测试：写出后读回的计数和直方图与原快照一致
+ *
+ * @since 2026-10-17
+ */
+public class MetricsSnapshotTest {
+    @Test
+    public void binaryFormatRoundTrips() throws IOException {
+        AtomicLong clock = new AtomicLong();
+        SatelliteMetrics metrics = new SatelliteMetrics(clock::get);
+        for (int i = 1; i <= 100; i++) {
+            long start = metrics.nowNanos();
+            clock.addAndGet(i * 1_000_000L);
+            metrics.recordSince(SatelliteMetrics.Latency.SEND_TO_SENT, start);
+            metrics.count(SatelliteMetrics.Callback.SMS_SENT);
+        }
+        metrics.count(SatelliteMetrics.Callback.POINTING);
+        MetricsSnapshot snapshot = metrics.snapshot();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        snapshot.writeTo(out);
+        MetricsSnapshot read = MetricsSnapshot.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(snapshot.getWallTimeMillis(), read.getWallTimeMillis());
+        assertEquals(snapshot.getElapsedNanos(), read.getElapsedNanos());
+        for (SatelliteMetrics.Callback callback : SatelliteMetrics.Callback.values()) {
+            assertEquals(snapshot.getCount(callback), read.getCount(callback));
+        }
+        for (SatelliteMetrics.Latency latency : SatelliteMetrics.Latency.values()) {
+            HistogramSnapshot expected = snapshot.getLatency(latency);
+            HistogramSnapshot actual = read.getLatency(latency);
+            assertEquals(expected.getCount(), actual.getCount());
+            assertEquals(expected.getSum(), actual.getSum());
+            assertEquals(expected.getMin(), actual.getMin());
+            assertEquals(expected.getMax(), actual.getMax());
+            assertArrayEquals(expected.getBucketCounts(), actual.getBucketCounts());
+        }
+        assertEquals(100, read.getCount(SatelliteMetrics.Callback.SMS_SENT));
+        assertEquals(100_000L, read.getLatency(SatelliteMetrics.Latency.SEND_TO_SENT).getMax());
+    }
+}
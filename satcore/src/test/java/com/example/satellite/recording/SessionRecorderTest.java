@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) Honor Device Co., Ltd. 2026-2026. All rights reserved.
+ */
+
+package com.example.satellite.recording;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link SessionRecorder} 和 {@link SessionRecording} 的单元测试：跨块的列式编解码往返、CRC 校验截断损坏的块、
+ * 未写满的块在刷新前不可见
+ *
+ * @since 2026-10-17
+ */
+public class SessionRecorderTest {
+    private static final double ANGLE_DELTA = 0.5 / SessionRecorder.ANGLE_SCALE;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicLong clock = new AtomicLong(5_000_000_000L);
+
+    @Test
+    public void eventsRoundTripAcrossBlocks() throws IOException {
+        File file = new File(folder.getRoot(), "sessions/session.rec");
+        int rounds = 200;
+        try (SessionRecorder recorder = SessionRecorder.create(file, clock::get)) {
+            for (int i = 0; i < rounds; i++) {
+                tick(i);
+                recorder.recordPointing(30 + i * 0.001, 359.999, Double.NaN, -12.3456, i, 0);
+                tick(i);
+                recorder.recordServiceState(i % 5 - 1);
+                tick(i);
+                recorder.recordSignalLevel(i % 6);
+                tick(i);
+                recorder.recordEnableResult(i % 2 == 0);
+                tick(i);
+                recorder.recordSmsSent(1000L + i, i % 3 == 0 ? -1 : 4);
+                tick(i);
+                recorder.recordSmsDelivery(1000L + i - (i % 7), -1);
+            }
+            assertEquals(rounds * 6L, recorder.getRecordedEvents());
+        }
+
+        SessionRecording recording = SessionRecording.read(file);
+        assertEquals(rounds * 6, recording.getEventCount());
+        long time = 0;
+        for (int i = 0; i < rounds; i++) {
+            int base = i * 6;
+            for (int j = 0; j < 6; j++) {
+                time += 1000L + i;
+                assertEquals(time, recording.getTimeNanos(base + j));
+            }
+            assertEquals(SessionRecording.TYPE_POINTING, recording.getType(base));
+            assertEquals(30 + i * 0.001, recording.getAngle(base, 0), ANGLE_DELTA);
+            assertEquals(359.999, recording.getAngle(base, 1), ANGLE_DELTA);
+            assertTrue(Double.isNaN(recording.getAngle(base, 2)));
+            assertEquals(-12.3456, recording.getAngle(base, 3), ANGLE_DELTA);
+            assertEquals(i, recording.getAngle(base, 4), ANGLE_DELTA);
+            assertEquals(SessionRecording.TYPE_SERVICE_STATE, recording.getType(base + 1));
+            assertEquals(i % 5 - 1, recording.getIntValue(base + 1));
+            assertEquals(SessionRecording.TYPE_SIGNAL_LEVEL, recording.getType(base + 2));
+            assertEquals(i % 6, recording.getIntValue(base + 2));
+            assertEquals(SessionRecording.TYPE_ENABLE_RESULT, recording.getType(base + 3));
+            assertEquals(i % 2 == 0 ? 1 : 0, recording.getIntValue(base + 3));
+            assertEquals(SessionRecording.TYPE_SMS_SENT, recording.getType(base + 4));
+            assertEquals(1000L + i, recording.getMessageId(base + 4));
+            assertEquals(i % 3 == 0 ? -1 : 4, recording.getIntValue(base + 4));
+            assertEquals(SessionRecording.TYPE_SMS_DELIVERY, recording.getType(base + 5));
+            assertEquals(1000L + i - (i % 7), recording.getMessageId(base + 5));
+        }
+        assertEquals(time, recording.getDurationNanos());
+    }
+
+    @Test
+    public void corruptedBlockEndsTheRecording() throws IOException {
+        File file = folder.newFile("session.rec");
+        int events = SessionRecorder.BLOCK_EVENTS + 10;
+        try (SessionRecorder recorder = SessionRecorder.create(file, clock::get)) {
+            for (int i = 0; i < events; i++) {
+                tick(i);
+                recorder.recordSignalLevel(i % 6);
+            }
+        }
+        /* 最后一块的块体末字节紧挨着 CRC */
+        long lastBodyByte = file.length() - 5;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(lastBodyByte);
+            int value = raf.read();
+            raf.seek(lastBodyByte);
+            raf.write(value ^ 0x01);
+        }
+
+        SessionRecording recording = SessionRecording.read(file);
+        assertEquals(SessionRecorder.BLOCK_EVENTS, recording.getEventCount());
+        assertEquals((SessionRecorder.BLOCK_EVENTS - 1) % 6, recording.getIntValue(SessionRecorder.BLOCK_EVENTS - 1));
+    }
+
+    @Test
+    public void partialBlockIsVisibleOnlyAfterFlush() throws IOException {
+        File file = folder.newFile("session.rec");
+        try (SessionRecorder recorder = SessionRecorder.create(file, clock::get)) {
+            recorder.recordServiceState(2);
+            recorder.recordSignalLevel(3);
+            assertEquals(0, SessionRecording.read(file).getEventCount());
+            recorder.flush();
+            recorder.recordServiceState(0);
+            SessionRecording recording = SessionRecording.read(file);
+            assertEquals(2, recording.getEventCount());
+            assertEquals(2, recording.getIntValue(0));
+            assertEquals(3, recording.getIntValue(1));
+            assertEquals(3, recorder.getRecordedEvents());
+        }
+        assertEquals(3, SessionRecording.read(file).getEventCount());
+    }
+
+    @Test
+    public void closedRecorderRejectsEvents() throws IOException {
+        SessionRecorder recorder = SessionRecorder.create(folder.newFile("session.rec"), clock::get);
+        recorder.close();
+        recorder.close();
+        try {
+            recorder.recordServiceState(1);
+            fail("recorded after close");
+        } catch (IOException expected) {
+            assertEquals("recorder closed", expected.getMessage());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void readRejectsOtherFiles() throws IOException {
+        File file = folder.newFile("other.bin");
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.writeLong(0x1234L);
+            raf.writeLong(0x5678L);
+        }
+        SessionRecording.read(file);
+    }
+
+    private void tick(int round) {
+        clock.addAndGet(1000L + round);
+    }
+}